@@ -0,0 +1,297 @@
+package com.practice.currencyconverter.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process rates client without any Spring dependency. It keeps the
+ * current snapshot of one base in memory, refreshes it in the background
+ * and answers {@link #rate(String, String)} and
+ * {@link #convert(double, String, String)} locally.
+ *
+ * <p>The URL template is either the provider's, the same one the
+ * application uses, or {@code /api/v1/rates?base=%s} of a running
+ * application so that the embedding services do not spend the upstream
+ * quota.
+ */
+public final class RatesClient implements AutoCloseable {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final System.Logger LOGGER =
+            System.getLogger(RatesClient.class.getName());
+    /**
+     * HTTP Status OK value.
+     */
+    private static final int HTTP_STATUS_OK = 200;
+    /**
+     * Rates URL with a %s placeholder for the base currency.
+     */
+    private final String urlTemplate;
+    /**
+     * Base currency.
+     */
+    private final String base;
+    /**
+     * Interval between background refreshes.
+     */
+    private final Duration refreshInterval;
+    /**
+     * Request timeout.
+     */
+    private final Duration timeout;
+    /**
+     * HTTP client.
+     */
+    private final HttpClient httpClient;
+    /**
+     * JSON mapper.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    /**
+     * Background refresh scheduler.
+     */
+    private final ScheduledExecutorService scheduler;
+    /**
+     * Current rates, replaced on every successful refresh.
+     */
+    private volatile RatesTable table;
+
+    private RatesClient(final ClientBuilder builder) {
+        this.urlTemplate = builder.urlTemplate;
+        this.base = builder.base;
+        this.refreshInterval = builder.refreshInterval;
+        this.timeout = builder.timeout;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout).build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "rates-client-" + base);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * ClientBuilder object.
+     *
+     * @return client builder object
+     */
+    public static ClientBuilder builder() {
+        return new ClientBuilder();
+    }
+
+    /**
+     * Load the rates once and keep refreshing them in the background.
+     * A failed load is retried at the next refresh.
+     *
+     * @return this client
+     */
+    public RatesClient start() {
+        refreshQuietly();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly,
+                refreshInterval.toMillis(), refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Fetch the rates now.
+     *
+     * @return the new snapshot
+     * @throws IOException          failed request or unexpected response
+     * @throws InterruptedException interrupted while waiting
+     */
+    public RatesSnapshot refresh() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(String.format(urlTemplate, base)))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET().build();
+        HttpResponse<String> response = httpClient.send(request,
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != HTTP_STATUS_OK) {
+            throw new IOException("Rates request failed with status "
+                    + response.statusCode());
+        }
+        RatesTable current = table;
+        long version = current == null ? 1
+                : current.getSnapshot().getVersion() + 1;
+        RatesSnapshot snapshot = RatesSnapshot.of(parse(response.body()),
+                version, Instant.now());
+        table = new RatesTable(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Rate to convert one unit of a currency into another.
+     *
+     * @param from source currency
+     * @param to   target currency
+     * @return rate
+     */
+    public double rate(final String from, final String to) {
+        return currentTable().rate(from, to);
+    }
+
+    /**
+     * Convert an amount from a currency into another.
+     *
+     * @param amount amount
+     * @param from   source currency
+     * @param to     target currency
+     * @return converted amount
+     */
+    public double convert(final double amount, final String from,
+                          final String to) {
+        return amount * rate(from, to);
+    }
+
+    /**
+     * Current snapshot.
+     *
+     * @return snapshot, empty until the first successful refresh
+     */
+    public Optional<RatesSnapshot> snapshot() {
+        RatesTable current = table;
+        return current == null ? Optional.empty()
+                : Optional.of(current.getSnapshot());
+    }
+
+    /**
+     * Stop the background refresh.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private RatesTable currentTable() {
+        RatesTable current = table;
+        if (current == null) {
+            throw new IllegalStateException("No " + base
+                    + " rates loaded yet");
+        }
+        return current;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.WARNING,
+                    "Refreshing " + base + " rates failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CurrencyConverter parse(final String body) throws IOException {
+        JsonNode root = objectMapper.readTree(body);
+        Map<String, Double> rates = new HashMap<>();
+        root.path("rates").fields().forEachRemaining(entry ->
+                rates.put(entry.getKey(), entry.getValue().asDouble()));
+        LocalDate date = root.hasNonNull("date")
+                ? LocalDate.parse(root.get("date").asText()) : null;
+        return new CurrencyConverter(rates, root.path("base").asText(base),
+                date);
+    }
+
+    public static final class ClientBuilder {
+        /**
+         * Default refresh interval.
+         */
+        private static final Duration DEFAULT_REFRESH = Duration.ofHours(1);
+        /**
+         * Default request timeout.
+         */
+        private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+        /**
+         * Rates URL with a %s placeholder for the base currency.
+         */
+        private String urlTemplate =
+                "https://api.exchangeratesapi.io/latest?base=%s";
+        /**
+         * Base currency.
+         */
+        private String base = "EUR";
+        /**
+         * Interval between background refreshes.
+         */
+        private Duration refreshInterval = DEFAULT_REFRESH;
+        /**
+         * Request timeout.
+         */
+        private Duration timeout = DEFAULT_TIMEOUT;
+
+        /**
+         * Set rates URL template.
+         *
+         * @param urlTemplate rates URL with a %s placeholder for the base
+         * @return client builder
+         */
+        public ClientBuilder setUrlTemplate(final String urlTemplate) {
+            this.urlTemplate = urlTemplate;
+            return this;
+        }
+
+        /**
+         * Set base currency.
+         *
+         * @param base base currency
+         * @return client builder
+         */
+        public ClientBuilder setBase(final String base) {
+            this.base = base;
+            return this;
+        }
+
+        /**
+         * Set refresh interval.
+         *
+         * @param refreshInterval interval between background refreshes
+         * @return client builder
+         */
+        public ClientBuilder setRefreshInterval(
+                final Duration refreshInterval) {
+            this.refreshInterval = refreshInterval;
+            return this;
+        }
+
+        /**
+         * Set request timeout.
+         *
+         * @param timeout request timeout
+         * @return client builder
+         */
+        public ClientBuilder setTimeout(final Duration timeout) {
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Build client.
+         *
+         * @return rates client, not started
+         */
+        public RatesClient createClient() {
+            return new RatesClient(this);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.practice.currencyconverter.client;
+
+import com.practice.currencyconverter.model.RatesSnapshot;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rates of a snapshot flattened into sorted parallel arrays, so a lookup
+ * is a binary search over a few hundred codes without boxing.
+ */
+final class RatesTable {
+    /**
+     * Snapshot the table was built from.
+     */
+    private final RatesSnapshot snapshot;
+    /**
+     * Currency codes in ascending order, including the base.
+     */
+    private final String[] codes;
+    /**
+     * Rate of each code against the base.
+     */
+    private final double[] rates;
+
+    RatesTable(final RatesSnapshot snapshot) {
+        Map<String, Double> sorted = new TreeMap<>(snapshot.getRates());
+        sorted.put(snapshot.getBase(), 1.0);
+        this.snapshot = snapshot;
+        this.codes = sorted.keySet().toArray(new String[0]);
+        this.rates = new double[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            rates[i] = sorted.get(codes[i]);
+        }
+    }
+
+    RatesSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    double rate(final String from, final String to) {
+        return rates[indexOf(to)] / rates[indexOf(from)];
+    }
+
+    private int indexOf(final String code) {
+        int index = Arrays.binarySearch(codes, code);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown currency " + code);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,8 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains the embeddable rates client. The client module depends on
+ * Jackson only, so classes in this package must not depend on Spring.
+ */
+package com.practice.currencyconverter.client;
@@ -0,0 +1,90 @@
+package com.practice.currencyconverter.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate table of a base currency. Tables are shared by reference between
+ * the caches, the history and every reader, so they are immutable.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CurrencyConverter {
+
+    /**
+     * Rate per currency code, unmodifiable.
+     */
+    private final Map<String, Double> rates;
+    /**
+     * Base currency.
+     */
+    private final String base;
+    /**
+     * Date the rates were published.
+     */
+    private final LocalDate date;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param rates rates, copied, null if the provider sent none
+     * @param base  base currency
+     * @param date  date
+     */
+    @JsonCreator
+    public CurrencyConverter(@JsonProperty("rates")
+                             final Map<String, Double> rates,
+                             @JsonProperty("base") final String base,
+                             @JsonProperty("date") final LocalDate date) {
+        this.rates = rates == null ? null
+                : Collections.unmodifiableMap(new HashMap<>(rates));
+        this.base = base;
+        this.date = date;
+    }
+
+    /**
+     * Getter for rates.
+     *
+     * @return rates
+     */
+    public Map<String, Double> getRates() {
+        return rates;
+    }
+
+    /**
+     * Getter for base currency.
+     *
+     * @return base currency
+     */
+    public String getBase() {
+        return base;
+    }
+
+    /**
+     * Getter for date.
+     *
+     * @return date
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Overridden toString method.
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return "CurrencyConverter{"
+                + "rates=" + rates
+                + ", base='" + base + '\''
+                + ", date='" + date + '\''
+                + '}';
+    }
+}
@@ -0,0 +1,169 @@
+package com.practice.currencyconverter.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Versioned rate table, immutable like every rate table, named by the
+ * hash of its content.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class RatesSnapshot extends CurrencyConverter {
+    /**
+     * Hexadecimal digits.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    /**
+     * Bits in a hexadecimal digit.
+     */
+    private static final int HEX_BITS = 4;
+    /**
+     * Mask of a hexadecimal digit.
+     */
+    private static final int HEX_MASK = 0xf;
+    /**
+     * Content-addressed id, the SHA-256 of the base, date and rates.
+     */
+    private final String id;
+    /**
+     * Version of the snapshot per base, 0 for snapshots that were not
+     * published, e.g. fallback rates or a subset of targets.
+     */
+    private final long version;
+    /**
+     * Time the rates were fetched.
+     */
+    private final Instant fetchedAt;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param base      base currency
+     * @param date      date of the rates
+     * @param rates     rates, copied
+     * @param version   version of the snapshot
+     * @param fetchedAt time the rates were fetched
+     */
+    @JsonCreator
+    public RatesSnapshot(@JsonProperty("base") final String base,
+                         @JsonProperty("date") final LocalDate date,
+                         @JsonProperty("rates")
+                         final Map<String, Double> rates,
+                         @JsonProperty("version") final long version,
+                         @JsonProperty("fetchedAt") final Instant fetchedAt) {
+        super(rates, base, date);
+        this.id = contentId(base, date, rates);
+        this.version = version;
+        this.fetchedAt = fetchedAt;
+    }
+
+    private RatesSnapshot(final RatesSnapshot source, final long version) {
+        super(source.getRates(), source.getBase(), source.getDate());
+        this.id = source.id;
+        this.version = version;
+        this.fetchedAt = source.fetchedAt;
+    }
+
+    private static String contentId(final String base, final LocalDate date,
+                                    final Map<String, Double> rates) {
+        StringBuilder canonical = new StringBuilder()
+                .append(base).append('\n').append(date).append('\n');
+        new TreeMap<>(rates).forEach((code, rate) -> canonical.append(code)
+                .append('=').append(rate).append('\n'));
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(
+                    canonical.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX[(digest[i] >> HEX_BITS) & HEX_MASK];
+            hex[2 * i + 1] = HEX[digest[i] & HEX_MASK];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Snapshot of the rates, without the base itself.
+     *
+     * @param rates     rates fetched from the provider
+     * @param version   version of the snapshot
+     * @param fetchedAt time the rates were fetched
+     * @return snapshot
+     */
+    public static RatesSnapshot of(final CurrencyConverter rates,
+                                   final long version,
+                                   final Instant fetchedAt) {
+        Map<String, Double> copy = new HashMap<>(rates.getRates());
+        copy.remove(rates.getBase());
+        return new RatesSnapshot(rates.getBase(), rates.getDate(), copy,
+                version, fetchedAt);
+    }
+
+    /**
+     * Copy of the snapshot with another version.
+     *
+     * @param newVersion version
+     * @return snapshot
+     */
+    public RatesSnapshot withVersion(final long newVersion) {
+        return new RatesSnapshot(this, newVersion);
+    }
+
+    /**
+     * Getter for the content-addressed id. Snapshots with the same base,
+     * date and rates share the id.
+     *
+     * @return id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Getter for version.
+     *
+     * @return version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Getter for fetch time.
+     *
+     * @return fetch time
+     */
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Overridden toString method.
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return "RatesSnapshot{"
+                + "id='" + id + '\''
+                + ", base='" + getBase() + '\''
+                + ", date='" + getDate() + '\''
+                + ", version=" + version
+                + ", fetchedAt=" + fetchedAt
+                + ", rates=" + getRates()
+                + '}';
+    }
+}
@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains the rates model shared by the application and the client.
+ */
+package com.practice.currencyconverter.model;
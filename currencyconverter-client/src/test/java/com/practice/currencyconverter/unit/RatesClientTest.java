@@ -0,0 +1,111 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.client.RatesClient;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatesClientTest {
+
+    private static final String HUF_RATES = "{\"rates\":{\"INR\":0.25,\"USD\":0.0033,\"HUF\":1.0},"
+            + "\"base\":\"HUF\",\"date\":\"2020-01-06\"}";
+
+    private HttpServer server;
+    private final AtomicReference<String> body = new AtomicReference<>(HUF_RATES);
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/latest", exchange -> {
+            requests.incrementAndGet();
+            byte[] bytes = body.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private RatesClient client() {
+        return RatesClient.builder()
+                .setUrlTemplate("http://127.0.0.1:" + server.getAddress().getPort() + "/latest?base=%s")
+                .setBase("HUF")
+                .setRefreshInterval(Duration.ofHours(1))
+                .setTimeout(Duration.ofSeconds(5))
+                .createClient();
+    }
+
+    @Test
+    void ratesAreAnsweredLocallyAfterStart() {
+        //GIVEN
+        try (RatesClient client = client().start()) {
+
+            //WHEN
+            double hufToInr = client.rate("HUF", "INR");
+            double inrToUsd = client.rate("INR", "USD");
+
+            //THEN
+            assertEquals(0.25, hufToInr);
+            assertEquals(0.0033 / 0.25, inrToUsd, 1e-12);
+            assertEquals(2.5, client.convert(10, "HUF", "INR"));
+            assertEquals(1, requests.get());
+            RatesSnapshot snapshot = client.snapshot().orElseThrow();
+            assertEquals(LocalDate.parse("2020-01-06"), snapshot.getDate());
+            assertNull(snapshot.getRates().get("HUF"));
+            assertThrows(IllegalArgumentException.class, () -> client.rate("HUF", "XXX"));
+        }
+    }
+
+    @Test
+    void failedRefreshKeepsTheLastRates() throws Exception {
+        //GIVEN
+        try (RatesClient client = client().start()) {
+            status.set(500);
+
+            //WHEN
+            //THEN
+            assertThrows(IOException.class, client::refresh);
+            assertEquals(0.25, client.rate("HUF", "INR"));
+
+            status.set(200);
+            body.set(HUF_RATES.replace("0.25", "0.26"));
+            assertEquals(2, client.refresh().getVersion());
+            assertEquals(0.26, client.rate("HUF", "INR"));
+        }
+    }
+
+    @Test
+    void ratesAreUnavailableUntilTheFirstSuccessfulLoad() {
+        //GIVEN
+        status.set(503);
+
+        //WHEN
+        try (RatesClient client = client().start()) {
+
+            //THEN
+            assertTrue(client.snapshot().isEmpty());
+            assertThrows(IllegalStateException.class, () -> client.rate("HUF", "INR"));
+        }
+    }
+}
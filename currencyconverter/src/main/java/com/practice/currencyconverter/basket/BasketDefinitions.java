@@ -0,0 +1,42 @@
+package com.practice.currencyconverter.basket;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Currency baskets configured under {@code via.rates.baskets}, each a
+ * fixed amount of every member currency, e.g.
+ * <pre>
+ * via.rates.baskets.SDR.USD: 0.58252
+ * via.rates.baskets.SDR.EUR: 0.38671
+ * </pre>
+ */
+@Component
+@ConfigurationProperties(prefix = "via.rates")
+public class BasketDefinitions {
+    /**
+     * Amount of each member currency per basket name.
+     */
+    private Map<String, Map<String, Double>> baskets = new HashMap<>();
+
+    /**
+     * Getter for the baskets.
+     *
+     * @return amount of each member currency per basket name
+     */
+    public Map<String, Map<String, Double>> getBaskets() {
+        return baskets;
+    }
+
+    /**
+     * Setter for the baskets.
+     *
+     * @param baskets amount of each member currency per basket name
+     */
+    public void setBaskets(final Map<String, Map<String, Double>> baskets) {
+        this.baskets = baskets;
+    }
+}
@@ -0,0 +1,173 @@
+package com.practice.currencyconverter.basket;
+
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.BasketQuote;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values of the configured currency baskets. Every basket is revalued
+ * once per complete rate table, so a quote is a lookup plus at most one
+ * multiplication however many baskets are defined.
+ */
+@Component
+public class BasketEngine {
+    /**
+     * Index of each basket by upper case name.
+     */
+    private final Map<String, Integer> indexByName = new HashMap<>();
+    /**
+     * Basket names by index.
+     */
+    private final String[] names;
+    /**
+     * Member currencies by basket index.
+     */
+    private final String[][] members;
+    /**
+     * Member amounts by basket index, in the order of the members.
+     */
+    private final double[][] amounts;
+    /**
+     * Basket values per base of the rate tables they were computed from.
+     */
+    private final Map<String, Valuation> valuations =
+            new ConcurrentHashMap<>();
+    /**
+     * Valuation of the last rate table.
+     */
+    private volatile Valuation latest;
+
+    /**
+     * Parameterized constructor to bind BasketDefinitions object.
+     *
+     * @param definitions BasketDefinitions object
+     */
+    public BasketEngine(final BasketDefinitions definitions) {
+        Map<String, Map<String, Double>> baskets = definitions.getBaskets();
+        names = new String[baskets.size()];
+        members = new String[baskets.size()][];
+        amounts = new double[baskets.size()][];
+        int index = 0;
+        for (Map.Entry<String, Map<String, Double>> basket
+                : baskets.entrySet()) {
+            names[index] = basket.getKey().toUpperCase(Locale.ROOT);
+            members[index] = new String[basket.getValue().size()];
+            amounts[index] = new double[basket.getValue().size()];
+            int member = 0;
+            for (Map.Entry<String, Double> amount
+                    : basket.getValue().entrySet()) {
+                members[index][member] = amount.getKey()
+                        .toUpperCase(Locale.ROOT);
+                amounts[index][member] = amount.getValue();
+                member++;
+            }
+            indexByName.put(names[index], index);
+            index++;
+        }
+    }
+
+    /**
+     * Names of the configured baskets.
+     *
+     * @return basket names
+     */
+    public Set<String> getNames() {
+        return indexByName.keySet();
+    }
+
+    /**
+     * Revalue the baskets with a complete rate table.
+     *
+     * @param event rates fetched event
+     */
+    @EventListener
+    public void onRatesFetched(final RatesFetchedEvent event) {
+        if (event.isComplete()) {
+            revalue(event.getRates());
+        }
+    }
+
+    /**
+     * Revalue every basket in the base of the rate table.
+     *
+     * @param rates complete rate table
+     */
+    public void revalue(final CurrencyConverter rates) {
+        Map<String, Double> table = rates.getRates();
+        double[] values = new double[names.length];
+        for (int basket = 0; basket < names.length; basket++) {
+            double value = 0;
+            for (int member = 0; member < members[basket].length; member++) {
+                String code = members[basket][member];
+                Double rate = code.equals(rates.getBase()) ? Double.valueOf(1)
+                        : table.get(code);
+                value += rate == null || rate == 0 ? Double.NaN
+                        : amounts[basket][member] / rate;
+            }
+            values[basket] = value;
+        }
+        Valuation valuation = new Valuation(rates, values);
+        valuations.put(rates.getBase(), valuation);
+        latest = valuation;
+    }
+
+    /**
+     * Value of one basket in the base currency. Bases no rate table was
+     * fetched for are converted from the last table that quotes them.
+     *
+     * @param name basket name
+     * @param base base currency
+     * @return quote, empty if the basket is unknown or can not be valued
+     */
+    public Optional<BasketQuote> quote(final String name, final String base) {
+        Integer index = indexByName.get(name.toUpperCase(Locale.ROOT));
+        if (index == null) {
+            return Optional.empty();
+        }
+        Valuation valuation = valuations.get(base);
+        double value;
+        if (valuation != null) {
+            value = valuation.values[index];
+        } else {
+            valuation = latest;
+            Double rate = valuation == null ? null
+                    : valuation.rates.getRates().get(base);
+            if (rate == null) {
+                return Optional.empty();
+            }
+            value = valuation.values[index] * rate;
+        }
+        if (Double.isNaN(value)) {
+            return Optional.empty();
+        }
+        return Optional.of(new BasketQuote(names[index], base, value,
+                valuation.rates.getDate()));
+    }
+
+    private static final class Valuation {
+        /**
+         * Rate table the values were computed from.
+         */
+        private final CurrencyConverter rates;
+        /**
+         * Basket values in the base of the table, NaN if a member is
+         * not quoted.
+         */
+        private final double[] values;
+
+        private Valuation(final CurrencyConverter rates,
+                          final double[] values) {
+            this.rates = rates;
+            this.values = values;
+        }
+    }
+}
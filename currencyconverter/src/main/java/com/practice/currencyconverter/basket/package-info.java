@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains currency basket related classes.
+ */
+package com.practice.currencyconverter.basket;
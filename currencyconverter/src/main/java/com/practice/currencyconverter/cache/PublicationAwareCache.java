@@ -0,0 +1,282 @@
+package com.practice.currencyconverter.cache;
+
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Cache decorator that keeps rates until the provider's next expected
+ * publication. When the provider is late, the entry is polled again
+ * with an exponential backoff instead of a fixed interval, or with the
+ * longest interval while the upstream quota is being saved. Fallback
+ * values, served while the provider is down, are only kept for the first
+ * backoff interval.
+ */
+public class PublicationAwareCache implements Cache {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(PublicationAwareCache.class);
+    /**
+     * Underlying cache.
+     */
+    private final Cache delegate;
+    /**
+     * Publication calendar.
+     */
+    private final PublicationCalendar calendar;
+    /**
+     * Clock to read the current time.
+     */
+    private final Clock clock;
+    /**
+     * Whether the upstream quota is being saved.
+     */
+    private final BooleanSupplier quotaSaving;
+    /**
+     * Whether a value is a fallback rather than rates of the provider.
+     */
+    private final Predicate<Object> fallback;
+    /**
+     * Number of consecutive stale responses per key.
+     */
+    private final Map<Object, Integer> staleAttempts =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param delegate underlying cache
+     * @param calendar publication calendar
+     * @param clock    clock to read the current time
+     */
+    public PublicationAwareCache(final Cache delegate,
+                                 final PublicationCalendar calendar,
+                                 final Clock clock) {
+        this(delegate, calendar, clock, () -> false);
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param delegate    underlying cache
+     * @param calendar    publication calendar
+     * @param clock       clock to read the current time
+     * @param quotaSaving whether the upstream quota is being saved
+     */
+    public PublicationAwareCache(final Cache delegate,
+                                 final PublicationCalendar calendar,
+                                 final Clock clock,
+                                 final BooleanSupplier quotaSaving) {
+        this(delegate, calendar, clock, quotaSaving, value -> false);
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param delegate    underlying cache
+     * @param calendar    publication calendar
+     * @param clock       clock to read the current time
+     * @param quotaSaving whether the upstream quota is being saved
+     * @param fallback    whether a value is a fallback of the provider
+     */
+    public PublicationAwareCache(final Cache delegate,
+                                 final PublicationCalendar calendar,
+                                 final Clock clock,
+                                 final BooleanSupplier quotaSaving,
+                                 final Predicate<Object> fallback) {
+        this.delegate = delegate;
+        this.calendar = calendar;
+        this.clock = clock;
+        this.quotaSaving = quotaSaving;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Getter for cache name.
+     *
+     * @return cache name
+     */
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    /**
+     * Getter for native cache.
+     *
+     * @return native cache
+     */
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    /**
+     * Get the value if it has not expired.
+     *
+     * @param key cache key
+     * @return value wrapper or null
+     */
+    @Override
+    public ValueWrapper get(final Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Entry entry = (Entry) wrapper.get();
+        if (entry == null || !clock.instant().isBefore(entry.expiresAt)) {
+            LOGGER.debug("Cache entry {} expired", key);
+            delegate.evict(key);
+            return null;
+        }
+        return new SimpleValueWrapper(entry.value);
+    }
+
+    /**
+     * Get the value if it has not expired.
+     *
+     * @param key  cache key
+     * @param type value type
+     * @param <T>  value type
+     * @return value or null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of "
+                    + "required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    /**
+     * Get the value, loading and caching it if absent or expired.
+     *
+     * @param key         cache key
+     * @param valueLoader value loader
+     * @param <T>         value type
+     * @return value
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Put the value with an expiry derived from the publication calendar.
+     *
+     * @param key   cache key
+     * @param value value
+     */
+    @Override
+    public void put(final Object key, final Object value) {
+        Instant expiresAt = expiryFor(key, value);
+        LOGGER.debug("Caching {} until {}", key, expiresAt);
+        delegate.put(key, new Entry(value, expiresAt));
+    }
+
+    /**
+     * Put the value if there is no live value.
+     *
+     * @param key   cache key
+     * @param value value
+     * @return existing value wrapper or null
+     */
+    @Override
+    public ValueWrapper putIfAbsent(final Object key, final Object value) {
+        ValueWrapper existing = get(key);
+        if (existing == null) {
+            put(key, value);
+        }
+        return existing;
+    }
+
+    /**
+     * Evict the key.
+     *
+     * @param key cache key
+     */
+    @Override
+    public void evict(final Object key) {
+        delegate.evict(key);
+        staleAttempts.remove(key);
+    }
+
+    /**
+     * Clear the cache.
+     */
+    @Override
+    public void clear() {
+        delegate.clear();
+        staleAttempts.clear();
+    }
+
+    private Instant expiryFor(final Object key, final Object value) {
+        Instant now = clock.instant();
+        Instant nextPublication = calendar.nextPublication(now).toInstant();
+        if (fallback.test(value)) {
+            Instant retryAt = now.plus(calendar.backoff(0));
+            LOGGER.debug("Fallback rates for {} until {}", key, retryAt);
+            return retryAt.isBefore(nextPublication)
+                    ? retryAt : nextPublication;
+        }
+        LocalDate date = value instanceof CurrencyConverter
+                ? ((CurrencyConverter) value).getDate() : null;
+        if (date != null
+                && date.isBefore(calendar.latestPublicationDate(now))) {
+            int attempt = staleAttempts.merge(key, 1, Integer::sum) - 1;
+            Instant retryAt = now.plus(quotaSaving.getAsBoolean()
+                    ? calendar.getMaxBackoff() : calendar.backoff(attempt));
+            LOGGER.debug("Rates for {} dated {} are not published yet, "
+                    + "attempt {}", key, date, attempt);
+            return retryAt.isBefore(nextPublication)
+                    ? retryAt : nextPublication;
+        }
+        staleAttempts.remove(key);
+        return nextPublication;
+    }
+
+    private static final class Entry {
+        /**
+         * Cached value.
+         */
+        private final Object value;
+        /**
+         * Expiry instant.
+         */
+        private final Instant expiresAt;
+
+        private Entry(final Object value, final Instant expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
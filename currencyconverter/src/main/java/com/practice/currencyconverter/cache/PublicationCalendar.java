@@ -0,0 +1,178 @@
+package com.practice.currencyconverter.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+public class PublicationCalendar {
+    /**
+     * Upper bound for the number of backoff doublings.
+     */
+    private static final int MAX_DOUBLINGS = 16;
+    /**
+     * Days to look ahead or back before giving up on finding a
+     * publication day.
+     */
+    private static final int MAX_SEARCH_DAYS = 366;
+    /**
+     * Time of the day the provider publishes new rates.
+     */
+    private final LocalTime publicationTime;
+    /**
+     * Time zone of the publication time.
+     */
+    private final ZoneId zone;
+    /**
+     * Days of the week the provider publishes new rates.
+     */
+    private final Set<DayOfWeek> publicationDays;
+    /**
+     * Dates without publication.
+     */
+    private final Set<LocalDate> holidays;
+    /**
+     * First poll interval when the provider is late.
+     */
+    private final Duration initialBackoff;
+    /**
+     * Longest poll interval when the provider is late.
+     */
+    private final Duration maxBackoff;
+
+    /**
+     * Parameterized constructor to bind the publication calendar.
+     *
+     * @param publicationTime publication time, e.g. 16:00
+     * @param zone            time zone of the publication time
+     * @param publicationDays comma separated days of the week
+     * @param holidays        comma separated ISO dates without publication
+     * @param initialBackoff  ISO-8601 duration of the first poll interval
+     * @param maxBackoff      ISO-8601 duration of the longest poll interval
+     */
+    public PublicationCalendar(
+            @Value("${via.rates.publication.time:16:00}")
+            final String publicationTime,
+            @Value("${via.rates.publication.zone:CET}") final String zone,
+            @Value("${via.rates.publication.days:MONDAY,TUESDAY,WEDNESDAY,"
+                    + "THURSDAY,FRIDAY}") final String publicationDays,
+            @Value("${via.rates.publication.holidays:}")
+            final String holidays,
+            @Value("${via.rates.publication.backoff.initial:PT5M}")
+            final String initialBackoff,
+            @Value("${via.rates.publication.backoff.max:PT1H}")
+            final String maxBackoff) {
+        this.publicationTime = LocalTime.parse(publicationTime.trim());
+        this.zone = ZoneId.of(zone.trim());
+        this.publicationDays = split(publicationDays).stream()
+                .map(DayOfWeek::valueOf)
+                .collect(Collectors.toCollection(
+                        () -> EnumSet.noneOf(DayOfWeek.class)));
+        this.holidays = split(holidays).stream().map(LocalDate::parse)
+                .collect(Collectors.toSet());
+        this.initialBackoff = Duration.parse(initialBackoff.trim());
+        this.maxBackoff = Duration.parse(maxBackoff.trim());
+        if (this.publicationDays.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "At least one publication day is required");
+        }
+    }
+
+    private static Set<String> split(final String values) {
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * To check whether the provider publishes rates on the date.
+     *
+     * @param date date
+     * @return true or false
+     */
+    public boolean isPublicationDay(final LocalDate date) {
+        return publicationDays.contains(date.getDayOfWeek())
+                && !holidays.contains(date);
+    }
+
+    /**
+     * Next expected publication strictly after the given instant.
+     *
+     * @param now current instant
+     * @return next publication time
+     */
+    public ZonedDateTime nextPublication(final Instant now) {
+        ZonedDateTime local = now.atZone(zone);
+        LocalDate date = local.toLocalDate();
+        if (!local.toLocalTime().isBefore(publicationTime)) {
+            date = date.plusDays(1);
+        }
+        for (int i = 0; i < MAX_SEARCH_DAYS && !isPublicationDay(date);
+             i++) {
+            date = date.plusDays(1);
+        }
+        return ZonedDateTime.of(date, publicationTime, zone);
+    }
+
+    /**
+     * Time the rates of the date are published.
+     *
+     * @param date publication date
+     * @return publication time
+     */
+    public Instant publicationOf(final LocalDate date) {
+        return ZonedDateTime.of(date, publicationTime, zone).toInstant();
+    }
+
+    /**
+     * Date of the latest publication at or before the given instant.
+     *
+     * @param now current instant
+     * @return date of the latest published rates
+     */
+    public LocalDate latestPublicationDate(final Instant now) {
+        ZonedDateTime local = now.atZone(zone);
+        LocalDate date = local.toLocalDate();
+        if (local.toLocalTime().isBefore(publicationTime)) {
+            date = date.minusDays(1);
+        }
+        for (int i = 0; i < MAX_SEARCH_DAYS && !isPublicationDay(date);
+             i++) {
+            date = date.minusDays(1);
+        }
+        return date;
+    }
+
+    /**
+     * Poll interval after the given number of stale responses.
+     *
+     * @param attempt number of stale responses so far, starting at 0
+     * @return poll interval
+     */
+    public Duration backoff(final int attempt) {
+        Duration backoff = initialBackoff.multipliedBy(
+                1L << Math.min(Math.max(attempt, 0), MAX_DOUBLINGS));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    /**
+     * Longest poll interval when the provider is late.
+     *
+     * @return poll interval
+     */
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+}
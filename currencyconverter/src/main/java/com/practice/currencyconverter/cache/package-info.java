@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains cache related classes for currency rates.
+ */
+package com.practice.currencyconverter.cache;
@@ -0,0 +1,156 @@
+package com.practice.currencyconverter.chart;
+
+import com.practice.currencyconverter.history.CandleInterval;
+import com.practice.currencyconverter.history.CandleStore;
+import com.practice.currencyconverter.model.Candle;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small trend charts of the daily closes of a currency pair, as PNG
+ * images. A chart is rendered once per state of the pair's candles and
+ * the compressed bytes are shared by every mail until the next rates are
+ * folded in.
+ */
+@Component
+public class Sparklines {
+    /**
+     * Image width in pixels.
+     */
+    public static final int WIDTH = 120;
+    /**
+     * Image height in pixels.
+     */
+    public static final int HEIGHT = 30;
+    /**
+     * Number of daily closes drawn.
+     */
+    private static final int POINTS = 30;
+    /**
+     * Space kept free around the line, in pixels.
+     */
+    private static final int PADDING = 2;
+    /**
+     * Line width in pixels.
+     */
+    private static final float STROKE_WIDTH = 1.5f;
+    /**
+     * Line colour of a rising rate.
+     */
+    private static final Color RISING = new Color(0x2e7d32);
+    /**
+     * Line colour of a falling rate.
+     */
+    private static final Color FALLING = new Color(0xc62828);
+    /**
+     * CandleStore object.
+     */
+    private final CandleStore candleStore;
+    /**
+     * Rendered charts per pair, e.g. HUF/INR.
+     */
+    private final Map<String, Sparkline> rendered = new ConcurrentHashMap<>();
+
+    /**
+     * Parameterized constructor to bind CandleStore object.
+     *
+     * @param candleStore CandleStore object
+     */
+    public Sparklines(final CandleStore candleStore) {
+        this.candleStore = candleStore;
+    }
+
+    /**
+     * PNG chart of the recent daily closes of the pair. The bytes are
+     * shared between callers and must not be modified.
+     *
+     * @param base   base currency
+     * @param target target currency
+     * @return PNG bytes, empty if the pair has less than two days of history
+     */
+    public Optional<byte[]> get(final String base, final String target) {
+        List<Candle> candles = candleStore
+                .getCandles(base, target, CandleInterval.DAY)
+                .orElse(List.of());
+        if (candles.size() < 2) {
+            return Optional.empty();
+        }
+        List<Candle> recent = candles.subList(
+                Math.max(candles.size() - POINTS, 0), candles.size());
+        // Candles are immutable and folding a rate replaces the last one,
+        // so the same last instance means the same chart.
+        Candle last = recent.get(recent.size() - 1);
+        Sparkline sparkline = rendered.compute(base + "/" + target,
+                (pair, cached) -> cached != null && cached.last == last
+                        ? cached : new Sparkline(last, render(recent)));
+        return Optional.of(sparkline.png);
+    }
+
+    private static byte[] render(final List<Candle> candles) {
+        int count = candles.size();
+        double low = Double.MAX_VALUE;
+        double high = -Double.MAX_VALUE;
+        for (Candle candle : candles) {
+            low = Math.min(low, candle.getClose());
+            high = Math.max(high, candle.getClose());
+        }
+        int[] xs = new int[count];
+        int[] ys = new int[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = PADDING + (int) Math.round(i * (WIDTH - 2.0 * PADDING)
+                    / (count - 1));
+            ys[i] = high == low ? HEIGHT / 2 : PADDING + (int) Math.round(
+                    (high - candles.get(i).getClose())
+                            * (HEIGHT - 2.0 * PADDING) / (high - low));
+        }
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT,
+                BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setStroke(new BasicStroke(STROKE_WIDTH));
+            graphics.setColor(candles.get(count - 1).getClose()
+                    >= candles.get(0).getClose() ? RISING : FALLING);
+            graphics.drawPolyline(xs, ys, count);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", png);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return png.toByteArray();
+    }
+
+    private static final class Sparkline {
+        /**
+         * Last candle the chart was rendered with.
+         */
+        private final Candle last;
+        /**
+         * PNG bytes.
+         */
+        private final byte[] png;
+
+        private Sparkline(final Candle last, final byte[] png) {
+            this.last = last;
+            this.png = png;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains rate chart rendering related classes.
+ */
+package com.practice.currencyconverter.chart;
@@ -0,0 +1,127 @@
+package com.practice.currencyconverter.cluster;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Lease on the upstream fetcher role, stored as a single row in the
+ * application datasource. A node holds the role while it keeps renewing
+ * the lease before it expires; once it stops, any other node can take it.
+ * Every take over, also by a restarted node, starts a new epoch, so what
+ * the holders publish can be ordered across lease changes.
+ */
+@Component
+public class FetcherLease {
+    /**
+     * Name of the fetcher lease row.
+     */
+    private static final String LEASE = "rates-fetcher";
+    /**
+     * JdbcTemplate object.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Parameterized constructor to bind JdbcTemplate object.
+     *
+     * @param jdbcTemplate JdbcTemplate object
+     */
+    public FetcherLease(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create the lease table if it does not exist yet.
+     */
+    public void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS rates_fetcher_lease"
+                + " (name VARCHAR(64) PRIMARY KEY,"
+                + " holder VARCHAR(255) NOT NULL,"
+                + " expires_at BIGINT NOT NULL,"
+                + " epoch BIGINT NOT NULL)");
+    }
+
+    /**
+     * Acquire the lease in a new epoch. A node that held it before a
+     * restart gets it back at once, in a new epoch as well.
+     *
+     * @param node node asking for the lease
+     * @param now  current time
+     * @param ttl  time the lease is held without renewal
+     * @return epoch of the acquired lease, empty if another node holds it
+     */
+    public OptionalLong tryAcquire(final String node, final Instant now,
+                                   final Duration ttl) {
+        long expiresAt = now.plus(ttl).toEpochMilli();
+        int updated = jdbcTemplate.update("UPDATE rates_fetcher_lease"
+                        + " SET holder = ?, expires_at = ?, epoch = epoch + 1"
+                        + " WHERE name = ? AND (holder = ? OR expires_at < ?)",
+                node, expiresAt, LEASE, node, now.toEpochMilli());
+        if (updated > 0) {
+            return jdbcTemplate.queryForList("SELECT epoch"
+                            + " FROM rates_fetcher_lease"
+                            + " WHERE name = ? AND holder = ?",
+                    Long.class, LEASE, node).stream()
+                    .mapToLong(Long::longValue).findFirst();
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO rates_fetcher_lease"
+                            + " (name, holder, expires_at, epoch)"
+                            + " VALUES (?, ?, ?, 1)",
+                    LEASE, node, expiresAt);
+            return OptionalLong.of(1);
+        } catch (DataIntegrityViolationException e) {
+            // Held by a live node, or another node inserted it first.
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Renew the lease acquired in the epoch.
+     *
+     * @param node  node holding the lease
+     * @param epoch epoch the node acquired the lease in
+     * @param now   current time
+     * @param ttl   time the lease is held without renewal
+     * @return true if the node still holds the lease in the epoch
+     */
+    public boolean renew(final String node, final long epoch,
+                         final Instant now, final Duration ttl) {
+        return jdbcTemplate.update("UPDATE rates_fetcher_lease"
+                        + " SET expires_at = ?"
+                        + " WHERE name = ? AND holder = ? AND epoch = ?",
+                now.plus(ttl).toEpochMilli(), LEASE, node, epoch) > 0;
+    }
+
+    /**
+     * Current holder of the lease.
+     *
+     * @param now current time
+     * @return holder, empty if the lease is free or expired
+     */
+    public Optional<String> holder(final Instant now) {
+        List<String> holders = jdbcTemplate.queryForList("SELECT holder"
+                        + " FROM rates_fetcher_lease"
+                        + " WHERE name = ? AND expires_at >= ?",
+                String.class, LEASE, now.toEpochMilli());
+        return holders.stream().findFirst();
+    }
+
+    /**
+     * Give the lease up, so another node does not wait for it to expire.
+     * The row stays, so the next holder continues the epochs.
+     *
+     * @param node node holding the lease
+     */
+    public void release(final String node) {
+        jdbcTemplate.update("UPDATE rates_fetcher_lease SET expires_at = 0"
+                + " WHERE name = ? AND holder = ?", LEASE, node);
+    }
+}
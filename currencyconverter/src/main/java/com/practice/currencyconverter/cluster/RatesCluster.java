@@ -0,0 +1,359 @@
+package com.practice.currencyconverter.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.ClusterState;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+
+/**
+ * Single upstream fetcher of a cluster. With {@code via.rates.cluster}
+ * enabled, the nodes compete for the {@link FetcherLease}; the holder
+ * fetches from the provider and pushes every snapshot it publishes to the
+ * configured peers, the other nodes only serve the pushed snapshots and
+ * ask the holder on a cache miss. Pushes are signed with
+ * {@code via.rates.cluster.secret} and only accepted from the current
+ * holder, the versions of the pushed snapshots start with the lease
+ * epoch, so a new holder's snapshots supersede those of the old one.
+ *
+ * <p>To try it on one host, start several instances with their own
+ * {@code server.port}, the same datasource and
+ * {@code via.rates.cluster.secret}, {@code via.rates.cluster.node} set to
+ * their own URL and {@code via.rates.cluster.peers} listing the URLs of
+ * all of them.
+ */
+@Component
+public class RatesCluster {
+    /**
+     * Path the peers accept pushed snapshots on.
+     */
+    public static final String SNAPSHOTS_PATH =
+            "/api/v1/admin/cluster/snapshots";
+    /**
+     * Header naming the node that pushed a snapshot.
+     */
+    public static final String NODE_HEADER = "X-Via-Node";
+    /**
+     * Header carrying the signature of a pushed snapshot.
+     */
+    public static final String SIGNATURE_HEADER = "X-Via-Signature";
+    /**
+     * Path the fetcher serves the rates of a base on.
+     */
+    private static final String RATES_PATH = "/api/v1/rates?base=";
+    /**
+     * Timeout of the calls between the nodes.
+     */
+    private static final Duration CALL_TIMEOUT = Duration.ofSeconds(2);
+    /**
+     * HTTP Status OK value.
+     */
+    private static final int HTTP_STATUS_OK = 200;
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(RatesCluster.class);
+    /**
+     * Whether the cluster mode is enabled.
+     */
+    private final boolean enabled;
+    /**
+     * URL of this node, also its name in the lease.
+     */
+    private final String node;
+    /**
+     * URLs of the other nodes.
+     */
+    private final List<String> peers;
+    /**
+     * Time the lease is held without renewal.
+     */
+    private final Duration leaseTtl;
+    /**
+     * FetcherLease object.
+     */
+    private final FetcherLease lease;
+    /**
+     * Encoding and signatures of the exchanged snapshots.
+     */
+    private final SnapshotCodec codec;
+    /**
+     * Clock object.
+     */
+    private final Clock clock;
+    /**
+     * Client for the calls between the nodes.
+     */
+    private final HttpClient httpClient;
+    /**
+     * Whether the lease table was created.
+     */
+    private boolean tableCreated;
+    /**
+     * Whether this node holds the lease.
+     */
+    private volatile boolean fetcher;
+    /**
+     * Epoch of the lease held by this node, 0 if not the holder.
+     */
+    private volatile long epoch;
+    /**
+     * URL of the node holding the lease, null if unknown.
+     */
+    private volatile String leader;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param enabled      cluster mode enabled or not
+     * @param node         URL of this node
+     * @param peers        comma separated URLs of the nodes
+     * @param leaseTtl     ISO-8601 time the lease is held without renewal
+     * @param lease        FetcherLease object
+     * @param codec        SnapshotCodec object
+     */
+    @Autowired
+    public RatesCluster(
+            @Value("${via.rates.cluster.enabled:false}") final boolean enabled,
+            @Value("${via.rates.cluster.node:http://localhost:"
+                    + "${server.port:8080}}") final String node,
+            @Value("${via.rates.cluster.peers:}") final String peers,
+            @Value("${via.rates.cluster.lease-ttl:PT30S}")
+            final String leaseTtl,
+            final FetcherLease lease, final SnapshotCodec codec) {
+        this(enabled, node, peers, leaseTtl, lease, codec,
+                Clock.systemUTC());
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param enabled      cluster mode enabled or not
+     * @param node         URL of this node
+     * @param peers        comma separated URLs of the nodes
+     * @param leaseTtl     ISO-8601 time the lease is held without renewal
+     * @param lease        FetcherLease object
+     * @param codec        SnapshotCodec object
+     * @param clock        clock of the lease
+     */
+    public RatesCluster(final boolean enabled, final String node,
+                        final String peers, final String leaseTtl,
+                        final FetcherLease lease,
+                        final SnapshotCodec codec, final Clock clock) {
+        if (enabled && !codec.hasSecret()) {
+            throw new IllegalArgumentException(
+                    "via.rates.cluster.secret is required in cluster mode");
+        }
+        this.enabled = enabled;
+        this.node = node.trim();
+        this.peers = Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty() && !peer.equals(this.node))
+                .collect(Collectors.toUnmodifiableList());
+        this.leaseTtl = Duration.parse(leaseTtl.trim());
+        this.lease = lease;
+        this.codec = codec;
+        this.clock = clock;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(CALL_TIMEOUT).build();
+    }
+
+    /**
+     * Whether this node fetches from the upstream provider. Always true
+     * when the cluster mode is disabled.
+     *
+     * @return true or false
+     */
+    public boolean isFetcher() {
+        return !enabled || fetcher;
+    }
+
+    /**
+     * Lease epoch this node publishes in.
+     *
+     * @return epoch, 0 if the cluster mode is disabled
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Acquire or renew the fetcher lease, well before it expires.
+     */
+    @Scheduled(fixedDelayString = "${via.rates.cluster.renew-interval:PT10S}")
+    public synchronized void renew() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!tableCreated) {
+                lease.createTable();
+                tableCreated = true;
+            }
+            if (fetcher && lease.renew(node, epoch, clock.instant(),
+                    leaseTtl)) {
+                return;
+            }
+            OptionalLong acquired = lease.tryAcquire(node, clock.instant(),
+                    leaseTtl);
+            epoch = acquired.orElse(0);
+            fetcher = acquired.isPresent();
+            leader = fetcher ? node
+                    : lease.holder(clock.instant()).orElse(null);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Fetcher lease could not be renewed", e);
+            fetcher = false;
+            epoch = 0;
+            leader = null;
+        }
+    }
+
+    /**
+     * Give the lease up on shutdown.
+     */
+    @PreDestroy
+    public synchronized void release() {
+        if (enabled && fetcher) {
+            fetcher = false;
+            epoch = 0;
+            lease.release(node);
+        }
+    }
+
+    /**
+     * Push the published snapshot to the peers if this node is the fetcher.
+     *
+     * @param event rates fetched event
+     */
+    @EventListener
+    public void onRatesFetched(final RatesFetchedEvent event) {
+        if (!enabled || !fetcher || !event.isComplete()
+                || !(event.getRates() instanceof RatesSnapshot)) {
+            return;
+        }
+        byte[] body;
+        try {
+            body = codec.write((RatesSnapshot) event.getRates());
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Snapshot could not be serialized", e);
+            return;
+        }
+        String signature = codec.sign(node, body);
+        peers.forEach(peer -> httpClient.sendAsync(HttpRequest
+                        .newBuilder(URI.create(peer + SNAPSHOTS_PATH))
+                        .timeout(CALL_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .header(NODE_HEADER, node)
+                        .header(SIGNATURE_HEADER, signature)
+                        .PUT(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build(), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        LOGGER.warn("Snapshot push to {} failed", peer,
+                                error);
+                    }
+                }));
+    }
+
+    /**
+     * Accept a snapshot pushed by another node. It is only accepted if it
+     * is signed with the cluster secret and its sender holds the lease,
+     * never while this node holds the lease itself.
+     *
+     * @param sender    node that pushed the snapshot
+     * @param signature signature of the body
+     * @param body      JSON snapshot
+     * @return snapshot, empty if the push is rejected
+     */
+    public Optional<RatesSnapshot> receive(final String sender,
+                                           final String signature,
+                                           final byte[] body) {
+        if (!enabled || fetcher) {
+            LOGGER.warn("Snapshot push from {} ignored, this node is not a"
+                    + " follower", sender);
+            return Optional.empty();
+        }
+        if (!codec.verify(sender, body, signature)) {
+            LOGGER.warn("Snapshot push from {} rejected, invalid signature",
+                    sender);
+            return Optional.empty();
+        }
+        try {
+            if (!lease.holder(clock.instant())
+                    .filter(holder -> holder.equals(sender)).isPresent()) {
+                LOGGER.warn("Snapshot push from {} rejected, it does not"
+                        + " hold the fetcher lease", sender);
+                return Optional.empty();
+            }
+            return Optional.of(codec.read(body));
+        } catch (DataAccessException | IOException e) {
+            LOGGER.warn("Snapshot push from {} rejected", sender, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Ask the fetcher for the snapshot of the base.
+     *
+     * @param base base currency
+     * @return snapshot, empty if this node is the fetcher, the fetcher is
+     * unknown or has no published snapshot
+     */
+    public Optional<RatesSnapshot> pull(final String base) {
+        String current = leader;
+        if (!enabled || fetcher || current == null) {
+            return Optional.empty();
+        }
+        try {
+            HttpResponse<byte[]> response = httpClient.send(HttpRequest
+                    .newBuilder(URI.create(current + RATES_PATH + base))
+                    .timeout(CALL_TIMEOUT)
+                    .GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != HTTP_STATUS_OK) {
+                return Optional.empty();
+            }
+            RatesSnapshot snapshot = codec.read(response.body());
+            return base.equals(snapshot.getBase()) && snapshot.getVersion() > 0
+                    ? Optional.of(snapshot) : Optional.empty();
+        } catch (IOException e) {
+            LOGGER.warn("{} rates could not be pulled from {}", base,
+                    current, e);
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cluster state seen by this node.
+     *
+     * @return cluster state
+     */
+    public ClusterState getState() {
+        return new ClusterState(node, enabled ? leader : node, isFetcher(),
+                peers);
+    }
+}
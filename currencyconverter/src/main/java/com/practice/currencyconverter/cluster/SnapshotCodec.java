@@ -0,0 +1,127 @@
+package com.practice.currencyconverter.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Encoding of the snapshots exchanged between the nodes. A pushed
+ * snapshot is signed with an HMAC over the sending node and the body,
+ * keyed with the secret shared by the cluster.
+ */
+@Component
+public class SnapshotCodec {
+    /**
+     * MAC algorithm of the signatures.
+     */
+    private static final String ALGORITHM = "HmacSHA256";
+    /**
+     * Separator of the node and the body in the signed content.
+     */
+    private static final byte SEPARATOR = '\n';
+    /**
+     * ObjectMapper object.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Key of the signatures, null without a secret.
+     */
+    private final SecretKeySpec key;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param secret       secret shared by the nodes, empty for none
+     * @param objectMapper ObjectMapper object
+     */
+    public SnapshotCodec(
+            @Value("${via.rates.cluster.secret:}") final String secret,
+            final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.key = secret.isBlank() ? null : new SecretKeySpec(
+                secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /**
+     * Whether a secret is configured.
+     *
+     * @return true or false
+     */
+    public boolean hasSecret() {
+        return key != null;
+    }
+
+    /**
+     * Serialize the snapshot.
+     *
+     * @param snapshot snapshot
+     * @return JSON body
+     * @throws JsonProcessingException snapshot can not be serialized
+     */
+    public byte[] write(final RatesSnapshot snapshot)
+            throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(snapshot);
+    }
+
+    /**
+     * Deserialize a snapshot.
+     *
+     * @param body JSON body
+     * @return snapshot
+     * @throws IOException body is not a snapshot
+     */
+    public RatesSnapshot read(final byte[] body) throws IOException {
+        return objectMapper.readValue(body, RatesSnapshot.class);
+    }
+
+    /**
+     * Signature of the body sent by the node.
+     *
+     * @param node sending node
+     * @param body body
+     * @return Base64 signature
+     */
+    public String sign(final String node, final byte[] body) {
+        if (key == null) {
+            throw new IllegalStateException("No cluster secret configured");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(node.getBytes(StandardCharsets.UTF_8));
+            mac.update(SEPARATOR);
+            return Base64.getEncoder().encodeToString(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available",
+                    e);
+        }
+    }
+
+    /**
+     * Check the signature of a body, in constant time.
+     *
+     * @param node      node claiming to have sent the body
+     * @param body      body
+     * @param signature Base64 signature sent with the body
+     * @return true if the signature is valid, always false without secret
+     */
+    public boolean verify(final String node, final byte[] body,
+                          final String signature) {
+        if (key == null || node == null || signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(
+                sign(node, body).getBytes(StandardCharsets.US_ASCII),
+                signature.getBytes(StandardCharsets.US_ASCII));
+    }
+}
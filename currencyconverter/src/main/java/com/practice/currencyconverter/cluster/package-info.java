@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains the classes electing the single rates fetcher of a cluster.
+ */
+package com.practice.currencyconverter.cluster;
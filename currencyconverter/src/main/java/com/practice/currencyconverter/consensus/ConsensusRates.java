@@ -0,0 +1,306 @@
+package com.practice.currencyconverter.consensus;
+
+import com.practice.currencyconverter.model.ConsensusReport;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Consensus of several rate providers. The providers are asked in
+ * parallel and every answer that arrives before the shared deadline takes
+ * part in a per currency median, so a bad tick of one provider does not
+ * reach the cache and a slow provider does not delay the answer. Rates
+ * too far from the median are reported as outliers.
+ *
+ * <p>The consensus needs at least three providers: with two, the median
+ * is their mean and a bad tick of either one moves it. For the same
+ * reason a fetch fails unless a quorum answered, at least three and a
+ * strict majority of the providers, and a currency quoted by fewer than
+ * three of the answers is left out. The calls run on
+ * a bounded pool with the {@link #REST_TEMPLATE} rest template, whose
+ * timeouts free a thread soon after the deadline. A call the pool can
+ * not take counts as missed.
+ */
+@Component
+public class ConsensusRates {
+    /**
+     * Name of the rest template bean the providers are asked with.
+     */
+    public static final String REST_TEMPLATE = "consensusRestTemplate";
+    /**
+     * Providers needed for a meaningful median.
+     */
+    private static final int MIN_PROVIDERS = 3;
+    /**
+     * Time an idle provider thread is kept.
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(ConsensusRates.class);
+    /**
+     * RestTemplate object.
+     */
+    private final RestTemplate restTemplate;
+    /**
+     * URL templates of the providers, the base is the only parameter.
+     */
+    private final List<String> providers;
+    /**
+     * Time given to all the providers together.
+     */
+    private final Duration deadline;
+    /**
+     * Relative distance from the median a rate is an outlier beyond.
+     */
+    private final double outlierTolerance;
+    /**
+     * Threads asking the providers.
+     */
+    private final ExecutorService executor;
+    /**
+     * Last report per base.
+     */
+    private final Map<String, ConsensusReport> reports =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param restTemplate     rest template object
+     * @param providers        comma separated provider URL templates
+     * @param deadline         ISO-8601 time given to all the providers
+     * @param outlierTolerance relative distance from the median allowed
+     * @param threads          maximum number of concurrent provider calls
+     */
+    public ConsensusRates(
+            @Qualifier(REST_TEMPLATE) final RestTemplate restTemplate,
+            @Value("${via.rates.consensus.providers:}") final String providers,
+            @Value("${via.rates.consensus.deadline:PT0.8S}")
+            final String deadline,
+            @Value("${via.rates.consensus.outlier-tolerance:0.01}")
+            final double outlierTolerance,
+            @Value("${via.rates.consensus.threads:16}") final int threads) {
+        this.restTemplate = restTemplate;
+        this.providers = Arrays.stream(providers.split(","))
+                .map(String::trim)
+                .filter(provider -> !provider.isEmpty())
+                .collect(Collectors.toUnmodifiableList());
+        this.deadline = Duration.parse(deadline.trim());
+        this.outlierTolerance = outlierTolerance;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads,
+                KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads), task -> {
+                    Thread thread = new Thread(task, "rates-consensus");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+        if (this.providers.size() > 1
+                && this.providers.size() < MIN_PROVIDERS) {
+            LOGGER.warn("Rates consensus needs at least {} providers, {} "
+                    + "configured, it stays off", MIN_PROVIDERS,
+                    this.providers.size());
+        }
+    }
+
+    /**
+     * Whether the consensus mode is on, i.e. at least three providers are
+     * configured.
+     *
+     * @return true or false
+     */
+    public boolean isEnabled() {
+        return providers.size() >= MIN_PROVIDERS;
+    }
+
+    /**
+     * Ask every provider for the rates of the base and aggregate the
+     * answers that arrive before the deadline.
+     *
+     * @param base base currency
+     * @return median rates of the answering providers
+     * @throws ResourceAccessException no quorum of the providers answered
+     * in time
+     */
+    public CurrencyConverter fetch(final String base) {
+        List<CompletableFuture<CurrencyConverter>> calls = providers.stream()
+                .map(provider -> call(provider, base))
+                .collect(Collectors.toList());
+        long deadlineNanos = System.nanoTime() + deadline.toNanos();
+        List<String> answered = new ArrayList<>();
+        List<String> missed = new ArrayList<>();
+        List<CurrencyConverter> answers = new ArrayList<>();
+        for (int i = 0; i < calls.size(); i++) {
+            String provider = nameOf(providers.get(i), base);
+            Optional<CurrencyConverter> answer = await(calls.get(i),
+                    deadlineNanos, provider);
+            if (answer.isPresent() && answer.get().getRates() != null) {
+                answered.add(provider);
+                answers.add(answer.get());
+            } else {
+                missed.add(provider);
+            }
+        }
+        int quorum = Math.max(MIN_PROVIDERS, providers.size() / 2 + 1);
+        if (answers.size() < quorum) {
+            throw new ResourceAccessException(answers.size() + " of "
+                    + providers.size() + " rates providers answered within "
+                    + deadline + " for " + base + ", " + quorum
+                    + " needed, missed " + missed);
+        }
+        Map<String, List<String>> outliers = new TreeMap<>();
+        CurrencyConverter consensus = aggregate(base, answers, answered,
+                outliers);
+        if (!outliers.isEmpty()) {
+            LOGGER.warn("{} rates outlying the consensus: {}", base,
+                    outliers);
+        }
+        reports.put(base, new ConsensusReport(base, Instant.now(),
+                Collections.unmodifiableList(answered),
+                Collections.unmodifiableList(missed),
+                Collections.unmodifiableMap(outliers)));
+        return consensus;
+    }
+
+    /**
+     * Report of the last consensus of the base.
+     *
+     * @param base base currency
+     * @return report, empty if no consensus was computed for the base
+     */
+    public Optional<ConsensusReport> getReport(final String base) {
+        return Optional.ofNullable(reports.get(base));
+    }
+
+    /**
+     * Stop the provider threads.
+     */
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // Call of the provider on the pool, failed if the pool is saturated.
+    private CompletableFuture<CurrencyConverter> call(final String provider,
+                                                      final String base) {
+        try {
+            return CompletableFuture.supplyAsync(() ->
+                    restTemplate.getForObject(String.format(provider, base),
+                            CurrencyConverter.class), executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // Median per currency over a provider x currency matrix of primitive
+    // doubles, NaN where a provider does not quote the currency. A
+    // currency too few providers quote has no meaningful median.
+    private CurrencyConverter aggregate(final String base,
+                                        final List<CurrencyConverter> answers,
+                                        final List<String> answered,
+                                        final Map<String, List<String>>
+                                                outliers) {
+        String[] codes = answers.stream()
+                .flatMap(answer -> answer.getRates().keySet().stream())
+                .collect(Collectors.toCollection(TreeSet::new))
+                .toArray(new String[0]);
+        double[][] quotes = new double[answers.size()][codes.length];
+        for (int p = 0; p < answers.size(); p++) {
+            Map<String, Double> rates = answers.get(p).getRates();
+            for (int c = 0; c < codes.length; c++) {
+                Double rate = rates.get(codes[c]);
+                quotes[p][c] = rate == null ? Double.NaN : rate;
+            }
+        }
+        double[] column = new double[answers.size()];
+        Map<String, Double> medians = new HashMap<>();
+        for (int c = 0; c < codes.length; c++) {
+            int count = 0;
+            for (double[] quote : quotes) {
+                if (!Double.isNaN(quote[c])) {
+                    column[count++] = quote[c];
+                }
+            }
+            if (count < MIN_PROVIDERS) {
+                LOGGER.warn("{} quoted by {} providers only, left out of "
+                        + "the {} consensus", codes[c], count, base);
+                continue;
+            }
+            Arrays.sort(column, 0, count);
+            double median = count % 2 == 1 ? column[count / 2]
+                    : (column[count / 2 - 1] + column[count / 2]) / 2;
+            medians.put(codes[c], median);
+            for (int p = 0; p < quotes.length; p++) {
+                double quote = quotes[p][c];
+                if (!Double.isNaN(quote) && Math.abs(quote - median)
+                        > outlierTolerance * Math.abs(median)) {
+                    outliers.computeIfAbsent(codes[c],
+                            key -> new ArrayList<>()).add(answered.get(p));
+                }
+            }
+        }
+        LocalDate date = answers.stream().map(CurrencyConverter::getDate)
+                .filter(answerDate -> answerDate != null)
+                .max(LocalDate::compareTo).orElse(null);
+        return new CurrencyConverter(medians, base, date);
+    }
+
+    private static Optional<CurrencyConverter> await(
+            final CompletableFuture<CurrencyConverter> call,
+            final long deadlineNanos, final String provider) {
+        try {
+            return Optional.ofNullable(call.get(Math.max(
+                    deadlineNanos - System.nanoTime(), 0),
+                    TimeUnit.NANOSECONDS));
+        } catch (TimeoutException e) {
+            LOGGER.warn("{} missed the consensus deadline", provider);
+            // Skips the call if it is still queued, a running one ends
+            // with the read timeout of the rest template.
+            call.cancel(false);
+        } catch (ExecutionException e) {
+            LOGGER.warn("{} failed: {}", provider, e.getCause().toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Optional.empty();
+    }
+
+    private static String nameOf(final String provider, final String base) {
+        URI uri = URI.create(String.format(provider, base));
+        return uri.getHost() + uri.getPath();
+    }
+}
@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains the classes aggregating the rates of several providers.
+ */
+package com.practice.currencyconverter.consensus;
@@ -0,0 +1,79 @@
+package com.practice.currencyconverter.event;
+
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.model.CurrencyConverter;
+
+import java.time.Instant;
+
+public class RatesFetchedEvent {
+    /**
+     * Rates fetched from the provider.
+     */
+    private final CurrencyConverter rates;
+    /**
+     * Time the rates were fetched.
+     */
+    private final Instant fetchedAt;
+    /**
+     * Whether the rates hold every currency of the base, rather than a
+     * requested subset of targets.
+     */
+    private final boolean complete;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param rates     rates fetched from the provider
+     * @param fetchedAt time the rates were fetched
+     * @param complete  whether the rates hold every currency of the base
+     */
+    public RatesFetchedEvent(final CurrencyConverter rates,
+                             final Instant fetchedAt,
+                             final boolean complete) {
+        this.rates = rates;
+        this.fetchedAt = fetchedAt;
+        this.complete = complete;
+    }
+
+    /**
+     * Getter for rates.
+     *
+     * @return rates
+     */
+    public CurrencyConverter getRates() {
+        return rates;
+    }
+
+    /**
+     * Getter for fetch time.
+     *
+     * @return fetch time
+     */
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Time the rates were published, the publication time of their date
+     * in the calendar. A table polled again before the next publication
+     * has the same time, however late it was fetched.
+     *
+     * @param calendar publication calendar of the provider
+     * @return publication time, the fetch time if the rates have no date
+     */
+    public Instant getPublishedAt(final PublicationCalendar calendar) {
+        if (rates.getDate() == null) {
+            return fetchedAt;
+        }
+        return calendar.publicationOf(rates.getDate());
+    }
+
+    /**
+     * Whether the rates hold every currency of the base.
+     *
+     * @return true or false
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains application events published by the currency converter.
+ */
+package com.practice.currencyconverter.event;
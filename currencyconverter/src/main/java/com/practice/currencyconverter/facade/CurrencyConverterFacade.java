@@ -1,27 +1,51 @@
 package com.practice.currencyconverter.facade;
 
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import com.practice.currencyconverter.cluster.RatesCluster;
+import com.practice.currencyconverter.consensus.ConsensusRates;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.history.RatesHistory;
 import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import com.practice.currencyconverter.snapshot.RatesSnapshotStore;
+import com.practice.currencyconverter.snapshot.SharedRatesSnapshots;
 import com.practice.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.TreeSet;
 
 @Service
-@CacheConfig(cacheNames = "CurrencyConverterCache")
-public class CurrencyConverterFacade {
+@CacheConfig(cacheNames = CurrencyConverterFacade.CACHE_NAME)
+public class CurrencyConverterFacade
+        implements ApplicationEventPublisherAware {
+    /**
+     * Name of the currency rates cache.
+     */
+    public static final String CACHE_NAME = "CurrencyConverterCache";
+    /**
+     * Fetch time of the hard-coded fallback rates, they were never fetched.
+     */
+    private static final Instant DEFAULT_FETCHED_AT = Instant.EPOCH;
     /**
      * Logger Object to log the details.
      */
@@ -47,14 +71,72 @@ public class CurrencyConverterFacade {
      * RestTemplate object.
      */
     private RestTemplate restTemplate;
+    /**
+     * UpstreamQuotaManager object.
+     */
+    private final UpstreamQuotaManager quotaManager;
+    /**
+     * Publisher of the rates fetched events.
+     */
+    private ApplicationEventPublisher eventPublisher;
+    /**
+     * RatesHistory object.
+     */
+    private final RatesHistory ratesHistory;
+    /**
+     * Latest snapshot per base.
+     */
+    private final RatesSnapshotStore snapshotStore;
+    /**
+     * Snapshots shared by the writer process of the host.
+     */
+    private final SharedRatesSnapshots sharedSnapshots;
+    /**
+     * Fetcher election and snapshot replication between the nodes.
+     */
+    private final RatesCluster ratesCluster;
+    /**
+     * Median of several providers, used when more than one is configured.
+     */
+    private final ConsensusRates consensusRates;
 
     /**
      * Parameterized constructor to bind rest template object.
      *
      * @param restTemplate rest template object
+     * @param quotaManager   UpstreamQuotaManager object
+     * @param ratesHistory   RatesHistory object
+     * @param snapshotStore  RatesSnapshotStore object
+     * @param sharedSnapshots SharedRatesSnapshots object
+     * @param ratesCluster    RatesCluster object
+     * @param consensusRates  ConsensusRates object
      */
-    public CurrencyConverterFacade(final RestTemplate restTemplate) {
+    public CurrencyConverterFacade(final RestTemplate restTemplate,
+                                   final UpstreamQuotaManager quotaManager,
+                                   final RatesHistory ratesHistory,
+                                   final RatesSnapshotStore snapshotStore,
+                                   final SharedRatesSnapshots
+                                           sharedSnapshots,
+                                   final RatesCluster ratesCluster,
+                                   final ConsensusRates consensusRates) {
         this.restTemplate = restTemplate;
+        this.quotaManager = quotaManager;
+        this.ratesHistory = ratesHistory;
+        this.snapshotStore = snapshotStore;
+        this.sharedSnapshots = sharedSnapshots;
+        this.ratesCluster = ratesCluster;
+        this.consensusRates = consensusRates;
+    }
+
+    /**
+     * Bind the publisher of the rates fetched events.
+     *
+     * @param applicationEventPublisher application event publisher
+     */
+    @Override
+    public void setApplicationEventPublisher(
+            final ApplicationEventPublisher applicationEventPublisher) {
+        this.eventPublisher = applicationEventPublisher;
     }
 
     /**
@@ -75,50 +157,141 @@ public class CurrencyConverterFacade {
     }
 
     /**
-     * Get Currency conversion rate from https://api.exchangeratesapi.io/latest.
+     * Get Currency conversion rate from https://api.exchangeratesapi.io/latest,
+     * or the consensus of the providers when several are configured.
      *
      * @param base base currency
-     * @return currency rates for the base currency
+     * @return immutable snapshot of the currency rates for the base currency,
+     * not cached again when it is the snapshot shared by the writer process
      */
     @HystrixCommand(fallbackMethod = "getDefaultCurrencyRate",
             ignoreExceptions = HttpClientErrorException.BadRequest.class)
-    @Cacheable(key = "#base")
+    @Cacheable(key = "#base",
+            unless = "@sharedRatesSnapshots.isShared(#result)")
     public CurrencyConverter getCurrencyRate(final String base) {
-        String url = String.format(
-                currencyRateUrl, base);
-        LOGGER.debug("Currency Converter API URL: {}", url);
-        CurrencyConverter currencyRate = restTemplate
-                .getForObject(url, CurrencyConverter.class);
-        if (currencyRate != null) {
-            currencyRate.getRates().remove(base);
+        Optional<RatesSnapshot> shared = sharedSnapshots.read(base);
+        if (shared.isPresent()) {
+            LOGGER.debug("Shared Currency Rate: {}", shared.get());
+            return snapshotStore.retain(shared.get());
         }
+        if (!ratesCluster.isFetcher()) {
+            ratesCluster.pull(base).ifPresent(this::install);
+            Optional<RatesSnapshot> replicated = snapshotStore.current(base);
+            if (replicated.isPresent()) {
+                LOGGER.debug("Replicated Currency Rate: {}",
+                        replicated.get());
+                return replicated.get();
+            }
+        }
+        if (quotaManager.isSaving()) {
+            Optional<CurrencyConverter> triangulated = triangulate(base);
+            if (triangulated.isPresent()) {
+                LOGGER.info("Upstream quota is tight, {} rates triangulated "
+                        + "via {}", base, triangulated.get());
+                return triangulated.get();
+            }
+        }
+        CurrencyConverter fetched;
+        if (consensusRates.isEnabled()) {
+            fetched = consensusRates.fetch(base);
+        } else {
+            String url = String.format(
+                    currencyRateUrl, base);
+            LOGGER.debug("Currency Converter API URL: {}", url);
+            fetched = restTemplate.getForObject(url, CurrencyConverter.class);
+        }
+        if (fetched == null) {
+            return null;
+        }
+        RatesSnapshot currencyRate = snapshotStore.publish(fetched,
+                ratesCluster.getEpoch(), Instant.now());
+        eventPublisher.publishEvent(new RatesFetchedEvent(currencyRate,
+                currencyRate.getFetchedAt(), true));
         LOGGER.debug("Currency Rate: {}", currencyRate);
         return currencyRate;
     }
 
+    /**
+     * Single rate of the base read straight from the snapshot shared by
+     * the writer process, without copying its table.
+     *
+     * @param base   base currency
+     * @param target target currency
+     * @return rate, empty if the process does not read shared snapshots or
+     * the shared snapshot can not answer
+     */
+    public OptionalDouble getSharedRate(final String base,
+                                        final String target) {
+        return sharedSnapshots.rate(base, target);
+    }
+
+    /**
+     * Install a snapshot pushed by the fetcher node of the cluster.
+     *
+     * @param snapshot snapshot published by the fetcher
+     * @return latest snapshot of the base, cached in place of the old one
+     */
+    @CachePut(key = "#snapshot.base")
+    public CurrencyConverter replicate(final RatesSnapshot snapshot) {
+        return install(snapshot);
+    }
+
     /**
      * Get Currency conversion rate from https://api.exchangeratesapi.io/latest
      * for specific targets.
      *
      * @param base    base currency code
      * @param targets set of targets
-     * @return currency rates for the base currency
+     * @return immutable, unpublished snapshot of the currency rates
      */
     @Cacheable(keyGenerator = "customKeyGenerator")
     public CurrencyConverter getCurrencyRateWithTarget(
             final String base, final Set<String> targets) {
-        String target = String.join(",", targets);
+        String target = String.join(",", new TreeSet<>(targets));
         String url = String.format(currencyRateWithTargetsUrl, target, base);
         LOGGER.debug("Currency Converter With Targets API URL: {}", url);
-        CurrencyConverter currencyRate = restTemplate
+        CurrencyConverter fetched = restTemplate
                 .getForObject(url, CurrencyConverter.class);
-        if (currencyRate != null) {
-            currencyRate.getRates().remove(base);
+        if (fetched == null) {
+            return null;
         }
+        RatesSnapshot currencyRate = RatesSnapshot.of(fetched, 0,
+                Instant.now());
+        eventPublisher.publishEvent(new RatesFetchedEvent(currencyRate,
+                currencyRate.getFetchedAt(), false));
         LOGGER.debug("Currency Rate With Targets: {}", currencyRate);
         return currencyRate;
     }
 
+    /**
+     * Get the currency rates in effect at the instant.
+     *
+     * @param base base currency
+     * @param at   instant
+     * @return currency rates for the base currency
+     * @throws ResourceNotFoundException no rates fetched before the instant
+     */
+    public CurrencyConverter getCurrencyRateAsOf(final String base,
+                                                 final Instant at)
+            throws ResourceNotFoundException {
+        return ratesHistory.asOf(base, at).orElseThrow(() ->
+                new ResourceNotFoundException("No " + base
+                        + " rates as of " + at));
+    }
+
+    /**
+     * Get the currency rates in effect at each of the instants.
+     *
+     * @param base base currency
+     * @param at   instants
+     * @return currency rates in the order of the instants, null where no
+     * rates were fetched before the instant
+     */
+    public List<CurrencyConverter> getCurrencyRatesAsOf(
+            final String base, final List<Instant> at) {
+        return ratesHistory.asOf(base, at);
+    }
+
     /**
      * Get Highest and Lowest currency rate countries for the base currency.
      *
@@ -159,6 +332,45 @@ public class CurrencyConverterFacade {
                 new ResourceNotFoundException("Not a Valid currency code"));
     }
 
+    /**
+     * Derive the rates of the base from the latest snapshot of another base
+     * that quotes it. The result carries the version of that snapshot.
+     *
+     * @param base base currency
+     * @return cross rates for the base currency
+     */
+    private Optional<CurrencyConverter> triangulate(final String base) {
+        return snapshotStore.currentAll().stream()
+                .filter(pivot -> pivot.getRates().get(base) != null)
+                .max(Comparator.comparing(CurrencyConverter::getDate,
+                        Comparator.nullsFirst(Comparator.naturalOrder())))
+                .map(pivot -> crossRates(pivot, base));
+    }
+
+    // Newer snapshots are announced like fetched ones, so the history and
+    // candles of every node stay complete.
+    private RatesSnapshot install(final RatesSnapshot snapshot) {
+        if (snapshotStore.replicate(snapshot)) {
+            eventPublisher.publishEvent(new RatesFetchedEvent(snapshot,
+                    snapshot.getFetchedAt(), true));
+        }
+        return snapshotStore.current(snapshot.getBase()).orElse(snapshot);
+    }
+
+    private static CurrencyConverter crossRates(final RatesSnapshot pivot,
+                                                final String base) {
+        double pivotToBase = pivot.getRates().get(base);
+        Map<String, Double> rates = new HashMap<>();
+        pivot.getRates().forEach((code, rate) -> {
+            if (!code.equals(base)) {
+                rates.put(code, rate / pivotToBase);
+            }
+        });
+        rates.put(pivot.getBase(), 1 / pivotToBase);
+        return new RatesSnapshot(base, pivot.getDate(), rates,
+                pivot.getVersion(), pivot.getFetchedAt());
+    }
+
     /**
      * Hystrix fallback method to getCountriesAndCurrencies.
      *
@@ -172,6 +384,30 @@ public class CurrencyConverterFacade {
         return defaultValues;
     }
 
+    /**
+     * Whether the rates are the hard-coded fallback of getCurrencyRate
+     * rather than rates of the requested base.
+     *
+     * @param rates rates returned by getCurrencyRate
+     * @return true if they are the fallback table
+     */
+    public boolean isDefaultCurrencyRate(final CurrencyConverter rates) {
+        return isFallback(rates);
+    }
+
+    /**
+     * Whether the value is the hard-coded fallback of getCurrencyRate, for
+     * the caches that must not keep it as long as fetched rates.
+     *
+     * @param value cached value
+     * @return true if it is the fallback table
+     */
+    public static boolean isFallback(final Object value) {
+        return value instanceof RatesSnapshot
+                && DEFAULT_FETCHED_AT.equals(
+                        ((RatesSnapshot) value).getFetchedAt());
+    }
+
     /**
      * Hystrix fallback method to getCurrencyRate.
      *
@@ -184,19 +420,14 @@ public class CurrencyConverterFacade {
         final Double idr = 45.60031709;
         final Double gbp = 0.0025654372;
 
-        CurrencyConverter converter = new CurrencyConverter();
-        converter.setBase("HUF");
-        converter.setDate(LocalDate.now());
-
         Map<String, Double> rates = new HashMap<>();
         rates.put("GBP", gbp);
         rates.put("IDR", idr);
         rates.put("INR", inr);
         rates.put("HUF", 1.0);
 
-        converter.setRates(rates);
-
-        return converter;
+        return new RatesSnapshot("HUF", LocalDate.now(), rates, 0,
+                DEFAULT_FETCHED_AT);
     }
 
 }
@@ -0,0 +1,66 @@
+package com.practice.currencyconverter.history;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Candle tiers, from the finest to the coarsest. Each tier keeps a bounded
+ * number of candles, so a chart of any range reads a bounded number of
+ * points from the coarsest tier that still covers it. The provider
+ * publishes once a day, so a day is the finest tier worth keeping.
+ */
+public enum CandleInterval {
+    /**
+     * Daily candles for the last year, a single rate per publication day
+     * unless rates are recorded within the day.
+     */
+    DAY,
+    /**
+     * Weekly candles, Monday to Sunday in UTC, for the last ten years.
+     */
+    WEEK;
+
+    /**
+     * Daily candles kept.
+     */
+    private static final int DAILY_RETENTION = 366;
+    /**
+     * Weekly candles kept.
+     */
+    private static final int WEEKLY_RETENTION = 52 * 10;
+
+    /**
+     * Number of candles kept.
+     *
+     * @return number of candles kept
+     */
+    public int getRetention() {
+        switch (this) {
+            case DAY:
+                return DAILY_RETENTION;
+            default:
+                return WEEKLY_RETENTION;
+        }
+    }
+
+    /**
+     * Start of the candle the instant falls into.
+     *
+     * @param instant instant
+     * @return candle start
+     */
+    public Instant bucketOf(final Instant instant) {
+        switch (this) {
+            case DAY:
+                return instant.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return instant.atZone(ZoneOffset.UTC).toLocalDate()
+                        .with(TemporalAdjusters.previousOrSame(
+                                DayOfWeek.MONDAY))
+                        .atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+    }
+}
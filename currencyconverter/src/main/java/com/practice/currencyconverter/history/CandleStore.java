@@ -0,0 +1,183 @@
+package com.practice.currencyconverter.history;
+
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.Candle;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-aggregated open/high/low/close candles per currency pair. Every
+ * fetched rate is folded into the open candle of each tier, so the coarser
+ * tiers keep the history after the finer candles have aged out.
+ *
+ * <p>Fetched rates are placed at the publication time of their date in
+ * the {@link PublicationCalendar}, and a table is folded once per pair and
+ * date however often it is polled. The candles
+ * are kept in memory only, so they cover the publications fetched since
+ * the node started.
+ */
+@Component
+public class CandleStore {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(CandleStore.class);
+    /**
+     * Candle tiers per pair, e.g. HUF/INR.
+     */
+    private final Map<String, Map<CandleInterval, Deque<Candle>>> series =
+            new ConcurrentHashMap<>();
+    /**
+     * Latest publication folded per pair, guarded by the tiers of the pair.
+     */
+    private final Map<String, Instant> published = new ConcurrentHashMap<>();
+    /**
+     * Time of the latest rate folded per pair, guarded by the tiers of the
+     * pair. Rates older than it are out of order, even within a candle.
+     */
+    private final Map<String, Instant> recorded = new ConcurrentHashMap<>();
+    /**
+     * PublicationCalendar object.
+     */
+    private final PublicationCalendar publicationCalendar;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param publicationCalendar rates publication calendar
+     */
+    public CandleStore(final PublicationCalendar publicationCalendar) {
+        this.publicationCalendar = publicationCalendar;
+    }
+
+    /**
+     * Fold the fetched rates into the candles at their publication time,
+     * unless the publication was already folded.
+     *
+     * @param event rates fetched event
+     */
+    @EventListener
+    public void onRatesFetched(final RatesFetchedEvent event) {
+        CurrencyConverter rates = event.getRates();
+        Instant publishedAt = event.getPublishedAt(publicationCalendar);
+        rates.getRates().forEach((target, rate) -> {
+            if (rate != null) {
+                recordPublished(rates.getBase(), target, publishedAt, rate);
+            }
+        });
+    }
+
+    /**
+     * Fold a single rate into the candles of the pair.
+     *
+     * @param base   base currency
+     * @param target target currency
+     * @param at     time of the rate
+     * @param rate   rate
+     */
+    public void record(final String base, final String target,
+                       final Instant at, final double rate) {
+        String pair = pair(base, target);
+        Map<CandleInterval, Deque<Candle>> tiers = series.computeIfAbsent(
+                pair, key -> newTiers());
+        synchronized (tiers) {
+            foldAll(pair, tiers, at, rate);
+        }
+    }
+
+    /**
+     * Candles of the pair for the interval, oldest first.
+     *
+     * @param base     base currency
+     * @param target   target currency
+     * @param interval candle interval
+     * @return candles, empty if the pair has no history
+     */
+    public Optional<List<Candle>> getCandles(final String base,
+                                             final String target,
+                                             final CandleInterval interval) {
+        Map<CandleInterval, Deque<Candle>> tiers =
+                series.get(pair(base, target));
+        if (tiers == null) {
+            return Optional.empty();
+        }
+        synchronized (tiers) {
+            return Optional.of(new ArrayList<>(tiers.get(interval)));
+        }
+    }
+
+    // Polls of a publication already folded, or older, are skipped.
+    private void recordPublished(final String base, final String target,
+                                 final Instant publishedAt,
+                                 final double rate) {
+        String pair = pair(base, target);
+        Map<CandleInterval, Deque<Candle>> tiers = series.computeIfAbsent(
+                pair, key -> newTiers());
+        synchronized (tiers) {
+            Instant last = published.get(pair);
+            if (last != null && !publishedAt.isAfter(last)) {
+                return;
+            }
+            published.put(pair, publishedAt);
+            foldAll(pair, tiers, publishedAt, rate);
+        }
+    }
+
+    // Called with the tiers of the pair locked.
+    private void foldAll(final String pair,
+                         final Map<CandleInterval, Deque<Candle>> tiers,
+                         final Instant at, final double rate) {
+        Instant latest = recorded.get(pair);
+        if (latest != null && at.isBefore(latest)) {
+            LOGGER.debug("Ignoring out of order rate at {}", at);
+            return;
+        }
+        recorded.put(pair, at);
+        tiers.forEach((interval, candles) ->
+                fold(interval, candles, at, rate));
+    }
+
+    private static void fold(final CandleInterval interval,
+                             final Deque<Candle> candles,
+                             final Instant at, final double rate) {
+        Instant bucket = interval.bucketOf(at);
+        Candle last = candles.peekLast();
+        if (last != null && bucket.equals(last.getStart())) {
+            candles.pollLast();
+            candles.addLast(last.merge(rate));
+            return;
+        }
+        candles.addLast(Candle.of(bucket, rate));
+        if (candles.size() > interval.getRetention()) {
+            candles.pollFirst();
+        }
+    }
+
+    private static Map<CandleInterval, Deque<Candle>> newTiers() {
+        Map<CandleInterval, Deque<Candle>> tiers =
+                new EnumMap<>(CandleInterval.class);
+        for (CandleInterval interval : CandleInterval.values()) {
+            tiers.put(interval, new ArrayDeque<>());
+        }
+        return tiers;
+    }
+
+    private static String pair(final String base, final String target) {
+        return base + "/" + target;
+    }
+}
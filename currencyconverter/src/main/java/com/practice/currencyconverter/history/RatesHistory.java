@@ -0,0 +1,229 @@
+package com.practice.currencyconverter.history;
+
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory timestamp index of the complete rate tables fetched per base.
+ * Lookups binary search a sorted array of publication times, so finding
+ * the table in effect at a given instant is O(log n) and never locks.
+ *
+ * <p>Tables are indexed at the publication time of their date in the
+ * {@link PublicationCalendar}, so a table is not in effect before the
+ * provider published it, and a table polled again replaces the one of the
+ * same date instead of adding an entry. The index is kept in memory
+ * only, so it covers the publications fetched since the node started.
+ */
+@Component
+public class RatesHistory {
+    /**
+     * Initial capacity of a timeline.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    /**
+     * Share of the tables dropped once the limit is reached, one in four.
+     */
+    private static final int DROPPED_SHARE = 4;
+    /**
+     * Maximum number of tables kept per base.
+     */
+    private final int maxSnapshots;
+    /**
+     * PublicationCalendar object.
+     */
+    private final PublicationCalendar publicationCalendar;
+    /**
+     * Timeline per base currency.
+     */
+    private final Map<String, Timeline> timelines = new ConcurrentHashMap<>();
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param maxSnapshots        maximum number of tables kept per base
+     * @param publicationCalendar rates publication calendar
+     */
+    public RatesHistory(
+            @Value("${via.rates.history.max-snapshots:10000}")
+            final int maxSnapshots,
+            final PublicationCalendar publicationCalendar) {
+        this.maxSnapshots = Math.max(maxSnapshots, 1);
+        this.publicationCalendar = publicationCalendar;
+    }
+
+    /**
+     * Index the fetched rates at their publication time if they are the
+     * complete table of the base.
+     *
+     * @param event rates fetched event
+     */
+    @EventListener
+    public void onRatesFetched(final RatesFetchedEvent event) {
+        if (event.isComplete()) {
+            record(event.getRates(),
+                    event.getPublishedAt(publicationCalendar));
+        }
+    }
+
+    /**
+     * Index a complete rate table, replacing the table of the same time.
+     *
+     * @param rates rate table
+     * @param at    time the table was published
+     */
+    public void record(final CurrencyConverter rates, final Instant at) {
+        timelines.computeIfAbsent(rates.getBase(), key -> new Timeline())
+                .add(at.toEpochMilli(), rates, maxSnapshots);
+    }
+
+    /**
+     * Rate table in effect at the instant, i.e. the latest table published
+     * at or before it.
+     *
+     * @param base base currency
+     * @param at   instant
+     * @return rate table, empty if none was published before the instant
+     */
+    public Optional<CurrencyConverter> asOf(final String base,
+                                            final Instant at) {
+        Timeline timeline = timelines.get(base);
+        if (timeline == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(timeline.view.find(at.toEpochMilli()));
+    }
+
+    /**
+     * Rate tables in effect at each of the instants, all read from the same
+     * state of the index.
+     *
+     * @param base base currency
+     * @param at   instants
+     * @return rate tables in the order of the instants, null where no table
+     * was published before the instant
+     */
+    public List<CurrencyConverter> asOf(final String base,
+                                        final List<Instant> at) {
+        Timeline timeline = timelines.get(base);
+        View view = timeline == null ? View.EMPTY : timeline.view;
+        List<CurrencyConverter> tables = new ArrayList<>(at.size());
+        at.forEach(instant -> tables.add(view.find(instant.toEpochMilli())));
+        return tables;
+    }
+
+    private static final class Timeline {
+        /**
+         * Published state, replaced after every change.
+         */
+        private volatile View view = View.EMPTY;
+
+        private synchronized void add(final long time,
+                                      final CurrencyConverter rates,
+                                      final int maxSnapshots) {
+            View current = view;
+            int size = current.size;
+            int existing = Arrays.binarySearch(current.times, 0, size, time);
+            if (existing >= 0) {
+                view = current.replace(existing, rates);
+                return;
+            }
+            if (size > 0 && time < current.times[size - 1]) {
+                view = current.insert(time, rates, maxSnapshots);
+                return;
+            }
+            if (size == current.times.length || size == maxSnapshots) {
+                current = current.compact(maxSnapshots);
+                size = current.size;
+            }
+            // Slots past the published size are never read, so they can be
+            // written before the new size is published.
+            current.times[size] = time;
+            current.tables[size] = rates;
+            view = new View(current.times, current.tables, size + 1);
+        }
+    }
+
+    private static final class View {
+        /**
+         * Empty view.
+         */
+        private static final View EMPTY = new View(new long[0],
+                new CurrencyConverter[0], 0);
+        /**
+         * Publication times in ascending order, without duplicates.
+         */
+        private final long[] times;
+        /**
+         * Tables in the order of the publication times.
+         */
+        private final CurrencyConverter[] tables;
+        /**
+         * Number of published entries.
+         */
+        private final int size;
+
+        private View(final long[] times, final CurrencyConverter[] tables,
+                     final int size) {
+            this.times = times;
+            this.tables = tables;
+            this.size = size;
+        }
+
+        private CurrencyConverter find(final long time) {
+            int index = Arrays.binarySearch(times, 0, size, time);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            return index < 0 ? null : tables[index];
+        }
+
+        // Published slots are read without locking, so the tables are
+        // copied rather than written in place.
+        private View replace(final int index, final CurrencyConverter rates) {
+            CurrencyConverter[] newTables = tables.clone();
+            newTables[index] = rates;
+            return new View(times, newTables, size);
+        }
+
+        // Copy with room for one more entry, dropping the oldest quarter
+        // once the limit is reached so trimming stays amortized O(1).
+        private View compact(final int maxSnapshots) {
+            int drop = size < maxSnapshots ? 0
+                    : Math.max(size / DROPPED_SHARE, 1);
+            int keep = size - drop;
+            int capacity = Math.min(Math.max(keep * 2, INITIAL_CAPACITY),
+                    maxSnapshots);
+            long[] newTimes = new long[capacity];
+            CurrencyConverter[] newTables = new CurrencyConverter[capacity];
+            System.arraycopy(times, drop, newTimes, 0, keep);
+            System.arraycopy(tables, drop, newTables, 0, keep);
+            return new View(newTimes, newTables, keep);
+        }
+
+        private View insert(final long time, final CurrencyConverter rates,
+                            final int maxSnapshots) {
+            View copy = compact(maxSnapshots);
+            int index = Arrays.binarySearch(copy.times, 0, copy.size, time);
+            int at = index < 0 ? -index - 1 : index + 1;
+            System.arraycopy(copy.times, at, copy.times, at + 1,
+                    copy.size - at);
+            System.arraycopy(copy.tables, at, copy.tables, at + 1,
+                    copy.size - at);
+            copy.times[at] = time;
+            copy.tables[at] = rates;
+            return new View(copy.times, copy.tables, copy.size + 1);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.practice.currencyconverter.model;
+
+import java.time.LocalDate;
+
+public final class BasketQuote {
+    /**
+     * Basket name.
+     */
+    private final String name;
+    /**
+     * Currency the basket is quoted in.
+     */
+    private final String base;
+    /**
+     * Value of one basket in the base currency.
+     */
+    private final double value;
+    /**
+     * Date of the rates the value was computed from.
+     */
+    private final LocalDate date;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param name  basket name
+     * @param base  currency the basket is quoted in
+     * @param value value of one basket in the base currency
+     * @param date  date of the rates
+     */
+    public BasketQuote(final String name, final String base,
+                       final double value, final LocalDate date) {
+        this.name = name;
+        this.base = base;
+        this.value = value;
+        this.date = date;
+    }
+
+    /**
+     * Getter for basket name.
+     *
+     * @return basket name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Getter for the currency the basket is quoted in.
+     *
+     * @return base currency
+     */
+    public String getBase() {
+        return base;
+    }
+
+    /**
+     * Getter for the value of one basket in the base currency.
+     *
+     * @return value
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Getter for the date of the rates.
+     *
+     * @return date of the rates
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+}
@@ -0,0 +1,143 @@
+package com.practice.currencyconverter.model;
+
+import java.time.Instant;
+
+public final class Candle {
+    /**
+     * Start of the candle interval.
+     */
+    private final Instant start;
+    /**
+     * First rate in the interval.
+     */
+    private final double open;
+    /**
+     * Highest rate in the interval.
+     */
+    private final double high;
+    /**
+     * Lowest rate in the interval.
+     */
+    private final double low;
+    /**
+     * Last rate in the interval.
+     */
+    private final double close;
+    /**
+     * Number of rates aggregated into the candle.
+     */
+    private final long count;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param start start of the candle interval
+     * @param open  first rate
+     * @param high  highest rate
+     * @param low   lowest rate
+     * @param close last rate
+     * @param count number of rates
+     */
+    public Candle(final Instant start, final double open, final double high,
+                  final double low, final double close, final long count) {
+        this.start = start;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.count = count;
+    }
+
+    /**
+     * Candle holding a single rate.
+     *
+     * @param start start of the candle interval
+     * @param rate  rate
+     * @return candle
+     */
+    public static Candle of(final Instant start, final double rate) {
+        return new Candle(start, rate, rate, rate, rate, 1);
+    }
+
+    /**
+     * Candle with the rate appended as the latest value.
+     *
+     * @param rate rate
+     * @return candle
+     */
+    public Candle merge(final double rate) {
+        return new Candle(start, open, Math.max(high, rate),
+                Math.min(low, rate), rate, count + 1);
+    }
+
+    /**
+     * Getter for start of the interval.
+     *
+     * @return start
+     */
+    public Instant getStart() {
+        return start;
+    }
+
+    /**
+     * Getter for open.
+     *
+     * @return open
+     */
+    public double getOpen() {
+        return open;
+    }
+
+    /**
+     * Getter for high.
+     *
+     * @return high
+     */
+    public double getHigh() {
+        return high;
+    }
+
+    /**
+     * Getter for low.
+     *
+     * @return low
+     */
+    public double getLow() {
+        return low;
+    }
+
+    /**
+     * Getter for close.
+     *
+     * @return close
+     */
+    public double getClose() {
+        return close;
+    }
+
+    /**
+     * Getter for count.
+     *
+     * @return count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Overridden toString method.
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return "Candle{"
+                + "start=" + start
+                + ", open=" + open
+                + ", high=" + high
+                + ", low=" + low
+                + ", close=" + close
+                + ", count=" + count
+                + '}';
+    }
+}
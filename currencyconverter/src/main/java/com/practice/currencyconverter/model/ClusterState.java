@@ -0,0 +1,74 @@
+package com.practice.currencyconverter.model;
+
+import java.util.List;
+
+public final class ClusterState {
+    /**
+     * URL of this node.
+     */
+    private final String node;
+    /**
+     * URL of the node holding the fetcher lease, null if unknown.
+     */
+    private final String leader;
+    /**
+     * Whether this node fetches from the upstream provider.
+     */
+    private final boolean fetcher;
+    /**
+     * URLs of the nodes the fetched snapshots are pushed to.
+     */
+    private final List<String> peers;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param node    URL of this node
+     * @param leader  URL of the fetcher node
+     * @param fetcher this node is the fetcher or not
+     * @param peers   URLs of the peers
+     */
+    public ClusterState(final String node, final String leader,
+                        final boolean fetcher, final List<String> peers) {
+        this.node = node;
+        this.leader = leader;
+        this.fetcher = fetcher;
+        this.peers = peers;
+    }
+
+    /**
+     * Getter for the URL of this node.
+     *
+     * @return node URL
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * Getter for the URL of the fetcher node.
+     *
+     * @return fetcher node URL, null if unknown
+     */
+    public String getLeader() {
+        return leader;
+    }
+
+    /**
+     * Whether this node fetches from the upstream provider.
+     *
+     * @return true or false
+     */
+    public boolean isFetcher() {
+        return fetcher;
+    }
+
+    /**
+     * Getter for the URLs of the peers.
+     *
+     * @return peer URLs
+     */
+    public List<String> getPeers() {
+        return peers;
+    }
+}
@@ -0,0 +1,93 @@
+package com.practice.currencyconverter.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public final class ConsensusReport {
+    /**
+     * Base currency.
+     */
+    private final String base;
+    /**
+     * Time the consensus was computed.
+     */
+    private final Instant computedAt;
+    /**
+     * Providers that answered before the deadline.
+     */
+    private final List<String> answered;
+    /**
+     * Providers that failed or missed the deadline.
+     */
+    private final List<String> missed;
+    /**
+     * Providers per currency whose rate was too far from the median.
+     */
+    private final Map<String, List<String>> outliers;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param base       base currency
+     * @param computedAt time the consensus was computed
+     * @param answered   providers that answered before the deadline
+     * @param missed     providers that failed or missed the deadline
+     * @param outliers   outlying providers per currency
+     */
+    public ConsensusReport(final String base, final Instant computedAt,
+                           final List<String> answered,
+                           final List<String> missed,
+                           final Map<String, List<String>> outliers) {
+        this.base = base;
+        this.computedAt = computedAt;
+        this.answered = answered;
+        this.missed = missed;
+        this.outliers = outliers;
+    }
+
+    /**
+     * Getter for base currency.
+     *
+     * @return base currency
+     */
+    public String getBase() {
+        return base;
+    }
+
+    /**
+     * Getter for the time the consensus was computed.
+     *
+     * @return time the consensus was computed
+     */
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+
+    /**
+     * Getter for the providers that answered before the deadline.
+     *
+     * @return providers
+     */
+    public List<String> getAnswered() {
+        return answered;
+    }
+
+    /**
+     * Getter for the providers that failed or missed the deadline.
+     *
+     * @return providers
+     */
+    public List<String> getMissed() {
+        return missed;
+    }
+
+    /**
+     * Getter for the outlying providers per currency.
+     *
+     * @return outlying providers per currency
+     */
+    public Map<String, List<String>> getOutliers() {
+        return outliers;
+    }
+}
@@ -0,0 +1,119 @@
+package com.practice.currencyconverter.model;
+
+public final class ConversionQuote {
+    /**
+     * Source currency.
+     */
+    private final String from;
+    /**
+     * Target currency.
+     */
+    private final String to;
+    /**
+     * Amount in the source currency.
+     */
+    private final double amount;
+    /**
+     * Rate before the spread.
+     */
+    private final double midRate;
+    /**
+     * Rate after the spread.
+     */
+    private final double rate;
+    /**
+     * Fee in the source currency.
+     */
+    private final double fee;
+    /**
+     * Amount received in the target currency.
+     */
+    private final double converted;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param from      source currency
+     * @param to        target currency
+     * @param amount    amount in the source currency
+     * @param midRate   rate before the spread
+     * @param rate      rate after the spread
+     * @param fee       fee in the source currency
+     * @param converted amount received in the target currency
+     */
+    public ConversionQuote(final String from, final String to,
+                           final double amount, final double midRate,
+                           final double rate, final double fee,
+                           final double converted) {
+        this.from = from;
+        this.to = to;
+        this.amount = amount;
+        this.midRate = midRate;
+        this.rate = rate;
+        this.fee = fee;
+        this.converted = converted;
+    }
+
+    /**
+     * Getter for the source currency.
+     *
+     * @return source currency
+     */
+    public String getFrom() {
+        return from;
+    }
+
+    /**
+     * Getter for the target currency.
+     *
+     * @return target currency
+     */
+    public String getTo() {
+        return to;
+    }
+
+    /**
+     * Getter for the amount in the source currency.
+     *
+     * @return amount
+     */
+    public double getAmount() {
+        return amount;
+    }
+
+    /**
+     * Getter for the rate before the spread.
+     *
+     * @return mid rate
+     */
+    public double getMidRate() {
+        return midRate;
+    }
+
+    /**
+     * Getter for the rate after the spread.
+     *
+     * @return rate
+     */
+    public double getRate() {
+        return rate;
+    }
+
+    /**
+     * Getter for the fee in the source currency.
+     *
+     * @return fee
+     */
+    public double getFee() {
+        return fee;
+    }
+
+    /**
+     * Getter for the amount received in the target currency.
+     *
+     * @return converted amount
+     */
+    public double getConverted() {
+        return converted;
+    }
+}
@@ -0,0 +1,79 @@
+package com.practice.currencyconverter.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public final class CrossRateMatrix {
+    /**
+     * Currency codes of the rows and columns.
+     */
+    private final List<String> codes;
+    /**
+     * Cross rates row by row, from the row currency to the column one.
+     */
+    private final double[] rates;
+
+    private CrossRateMatrix(final List<String> codes, final double[] rates) {
+        this.codes = codes;
+        this.rates = rates;
+    }
+
+    /**
+     * Cross rates between all the currencies, derived from one rate table.
+     *
+     * @param table rate table quoting every currency
+     * @param codes currency codes of the rows and columns
+     * @return matrix, empty if the table does not quote one of the codes
+     */
+    public static Optional<CrossRateMatrix> of(final CurrencyConverter table,
+                                               final List<String> codes) {
+        int size = codes.size();
+        Map<String, Double> quoted = table.getRates();
+        double[] fromBase = new double[size];
+        for (int i = 0; i < size; i++) {
+            Double rate = codes.get(i).equals(table.getBase())
+                    ? Double.valueOf(1) : quoted.get(codes.get(i));
+            if (rate == null || rate == 0) {
+                return Optional.empty();
+            }
+            fromBase[i] = rate;
+        }
+        double[] rates = new double[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                rates[row * size + column] = fromBase[column] / fromBase[row];
+            }
+        }
+        return Optional.of(new CrossRateMatrix(List.copyOf(codes), rates));
+    }
+
+    /**
+     * Getter for the currency codes of the rows and columns.
+     *
+     * @return currency codes
+     */
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    /**
+     * Number of rows and columns.
+     *
+     * @return size
+     */
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * Rate from the row currency to the column currency.
+     *
+     * @param row    row index
+     * @param column column index
+     * @return cross rate
+     */
+    public double get(final int row, final int column) {
+        return rates[row * codes.size() + column];
+    }
+}
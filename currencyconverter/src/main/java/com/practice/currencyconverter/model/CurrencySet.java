@@ -0,0 +1,240 @@
+package com.practice.currencyconverter.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable set of currency codes backed by a fixed size bitset.
+ * Every code is interned once into a process wide index, so equality,
+ * hashing and subset checks work on a handful of longs and never depend
+ * on insertion order.
+ */
+public final class CurrencySet {
+    /**
+     * Maximum number of distinct currency codes that can be interned.
+     */
+    private static final int CAPACITY = 512;
+    /**
+     * Number of long words needed to hold every interned code.
+     */
+    private static final int WORDS = CAPACITY / Long.SIZE;
+    /**
+     * Shift to translate a code index into its word index.
+     */
+    private static final int WORD_SHIFT = 6;
+    /**
+     * Interned code to bit index.
+     */
+    private static final ConcurrentMap<String, Integer> INDEX =
+            new ConcurrentHashMap<>();
+    /**
+     * Bit index to interned code.
+     */
+    private static final AtomicReferenceArray<String> CODES =
+            new AtomicReferenceArray<>(CAPACITY);
+    /**
+     * Next free bit index.
+     */
+    private static final AtomicInteger NEXT_INDEX = new AtomicInteger();
+    /**
+     * Empty currency set.
+     */
+    public static final CurrencySet EMPTY = new CurrencySet(new long[WORDS]);
+
+    /**
+     * Bitset words.
+     */
+    private final long[] words;
+    /**
+     * Cached hash code.
+     */
+    private final int hash;
+
+    private CurrencySet(final long[] words) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    /**
+     * Build a currency set, interning codes that were not seen before.
+     * Use only for trusted codes, e.g. the provider's currency list or
+     * already validated registrations.
+     *
+     * @param codes currency codes
+     * @return currency set
+     */
+    public static CurrencySet of(final Collection<String> codes) {
+        long[] words = new long[WORDS];
+        codes.forEach(code -> set(words, intern(code)));
+        return new CurrencySet(words);
+    }
+
+    /**
+     * Build a currency set only from codes that are already interned.
+     * Untrusted input never grows the index this way.
+     *
+     * @param codes currency codes
+     * @return currency set, or empty when any code is unknown
+     */
+    public static Optional<CurrencySet> ofKnown(
+            final Collection<String> codes) {
+        long[] words = new long[WORDS];
+        for (String code : codes) {
+            Integer index = INDEX.get(code);
+            if (index == null) {
+                return Optional.empty();
+            }
+            set(words, index);
+        }
+        return Optional.of(new CurrencySet(words));
+    }
+
+    /**
+     * Bit index for the currency code, interning it when needed.
+     *
+     * @param code currency code
+     * @return bit index
+     */
+    public static int intern(final String code) {
+        return INDEX.computeIfAbsent(code, key -> {
+            int index = NEXT_INDEX.getAndIncrement();
+            if (index >= CAPACITY) {
+                throw new IllegalStateException(
+                        "Currency code index is full, cannot add " + key);
+            }
+            CODES.set(index, key);
+            return index;
+        });
+    }
+
+    private static void set(final long[] words, final int index) {
+        words[index >>> WORD_SHIFT] |= 1L << index;
+    }
+
+    /**
+     * To check whether the code is part of the set.
+     *
+     * @param code currency code
+     * @return true or false
+     */
+    public boolean contains(final String code) {
+        Integer index = INDEX.get(code);
+        return index != null
+                && (words[index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    /**
+     * To check whether every code of the other set is part of this set.
+     *
+     * @param other currency set
+     * @return true or false
+     */
+    public boolean containsAll(final CurrencySet other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((other.words[i] & ~words[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Union of both sets.
+     *
+     * @param other currency set
+     * @return new currency set
+     */
+    public CurrencySet union(final CurrencySet other) {
+        long[] union = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            union[i] = words[i] | other.words[i];
+        }
+        return new CurrencySet(union);
+    }
+
+    /**
+     * Number of codes in the set.
+     *
+     * @return size
+     */
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * To check whether the set is empty.
+     *
+     * @return true or false
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Currency codes in alphabetical order.
+     *
+     * @return sorted currency codes
+     */
+    public SortedSet<String> toSet() {
+        SortedSet<String> codes = new TreeSet<>();
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                int bit = Long.numberOfTrailingZeros(word);
+                codes.add(CODES.get((i << WORD_SHIFT) + bit));
+                word &= word - 1;
+            }
+        }
+        return Collections.unmodifiableSortedSet(codes);
+    }
+
+    /**
+     * Overridden equals method.
+     *
+     * @param o other object
+     * @return true or false
+     */
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CurrencySet)) {
+            return false;
+        }
+        CurrencySet other = (CurrencySet) o;
+        return hash == other.hash && Arrays.equals(words, other.words);
+    }
+
+    /**
+     * Overridden hashCode method.
+     *
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Overridden toString method.
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return String.join(",", toSet());
+    }
+}
@@ -0,0 +1,131 @@
+package com.practice.currencyconverter.model;
+
+import java.util.Map;
+
+public final class QuotaState {
+    /**
+     * Quota month, e.g. 2020-01.
+     */
+    private final String month;
+    /**
+     * Monthly request budget.
+     */
+    private final long monthlyBudget;
+    /**
+     * Requests spent this month.
+     */
+    private final long used;
+    /**
+     * Requests projected for the whole month at the current burn rate.
+     */
+    private final long projected;
+    /**
+     * Whether quota saving behaviour is active.
+     */
+    private final boolean saving;
+    /**
+     * Requests spent this month per provider URL.
+     */
+    private final Map<String, Long> calls;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param month         quota month
+     * @param monthlyBudget monthly request budget
+     * @param used          requests spent this month
+     * @param projected     requests projected for the month
+     * @param saving        quota saving active or not
+     * @param calls         requests spent per provider URL
+     */
+    public QuotaState(final String month, final long monthlyBudget,
+                      final long used, final long projected,
+                      final boolean saving, final Map<String, Long> calls) {
+        this.month = month;
+        this.monthlyBudget = monthlyBudget;
+        this.used = used;
+        this.projected = projected;
+        this.saving = saving;
+        this.calls = calls;
+    }
+
+    /**
+     * Getter for quota month.
+     *
+     * @return quota month
+     */
+    public String getMonth() {
+        return month;
+    }
+
+    /**
+     * Getter for monthly budget.
+     *
+     * @return monthly budget
+     */
+    public long getMonthlyBudget() {
+        return monthlyBudget;
+    }
+
+    /**
+     * Getter for requests spent this month.
+     *
+     * @return requests spent
+     */
+    public long getUsed() {
+        return used;
+    }
+
+    /**
+     * Getter for remaining requests this month.
+     *
+     * @return remaining requests
+     */
+    public long getRemaining() {
+        return Math.max(monthlyBudget - used, 0);
+    }
+
+    /**
+     * Getter for requests projected for the month.
+     *
+     * @return projected requests
+     */
+    public long getProjected() {
+        return projected;
+    }
+
+    /**
+     * Getter for quota saving flag.
+     *
+     * @return true or false
+     */
+    public boolean isSaving() {
+        return saving;
+    }
+
+    /**
+     * Getter for requests spent per provider URL.
+     *
+     * @return requests per provider URL
+     */
+    public Map<String, Long> getCalls() {
+        return calls;
+    }
+
+    /**
+     * Overridden toString method.
+     *
+     * @return String
+     */
+    @Override
+    public String toString() {
+        return "QuotaState{"
+                + "month='" + month + '\''
+                + ", monthlyBudget=" + monthlyBudget
+                + ", used=" + used
+                + ", projected=" + projected
+                + ", saving=" + saving
+                + ", calls=" + calls
+                + '}';
+    }
+}
@@ -0,0 +1,90 @@
+package com.practice.currencyconverter.quota;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Upstream calls per month and provider, stored in the application
+ * datasource, so the monthly budget is counted across the nodes and
+ * survives restarts and deploys.
+ */
+@Component
+public class QuotaCounters {
+    /**
+     * JdbcTemplate object.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Parameterized constructor to bind JdbcTemplate object.
+     *
+     * @param jdbcTemplate JdbcTemplate object
+     */
+    public QuotaCounters(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Create the counters table if it does not exist yet.
+     */
+    public void createTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS upstream_quota_calls"
+                + " (quota_month VARCHAR(7) NOT NULL,"
+                + " provider VARCHAR(255) NOT NULL,"
+                + " calls BIGINT NOT NULL,"
+                + " PRIMARY KEY (quota_month, provider))");
+    }
+
+    /**
+     * Add calls to the counter of the provider in the month.
+     *
+     * @param month    month of the calls
+     * @param provider provider URL
+     * @param calls    number of calls
+     */
+    public void add(final YearMonth month, final String provider,
+                    final long calls) {
+        if (increment(month, provider, calls)) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO upstream_quota_calls"
+                            + " (quota_month, provider, calls)"
+                            + " VALUES (?, ?, ?)",
+                    month.toString(), provider, calls);
+        } catch (DataIntegrityViolationException e) {
+            // Another node inserted the counter first.
+            increment(month, provider, calls);
+        }
+    }
+
+    /**
+     * Calls of every node per provider in the month.
+     *
+     * @param month month
+     * @return calls per provider URL
+     */
+    public Map<String, Long> calls(final YearMonth month) {
+        Map<String, Long> calls = new HashMap<>();
+        jdbcTemplate.query("SELECT provider, calls FROM upstream_quota_calls"
+                        + " WHERE quota_month = ?",
+                row -> {
+                    calls.put(row.getString("provider"),
+                            row.getLong("calls"));
+                }, month.toString());
+        return calls;
+    }
+
+    private boolean increment(final YearMonth month, final String provider,
+                              final long calls) {
+        return jdbcTemplate.update("UPDATE upstream_quota_calls"
+                        + " SET calls = calls + ?"
+                        + " WHERE quota_month = ? AND provider = ?",
+                calls, month.toString(), provider) > 0;
+    }
+}
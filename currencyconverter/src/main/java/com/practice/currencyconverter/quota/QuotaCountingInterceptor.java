@@ -0,0 +1,45 @@
+package com.practice.currencyconverter.quota;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+public class QuotaCountingInterceptor implements ClientHttpRequestInterceptor {
+    /**
+     * UpstreamQuotaManager object.
+     */
+    private final UpstreamQuotaManager quotaManager;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param quotaManager UpstreamQuotaManager object
+     */
+    public QuotaCountingInterceptor(final UpstreamQuotaManager quotaManager) {
+        this.quotaManager = quotaManager;
+    }
+
+    /**
+     * Count the outbound call and proceed.
+     *
+     * @param request   http request
+     * @param body      request body
+     * @param execution request execution
+     * @return http response
+     * @throws IOException exception
+     */
+    @Override
+    public ClientHttpResponse intercept(final HttpRequest request,
+                                        final byte[] body,
+                                        final ClientHttpRequestExecution
+                                                execution)
+            throws IOException {
+        quotaManager.record(request.getURI());
+        return execution.execute(request, body);
+    }
+}
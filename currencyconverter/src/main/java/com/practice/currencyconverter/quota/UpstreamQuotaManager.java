@@ -0,0 +1,272 @@
+package com.practice.currencyconverter.quota;
+
+import com.practice.currencyconverter.model.QuotaState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Budget of the upstream calls per month. Each node counts its calls in
+ * memory and adds them to the {@link QuotaCounters} of the datasource at
+ * every sync, reading back the calls of all the nodes, so the budget
+ * holds across the nodes and over restarts. Without counters, or while
+ * the datasource is unavailable, the node counts its own calls only.
+ */
+@Service
+public class UpstreamQuotaManager {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(UpstreamQuotaManager.class);
+    /**
+     * Shortest elapsed time used to project the burn rate, so a handful
+     * of calls right after the month starts does not look like a spike.
+     */
+    private static final Duration MIN_ELAPSED = Duration.ofDays(1);
+    /**
+     * Monthly request budget.
+     */
+    private final long monthlyBudget;
+    /**
+     * Share of the budget the projection may reach before saving kicks in.
+     */
+    private final double savingRatio;
+    /**
+     * Clock to read the current time.
+     */
+    private final Clock clock;
+    /**
+     * Counters shared by the nodes, null to count in memory only.
+     */
+    private final QuotaCounters counters;
+    /**
+     * Requests of this node not added to the shared counters yet, per
+     * provider URL.
+     */
+    private final ConcurrentMap<String, LongAdder> calls =
+            new ConcurrentHashMap<>();
+    /**
+     * Requests of all the nodes this month per provider URL, as of the
+     * last sync.
+     */
+    private volatile Map<String, Long> shared = Collections.emptyMap();
+    /**
+     * Whether the counters table was created.
+     */
+    private boolean tableCreated;
+    /**
+     * Month the counters belong to.
+     */
+    private volatile YearMonth month;
+
+    /**
+     * Parameterized constructor to bind the quota configuration.
+     *
+     * @param monthlyBudget monthly request budget
+     * @param savingRatio   share of the budget that triggers quota saving
+     * @param counters      counters shared by the nodes
+     */
+    @Autowired
+    public UpstreamQuotaManager(
+            @Value("${via.upstream.quota.monthly:1000}")
+            final long monthlyBudget,
+            @Value("${via.upstream.quota.saving-ratio:0.8}")
+            final double savingRatio,
+            final QuotaCounters counters) {
+        this(monthlyBudget, savingRatio, Clock.systemUTC(), counters);
+    }
+
+    /**
+     * Parameterized constructor counting in memory only.
+     *
+     * @param monthlyBudget monthly request budget
+     * @param savingRatio   share of the budget that triggers quota saving
+     */
+    public UpstreamQuotaManager(final long monthlyBudget,
+                                final double savingRatio) {
+        this(monthlyBudget, savingRatio, Clock.systemUTC(), null);
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param monthlyBudget monthly request budget
+     * @param savingRatio   share of the budget that triggers quota saving
+     * @param clock         clock to read the current time
+     * @param counters      counters shared by the nodes, null to count in
+     *                      memory only
+     */
+    public UpstreamQuotaManager(final long monthlyBudget,
+                                final double savingRatio,
+                                final Clock clock,
+                                final QuotaCounters counters) {
+        this.monthlyBudget = monthlyBudget;
+        this.savingRatio = savingRatio;
+        this.clock = clock;
+        this.counters = counters;
+        this.month = YearMonth.now(clock);
+    }
+
+    /**
+     * To count an outbound call.
+     *
+     * @param uri request uri
+     */
+    public void record(final URI uri) {
+        rollOver();
+        calls.computeIfAbsent(providerOf(uri), key -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Requests spent this month.
+     *
+     * @return requests spent
+     */
+    public long getUsed() {
+        rollOver();
+        return shared.values().stream().mapToLong(Long::longValue).sum()
+                + calls.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    /**
+     * Requests projected for the whole month at the current burn rate.
+     *
+     * @return projected requests
+     */
+    public long getProjected() {
+        rollOver();
+        YearMonth current = month;
+        Instant start = current.atDay(1).atStartOfDay(ZoneOffset.UTC)
+                .toInstant();
+        Instant end = current.plusMonths(1).atDay(1)
+                .atStartOfDay(ZoneOffset.UTC).toInstant();
+        long total = Duration.between(start, end).toMillis();
+        long elapsed = Math.min(total, Math.max(MIN_ELAPSED.toMillis(),
+                Duration.between(start, clock.instant()).toMillis()));
+        return Math.round((double) getUsed() * total / elapsed);
+    }
+
+    /**
+     * To check whether quota saving behaviour should be active.
+     *
+     * @return true or false
+     */
+    public boolean isSaving() {
+        return getProjected() >= monthlyBudget * savingRatio;
+    }
+
+    /**
+     * Current quota state.
+     *
+     * @return quota state
+     */
+    public QuotaState getState() {
+        rollOver();
+        Map<String, Long> perProvider = new TreeMap<>(shared);
+        calls.forEach((provider, count) ->
+                perProvider.merge(provider, count.sum(), Long::sum));
+        long projected = getProjected();
+        return new QuotaState(month.toString(), monthlyBudget,
+                getUsed(), projected,
+                projected >= monthlyBudget * savingRatio, perProvider);
+    }
+
+    /**
+     * Add the calls of this node to the shared counters and read back the
+     * calls of all the nodes.
+     */
+    @Scheduled(fixedDelayString = "${via.upstream.quota.sync-interval:PT10S}")
+    public synchronized void sync() {
+        if (counters == null) {
+            return;
+        }
+        rollOver();
+        try {
+            if (!tableCreated) {
+                counters.createTable();
+                tableCreated = true;
+            }
+            flush(month);
+            shared = counters.calls(month);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Upstream quota counters could not be synced", e);
+        }
+    }
+
+    /**
+     * Add the last calls of this node to the shared counters on shutdown.
+     */
+    @PreDestroy
+    public void close() {
+        sync();
+    }
+
+    private void rollOver() {
+        YearMonth current = YearMonth.now(clock);
+        if (!current.equals(month)) {
+            synchronized (this) {
+                if (!current.equals(month)) {
+                    Map<String, Long> last = new HashMap<>(shared);
+                    calls.forEach((provider, count) ->
+                            last.merge(provider, count.sum(), Long::sum));
+                    LOGGER.info("Upstream quota for {}: {}", month, last);
+                    if (counters != null && tableCreated) {
+                        flushQuietly(month);
+                    }
+                    calls.clear();
+                    shared = Collections.emptyMap();
+                    month = current;
+                }
+            }
+        }
+    }
+
+    // Calls that can not be added stay counted for the next sync.
+    private void flush(final YearMonth of) {
+        for (Map.Entry<String, LongAdder> entry : calls.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count == 0) {
+                continue;
+            }
+            try {
+                counters.add(of, entry.getKey(), count);
+            } catch (DataAccessException e) {
+                entry.getValue().add(count);
+                throw e;
+            }
+        }
+    }
+
+    private void flushQuietly(final YearMonth of) {
+        try {
+            flush(of);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Upstream quota for {} could not be saved", of, e);
+        }
+    }
+
+    private static String providerOf(final URI uri) {
+        return uri.getScheme() + "://" + uri.getAuthority() + uri.getPath();
+    }
+}
@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains upstream quota related classes.
+ */
+package com.practice.currencyconverter.quota;
@@ -0,0 +1,164 @@
+package com.practice.currencyconverter.snapshot;
+
+import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Latest snapshot per base. Writers build a new snapshot and swap it in
+ * read-copy-update style, readers only read a reference and never lock.
+ * Recent snapshots stay addressable by their content id, so a client can
+ * keep reading the version it pinned.
+ *
+ * <p>A version carries the fetcher lease epoch in its high bits and a
+ * sequence within the epoch in its low bits. A process counts the
+ * sequence from 1 again after a restart, but it restarts in a newer
+ * epoch, so its versions still order after the ones it published before.
+ */
+@Component
+public class RatesSnapshotStore {
+    /**
+     * Number of snapshots kept addressable by id.
+     */
+    private static final int RETAINED_SNAPSHOTS = 256;
+    /**
+     * Bits of the sequence within an epoch.
+     */
+    private static final int SEQUENCE_BITS = 32;
+    /**
+     * Latest snapshot per base currency.
+     */
+    private final Map<String, AtomicReference<RatesSnapshot>> latest =
+            new ConcurrentHashMap<>();
+    /**
+     * Recent snapshots by content id.
+     */
+    private final Map<String, RatesSnapshot> byId = new ConcurrentHashMap<>();
+    /**
+     * Ids in the order they were retained, oldest first.
+     */
+    private final Deque<String> retainedIds = new ArrayDeque<>();
+
+    /**
+     * Publish the rates as the next version of the base's snapshot, by a
+     * single node.
+     *
+     * @param rates     rates fetched from the provider
+     * @param fetchedAt time the rates were fetched
+     * @return published snapshot
+     */
+    public RatesSnapshot publish(final CurrencyConverter rates,
+                                 final Instant fetchedAt) {
+        return publish(rates, 0, fetchedAt);
+    }
+
+    /**
+     * Publish the rates as the next version of the base's snapshot.
+     *
+     * @param rates     rates fetched from the provider
+     * @param epoch     fetcher lease epoch of the publishing node
+     * @param fetchedAt time the rates were fetched
+     * @return published snapshot
+     */
+    public RatesSnapshot publish(final CurrencyConverter rates,
+                                 final long epoch,
+                                 final Instant fetchedAt) {
+        RatesSnapshot draft = RatesSnapshot.of(rates, 0, fetchedAt);
+        long first = (epoch << SEQUENCE_BITS) + 1;
+        RatesSnapshot snapshot = latest.computeIfAbsent(draft.getBase(),
+                key -> new AtomicReference<>())
+                .updateAndGet(previous -> draft.withVersion(
+                        previous == null || previous.getVersion() < first
+                                ? first : previous.getVersion() + 1));
+        retain(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Install a snapshot published by another node, keeping its version.
+     *
+     * @param snapshot snapshot published by another node
+     * @return true if it is newer than the current snapshot of the base
+     */
+    public boolean replicate(final RatesSnapshot snapshot) {
+        RatesSnapshot current = latest.computeIfAbsent(snapshot.getBase(),
+                key -> new AtomicReference<>())
+                .accumulateAndGet(snapshot, (previous, next) ->
+                        previous == null
+                                || next.getVersion() > previous.getVersion()
+                                ? next : previous);
+        if (current != snapshot) {
+            return false;
+        }
+        retain(snapshot);
+        return true;
+    }
+
+    /**
+     * Keep the rates addressable by their content id.
+     *
+     * @param rates rates, wrapped into an unpublished snapshot if needed
+     * @return the snapshot retained under the id
+     */
+    public RatesSnapshot retain(final CurrencyConverter rates) {
+        RatesSnapshot snapshot = rates instanceof RatesSnapshot
+                ? (RatesSnapshot) rates
+                : RatesSnapshot.of(rates, 0, Instant.now());
+        RatesSnapshot existing = byId.putIfAbsent(snapshot.getId(), snapshot);
+        if (existing != null) {
+            return existing;
+        }
+        synchronized (retainedIds) {
+            retainedIds.addLast(snapshot.getId());
+            while (retainedIds.size() > RETAINED_SNAPSHOTS) {
+                byId.remove(retainedIds.pollFirst());
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Snapshot by content id.
+     *
+     * @param id content id
+     * @return snapshot, empty if unknown or no longer retained
+     */
+    public Optional<RatesSnapshot> byId(final String id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * Latest snapshot of the base.
+     *
+     * @param base base currency
+     * @return snapshot, empty if none was published
+     */
+    public Optional<RatesSnapshot> current(final String base) {
+        AtomicReference<RatesSnapshot> reference = latest.get(base);
+        return reference == null ? Optional.empty()
+                : Optional.ofNullable(reference.get());
+    }
+
+    /**
+     * Latest snapshot of every base.
+     *
+     * @return snapshots
+     */
+    public List<RatesSnapshot> currentAll() {
+        return latest.values().stream()
+                .map(AtomicReference::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,292 @@
+package com.practice.currencyconverter.snapshot;
+
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Snapshots shared between the application processes of a host through
+ * memory-mapped files, one per base. With {@code via.rates.shared.mode}
+ * set to {@code writer} the process writes every snapshot it publishes,
+ * with {@code reader} it serves the written snapshots instead of calling
+ * the provider, with {@code off} nothing is shared. The writer beats a
+ * heartbeat into its files, a reader ignores a file whose heartbeat is
+ * older than {@code via.rates.shared.max-age} and calls the provider.
+ *
+ * <p>A reader keeps a single heap copy per published version, and serves
+ * single rates straight from the mapping without copying the table.
+ */
+@Component
+public class SharedRatesSnapshots {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(SharedRatesSnapshots.class);
+    /**
+     * Sharing mode.
+     */
+    private final Mode mode;
+    /**
+     * Directory of the shared files.
+     */
+    private final Path directory;
+    /**
+     * Age of the writer's heartbeat after which a file is ignored.
+     */
+    private final Duration maxAge;
+    /**
+     * Clock to read the current time.
+     */
+    private final Clock clock;
+    /**
+     * Open files per base.
+     */
+    private final Map<String, SharedSnapshotFile> files =
+            new ConcurrentHashMap<>();
+    /**
+     * Last snapshot materialized from the files per base, reused until
+     * the writer publishes a new version.
+     */
+    private final Map<String, RatesSnapshot> materialized =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Parameterized constructor to bind the sharing configuration.
+     *
+     * @param mode      off, writer or reader
+     * @param directory directory of the shared files
+     * @param maxAge    age of the heartbeat after which a file is ignored
+     */
+    @Autowired
+    public SharedRatesSnapshots(
+            @Value("${via.rates.shared.mode:off}") final String mode,
+            @Value("${via.rates.shared.directory:${java.io.tmpdir}/via-rates}")
+            final String directory,
+            @Value("${via.rates.shared.max-age:PT1M}")
+            final Duration maxAge) {
+        this(mode, directory, maxAge, Clock.systemUTC());
+    }
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param mode      off, writer or reader
+     * @param directory directory of the shared files
+     * @param maxAge    age of the heartbeat after which a file is ignored
+     * @param clock     clock to read the current time
+     */
+    public SharedRatesSnapshots(final String mode, final String directory,
+                                final Duration maxAge, final Clock clock) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.directory = Paths.get(directory);
+        this.maxAge = maxAge;
+        this.clock = clock;
+        if (this.mode == Mode.WRITER) {
+            try {
+                Files.createDirectories(this.directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Whether the process serves shared snapshots.
+     *
+     * @return true or false
+     */
+    public boolean isReader() {
+        return mode == Mode.READER;
+    }
+
+    /**
+     * Write the published snapshot for the other processes.
+     *
+     * @param event rates fetched event
+     */
+    @EventListener
+    public void onRatesFetched(final RatesFetchedEvent event) {
+        if (mode != Mode.WRITER || !event.isComplete()
+                || !(event.getRates() instanceof RatesSnapshot)) {
+            return;
+        }
+        RatesSnapshot snapshot = (RatesSnapshot) event.getRates();
+        file(snapshot.getBase()).ifPresent(file -> {
+            file.write(snapshot);
+            file.heartbeat(clock.instant());
+        });
+    }
+
+    /**
+     * Tell the readers the writer is still alive, also when the rates did
+     * not change.
+     */
+    @Scheduled(fixedDelayString =
+            "${via.rates.shared.heartbeat-interval:PT10S}")
+    public void heartbeat() {
+        if (mode != Mode.WRITER) {
+            return;
+        }
+        Instant now = clock.instant();
+        files.values().forEach(file -> file.heartbeat(now));
+    }
+
+    /**
+     * Snapshot of the base written by the writer process.
+     *
+     * @param base base currency
+     * @return snapshot, empty if not a reader, nothing was written yet or
+     * the writer stopped beating; the last snapshot read while the writer
+     * holds the file for too long
+     */
+    public Optional<RatesSnapshot> read(final String base) {
+        if (mode != Mode.READER) {
+            return Optional.empty();
+        }
+        Optional<SharedSnapshotFile> file = live(base);
+        if (file.isEmpty()) {
+            return Optional.empty();
+        }
+        RatesSnapshot cached = materialized.get(base);
+        try {
+            long version = file.get().version();
+            if (cached != null && cached.getVersion() == version) {
+                return Optional.of(cached);
+            }
+            Optional<RatesSnapshot> snapshot = file.get().read();
+            snapshot.ifPresent(read -> materialized.put(base, read));
+            return snapshot;
+        } catch (TimeoutException e) {
+            LOGGER.warn("Shared {} rates are contended, serving version {}",
+                    base, cached == null ? null : cached.getVersion(), e);
+            return Optional.ofNullable(cached);
+        }
+    }
+
+    /**
+     * Whether the rates are the snapshot a reader materialized from the
+     * shared file, which need no other cache.
+     *
+     * @param rates rates
+     * @return true or false
+     */
+    public boolean isShared(final Object rates) {
+        return rates instanceof RatesSnapshot && materialized.get(
+                ((RatesSnapshot) rates).getBase()) == rates;
+    }
+
+    /**
+     * Single rate of the base read straight from the shared file.
+     *
+     * @param base   base currency
+     * @param target target currency
+     * @return rate, empty if not a reader, not available, contended or
+     * the writer stopped beating
+     */
+    public OptionalDouble rate(final String base, final String target) {
+        if (mode != Mode.READER) {
+            return OptionalDouble.empty();
+        }
+        Optional<SharedSnapshotFile> file = live(base);
+        if (file.isEmpty()) {
+            return OptionalDouble.empty();
+        }
+        try {
+            return file.get().rate(target);
+        } catch (TimeoutException e) {
+            LOGGER.warn("Shared {} rates are contended", base, e);
+            return OptionalDouble.empty();
+        }
+    }
+
+    /**
+     * Close the shared files.
+     */
+    @PreDestroy
+    public void close() {
+        files.values().forEach(file -> {
+            try {
+                file.close();
+            } catch (IOException e) {
+                LOGGER.warn("Closing shared rates file failed", e);
+            }
+        });
+        files.clear();
+    }
+
+    // File of the base, empty if its writer has not beaten for too long.
+    private Optional<SharedSnapshotFile> live(final String base) {
+        return file(base).filter(file -> {
+            Instant heartbeat = file.lastHeartbeat();
+            if (heartbeat.plus(maxAge).isBefore(clock.instant())) {
+                LOGGER.debug("Shared {} rates are stale, last heartbeat {}",
+                        base, heartbeat);
+                return false;
+            }
+            return true;
+        });
+    }
+
+    private Optional<SharedSnapshotFile> file(final String base) {
+        SharedSnapshotFile file = files.get(base);
+        if (file != null) {
+            return Optional.of(file);
+        }
+        Path path = directory.resolve(base + ".rates");
+        try {
+            if (mode == Mode.READER && !Files.exists(path)) {
+                return Optional.empty();
+            }
+            SharedSnapshotFile opened = mode == Mode.WRITER
+                    ? SharedSnapshotFile.openWriter(path, base)
+                    : SharedSnapshotFile.openReader(path, base);
+            SharedSnapshotFile existing = files.putIfAbsent(base, opened);
+            if (existing != null) {
+                opened.close();
+                return Optional.of(existing);
+            }
+            return Optional.of(opened);
+        } catch (IOException e) {
+            LOGGER.warn("Shared rates file {} is not available", path, e);
+            return Optional.empty();
+        }
+    }
+
+    private enum Mode {
+        /**
+         * Nothing is shared.
+         */
+        OFF,
+        /**
+         * Writes the published snapshots.
+         */
+        WRITER,
+        /**
+         * Serves the written snapshots.
+         */
+        READER
+    }
+}
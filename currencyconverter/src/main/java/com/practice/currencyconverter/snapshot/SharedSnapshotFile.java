@@ -0,0 +1,387 @@
+package com.practice.currencyconverter.snapshot;
+
+import com.practice.currencyconverter.model.RatesSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rate snapshot of one base in a memory-mapped file, written by a single
+ * process and read by any number of processes on the same host.
+ *
+ * <p>The header starts with a sequence number used as a seqlock: the
+ * writer makes it odd before changing the content and even again after,
+ * a reader retries until it sees the same even number before and after
+ * reading. A reader spins briefly, then yields and parks, so a writer
+ * preempted half way gets the processor back, and reports a writer that
+ * holds the sequence for too long as a timeout rather than as an empty
+ * file. Codes are kept sorted, so a single rate can be read straight
+ * from the mapping without copying the table. The heartbeat is written
+ * on its own, outside the seqlock, so readers can tell a live writer
+ * from a file left behind by a dead one.
+ */
+public final class SharedSnapshotFile implements Closeable {
+    /**
+     * Maximum number of currencies in a snapshot.
+     */
+    public static final int MAX_CODES = 512;
+    /**
+     * Offset of the sequence number.
+     */
+    private static final int SEQUENCE = 0;
+    /**
+     * Offset of the number of currencies.
+     */
+    private static final int COUNT = 8;
+    /**
+     * Offset of the snapshot version.
+     */
+    private static final int VERSION = 16;
+    /**
+     * Offset of the fetch time in epoch milliseconds.
+     */
+    private static final int FETCHED_AT = 24;
+    /**
+     * Offset of the date in epoch days.
+     */
+    private static final int DATE = 32;
+    /**
+     * Offset of the writer's heartbeat in epoch milliseconds.
+     */
+    private static final int HEARTBEAT = 40;
+    /**
+     * Offset of the currency codes, four ASCII bytes each.
+     */
+    private static final int CODES = 64;
+    /**
+     * Bytes of a currency code.
+     */
+    private static final int CODE_BYTES = 4;
+    /**
+     * Offset of the rates.
+     */
+    private static final int RATES = CODES + MAX_CODES * CODE_BYTES;
+    /**
+     * Size of the file.
+     */
+    private static final int SIZE = RATES + MAX_CODES * Double.BYTES;
+    /**
+     * Mask of a byte.
+     */
+    private static final int BYTE_MASK = 0xff;
+    /**
+     * Date marker for snapshots without a date.
+     */
+    private static final long NO_DATE = Long.MIN_VALUE;
+    /**
+     * Attempts spinning before yielding the processor to the writer.
+     */
+    private static final int SPINS = 100;
+    /**
+     * Attempts yielding before parking.
+     */
+    private static final int YIELDS = 200;
+    /**
+     * First pause once parking.
+     */
+    private static final long MIN_PARK_NANOS = TimeUnit.MICROSECONDS
+            .toNanos(10);
+    /**
+     * Longest pause once parking.
+     */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(1);
+    /**
+     * Time a writer may hold the sequence before a reader gives up.
+     */
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS
+            .toNanos(100);
+    /**
+     * Ordered access to the sequence number.
+     */
+    private static final VarHandle LONGS = MethodHandles
+            .byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    /**
+     * Base currency.
+     */
+    private final String base;
+    /**
+     * File channel.
+     */
+    private final FileChannel channel;
+    /**
+     * Mapping of the file.
+     */
+    private final MappedByteBuffer buffer;
+
+    private SharedSnapshotFile(final String base, final FileChannel channel,
+                               final FileChannel.MapMode mode)
+            throws IOException {
+        this.base = base;
+        this.channel = channel;
+        this.buffer = channel.map(mode, 0, SIZE);
+        this.buffer.order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Open the file for writing, creating it if needed.
+     *
+     * @param file file
+     * @param base base currency
+     * @return shared snapshot file
+     * @throws IOException file can not be mapped
+     */
+    public static SharedSnapshotFile openWriter(final Path file,
+                                                final String base)
+            throws IOException {
+        SharedSnapshotFile shared = new SharedSnapshotFile(base,
+                FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE),
+                FileChannel.MapMode.READ_WRITE);
+        long sequence = (long) LONGS.getVolatile(shared.buffer, SEQUENCE);
+        if ((sequence & 1) != 0) {
+            // A previous writer died half way, readers would wait forever.
+            LONGS.setVolatile(shared.buffer, SEQUENCE, sequence + 1);
+        }
+        return shared;
+    }
+
+    /**
+     * Open an existing file for reading.
+     *
+     * @param file file
+     * @param base base currency
+     * @return shared snapshot file
+     * @throws IOException file does not exist or can not be mapped
+     */
+    public static SharedSnapshotFile openReader(final Path file,
+                                                final String base)
+            throws IOException {
+        return new SharedSnapshotFile(base,
+                FileChannel.open(file, StandardOpenOption.READ),
+                FileChannel.MapMode.READ_ONLY);
+    }
+
+    /**
+     * Replace the content with the snapshot.
+     *
+     * @param snapshot snapshot of the base
+     */
+    public synchronized void write(final RatesSnapshot snapshot) {
+        Map<String, Double> sorted = new TreeMap<>(snapshot.getRates());
+        if (sorted.size() > MAX_CODES) {
+            throw new IllegalArgumentException("More than " + MAX_CODES
+                    + " currencies in " + snapshot);
+        }
+        long sequence = (long) LONGS.getVolatile(buffer, SEQUENCE);
+        LONGS.setVolatile(buffer, SEQUENCE, sequence + 1);
+        VarHandle.storeStoreFence();
+
+        buffer.putLong(VERSION, snapshot.getVersion());
+        buffer.putLong(FETCHED_AT, snapshot.getFetchedAt().toEpochMilli());
+        buffer.putLong(DATE, snapshot.getDate() == null
+                ? NO_DATE : snapshot.getDate().toEpochDay());
+        int index = 0;
+        for (Map.Entry<String, Double> entry : sorted.entrySet()) {
+            buffer.putInt(CODES + index * CODE_BYTES, encode(entry.getKey()));
+            buffer.putDouble(RATES + index * Double.BYTES, entry.getValue());
+            index++;
+        }
+        buffer.putLong(COUNT, index);
+
+        LONGS.setRelease(buffer, SEQUENCE, sequence + 2);
+    }
+
+    /**
+     * Record that the writer is alive.
+     *
+     * @param at current time
+     */
+    public void heartbeat(final Instant at) {
+        LONGS.setRelease(buffer, HEARTBEAT, at.toEpochMilli());
+    }
+
+    /**
+     * Last heartbeat of the writer.
+     *
+     * @return heartbeat, the epoch if the writer never sent one
+     */
+    public Instant lastHeartbeat() {
+        return Instant.ofEpochMilli(
+                (long) LONGS.getAcquire(buffer, HEARTBEAT));
+    }
+
+    /**
+     * Version of the current content, without reading the rates.
+     *
+     * @return version, 0 if nothing was written yet
+     * @throws TimeoutException the writer held the sequence for too long
+     */
+    public long version() throws TimeoutException {
+        long started = System.nanoTime();
+        for (int attempt = 0;; attempt++) {
+            long before = (long) LONGS.getAcquire(buffer, SEQUENCE);
+            long version = buffer.getLong(VERSION);
+            VarHandle.loadLoadFence();
+            if ((before & 1) == 0
+                    && before == (long) LONGS.getVolatile(buffer, SEQUENCE)) {
+                return version;
+            }
+            backOff(attempt, started);
+        }
+    }
+
+    /**
+     * Copy of the current content.
+     *
+     * @return snapshot, empty if nothing was written yet
+     * @throws TimeoutException the writer held the sequence for too long
+     */
+    public Optional<RatesSnapshot> read() throws TimeoutException {
+        int[] codes = new int[MAX_CODES];
+        double[] rates = new double[MAX_CODES];
+        long started = System.nanoTime();
+        for (int attempt = 0;; attempt++) {
+            long before = (long) LONGS.getAcquire(buffer, SEQUENCE);
+            int count = (int) Math.min(Math.max(buffer.getLong(COUNT), 0),
+                    MAX_CODES);
+            long version = buffer.getLong(VERSION);
+            long fetchedAt = buffer.getLong(FETCHED_AT);
+            long date = buffer.getLong(DATE);
+            for (int i = 0; i < count; i++) {
+                codes[i] = buffer.getInt(CODES + i * CODE_BYTES);
+                rates[i] = buffer.getDouble(RATES + i * Double.BYTES);
+            }
+            VarHandle.loadLoadFence();
+            if ((before & 1) != 0
+                    || before != (long) LONGS.getVolatile(buffer, SEQUENCE)) {
+                backOff(attempt, started);
+                continue;
+            }
+            if (version == 0) {
+                return Optional.empty();
+            }
+            Map<String, Double> copy = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                copy.put(decode(codes[i]), rates[i]);
+            }
+            return Optional.of(new RatesSnapshot(base,
+                    date == NO_DATE ? null : LocalDate.ofEpochDay(date),
+                    copy, version, Instant.ofEpochMilli(fetchedAt)));
+        }
+    }
+
+    /**
+     * Rate of a single currency, read straight from the mapping.
+     *
+     * @param target target currency
+     * @return rate, empty if the currency is not in the snapshot
+     * @throws TimeoutException the writer held the sequence for too long
+     */
+    public OptionalDouble rate(final String target) throws TimeoutException {
+        int code = encode(target);
+        long started = System.nanoTime();
+        for (int attempt = 0;; attempt++) {
+            long before = (long) LONGS.getAcquire(buffer, SEQUENCE);
+            int count = (int) Math.min(Math.max(buffer.getLong(COUNT), 0),
+                    MAX_CODES);
+            double rate = Double.NaN;
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int found = buffer.getInt(CODES + mid * CODE_BYTES);
+                int order = Integer.compareUnsigned(found, code);
+                if (order == 0) {
+                    rate = buffer.getDouble(RATES + mid * Double.BYTES);
+                    break;
+                } else if (order < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            VarHandle.loadLoadFence();
+            if ((before & 1) == 0
+                    && before == (long) LONGS.getVolatile(buffer, SEQUENCE)) {
+                return Double.isNaN(rate) ? OptionalDouble.empty()
+                        : OptionalDouble.of(rate);
+            }
+            backOff(attempt, started);
+        }
+    }
+
+    /**
+     * Close the file channel.
+     *
+     * @throws IOException channel can not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // The writer usually finishes within microseconds, so spin first, then
+    // leave the processor to it in case it was preempted half way.
+    private static void backOff(final int attempt, final long started)
+            throws TimeoutException {
+        if (System.nanoTime() - started > MAX_WAIT_NANOS) {
+            throw new TimeoutException("Shared snapshot still being written"
+                    + " after " + MAX_WAIT_NANOS + " ns");
+        }
+        if (attempt < SPINS) {
+            Thread.onSpinWait();
+        } else if (attempt < YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS,
+                    MIN_PARK_NANOS << Math.min(attempt - YIELDS,
+                            Byte.SIZE)));
+        }
+    }
+
+    // Codes are packed big-endian, so the packed ints sort like the codes.
+    private static int encode(final String code) {
+        byte[] bytes = code.getBytes(StandardCharsets.US_ASCII);
+        if (bytes.length > CODE_BYTES) {
+            throw new IllegalArgumentException("Invalid currency " + code);
+        }
+        int packed = 0;
+        for (int i = 0; i < CODE_BYTES; i++) {
+            packed = (packed << Byte.SIZE)
+                    | (i < bytes.length ? bytes[i] & BYTE_MASK : 0);
+        }
+        return packed;
+    }
+
+    private static String decode(final int packed) {
+        byte[] bytes = new byte[CODE_BYTES];
+        int length = 0;
+        for (int i = 0; i < CODE_BYTES; i++) {
+            byte value = (byte) (packed
+                    >>> (Byte.SIZE * (CODE_BYTES - 1 - i)));
+            if (value != 0) {
+                bytes[length++] = value;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains rate snapshot related classes.
+ */
+package com.practice.currencyconverter.snapshot;
@@ -0,0 +1,140 @@
+package com.practice.currencyconverter.spread;
+
+import com.practice.currencyconverter.model.ConversionQuote;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Spread and fee rules of the conversions, by currency pair, amount band
+ * and customer class. The rules of {@code via.rates.spreads.location} are
+ * compiled into a {@link SpreadTable} that is swapped in whole on reload,
+ * so a conversion sees either the old or the new rules and never waits
+ * for a reload. Without a location no spread or fee is applied. A
+ * customer class the rules do not name is charged like the
+ * {@value #DEFAULT_CUSTOMER_CLASS} class.
+ */
+@Component
+public class SpreadRules {
+    /**
+     * Customer class of the conversions that do not name a known one.
+     */
+    public static final String DEFAULT_CUSTOMER_CLASS = "RETAIL";
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(SpreadRules.class);
+    /**
+     * ResourceLoader object.
+     */
+    private final ResourceLoader resourceLoader;
+    /**
+     * Location of the rules, empty for none.
+     */
+    private final String location;
+    /**
+     * Rules in effect.
+     */
+    private final AtomicReference<SpreadTable> table =
+            new AtomicReference<>(SpreadTable.EMPTY);
+
+    /**
+     * Parameterized constructor, loads the rules.
+     *
+     * @param resourceLoader resource loader object
+     * @param location       resource location of the rules CSV
+     */
+    public SpreadRules(
+            final ResourceLoader resourceLoader,
+            @Value("${via.rates.spreads.location:}") final String location) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.trim();
+        reload();
+    }
+
+    /**
+     * Compile the rules again and put them in effect. The rules in effect
+     * are kept if the new ones can not be read or compiled.
+     *
+     * @return number of rules in effect
+     * @throws IllegalArgumentException invalid or duplicate rule
+     * @throws UncheckedIOException     rules can not be read
+     */
+    public int reload() {
+        if (location.isEmpty()) {
+            return table.get().size();
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                resourceLoader.getResource(location).getInputStream(),
+                StandardCharsets.UTF_8))) {
+            SpreadTable compiled = SpreadTable.parse(reader, location);
+            table.set(compiled);
+            LOGGER.info("{} spread rules loaded from {}", compiled.size(),
+                    location);
+            return compiled.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Spread rules can not be read from "
+                    + location, e);
+        }
+    }
+
+    /**
+     * Convert an amount of the base of the rate table, applying the spread
+     * and fee of the customer class, or of the default class if the rules
+     * do not name it. Conversions no rule applies to get the mid rate
+     * without a fee.
+     *
+     * @param rates         rate table of the source currency
+     * @param to            target currency
+     * @param amount        amount in the source currency
+     * @param customerClass customer class
+     * @return quote, empty if the target currency is not quoted
+     */
+    public Optional<ConversionQuote> convert(final CurrencyConverter rates,
+                                             final String to,
+                                             final double amount,
+                                             final String customerClass) {
+        Double midRate = to.equals(rates.getBase()) ? Double.valueOf(1)
+                : rates.getRates().get(to);
+        if (midRate == null) {
+            return Optional.empty();
+        }
+        return Optional.of(convert(rates.getBase(), to, midRate, amount,
+                customerClass));
+    }
+
+    /**
+     * Convert the amount at the mid rate, applying the spread and fee of
+     * the customer class.
+     *
+     * @param from          source currency
+     * @param to            target currency
+     * @param midRate       mid rate from the source to the target currency
+     * @param amount        amount in the source currency
+     * @param customerClass customer class
+     * @return quote
+     */
+    public ConversionQuote convert(final String from, final String to,
+                                   final double midRate, final double amount,
+                                   final String customerClass) {
+        SpreadTable rules = table.get();
+        int cell = rules.find(from, to, amount, customerClass);
+        double rate = cell < 0 ? midRate
+                : midRate * (1 - rules.spread(cell));
+        double fee = cell < 0 ? 0 : rules.fee(cell);
+        return new ConversionQuote(from, to, amount, midRate, rate, fee,
+                Math.max(amount - fee, 0) * rate);
+    }
+}
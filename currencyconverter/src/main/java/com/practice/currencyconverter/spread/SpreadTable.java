@@ -0,0 +1,332 @@
+package com.practice.currencyconverter.spread;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Spread rules compiled into flat arrays. Every pair owns a run of amount
+ * bands, every band a row of one cell per customer class, and a cell
+ * holds the spread and fee of the rule in effect from the lower bound of
+ * the band up. Finding the rule of a conversion is a few map lookups and
+ * a binary search over the bands of one pair. A table never changes once
+ * compiled, so it can be read by any number of threads.
+ *
+ * <p>Rules are read from CSV lines of
+ * {@code base,target,customerClass,minAmount,spreadBps,fee}, where
+ * {@code *} as base or target matches any currency and lines starting
+ * with {@code #} are comments.
+ */
+final class SpreadTable {
+    /**
+     * Wildcard matching any currency.
+     */
+    static final String ANY = "*";
+    /**
+     * Table without rules.
+     */
+    static final SpreadTable EMPTY = new SpreadTable(List.of());
+    /**
+     * Number of columns of a rule line.
+     */
+    private static final int COLUMNS = 6;
+    /**
+     * Column of the lower amount bound.
+     */
+    private static final int MIN_AMOUNT = 3;
+    /**
+     * Column of the spread in basis points.
+     */
+    private static final int SPREAD = 4;
+    /**
+     * Column of the fee.
+     */
+    private static final int FEE = 5;
+    /**
+     * Basis points of a whole.
+     */
+    private static final double BASIS_POINTS = 10_000;
+    /**
+     * Valid base or target of a rule.
+     */
+    private static final Pattern CURRENCY = Pattern.compile("[A-Z]{3}|\\*");
+    /**
+     * Number of rules compiled.
+     */
+    private final int size;
+    /**
+     * Number of customer classes, i.e. cells per band.
+     */
+    private final int width;
+    /**
+     * Cell column of each customer class.
+     */
+    private final Map<String, Integer> classIndex = new HashMap<>();
+    /**
+     * Pair index by base and target.
+     */
+    private final Map<String, Map<String, Integer>> pairIndex =
+            new HashMap<>();
+    /**
+     * First band of each pair.
+     */
+    private final int[] bandStart;
+    /**
+     * Number of bands of each pair.
+     */
+    private final int[] bandCount;
+    /**
+     * Lower amount bound of each band, ascending within a pair.
+     */
+    private final double[] bounds;
+    /**
+     * Spread in basis points per cell, NaN where no rule applies.
+     */
+    private final double[] spreads;
+    /**
+     * Fee in the source currency per cell.
+     */
+    private final double[] fees;
+
+    private SpreadTable(final List<Rule> rules) {
+        Map<String, Map<String, TreeMap<Double, List<Rule>>>> byPair =
+                new HashMap<>();
+        for (Rule rule : rules) {
+            classIndex.putIfAbsent(rule.customerClass, classIndex.size());
+            byPair.computeIfAbsent(rule.base, key -> new HashMap<>())
+                    .computeIfAbsent(rule.target, key -> new TreeMap<>())
+                    .computeIfAbsent(rule.minAmount, key -> new ArrayList<>())
+                    .add(rule);
+        }
+        int pairs = byPair.values().stream().mapToInt(Map::size).sum();
+        int bands = byPair.values().stream()
+                .flatMap(targets -> targets.values().stream())
+                .mapToInt(Map::size).sum();
+        size = rules.size();
+        width = classIndex.size();
+        bandStart = new int[pairs];
+        bandCount = new int[pairs];
+        bounds = new double[bands];
+        spreads = new double[bands * width];
+        fees = new double[bands * width];
+        Arrays.fill(spreads, Double.NaN);
+        int pair = 0;
+        int band = 0;
+        for (Map.Entry<String, Map<String, TreeMap<Double, List<Rule>>>> base
+                : byPair.entrySet()) {
+            Map<String, Integer> targets = new HashMap<>();
+            for (Map.Entry<String, TreeMap<Double, List<Rule>>> target
+                    : base.getValue().entrySet()) {
+                targets.put(target.getKey(), pair);
+                bandStart[pair] = band;
+                bandCount[pair] = target.getValue().size();
+                for (Map.Entry<Double, List<Rule>> bound
+                        : target.getValue().entrySet()) {
+                    bounds[band] = bound.getKey();
+                    if (band > bandStart[pair]) {
+                        // A class without a rule in this band keeps the
+                        // rule of its previous band.
+                        System.arraycopy(spreads, (band - 1) * width,
+                                spreads, band * width, width);
+                        System.arraycopy(fees, (band - 1) * width,
+                                fees, band * width, width);
+                    }
+                    for (Rule rule : bound.getValue()) {
+                        int cell = band * width
+                                + classIndex.get(rule.customerClass);
+                        spreads[cell] = rule.spreadBps;
+                        fees[cell] = rule.fee;
+                    }
+                    band++;
+                }
+                pair++;
+            }
+            pairIndex.put(base.getKey(), targets);
+        }
+    }
+
+    /**
+     * Read and compile the rule lines.
+     *
+     * @param reader rule lines
+     * @param source name of the source, for error messages
+     * @return compiled table
+     * @throws IOException              lines can not be read
+     * @throws IllegalArgumentException invalid or duplicate rule
+     */
+    static SpreadTable parse(final BufferedReader reader, final String source)
+            throws IOException {
+        List<Rule> rules = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        int number = 0;
+        for (String line = reader.readLine(); line != null;
+             line = reader.readLine()) {
+            number++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            Rule rule;
+            try {
+                rule = Rule.of(trimmed.split(",", -1));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid spread rule at "
+                        + source + ":" + number + ", " + e.getMessage(), e);
+            }
+            if (!keys.add(rule.base + "/" + rule.target + "/"
+                    + rule.customerClass + "/" + rule.minAmount)) {
+                throw new IllegalArgumentException("Duplicate spread rule at "
+                        + source + ":" + number);
+            }
+            rules.add(rule);
+        }
+        return new SpreadTable(rules);
+    }
+
+    /**
+     * Number of rules compiled.
+     *
+     * @return number of rules
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Cell of the most specific rule of a conversion: the exact pair,
+     * then any target, then any base, then any pair. A class without rules
+     * gets the rules of the default class.
+     *
+     * @param from          source currency
+     * @param to            target currency
+     * @param amount        amount in the source currency
+     * @param customerClass customer class
+     * @return cell, negative if no rule applies
+     */
+    int find(final String from, final String to, final double amount,
+             final String customerClass) {
+        Integer column = classIndex.getOrDefault(customerClass
+                .toUpperCase(Locale.ROOT),
+                classIndex.get(SpreadRules.DEFAULT_CUSTOMER_CLASS));
+        if (column == null) {
+            return -1;
+        }
+        int cell = cell(from, to, amount, column);
+        if (cell < 0) {
+            cell = cell(from, ANY, amount, column);
+        }
+        if (cell < 0) {
+            cell = cell(ANY, to, amount, column);
+        }
+        if (cell < 0) {
+            cell = cell(ANY, ANY, amount, column);
+        }
+        return cell;
+    }
+
+    /**
+     * Spread of a cell.
+     *
+     * @param cell cell found
+     * @return spread as a fraction of the rate
+     */
+    double spread(final int cell) {
+        return spreads[cell] / BASIS_POINTS;
+    }
+
+    /**
+     * Fee of a cell.
+     *
+     * @param cell cell found
+     * @return fee in the source currency
+     */
+    double fee(final int cell) {
+        return fees[cell];
+    }
+
+    private int cell(final String base, final String target,
+                     final double amount, final int column) {
+        Map<String, Integer> targets = pairIndex.get(base);
+        Integer pair = targets == null ? null : targets.get(target);
+        if (pair == null) {
+            return -1;
+        }
+        int start = bandStart[pair];
+        int found = Arrays.binarySearch(bounds, start,
+                start + bandCount[pair], amount);
+        // Last band whose lower bound is not above the amount.
+        int band = found >= 0 ? found : -found - 2;
+        if (band < start) {
+            return -1;
+        }
+        int cell = band * width + column;
+        return Double.isNaN(spreads[cell]) ? -1 : cell;
+    }
+
+    private static final class Rule {
+        /**
+         * Source currency or wildcard.
+         */
+        private final String base;
+        /**
+         * Target currency or wildcard.
+         */
+        private final String target;
+        /**
+         * Customer class.
+         */
+        private final String customerClass;
+        /**
+         * Lower amount bound.
+         */
+        private final double minAmount;
+        /**
+         * Spread in basis points.
+         */
+        private final double spreadBps;
+        /**
+         * Fee in the source currency.
+         */
+        private final double fee;
+
+        private Rule(final String[] columns) {
+            this.base = columns[0].trim().toUpperCase(Locale.ROOT);
+            this.target = columns[1].trim().toUpperCase(Locale.ROOT);
+            this.customerClass = columns[2].trim().toUpperCase(Locale.ROOT);
+            this.minAmount = Double.parseDouble(columns[MIN_AMOUNT].trim());
+            this.spreadBps = Double.parseDouble(columns[SPREAD].trim());
+            this.fee = Double.parseDouble(columns[FEE].trim());
+        }
+
+        private static Rule of(final String[] columns) {
+            if (columns.length != COLUMNS) {
+                throw new IllegalArgumentException("expected " + COLUMNS
+                        + " columns");
+            }
+            Rule rule = new Rule(columns);
+            if (!CURRENCY.matcher(rule.base).matches()
+                    || !CURRENCY.matcher(rule.target).matches()) {
+                throw new IllegalArgumentException("invalid currency");
+            }
+            if (rule.customerClass.isEmpty()) {
+                throw new IllegalArgumentException("missing customer class");
+            }
+            if (!(rule.minAmount >= 0) || Double.isInfinite(rule.minAmount)
+                    || !(rule.spreadBps >= 0 && rule.spreadBps < BASIS_POINTS)
+                    || !(rule.fee >= 0) || Double.isInfinite(rule.fee)) {
+                throw new IllegalArgumentException("amount, spread or fee "
+                        + "out of range");
+            }
+            return rule;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains conversion spread and fee rule related classes.
+ */
+package com.practice.currencyconverter.spread;
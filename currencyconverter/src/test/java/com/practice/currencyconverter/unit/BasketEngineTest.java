@@ -0,0 +1,70 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.basket.BasketDefinitions;
+import com.practice.currencyconverter.basket.BasketEngine;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.BasketQuote;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasketEngineTest {
+
+    private final BasketEngine basketEngine;
+
+    BasketEngineTest() {
+        BasketDefinitions definitions = new BasketDefinitions();
+        definitions.setBaskets(Map.of(
+                "sdr", Map.of("USD", 0.5, "EUR", 0.4, "HUF", 10.0),
+                "CEE", Map.of("PLN", 1.0, "CZK", 5.0)));
+        basketEngine = new BasketEngine(definitions);
+    }
+
+    private static RatesSnapshot snapshot(final String base, final Map<String, Double> rates) {
+        return new RatesSnapshot(base, LocalDate.parse("2020-01-06"), rates, 1,
+                Instant.parse("2020-01-06T16:00:00Z"));
+    }
+
+    @Test
+    void basketsAreValuedInTheBaseOfEachCompleteTable() {
+        //GIVEN
+        CurrencyConverter hufRates = snapshot("HUF", Map.of("USD", 0.004, "EUR", 0.003, "INR", 0.25));
+
+        //WHEN
+        basketEngine.onRatesFetched(new RatesFetchedEvent(hufRates, Instant.now(), false));
+        boolean quotedFromPartialTable = basketEngine.quote("SDR", "HUF").isPresent();
+        basketEngine.onRatesFetched(new RatesFetchedEvent(hufRates, Instant.now(), true));
+        BasketQuote sdrInHuf = basketEngine.quote("sdr", "HUF").orElseThrow();
+
+        //THEN
+        assertFalse(quotedFromPartialTable);
+        assertEquals(Set.of("SDR", "CEE"), basketEngine.getNames());
+        assertEquals("SDR", sdrInHuf.getName());
+        assertEquals(0.5 / 0.004 + 0.4 / 0.003 + 10.0, sdrInHuf.getValue(), 1e-9);
+        assertEquals(LocalDate.parse("2020-01-06"), sdrInHuf.getDate());
+    }
+
+    @Test
+    void otherBasesAreConvertedFromTheLastTable() {
+        //GIVEN
+        basketEngine.revalue(snapshot("HUF", Map.of("USD", 0.004, "EUR", 0.003, "INR", 0.25)));
+        double sdrInHuf = basketEngine.quote("SDR", "HUF").orElseThrow().getValue();
+
+        //WHEN
+        BasketQuote sdrInInr = basketEngine.quote("SDR", "INR").orElseThrow();
+
+        //THEN
+        assertEquals(sdrInHuf * 0.25, sdrInInr.getValue(), 1e-9);
+        assertEquals("INR", sdrInInr.getBase());
+        assertTrue(basketEngine.quote("SDR", "JPY").isEmpty());
+        assertTrue(basketEngine.quote("CEE", "HUF").isEmpty());
+        assertTrue(basketEngine.quote("UNKNOWN", "HUF").isEmpty());
+    }
+}
@@ -0,0 +1,122 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.history.CandleInterval;
+import com.practice.currencyconverter.history.CandleStore;
+import com.practice.currencyconverter.model.Candle;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CandleStoreTest {
+
+    private static final PublicationCalendar CALENDAR = new PublicationCalendar("16:00", "CET",
+            "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY", "", "PT5M", "PT1H");
+
+    private final CandleStore candleStore = new CandleStore(CALENDAR);
+
+    @Test
+    void ratesAreFoldedIntoEveryTier() {
+        //GIVEN
+        CurrencyConverter rates = new CurrencyConverter(Map.of("INR", 0.23), "HUF", null);
+
+        //WHEN
+        candleStore.onRatesFetched(new RatesFetchedEvent(rates, Instant.parse("2020-01-08T10:15:00Z"), true));
+        candleStore.record("HUF", "INR", Instant.parse("2020-01-08T10:45:00Z"), 0.25);
+        candleStore.record("HUF", "INR", Instant.parse("2020-01-08T11:05:00Z"), 0.21);
+        candleStore.record("HUF", "INR", Instant.parse("2020-01-09T09:00:00Z"), 0.22);
+
+        //THEN
+        List<Candle> daily = candleStore.getCandles("HUF", "INR", CandleInterval.DAY).orElseThrow();
+        assertEquals(2, daily.size());
+        assertCandle(daily.get(0), "2020-01-08T00:00:00Z", 0.23, 0.25, 0.21, 0.21, 3);
+
+        List<Candle> weekly = candleStore.getCandles("HUF", "INR", CandleInterval.WEEK).orElseThrow();
+        assertEquals(1, weekly.size());
+        assertCandle(weekly.get(0), "2020-01-06T00:00:00Z", 0.23, 0.25, 0.21, 0.22, 4);
+    }
+
+    @Test
+    void finerTiersAreBoundedWhileCoarserTiersKeepTheHistory() {
+        //GIVEN
+        Instant start = Instant.parse("2020-01-06T00:00:00Z");
+
+        //WHEN
+        for (int day = 0; day < 400; day++) {
+            candleStore.record("HUF", "INR", start.plus(Duration.ofDays(day)), day);
+        }
+
+        //THEN
+        List<Candle> daily = candleStore.getCandles("HUF", "INR", CandleInterval.DAY).orElseThrow();
+        assertEquals(CandleInterval.DAY.getRetention(), daily.size());
+        assertEquals(start.plus(Duration.ofDays(400 - 366)), daily.get(0).getStart());
+
+        List<Candle> weekly = candleStore.getCandles("HUF", "INR", CandleInterval.WEEK).orElseThrow();
+        assertEquals(58, weekly.size());
+        assertEquals(0, weekly.get(0).getLow());
+        assertEquals(6, weekly.get(0).getHigh());
+    }
+
+    @Test
+    void outOfOrderRatesAreIgnoredAndUnknownPairsAreEmpty() {
+        //GIVEN
+        candleStore.record("HUF", "INR", Instant.parse("2020-01-08T10:15:00Z"), 0.23);
+
+        //WHEN
+        candleStore.record("HUF", "INR", Instant.parse("2020-01-08T09:15:00Z"), 0.5);
+
+        //THEN
+        List<Candle> daily = candleStore.getCandles("HUF", "INR", CandleInterval.DAY).orElseThrow();
+        assertEquals(1, daily.size());
+        assertEquals(0.23, daily.get(0).getHigh());
+        assertTrue(candleStore.getCandles("HUF", "USD", CandleInterval.DAY).isEmpty());
+    }
+
+    @Test
+    void publicationsAreFoldedOnceAtTheirPublicationTime() {
+        //GIVEN
+        CurrencyConverter friday = published("2020-01-10", 0.23);
+        CurrencyConverter monday = published("2020-01-13", 0.24);
+
+        //WHEN
+        candleStore.onRatesFetched(new RatesFetchedEvent(friday, Instant.parse("2020-01-10T17:00:00Z"), true));
+        candleStore.onRatesFetched(new RatesFetchedEvent(friday, Instant.parse("2020-01-11T09:00:00Z"), true));
+        candleStore.onRatesFetched(new RatesFetchedEvent(friday, Instant.parse("2020-01-12T09:00:00Z"), false));
+        candleStore.onRatesFetched(new RatesFetchedEvent(monday, Instant.parse("2020-01-13T17:00:00Z"), true));
+        candleStore.onRatesFetched(new RatesFetchedEvent(friday, Instant.parse("2020-01-13T18:00:00Z"), true));
+
+        //THEN
+        List<Candle> daily = candleStore.getCandles("HUF", "INR", CandleInterval.DAY).orElseThrow();
+        assertEquals(2, daily.size());
+        assertCandle(daily.get(0), "2020-01-10T00:00:00Z", 0.23, 0.23, 0.23, 0.23, 1);
+        assertCandle(daily.get(1), "2020-01-13T00:00:00Z", 0.24, 0.24, 0.24, 0.24, 1);
+
+        candleStore.record("HUF", "INR", Instant.parse("2020-01-13T14:00:00Z"), 0.5);
+        candleStore.record("HUF", "INR", Instant.parse("2020-01-13T16:00:00Z"), 0.25);
+        List<Candle> later = candleStore.getCandles("HUF", "INR", CandleInterval.DAY).orElseThrow();
+        assertCandle(later.get(1), "2020-01-13T00:00:00Z", 0.24, 0.25, 0.24, 0.25, 2);
+    }
+
+    private static CurrencyConverter published(final String date, final double inr) {
+        return new CurrencyConverter(Map.of("INR", inr), "HUF", LocalDate.parse(date));
+    }
+
+    private static void assertCandle(final Candle candle, final String start, final double open,
+                                     final double high, final double low, final double close,
+                                     final long count) {
+        assertEquals(Instant.parse(start), candle.getStart());
+        assertEquals(open, candle.getOpen());
+        assertEquals(high, candle.getHigh());
+        assertEquals(low, candle.getLow());
+        assertEquals(close, candle.getClose());
+        assertEquals(count, candle.getCount());
+    }
+}
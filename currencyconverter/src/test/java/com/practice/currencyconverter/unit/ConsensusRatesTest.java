@@ -0,0 +1,163 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.consensus.ConsensusRates;
+import com.practice.currencyconverter.model.ConsensusReport;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsensusRatesTest {
+
+    private static final String PROVIDERS = "http://a.test/latest?base=%s, http://b.test/latest?base=%s,"
+            + "http://c.test/latest?base=%s";
+
+    private static final String FIVE_PROVIDERS = PROVIDERS + ",http://d.test/latest?base=%s,"
+            + "http://e.test/latest?base=%s";
+
+    @Mock
+    RestTemplate restTemplate;
+
+    private ConsensusRates consensusRates;
+
+    @AfterEach
+    void close() {
+        consensusRates.close();
+    }
+
+    private static CurrencyConverter rates(final String date, final Map<String, Double> rates) {
+        return new CurrencyConverter(rates, "HUF", LocalDate.parse(date));
+    }
+
+    @Test
+    void consensusIsTheMedianPerCurrencyQuotedByAQuorumAndFlagsOutliers() {
+        //GIVEN
+        consensusRates = new ConsensusRates(restTemplate, PROVIDERS, "PT5S", 0.01, 16);
+        when(restTemplate.getForObject("http://a.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.230, "USD", 0.0033)));
+        when(restTemplate.getForObject("http://b.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.231, "USD", 0.0034)));
+        when(restTemplate.getForObject("http://c.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-05", Map.of("INR", 2.31)));
+
+        //WHEN
+        CurrencyConverter consensus = consensusRates.fetch("HUF");
+        ConsensusReport report = consensusRates.getReport("HUF").orElseThrow();
+
+        //THEN
+        assertTrue(consensusRates.isEnabled());
+        assertEquals(0.231, consensus.getRates().get("INR"));
+        assertFalse(consensus.getRates().containsKey("USD"));
+        assertEquals(LocalDate.parse("2020-01-06"), consensus.getDate());
+        assertEquals(Map.of("INR", List.of("c.test/latest")), report.getOutliers());
+        assertEquals(3, report.getAnswered().size());
+        assertTrue(report.getMissed().isEmpty());
+    }
+
+    @Test
+    void slowAndFailingProvidersDoNotDelayTheConsensus() {
+        //GIVEN
+        consensusRates = new ConsensusRates(restTemplate, FIVE_PROVIDERS, "PT0.3S", 0.01, 16);
+        when(restTemplate.getForObject("http://a.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.230)));
+        when(restTemplate.getForObject("http://d.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.229)));
+        when(restTemplate.getForObject("http://e.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.231)));
+        when(restTemplate.getForObject("http://b.test/latest?base=HUF", CurrencyConverter.class))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(5000);
+                    return rates("2020-01-06", Map.of("INR", 9.0));
+                });
+        when(restTemplate.getForObject("http://c.test/latest?base=HUF", CurrencyConverter.class))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        //WHEN
+        long start = System.nanoTime();
+        CurrencyConverter consensus = consensusRates.fetch("HUF");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        //THEN
+        assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+        assertEquals(0.230, consensus.getRates().get("INR"));
+        assertEquals(List.of("b.test/latest", "c.test/latest"),
+                consensusRates.getReport("HUF").orElseThrow().getMissed());
+    }
+
+    @Test
+    void noAnswerIsAnError() {
+        //GIVEN
+        consensusRates = new ConsensusRates(restTemplate, PROVIDERS, "PT1S", 0.01, 16);
+        when(restTemplate.getForObject(anyString(), eq(CurrencyConverter.class)))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        //WHEN
+        //THEN
+        assertThrows(ResourceAccessException.class, () -> consensusRates.fetch("HUF"));
+        assertTrue(consensusRates.getReport("HUF").isEmpty());
+        assertFalse(new ConsensusRates(restTemplate, "http://a.test/latest?base=%s", "PT1S", 0.01, 16).isEnabled());
+        assertFalse(new ConsensusRates(restTemplate, "http://a.test/latest?base=%s, http://b.test/latest?base=%s",
+                "PT1S", 0.01, 16).isEnabled());
+    }
+
+    @Test
+    void answersBelowTheQuorumAreAnError() {
+        //GIVEN
+        consensusRates = new ConsensusRates(restTemplate, PROVIDERS, "PT1S", 0.01, 16);
+        when(restTemplate.getForObject("http://a.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.230)));
+        when(restTemplate.getForObject("http://b.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 2.30)));
+        when(restTemplate.getForObject("http://c.test/latest?base=HUF", CurrencyConverter.class))
+                .thenThrow(new ResourceAccessException("Connection refused"));
+
+        //WHEN
+        //THEN
+        assertThrows(ResourceAccessException.class, () -> consensusRates.fetch("HUF"));
+        assertTrue(consensusRates.getReport("HUF").isEmpty());
+    }
+
+    @Test
+    void callsBeyondTheBoundedPoolAreMissed() {
+        //GIVEN
+        consensusRates = new ConsensusRates(restTemplate, FIVE_PROVIDERS, "PT2S", 0.01, 2);
+        for (String provider : List.of("a", "b")) {
+            when(restTemplate.getForObject("http://" + provider + ".test/latest?base=HUF", CurrencyConverter.class))
+                    .thenAnswer(invocation -> {
+                        Thread.sleep(200);
+                        return rates("2020-01-06", Map.of("INR", 0.230));
+                    });
+        }
+        when(restTemplate.getForObject("http://c.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.232)));
+        when(restTemplate.getForObject("http://d.test/latest?base=HUF", CurrencyConverter.class))
+                .thenReturn(rates("2020-01-06", Map.of("INR", 0.232)));
+
+        //WHEN
+        CurrencyConverter consensus = consensusRates.fetch("HUF");
+        ConsensusReport report = consensusRates.getReport("HUF").orElseThrow();
+
+        //THEN
+        assertEquals(0.231, consensus.getRates().get("INR"), 1e-12);
+        assertEquals(List.of("a.test/latest", "b.test/latest", "c.test/latest", "d.test/latest"),
+                report.getAnswered());
+        assertEquals(List.of("e.test/latest"), report.getMissed());
+        verify(restTemplate, never()).getForObject("http://e.test/latest?base=HUF", CurrencyConverter.class);
+    }
+}
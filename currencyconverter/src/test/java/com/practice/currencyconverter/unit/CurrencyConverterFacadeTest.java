@@ -1,8 +1,17 @@
 package com.practice.currencyconverter.unit;
 
+import com.practice.currencyconverter.cluster.RatesCluster;
+import com.practice.currencyconverter.consensus.ConsensusRates;
 import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.history.RatesHistory;
 import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import com.practice.currencyconverter.snapshot.RatesSnapshotStore;
+import com.practice.currencyconverter.snapshot.SharedRatesSnapshots;
 import com.practice.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -10,15 +19,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +42,27 @@ class CurrencyConverterFacadeTest {
     @Mock
     RestTemplate restTemplate;
 
+    @Mock
+    UpstreamQuotaManager quotaManager;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    RatesHistory ratesHistory;
+
+    @Spy
+    RatesSnapshotStore snapshotStore = new RatesSnapshotStore();
+
+    @Mock
+    SharedRatesSnapshots sharedSnapshots;
+
+    @Mock
+    RatesCluster ratesCluster;
+
+    @Mock
+    ConsensusRates consensusRates;
+
     @InjectMocks
     CurrencyConverterFacade currencyConverterFacade;
 
@@ -55,10 +91,14 @@ class CurrencyConverterFacadeTest {
         rates.put("INR", 0.2357907805);
         rates.put("HUF", 1.0);
 
-        converter = new CurrencyConverter();
-        converter.setBase(base);
-        converter.setDate(LocalDate.now());
-        converter.setRates(rates);
+        converter = new CurrencyConverter(rates, base, LocalDate.now());
+    }
+
+    @BeforeEach
+    void singleNode() {
+        currencyConverterFacade.setApplicationEventPublisher(eventPublisher);
+        spyCurrencyConverterFacade.setApplicationEventPublisher(eventPublisher);
+        lenient().when(ratesCluster.isFetcher()).thenReturn(true);
     }
 
     @Test
@@ -94,6 +134,27 @@ class CurrencyConverterFacadeTest {
         assertEquals(CURRENCY_RATE_URL + "base=" + base, captor.getValue());
         assertNotNull(currencyRate.getRates());
         assertNull(currencyRate.getRates().get("HUF"));
+        verify(eventPublisher).publishEvent(any(RatesFetchedEvent.class));
+    }
+
+    @Test
+    void getCurrencyRatePublishesImmutableVersionedSnapshots() {
+        //GIVEN
+        ReflectionTestUtils.setField(currencyConverterFacade, "currencyRateUrl",
+                "https://api.exchangeratesapi.io/latest?base=%s");
+        when(restTemplate.getForObject(CURRENCY_RATE_URL + "base=" + base, CurrencyConverter.class))
+                .thenReturn(converter);
+
+        //WHEN
+        RatesSnapshot first = (RatesSnapshot) currencyConverterFacade.getCurrencyRate(base);
+        RatesSnapshot second = (RatesSnapshot) currencyConverterFacade.getCurrencyRate(base);
+
+        //THEN
+        assertEquals(1, first.getVersion());
+        assertEquals(2, second.getVersion());
+        assertSame(second, snapshotStore.current(base).orElseThrow());
+        assertEquals(1.0, converter.getRates().get("HUF"));
+        assertThrows(UnsupportedOperationException.class, () -> first.getRates().remove("INR"));
     }
 
     @Test
@@ -157,4 +218,135 @@ class CurrencyConverterFacadeTest {
         assertNotNull(currencyRateWithTarget.getRates());
         assertNull(currencyRateWithTarget.getRates().get("HUF"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCurrencyRateIsReadFromTheSharedSnapshot() {
+        //GIVEN
+        RatesSnapshot shared = RatesSnapshot.of(converter, 7, Instant.parse("2020-01-06T16:00:00Z"));
+        when(sharedSnapshots.read(base)).thenReturn(Optional.of(shared));
+
+        //WHEN
+        CurrencyConverter currencyRate = currencyConverterFacade.getCurrencyRate(base);
+
+        //THEN
+        assertSame(shared, currencyRate);
+        assertSame(shared, snapshotStore.byId(shared.getId()).orElseThrow());
+        verifyNoInteractions(restTemplate, eventPublisher);
+    }
+
+    @Test
+    void getCurrencyRateIsPulledFromTheFetcherNode() {
+        //GIVEN
+        RatesSnapshot pulled = RatesSnapshot.of(converter, 4, Instant.parse("2020-01-06T16:00:00Z"));
+        when(ratesCluster.isFetcher()).thenReturn(false);
+        when(ratesCluster.pull(base)).thenReturn(Optional.of(pulled));
+
+        //WHEN
+        CurrencyConverter currencyRate = currencyConverterFacade.getCurrencyRate(base);
+
+        //THEN
+        assertSame(pulled, currencyRate);
+        assertSame(pulled, snapshotStore.current(base).orElseThrow());
+        verify(eventPublisher).publishEvent(any(RatesFetchedEvent.class));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void replicateKeepsTheNewestPushedSnapshot() {
+        //GIVEN
+        Instant fetchedAt = Instant.parse("2020-01-06T16:00:00Z");
+        RatesSnapshot newer = RatesSnapshot.of(converter, 5, fetchedAt);
+        RatesSnapshot older = RatesSnapshot.of(converter, 3, fetchedAt);
+
+        //WHEN
+        CurrencyConverter afterNewer = currencyConverterFacade.replicate(newer);
+        CurrencyConverter afterOlder = currencyConverterFacade.replicate(older);
+
+        //THEN
+        assertSame(newer, afterNewer);
+        assertSame(newer, afterOlder);
+        verify(eventPublisher).publishEvent(any(RatesFetchedEvent.class));
+        verify(restTemplate, never()).getForObject(any(String.class), eq(CurrencyConverter.class));
+    }
+
+    @Test
+    void getCurrencyRateIsTheConsensusOfTheProviders() {
+        //GIVEN
+        when(consensusRates.isEnabled()).thenReturn(true);
+        when(consensusRates.fetch(base)).thenReturn(converter);
+
+        //WHEN
+        RatesSnapshot currencyRate = (RatesSnapshot) currencyConverterFacade.getCurrencyRate(base);
+
+        //THEN
+        assertEquals(1, currencyRate.getVersion());
+        assertEquals(0.2357907805, currencyRate.getRates().get("INR"));
+        verify(eventPublisher).publishEvent(any(RatesFetchedEvent.class));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void getCurrencyRateIsTriangulatedWhileSavingQuota() {
+        //GIVEN
+        ReflectionTestUtils.setField(currencyConverterFacade, "currencyRateUrl",
+                "https://api.exchangeratesapi.io/latest?base=%s");
+        when(restTemplate.getForObject(CURRENCY_RATE_URL + "base=" + base, CurrencyConverter.class))
+                .thenReturn(converter);
+        currencyConverterFacade.getCurrencyRate(base);
+        when(quotaManager.isSaving()).thenReturn(true);
+
+        //WHEN
+        CurrencyConverter inrRates = currencyConverterFacade.getCurrencyRate("INR");
+
+        //THEN
+        verify(restTemplate).getForObject(CURRENCY_RATE_URL + "base=" + base, CurrencyConverter.class);
+        assertEquals("INR", inrRates.getBase());
+        assertEquals(1 / 0.2357907805, inrRates.getRates().get("HUF"), 1e-9);
+        assertEquals(0.0025654372 / 0.2357907805, inrRates.getRates().get("GBP"), 1e-9);
+        assertNull(inrRates.getRates().get("INR"));
+    }
+
+    @Test
+    void getCurrencyRateAsOf() throws ResourceNotFoundException {
+        //GIVEN
+        Instant at = Instant.parse("2020-01-06T12:00:00Z");
+        when(ratesHistory.asOf(base, at)).thenReturn(Optional.of(converter));
+        when(ratesHistory.asOf(base, List.of(at))).thenReturn(List.of(converter));
+
+        //WHEN
+        CurrencyConverter asOf = currencyConverterFacade.getCurrencyRateAsOf(base, at);
+        List<CurrencyConverter> batch = currencyConverterFacade.getCurrencyRatesAsOf(base, List.of(at));
+
+        //THEN
+        assertSame(converter, asOf);
+        assertEquals(List.of(converter), batch);
+    }
+
+    @Test
+    void getCurrencyRateAsOfBeforeFirstFetch() {
+        //GIVEN
+        Instant at = Instant.parse("2020-01-06T12:00:00Z");
+        when(ratesHistory.asOf(base, at)).thenReturn(Optional.empty());
+
+        //WHEN
+        //THEN
+        assertThrows(ResourceNotFoundException.class,
+                () -> currencyConverterFacade.getCurrencyRateAsOf(base, at));
+    }
+
+    @Test
+    void isDefaultCurrencyRateOnlyForTheFallbackTable() {
+        //GIVEN
+        CurrencyConverter fallback = ReflectionTestUtils.invokeMethod(
+                currencyConverterFacade, "getDefaultCurrencyRate", "INR");
+        RatesSnapshot published = snapshotStore.publish(converter, Instant.parse("2020-01-06T16:00:00Z"));
+
+        //WHEN
+        //THEN
+        assertNotNull(fallback);
+        assertTrue(currencyConverterFacade.isDefaultCurrencyRate(fallback));
+        assertFalse(currencyConverterFacade.isDefaultCurrencyRate(published));
+        assertFalse(currencyConverterFacade.isDefaultCurrencyRate(converter));
+        assertFalse(CurrencyConverterFacade.isFallback("HUF"));
+    }
+}
@@ -1,7 +1,15 @@
 package com.practice.currencyconverter.unit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.currencyconverter.cluster.RatesCluster;
+import com.practice.currencyconverter.cluster.SnapshotCodec;
+import com.practice.currencyconverter.consensus.ConsensusRates;
 import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.history.RatesHistory;
 import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import com.practice.currencyconverter.snapshot.RatesSnapshotStore;
+import com.practice.currencyconverter.snapshot.SharedRatesSnapshots;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +22,8 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,7 +48,12 @@ public class CurrencyConverterFallbackUnitTest {
 
         @Bean
         public CurrencyConverterFacade currencyConverterFacade() {
-            return new CurrencyConverterFacade(restTemplate());
+            return new CurrencyConverterFacade(restTemplate(),
+                    new UpstreamQuotaManager(1000, 0.8), new RatesHistory(10, null), new RatesSnapshotStore(),
+                    new SharedRatesSnapshots("off", "target/via-rates", Duration.ofMinutes(1)),
+                    new RatesCluster(false, "http://localhost:8080", "",
+                            "PT30S", null, new SnapshotCodec("", new ObjectMapper()), Clock.systemUTC()),
+                    new ConsensusRates(restTemplate(), "", "PT0.8S", 0.01, 16));
         }
     }
 
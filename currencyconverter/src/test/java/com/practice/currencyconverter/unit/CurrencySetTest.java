@@ -0,0 +1,69 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.model.CurrencySet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrencySetTest {
+
+    @Test
+    void equalityDoesNotDependOnOrder() {
+        //GIVEN
+        CurrencySet first = CurrencySet.of(List.of("INR", "EUR", "USD"));
+        CurrencySet second = CurrencySet.of(List.of("USD", "INR", "EUR"));
+
+        //WHEN
+        //THEN
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(3, first.size());
+        assertEquals("EUR,INR,USD", first.toString());
+    }
+
+    @Test
+    void containsAll() {
+        //GIVEN
+        CurrencySet valid = CurrencySet.of(List.of("HUF", "INR", "USD"));
+
+        //WHEN
+        //THEN
+        assertTrue(valid.containsAll(CurrencySet.of(Set.of("HUF", "USD"))));
+        assertFalse(valid.containsAll(CurrencySet.of(Set.of("HUF", "GBP"))));
+        assertTrue(valid.containsAll(CurrencySet.EMPTY));
+        assertTrue(valid.contains("INR"));
+        assertFalse(valid.contains("GBP"));
+    }
+
+    @Test
+    void ofKnownRejectsCodesNeverInterned() {
+        //GIVEN
+        CurrencySet.of(Set.of("IDR"));
+
+        //WHEN
+        Optional<CurrencySet> known = CurrencySet.ofKnown(Set.of("IDR"));
+        Optional<CurrencySet> unknown = CurrencySet.ofKnown(Set.of("IDR", "not-a-code"));
+
+        //THEN
+        assertTrue(known.isPresent());
+        assertFalse(unknown.isPresent());
+    }
+
+    @Test
+    void union() {
+        //GIVEN
+        CurrencySet first = CurrencySet.of(Set.of("HUF"));
+        CurrencySet second = CurrencySet.of(Set.of("INR"));
+
+        //WHEN
+        CurrencySet union = first.union(second);
+
+        //THEN
+        assertEquals(Set.of("HUF", "INR"), union.toSet());
+        assertTrue(CurrencySet.EMPTY.isEmpty());
+    }
+}
@@ -0,0 +1,87 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.cluster.FetcherLease;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FetcherLeaseTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Instant NOW = Instant.parse("2020-01-06T16:00:00Z");
+
+    private FetcherLease lease;
+
+    @BeforeEach
+    void createTable() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:lease;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS rates_fetcher_lease");
+        lease = new FetcherLease(jdbcTemplate);
+        lease.createTable();
+        lease.createTable();
+    }
+
+    @Test
+    void onlyOneNodeHoldsTheLease() {
+        //GIVEN
+        assertTrue(lease.holder(NOW).isEmpty());
+
+        //WHEN
+        OptionalLong first = lease.tryAcquire("http://localhost:8080", NOW, TTL);
+        OptionalLong second = lease.tryAcquire("http://localhost:8081", NOW, TTL);
+        boolean renewed = lease.renew("http://localhost:8080", 1, NOW.plusSeconds(20), TTL);
+
+        //THEN
+        assertEquals(OptionalLong.of(1), first);
+        assertTrue(second.isEmpty());
+        assertTrue(renewed);
+        assertFalse(lease.renew("http://localhost:8081", 1, NOW.plusSeconds(20), TTL));
+        assertEquals(Optional.of("http://localhost:8080"), lease.holder(NOW.plusSeconds(45)));
+        assertTrue(lease.tryAcquire("http://localhost:8081", NOW.plusSeconds(45), TTL).isEmpty());
+    }
+
+    @Test
+    void anExpiredOrReleasedLeaseIsTakenOver() {
+        //GIVEN
+        lease.tryAcquire("http://localhost:8080", NOW, TTL);
+
+        //WHEN
+        OptionalLong takenOver = lease.tryAcquire("http://localhost:8081", NOW.plusSeconds(31), TTL);
+        boolean staleRenewal = lease.renew("http://localhost:8080", 1, NOW.plusSeconds(31), TTL);
+        lease.release("http://localhost:8080");
+        Optional<String> holderAfterStaleRelease = lease.holder(NOW.plusSeconds(32));
+        lease.release("http://localhost:8081");
+
+        //THEN
+        assertEquals(OptionalLong.of(2), takenOver);
+        assertFalse(staleRenewal);
+        assertEquals(Optional.of("http://localhost:8081"), holderAfterStaleRelease);
+        assertTrue(lease.holder(NOW.plusSeconds(32)).isEmpty());
+        assertEquals(OptionalLong.of(3), lease.tryAcquire("http://localhost:8080", NOW.plusSeconds(32), TTL));
+    }
+
+    @Test
+    void aRestartedHolderTakesTheLeaseBackInANewEpoch() {
+        //GIVEN
+        lease.tryAcquire("http://localhost:8080", NOW, TTL);
+
+        //WHEN
+        OptionalLong restarted = lease.tryAcquire("http://localhost:8080", NOW.plusSeconds(5), TTL);
+        boolean renewedByTheOldProcess = lease.renew("http://localhost:8080", 1, NOW.plusSeconds(10), TTL);
+        boolean renewedByTheNewProcess = lease.renew("http://localhost:8080", 2, NOW.plusSeconds(10), TTL);
+
+        //THEN
+        assertEquals(OptionalLong.of(2), restarted);
+        assertFalse(renewedByTheOldProcess);
+        assertTrue(renewedByTheNewProcess);
+    }
+}
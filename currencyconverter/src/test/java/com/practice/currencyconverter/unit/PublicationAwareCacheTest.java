@@ -0,0 +1,147 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.cache.PublicationAwareCache;
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicationAwareCacheTest {
+
+    private final PublicationCalendar calendar = new PublicationCalendar("16:00", "CET",
+            "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY", "", "PT5M", "PT1H");
+
+    private static Instant at(final String dateTime) {
+        return ZonedDateTime.parse(dateTime + "+01:00[CET]").toInstant();
+    }
+
+    private static CurrencyConverter rates(final String date) {
+        return new CurrencyConverter(Map.of("INR", 0.23), "HUF", LocalDate.parse(date));
+    }
+
+    private final MutableClock clock = new MutableClock();
+
+    private final PublicationAwareCache cache = new PublicationAwareCache(
+            new ConcurrentMapCache("CurrencyConverterCache"), calendar, clock);
+
+    @Test
+    void freshRatesAreKeptOverTheWeekend() {
+        //GIVEN
+        clock.now = at("2020-01-03T17:00:00");
+        cache.put("HUF", rates("2020-01-03"));
+
+        //WHEN
+        //THEN
+        clock.now = at("2020-01-05T23:00:00");
+        assertNotNull(cache.get("HUF"));
+        clock.now = at("2020-01-06T15:59:00");
+        assertNotNull(cache.get("HUF"));
+        clock.now = at("2020-01-06T16:00:00");
+        assertNull(cache.get("HUF"));
+    }
+
+    @Test
+    void staleRatesAreRetriedWithBackoff() {
+        //GIVEN
+        clock.now = at("2020-01-06T16:00:00");
+        cache.put("HUF", rates("2020-01-03"));
+
+        //WHEN
+        //THEN
+        clock.now = at("2020-01-06T16:04:00");
+        assertNotNull(cache.get("HUF"));
+        clock.now = at("2020-01-06T16:05:00");
+        assertNull(cache.get("HUF"));
+
+        cache.put("HUF", rates("2020-01-03"));
+        clock.now = at("2020-01-06T16:14:00");
+        assertNotNull(cache.get("HUF"));
+        clock.now = at("2020-01-06T16:15:00");
+        assertNull(cache.get("HUF"));
+    }
+
+    @Test
+    void fallbackRatesAreOnlyKeptForTheFirstBackoff() {
+        //GIVEN
+        CurrencyConverter fallback = rates("2020-01-03");
+        PublicationAwareCache fallbackCache = new PublicationAwareCache(
+                new ConcurrentMapCache("CurrencyConverterCache"), calendar, clock, () -> false,
+                value -> value == fallback);
+        clock.now = at("2020-01-03T17:00:00");
+
+        //WHEN
+        fallbackCache.put("HUF", fallback);
+
+        //THEN
+        clock.now = at("2020-01-03T17:04:00");
+        assertNotNull(fallbackCache.get("HUF"));
+        clock.now = at("2020-01-03T17:05:00");
+        assertNull(fallbackCache.get("HUF"));
+    }
+
+    @Test
+    void staleRatesAreRetriedLessOftenWhileSavingQuota() {
+        //GIVEN
+        PublicationAwareCache savingCache = new PublicationAwareCache(
+                new ConcurrentMapCache("CurrencyConverterCache"), calendar, clock, () -> true);
+        clock.now = at("2020-01-06T16:00:00");
+
+        //WHEN
+        savingCache.put("HUF", rates("2020-01-03"));
+
+        //THEN
+        clock.now = at("2020-01-06T16:55:00");
+        assertNotNull(savingCache.get("HUF"));
+        clock.now = at("2020-01-06T17:00:00");
+        assertNull(savingCache.get("HUF"));
+    }
+
+    @Test
+    void getWithLoaderCachesTheValue() {
+        //GIVEN
+        clock.now = at("2020-01-06T17:00:00");
+
+        //WHEN
+        CurrencyConverter loaded = cache.get("HUF", () -> rates("2020-01-06"));
+
+        //THEN
+        assertSame(loaded, cache.get("HUF", CurrencyConverter.class));
+        assertNotNull(cache.putIfAbsent("HUF", rates("2020-01-06")));
+        cache.evict("HUF");
+        assertNull(cache.get("HUF"));
+        cache.put("INR", rates("2020-01-06"));
+        cache.clear();
+        assertNull(cache.get("INR"));
+        assertEquals("CurrencyConverterCache", cache.getName());
+        assertNotNull(cache.getNativeCache());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.EPOCH;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
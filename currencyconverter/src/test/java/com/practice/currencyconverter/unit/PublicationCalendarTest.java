@@ -0,0 +1,73 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicationCalendarTest {
+
+    private final PublicationCalendar calendar = new PublicationCalendar("16:00", "CET",
+            "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY", "2020-01-01", "PT5M", "PT1H");
+
+    @Test
+    void nextPublicationSkipsTheWeekend() {
+        //GIVEN
+        Instant fridayEvening = ZonedDateTime.parse("2020-01-03T17:00:00+01:00[CET]").toInstant();
+
+        //WHEN
+        ZonedDateTime next = calendar.nextPublication(fridayEvening);
+
+        //THEN
+        assertEquals(ZonedDateTime.parse("2020-01-06T16:00:00+01:00[CET]").toInstant(), next.toInstant());
+    }
+
+    @Test
+    void nextPublicationOnTheSameDay() {
+        //GIVEN
+        Instant mondayMorning = ZonedDateTime.parse("2020-01-06T09:00:00+01:00[CET]").toInstant();
+
+        //WHEN
+        ZonedDateTime next = calendar.nextPublication(mondayMorning);
+
+        //THEN
+        assertEquals(LocalDate.parse("2020-01-06"), next.toLocalDate());
+    }
+
+    @Test
+    void latestPublicationDateSkipsHolidaysAndWeekends() {
+        //GIVEN
+        Instant sunday = ZonedDateTime.parse("2020-01-05T12:00:00+01:00[CET]").toInstant();
+        Instant newYearMorning = ZonedDateTime.parse("2020-01-02T09:00:00+01:00[CET]").toInstant();
+
+        //WHEN
+        //THEN
+        assertEquals(LocalDate.parse("2020-01-03"), calendar.latestPublicationDate(sunday));
+        assertEquals(LocalDate.parse("2019-12-31"), calendar.latestPublicationDate(newYearMorning));
+        assertFalse(calendar.isPublicationDay(LocalDate.parse("2020-01-01")));
+    }
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        //GIVEN
+        //WHEN
+        //THEN
+        assertEquals(Duration.ofMinutes(5), calendar.backoff(0));
+        assertEquals(Duration.ofMinutes(20), calendar.backoff(2));
+        assertEquals(Duration.ofHours(1), calendar.backoff(10));
+    }
+
+    @Test
+    void publicationDaysAreRequired() {
+        //GIVEN
+        //WHEN
+        //THEN
+        assertThrows(IllegalArgumentException.class,
+                () -> new PublicationCalendar("16:00", "CET", "", "", "PT5M", "PT1H"));
+    }
+}
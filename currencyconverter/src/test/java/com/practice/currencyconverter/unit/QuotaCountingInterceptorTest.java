@@ -0,0 +1,47 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.quota.QuotaCountingInterceptor;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class QuotaCountingInterceptorTest {
+
+    @Mock
+    UpstreamQuotaManager quotaManager;
+
+    @InjectMocks
+    QuotaCountingInterceptor interceptor;
+
+    @Test
+    void countsEveryOutboundCall() throws IOException {
+        //GIVEN
+        URI uri = URI.create("https://api.exchangeratesapi.io/latest?base=HUF");
+        HttpRequest request = mock(HttpRequest.class);
+        ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        byte[] body = new byte[0];
+        when(request.getURI()).thenReturn(uri);
+        when(execution.execute(request, body)).thenReturn(response);
+
+        //WHEN
+        ClientHttpResponse actual = interceptor.intercept(request, body, execution);
+
+        //THEN
+        assertSame(response, actual);
+        verify(quotaManager).record(uri);
+    }
+}
@@ -0,0 +1,240 @@
+package com.practice.currencyconverter.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.currencyconverter.cluster.FetcherLease;
+import com.practice.currencyconverter.cluster.RatesCluster;
+import com.practice.currencyconverter.cluster.SnapshotCodec;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.ClusterState;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RatesClusterTest {
+
+    private static final Instant NOW = Instant.parse("2020-01-06T16:00:00Z");
+
+    @Mock
+    FetcherLease lease;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SnapshotCodec codec = new SnapshotCodec("cluster-secret", objectMapper);
+    private final CompletableFuture<byte[]> pushed = new CompletableFuture<>();
+    private final CompletableFuture<String> pushedSignature = new CompletableFuture<>();
+    private final RatesSnapshot snapshot = new RatesSnapshot("HUF", LocalDate.parse("2020-01-06"),
+            Map.of("INR", 0.23), 4, NOW);
+    private HttpServer server;
+    private String peer;
+
+    @BeforeEach
+    void startPeer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/admin/cluster/snapshots", exchange -> {
+            pushedSignature.complete(exchange.getRequestHeaders().getFirst(RatesCluster.NODE_HEADER)
+                    + " " + exchange.getRequestHeaders().getFirst(RatesCluster.SIGNATURE_HEADER));
+            pushed.complete(exchange.getRequestBody().readAllBytes());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/api/v1/rates", exchange -> {
+            byte[] bytes = objectMapper.writeValueAsBytes(snapshot);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        peer = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopPeer() {
+        server.stop(0);
+    }
+
+    private RatesCluster cluster(final boolean enabled, final String node) {
+        return new RatesCluster(enabled, node, peer + ", " + node, "PT30S", lease, codec,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void aSingleNodeIsAlwaysTheFetcher() {
+        //GIVEN
+        RatesCluster cluster = cluster(false, "http://localhost:8080");
+
+        //WHEN
+        cluster.renew();
+        cluster.release();
+
+        //THEN
+        assertTrue(cluster.isFetcher());
+        assertTrue(cluster.pull("HUF").isEmpty());
+        assertEquals("http://localhost:8080", cluster.getState().getLeader());
+        verifyNoInteractions(lease);
+    }
+
+    @Test
+    void theLeaseHolderPushesPublishedSnapshotsToThePeers() throws Exception {
+        //GIVEN
+        RatesCluster cluster = cluster(true, "http://localhost:8080");
+        when(lease.tryAcquire("http://localhost:8080", NOW, Duration.ofSeconds(30))).thenReturn(OptionalLong.of(3));
+
+        //WHEN
+        cluster.renew();
+        cluster.onRatesFetched(new RatesFetchedEvent(snapshot, NOW, false));
+        cluster.onRatesFetched(new RatesFetchedEvent(snapshot, NOW, true));
+        byte[] body = pushed.get(5, TimeUnit.SECONDS);
+        RatesSnapshot received = objectMapper.readValue(body, RatesSnapshot.class);
+        long epoch = cluster.getEpoch();
+        cluster.release();
+
+        //THEN
+        assertEquals(3, epoch);
+        assertEquals("http://localhost:8080 " + codec.sign("http://localhost:8080", body),
+                pushedSignature.get(5, TimeUnit.SECONDS));
+        assertEquals(snapshot.getId(), received.getId());
+        assertEquals(4, received.getVersion());
+        assertEquals(NOW, received.getFetchedAt());
+        assertTrue(cluster.pull("HUF").isEmpty());
+        verify(lease).createTable();
+        verify(lease).release("http://localhost:8080");
+        assertFalse(cluster.isFetcher());
+        assertEquals(0, cluster.getEpoch());
+    }
+
+    @Test
+    void theHolderRenewsInItsEpochAndStepsDownOnceItLostTheLease() {
+        //GIVEN
+        RatesCluster cluster = cluster(true, "http://localhost:8080");
+        when(lease.tryAcquire("http://localhost:8080", NOW, Duration.ofSeconds(30)))
+                .thenReturn(OptionalLong.of(3), OptionalLong.empty());
+        when(lease.renew("http://localhost:8080", 3, NOW, Duration.ofSeconds(30))).thenReturn(true, false);
+        when(lease.holder(NOW)).thenReturn(Optional.of(peer));
+
+        //WHEN
+        cluster.renew();
+        cluster.renew();
+        boolean renewedFetcher = cluster.isFetcher();
+        cluster.renew();
+
+        //THEN
+        assertTrue(renewedFetcher);
+        assertFalse(cluster.isFetcher());
+        assertEquals(0, cluster.getEpoch());
+        assertEquals(peer, cluster.getState().getLeader());
+    }
+
+    @Test
+    void followersOnlyAcceptSignedPushesOfTheLeaseHolder() throws Exception {
+        //GIVEN
+        RatesCluster cluster = cluster(true, "http://localhost:8081");
+        when(lease.tryAcquire(any(), any(), any())).thenReturn(OptionalLong.empty());
+        when(lease.holder(NOW)).thenReturn(Optional.of(peer));
+        cluster.renew();
+        byte[] body = objectMapper.writeValueAsBytes(snapshot);
+        SnapshotCodec otherSecret = new SnapshotCodec("other-secret", objectMapper);
+
+        //WHEN
+        Optional<RatesSnapshot> fromHolder = cluster.receive(peer, codec.sign(peer, body), body);
+        Optional<RatesSnapshot> unsigned = cluster.receive(peer, null, body);
+        Optional<RatesSnapshot> otherKey = cluster.receive(peer, otherSecret.sign(peer, body), body);
+        Optional<RatesSnapshot> spoofedSender = cluster.receive("http://localhost:8082",
+                codec.sign(peer, body), body);
+        Optional<RatesSnapshot> notHolder = cluster.receive("http://localhost:8082",
+                codec.sign("http://localhost:8082", body), body);
+        Optional<RatesSnapshot> notASnapshot = cluster.receive(peer, codec.sign(peer, new byte[]{'x'}),
+                new byte[]{'x'});
+
+        //THEN
+        assertEquals(snapshot.getId(), fromHolder.orElseThrow().getId());
+        assertEquals(4, fromHolder.orElseThrow().getVersion());
+        assertTrue(unsigned.isEmpty());
+        assertTrue(otherKey.isEmpty());
+        assertTrue(spoofedSender.isEmpty());
+        assertTrue(notHolder.isEmpty());
+        assertTrue(notASnapshot.isEmpty());
+    }
+
+    @Test
+    void theLeaseHolderAndSingleNodesIgnorePushes() throws Exception {
+        //GIVEN
+        RatesCluster holder = cluster(true, "http://localhost:8080");
+        RatesCluster single = cluster(false, "http://localhost:8080");
+        when(lease.tryAcquire(any(), any(), any())).thenReturn(OptionalLong.of(1));
+        holder.renew();
+        byte[] body = objectMapper.writeValueAsBytes(snapshot);
+
+        //WHEN
+        Optional<RatesSnapshot> onHolder = holder.receive(peer, codec.sign(peer, body), body);
+        Optional<RatesSnapshot> onSingle = single.receive(peer, codec.sign(peer, body), body);
+
+        //THEN
+        assertTrue(onHolder.isEmpty());
+        assertTrue(onSingle.isEmpty());
+    }
+
+    @Test
+    void theClusterModeNeedsASecret() {
+        //GIVEN
+        SnapshotCodec withoutSecret = new SnapshotCodec(" ", objectMapper);
+
+        //WHEN
+        //THEN
+        assertFalse(withoutSecret.hasSecret());
+        assertFalse(withoutSecret.verify(peer, new byte[0], "signature"));
+        assertThrows(IllegalStateException.class, () -> withoutSecret.sign(peer, new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> new RatesCluster(true, "http://localhost:8080",
+                "", "PT30S", lease, withoutSecret, Clock.systemUTC()));
+        assertTrue(new RatesCluster(false, "http://localhost:8080", "", "PT30S", lease, withoutSecret,
+                Clock.systemUTC()).isFetcher());
+    }
+
+    @Test
+    void otherNodesPullFromTheLeaseHolder() {
+        //GIVEN
+        RatesCluster cluster = cluster(true, "http://localhost:8081");
+        when(lease.tryAcquire(any(), any(), any())).thenReturn(OptionalLong.empty());
+        when(lease.holder(NOW)).thenReturn(Optional.of(peer));
+
+        //WHEN
+        cluster.renew();
+        Optional<RatesSnapshot> pulled = cluster.pull("HUF");
+        Optional<RatesSnapshot> otherBase = cluster.pull("INR");
+        ClusterState state = cluster.getState();
+
+        //THEN
+        assertFalse(cluster.isFetcher());
+        assertEquals(snapshot.getId(), pulled.orElseThrow().getId());
+        assertTrue(otherBase.isEmpty());
+        assertEquals(peer, state.getLeader());
+        assertEquals(List.of(peer), state.getPeers());
+        assertFalse(state.isFetcher());
+    }
+}
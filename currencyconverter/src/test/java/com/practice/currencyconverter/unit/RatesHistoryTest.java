@@ -0,0 +1,117 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.history.RatesHistory;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatesHistoryTest {
+
+    private static final Instant MONDAY = Instant.parse("2020-01-06T16:00:00Z");
+
+    private static final PublicationCalendar CALENDAR = new PublicationCalendar("16:00", "CET",
+            "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY", "", "PT5M", "PT1H");
+
+    private static CurrencyConverter rates(final String base, final double inr) {
+        return new CurrencyConverter(Map.of("INR", inr), base, null);
+    }
+
+    @Test
+    void asOfReturnsTheLatestTableAtOrBeforeTheInstant() {
+        //GIVEN
+        RatesHistory history = new RatesHistory(100, CALENDAR);
+        CurrencyConverter monday = rates("HUF", 0.23);
+        CurrencyConverter tuesday = rates("HUF", 0.24);
+        history.record(monday, MONDAY);
+        history.record(tuesday, MONDAY.plus(Duration.ofDays(1)));
+
+        //WHEN
+        //THEN
+        assertTrue(history.asOf("HUF", MONDAY.minusSeconds(1)).isEmpty());
+        assertSame(monday, history.asOf("HUF", MONDAY).orElseThrow());
+        assertSame(monday, history.asOf("HUF", MONDAY.plus(Duration.ofHours(23))).orElseThrow());
+        assertSame(tuesday, history.asOf("HUF", MONDAY.plus(Duration.ofDays(30))).orElseThrow());
+        assertTrue(history.asOf("INR", MONDAY).isEmpty());
+    }
+
+    @Test
+    void batchLookupKeepsTheOrderOfTheInstants() {
+        //GIVEN
+        RatesHistory history = new RatesHistory(100, CALENDAR);
+        CurrencyConverter monday = rates("HUF", 0.23);
+        CurrencyConverter tuesday = rates("HUF", 0.24);
+        history.record(tuesday, MONDAY.plus(Duration.ofDays(1)));
+        history.record(monday, MONDAY);
+
+        //WHEN
+        List<CurrencyConverter> tables = history.asOf("HUF", List.of(
+                MONDAY.plus(Duration.ofDays(2)), MONDAY.minusSeconds(1), MONDAY.plusSeconds(1)));
+
+        //THEN
+        assertEquals(Arrays.asList(tuesday, null, monday), tables);
+        assertEquals(Arrays.asList((CurrencyConverter) null), history.asOf("INR", List.of(MONDAY)));
+    }
+
+    @Test
+    void oldestTablesAreDroppedBeyondTheLimit() {
+        //GIVEN
+        RatesHistory history = new RatesHistory(8, CALENDAR);
+
+        //WHEN
+        for (int hour = 0; hour < 20; hour++) {
+            history.record(rates("HUF", hour), MONDAY.plus(Duration.ofHours(hour)));
+        }
+
+        //THEN
+        assertTrue(history.asOf("HUF", MONDAY).isEmpty());
+        assertEquals(19.0, history.asOf("HUF", MONDAY.plus(Duration.ofDays(1)))
+                .orElseThrow().getRates().get("INR"));
+        assertEquals(15.0, history.asOf("HUF", MONDAY.plus(Duration.ofMinutes(15 * 60 + 30)))
+                .orElseThrow().getRates().get("INR"));
+    }
+
+    @Test
+    void onlyCompleteTablesAreIndexed() {
+        //GIVEN
+        RatesHistory history = new RatesHistory(100, CALENDAR);
+
+        //WHEN
+        history.onRatesFetched(new RatesFetchedEvent(rates("HUF", 0.23), MONDAY, false));
+        history.onRatesFetched(new RatesFetchedEvent(rates("INR", 4.2), MONDAY, true));
+
+        //THEN
+        assertTrue(history.asOf("HUF", MONDAY).isEmpty());
+        assertTrue(history.asOf("INR", MONDAY).isPresent());
+    }
+
+    @Test
+    void tablesAreIndexedOncePerPublicationDateAtItsPublicationTime() {
+        //GIVEN
+        RatesHistory history = new RatesHistory(100, CALENDAR);
+        CurrencyConverter friday = new CurrencyConverter(Map.of("INR", 0.23), "HUF", LocalDate.parse("2020-01-10"));
+        CurrencyConverter repolled = new CurrencyConverter(Map.of("INR", 0.23), "HUF", LocalDate.parse("2020-01-10"));
+
+        //WHEN
+        history.onRatesFetched(new RatesFetchedEvent(friday, Instant.parse("2020-01-10T17:00:00Z"), true));
+        history.onRatesFetched(new RatesFetchedEvent(repolled, Instant.parse("2020-01-11T09:00:00Z"), true));
+
+        //THEN
+        // Published at 16:00 CET, 15:00 UTC.
+        assertTrue(history.asOf("HUF", Instant.parse("2020-01-10T08:00:00Z")).isEmpty());
+        assertTrue(history.asOf("HUF", Instant.parse("2020-01-10T14:59:59Z")).isEmpty());
+        assertSame(repolled, history.asOf("HUF", Instant.parse("2020-01-10T15:00:00Z")).orElseThrow());
+        assertSame(repolled, history.asOf("HUF", Instant.parse("2020-01-12T08:00:00Z")).orElseThrow());
+        assertEquals(Arrays.asList(null, repolled), history.asOf("HUF",
+                List.of(Instant.parse("2020-01-10T12:00:00Z"), Instant.parse("2020-01-11T12:00:00Z"))));
+    }
+}
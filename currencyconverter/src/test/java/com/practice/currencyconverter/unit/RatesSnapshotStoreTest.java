@@ -0,0 +1,132 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.snapshot.RatesSnapshotStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatesSnapshotStoreTest {
+
+    private final RatesSnapshotStore snapshotStore = new RatesSnapshotStore();
+
+    private static CurrencyConverter fetched(final String base) {
+        return fetched(base, 0.23);
+    }
+
+    private static CurrencyConverter fetched(final String base, final double inr) {
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("INR", inr);
+        rates.put(base, 1.0);
+        return new CurrencyConverter(rates, base, LocalDate.parse("2020-01-06"));
+    }
+
+    @Test
+    void publishCopiesTheRatesWithoutTheBase() {
+        //GIVEN
+        CurrencyConverter fetched = fetched("HUF");
+        Instant fetchedAt = Instant.parse("2020-01-06T16:00:00Z");
+
+        //WHEN
+        RatesSnapshot snapshot = snapshotStore.publish(fetched, fetchedAt);
+
+        //THEN
+        assertEquals(Map.of("INR", 0.23), snapshot.getRates());
+        assertEquals("HUF", snapshot.getBase());
+        assertEquals(LocalDate.parse("2020-01-06"), snapshot.getDate());
+        assertEquals(fetchedAt, snapshot.getFetchedAt());
+        assertEquals(1, snapshot.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getRates().put("USD", 0.0033));
+        assertThrows(UnsupportedOperationException.class, () -> fetched.getRates().put("USD", 0.0033));
+        assertTrue(snapshotStore.current("INR").isEmpty());
+    }
+
+    @Test
+    void concurrentPublishersGetDistinctVersions() throws InterruptedException {
+        //GIVEN
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        //WHEN
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> snapshotStore.publish(fetched("HUF"), Instant.now()));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        snapshotStore.publish(fetched("INR"), Instant.now());
+
+        //THEN
+        assertEquals(1000, snapshotStore.current("HUF").orElseThrow().getVersion());
+        assertEquals(2, snapshotStore.currentAll().size());
+    }
+
+    @Test
+    void snapshotsAreAddressedByTheirContent() {
+        //GIVEN
+        RatesSnapshot published = snapshotStore.publish(fetched("HUF"), Instant.parse("2020-01-06T16:00:00Z"));
+        CurrencyConverter changed = fetched("HUF", 0.24);
+
+        //WHEN
+        RatesSnapshot same = snapshotStore.publish(fetched("HUF"), Instant.parse("2020-01-06T17:00:00Z"));
+        RatesSnapshot other = snapshotStore.retain(changed);
+
+        //THEN
+        assertEquals(64, published.getId().length());
+        assertEquals(published.getId(), same.getId());
+        assertNotEquals(published.getId(), other.getId());
+        assertEquals(0, other.getVersion());
+        assertSame(published, snapshotStore.byId(published.getId()).orElseThrow());
+        assertSame(other, snapshotStore.byId(other.getId()).orElseThrow());
+        assertTrue(snapshotStore.byId("unknown").isEmpty());
+    }
+
+    @Test
+    void followersAcceptTheSnapshotsOfARestartedFetcher() {
+        //GIVEN
+        RatesSnapshotStore fetcher = new RatesSnapshotStore();
+        Instant fetchedAt = Instant.parse("2020-01-06T16:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            snapshotStore.replicate(fetcher.publish(fetched("HUF"), 1, fetchedAt));
+        }
+        RatesSnapshot beforeRestart = fetcher.publish(fetched("HUF"), 1, fetchedAt);
+        RatesSnapshotStore restarted = new RatesSnapshotStore();
+
+        //WHEN
+        RatesSnapshot afterRestart = restarted.publish(fetched("HUF", 0.24), 2, fetchedAt.plusSeconds(60));
+        RatesSnapshot next = restarted.publish(fetched("HUF", 0.25), 2, fetchedAt.plusSeconds(120));
+        boolean acceptedAfterRestart = snapshotStore.replicate(afterRestart);
+        boolean acceptedLateFromTheOldEpoch = snapshotStore.replicate(beforeRestart);
+        boolean acceptedNext = snapshotStore.replicate(next);
+
+        //THEN
+        assertTrue(acceptedAfterRestart);
+        assertFalse(acceptedLateFromTheOldEpoch);
+        assertTrue(acceptedNext);
+        assertEquals((2L << 32) + 1, afterRestart.getVersion());
+        assertEquals(afterRestart.getVersion() + 1, next.getVersion());
+        assertSame(next, snapshotStore.current("HUF").orElseThrow());
+    }
+
+    @Test
+    void aFollowerTakingTheLeaseOverPublishesAfterWhatItReplicated() {
+        //GIVEN
+        RatesSnapshotStore fetcher = new RatesSnapshotStore();
+        snapshotStore.replicate(fetcher.publish(fetched("HUF"), 1, Instant.parse("2020-01-06T16:00:00Z")));
+
+        //WHEN
+        RatesSnapshot published = snapshotStore.publish(fetched("HUF", 0.24), 2,
+                Instant.parse("2020-01-06T16:01:00Z"));
+
+        //THEN
+        assertEquals((2L << 32) + 1, published.getVersion());
+        assertTrue(fetcher.replicate(published));
+    }
+}
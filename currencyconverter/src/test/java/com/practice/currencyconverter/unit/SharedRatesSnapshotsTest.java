@@ -0,0 +1,111 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.event.RatesFetchedEvent;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.snapshot.SharedRatesSnapshots;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SharedRatesSnapshotsTest {
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(1);
+
+    @TempDir
+    Path directory;
+
+    private static RatesSnapshot snapshot(final long version) {
+        return new RatesSnapshot("HUF", LocalDate.parse("2020-01-06"),
+                Map.of("INR", 0.23, "GBP", 0.0025), version,
+                Instant.parse("2020-01-06T16:00:00Z"));
+    }
+
+    @Test
+    void readerServesWhatTheWriterPublished() {
+        //GIVEN
+        SharedRatesSnapshots writer = new SharedRatesSnapshots("writer", directory.toString(), MAX_AGE);
+        SharedRatesSnapshots reader = new SharedRatesSnapshots("reader", directory.toString(), MAX_AGE);
+        assertTrue(reader.read("HUF").isEmpty());
+
+        //WHEN
+        writer.onRatesFetched(new RatesFetchedEvent(snapshot(1), Instant.now(), true));
+        RatesSnapshot first = reader.read("HUF").orElseThrow();
+        RatesSnapshot again = reader.read("HUF").orElseThrow();
+        writer.onRatesFetched(new RatesFetchedEvent(snapshot(2), Instant.now(), true));
+        RatesSnapshot second = reader.read("HUF").orElseThrow();
+
+        //THEN
+        assertTrue(reader.isReader());
+        assertEquals(1, first.getVersion());
+        assertSame(first, again);
+        assertEquals(2, second.getVersion());
+        assertTrue(reader.isShared(second));
+        assertFalse(reader.isShared(first));
+        assertFalse(writer.isShared(snapshot(2)));
+        assertEquals(0.23, reader.rate("HUF", "INR").getAsDouble());
+        assertTrue(reader.rate("INR", "HUF").isEmpty());
+        writer.close();
+        reader.close();
+    }
+
+    @Test
+    void partialTablesAndOtherModesAreNotShared() {
+        //GIVEN
+        SharedRatesSnapshots writer = new SharedRatesSnapshots("writer", directory.toString(), MAX_AGE);
+        SharedRatesSnapshots off = new SharedRatesSnapshots("off", directory.toString(), MAX_AGE);
+
+        //WHEN
+        writer.onRatesFetched(new RatesFetchedEvent(snapshot(1), Instant.now(), false));
+        off.onRatesFetched(new RatesFetchedEvent(snapshot(1), Instant.now(), true));
+
+        //THEN
+        assertFalse(directory.resolve("HUF.rates").toFile().exists());
+        assertTrue(writer.read("HUF").isEmpty());
+        assertTrue(off.read("HUF").isEmpty());
+        assertTrue(off.rate("HUF", "INR").isEmpty());
+        assertThrows(IllegalArgumentException.class,
+                () -> new SharedRatesSnapshots("both", directory.toString(), MAX_AGE));
+    }
+
+    @Test
+    void readerIgnoresTheFilesOfAWriterThatStoppedBeating() {
+        //GIVEN
+        Instant written = Instant.parse("2020-01-06T16:00:00Z");
+        Clock writerClock = mock(Clock.class);
+        when(writerClock.instant()).thenReturn(written, written.plus(MAX_AGE));
+        SharedRatesSnapshots writer = new SharedRatesSnapshots("writer", directory.toString(), MAX_AGE, writerClock);
+        SharedRatesSnapshots reader = new SharedRatesSnapshots("reader", directory.toString(), MAX_AGE,
+                Clock.fixed(written.plus(MAX_AGE).plusMillis(1), ZoneOffset.UTC));
+        SharedRatesSnapshots atMaxAge = new SharedRatesSnapshots("reader", directory.toString(), MAX_AGE,
+                Clock.fixed(written.plus(MAX_AGE), ZoneOffset.UTC));
+
+        //WHEN
+        writer.onRatesFetched(new RatesFetchedEvent(snapshot(1), written, true));
+        boolean readAtMaxAge = atMaxAge.read("HUF").isPresent();
+        boolean readAfterMaxAge = reader.read("HUF").isPresent();
+        boolean rateAfterMaxAge = reader.rate("HUF", "INR").isPresent();
+        writer.heartbeat();
+        reader.heartbeat();
+
+        //THEN
+        assertTrue(readAtMaxAge);
+        assertFalse(readAfterMaxAge);
+        assertFalse(rateAfterMaxAge);
+        assertEquals(1, reader.read("HUF").orElseThrow().getVersion());
+        assertEquals(0.23, reader.rate("HUF", "INR").getAsDouble());
+        writer.close();
+        reader.close();
+        atMaxAge.close();
+    }
+}
@@ -0,0 +1,133 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.snapshot.SharedSnapshotFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static RatesSnapshot snapshot(final long version, final double rate) {
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("INR", rate);
+        rates.put("GBP", rate * 2);
+        rates.put("USD", rate * 3);
+        return new RatesSnapshot("HUF", LocalDate.parse("2020-01-06"), rates, version,
+                Instant.parse("2020-01-06T16:00:00Z"));
+    }
+
+    @Test
+    void readReturnsTheWrittenSnapshot() throws Exception {
+        //GIVEN
+        Path file = directory.resolve("HUF.rates");
+        RatesSnapshot written = snapshot(3, 0.23);
+
+        try (SharedSnapshotFile writer = SharedSnapshotFile.openWriter(file, "HUF");
+             SharedSnapshotFile reader = SharedSnapshotFile.openReader(file, "HUF")) {
+            //WHEN
+            assertTrue(reader.read().isEmpty());
+            writer.write(written);
+            RatesSnapshot read = reader.read().orElseThrow();
+
+            //THEN
+            assertEquals(3, reader.version());
+            assertEquals(written.getId(), read.getId());
+            assertEquals(written.getRates(), read.getRates());
+            assertEquals(written.getFetchedAt(), read.getFetchedAt());
+            assertEquals(0.46, reader.rate("GBP").getAsDouble());
+            assertTrue(reader.rate("EUR").isEmpty());
+        }
+    }
+
+    @Test
+    void readerWaitsForAWriterPreemptedHalfWay() throws Exception {
+        //GIVEN
+        Path file = directory.resolve("HUF.rates");
+        AtomicReference<Thread> readerThread = new AtomicReference<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task);
+            readerThread.set(thread);
+            return thread;
+        });
+
+        try (SharedSnapshotFile writer = SharedSnapshotFile.openWriter(file, "HUF");
+             SharedSnapshotFile reader = SharedSnapshotFile.openReader(file, "HUF")) {
+            writer.write(snapshot(1, 1));
+            long sequence = holdSequence(file);
+            Future<Optional<RatesSnapshot>> read = executor.submit(reader::read);
+            while (readerThread.get() == null || readerThread.get().getState() != Thread.State.TIMED_WAITING) {
+                assertFalse(read.isDone());
+                Thread.sleep(1);
+            }
+
+            //WHEN
+            releaseSequence(file, sequence + 2);
+
+            //THEN
+            assertEquals(1, read.get(10, TimeUnit.SECONDS).orElseThrow().getVersion());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void aSequenceHeldForTooLongIsReportedAsContention() throws Exception {
+        //GIVEN
+        Path file = directory.resolve("HUF.rates");
+
+        try (SharedSnapshotFile writer = SharedSnapshotFile.openWriter(file, "HUF");
+             SharedSnapshotFile reader = SharedSnapshotFile.openReader(file, "HUF")) {
+            writer.write(snapshot(1, 1));
+
+            //WHEN
+            holdSequence(file);
+
+            //THEN
+            assertThrows(TimeoutException.class, reader::read);
+            assertThrows(TimeoutException.class, reader::version);
+            assertThrows(TimeoutException.class, () -> reader.rate("INR"));
+        }
+    }
+
+    // Makes the sequence odd, like a writer preempted in the middle of a write.
+    private static long holdSequence(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            header.order(ByteOrder.nativeOrder());
+            long sequence = header.getLong(0);
+            header.putLong(0, sequence + 1);
+            return sequence;
+        }
+    }
+
+    private static void releaseSequence(final Path file, final long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            header.order(ByteOrder.nativeOrder());
+            header.putLong(0, sequence);
+        }
+    }
+}
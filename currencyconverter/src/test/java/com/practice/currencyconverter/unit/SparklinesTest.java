@@ -0,0 +1,58 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.chart.Sparklines;
+import com.practice.currencyconverter.history.CandleStore;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparklinesTest {
+
+    private final CandleStore candleStore = new CandleStore(new PublicationCalendar("16:00", "CET",
+            "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY", "", "PT5M", "PT1H"));
+
+    private final Sparklines sparklines = new Sparklines(candleStore);
+
+    private static final Instant MONDAY = Instant.parse("2020-01-06T16:00:00Z");
+
+    @Test
+    void chartIsRenderedOncePerStateOfTheCandles() throws IOException {
+        //GIVEN
+        for (int day = 0; day < 40; day++) {
+            candleStore.record("HUF", "INR", MONDAY.plus(Duration.ofDays(day)), 0.23 + day * 0.001);
+        }
+
+        //WHEN
+        byte[] first = sparklines.get("HUF", "INR").orElseThrow();
+        byte[] again = sparklines.get("HUF", "INR").orElseThrow();
+        candleStore.record("HUF", "INR", MONDAY.plus(Duration.ofDays(40)), 0.2);
+        byte[] afterNextRates = sparklines.get("HUF", "INR").orElseThrow();
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(first));
+
+        //THEN
+        assertSame(first, again);
+        assertNotSame(first, afterNextRates);
+        assertEquals(Sparklines.WIDTH, image.getWidth());
+        assertEquals(Sparklines.HEIGHT, image.getHeight());
+    }
+
+    @Test
+    void pairsWithoutTwoDaysOfHistoryHaveNoChart() {
+        //GIVEN
+        candleStore.record("HUF", "EUR", MONDAY, 0.003);
+        candleStore.record("HUF", "EUR", MONDAY.plus(Duration.ofHours(1)), 0.0031);
+
+        //WHEN
+        //THEN
+        assertTrue(sparklines.get("HUF", "EUR").isEmpty());
+        assertTrue(sparklines.get("HUF", "GBP").isEmpty());
+    }
+}
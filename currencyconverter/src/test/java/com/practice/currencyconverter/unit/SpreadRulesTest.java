@@ -0,0 +1,133 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.model.ConversionQuote;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.spread.SpreadRules;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpreadRulesTest {
+
+    private static final RatesSnapshot HUF_RATES = new RatesSnapshot("HUF", LocalDate.parse("2020-01-06"),
+            Map.of("EUR", 0.003, "USD", 0.004, "INR", 0.25), 1, Instant.parse("2020-01-06T16:00:00Z"));
+
+    private static final RatesSnapshot EUR_RATES = new RatesSnapshot("EUR", LocalDate.parse("2020-01-06"),
+            Map.of("USD", 1.1, "HUF", 330.0), 1, Instant.parse("2020-01-06T16:00:00Z"));
+
+    @TempDir
+    Path directory;
+
+    private SpreadRules rules(final String... lines) throws IOException {
+        Path file = directory.resolve("spreads.csv");
+        Files.write(file, List.of(lines));
+        return new SpreadRules(new DefaultResourceLoader(), file.toUri().toString());
+    }
+
+    @Test
+    void mostSpecificPairAndBandOfTheClassApplies() throws IOException {
+        //GIVEN
+        SpreadRules spreadRules = rules(
+                "# base,target,customerClass,minAmount,spreadBps,fee",
+                "*,*,RETAIL,0,150,0",
+                "*,*,RETAIL,10000,100,0",
+                "*,*,CORPORATE,0,50,0",
+                "EUR,USD,retail,0,80,0",
+                "EUR,USD,RETAIL,1000,40,0",
+                "EUR,USD,CORPORATE,500,10,0",
+                "HUF,*,RETAIL,0,200,300");
+
+        //WHEN
+        ConversionQuote smallEurUsd = spreadRules.convert(EUR_RATES, "USD", 100, "RETAIL").orElseThrow();
+        ConversionQuote largeEurUsd = spreadRules.convert(EUR_RATES, "USD", 5000, "Retail").orElseThrow();
+        ConversionQuote corporateBelowBand = spreadRules.convert(EUR_RATES, "USD", 100, "CORPORATE").orElseThrow();
+        ConversionQuote corporateInBand = spreadRules.convert(EUR_RATES, "USD", 500, "CORPORATE").orElseThrow();
+        ConversionQuote eurHuf = spreadRules.convert(EUR_RATES, "HUF", 20000, "RETAIL").orElseThrow();
+        ConversionQuote hufInr = spreadRules.convert(HUF_RATES, "INR", 10300, "RETAIL").orElseThrow();
+        ConversionQuote unknownClass = spreadRules.convert(HUF_RATES, "INR", 10300, "VIP").orElseThrow();
+
+        //THEN
+        assertEquals(1.1 * (1 - 0.008), smallEurUsd.getRate(), 1e-12);
+        assertEquals(1.1, smallEurUsd.getMidRate(), 1e-12);
+        assertEquals(1.1 * (1 - 0.004), largeEurUsd.getRate(), 1e-12);
+        assertEquals(1.1 * (1 - 0.005), corporateBelowBand.getRate(), 1e-12);
+        assertEquals(1.1 * (1 - 0.001), corporateInBand.getRate(), 1e-12);
+        assertEquals(330.0 * (1 - 0.01), eurHuf.getRate(), 1e-9);
+        assertEquals(300, hufInr.getFee(), 1e-12);
+        assertEquals(10000 * 0.25 * (1 - 0.02), hufInr.getConverted(), 1e-9);
+        assertEquals(hufInr.getRate(), unknownClass.getRate(), 1e-12);
+        assertEquals(300, unknownClass.getFee(), 1e-12);
+    }
+
+    @Test
+    void unknownClassWithoutDefaultClassRulesGetsTheMidRate() throws IOException {
+        //GIVEN
+        SpreadRules spreadRules = rules("*,*,CORPORATE,0,50,0");
+
+        //WHEN
+        ConversionQuote unknownClass = spreadRules.convert(HUF_RATES, "INR", 100, "VIP").orElseThrow();
+
+        //THEN
+        assertEquals(0.25, unknownClass.getRate(), 1e-12);
+        assertEquals(0, unknownClass.getFee(), 1e-12);
+    }
+
+    @Test
+    void unquotedTargetCanNotBeConverted() throws IOException {
+        //GIVEN
+        SpreadRules spreadRules = rules("*,*,RETAIL,0,150,0");
+
+        //WHEN
+        //THEN
+        assertTrue(spreadRules.convert(HUF_RATES, "GBP", 100, "RETAIL").isEmpty());
+        assertEquals(1 - 0.015, spreadRules.convert(HUF_RATES, "HUF", 100, "RETAIL")
+                .orElseThrow().getRate(), 1e-12);
+    }
+
+    @Test
+    void invalidRulesKeepTheRulesInEffect() throws IOException {
+        //GIVEN
+        SpreadRules spreadRules = rules("*,*,RETAIL,0,150,0");
+        Path file = directory.resolve("spreads.csv");
+
+        //WHEN
+        Files.write(file, List.of("*,*,RETAIL,0,150,0", "*,*,RETAIL,0,90,0"));
+        IllegalArgumentException duplicate = assertThrows(IllegalArgumentException.class, spreadRules::reload);
+        Files.write(file, List.of("HUF,EURO,RETAIL,0,150,0"));
+        assertThrows(IllegalArgumentException.class, spreadRules::reload);
+        double rateAfterFailures = spreadRules.convert(HUF_RATES, "EUR", 100, "RETAIL").orElseThrow().getRate();
+        Files.write(file, List.of("*,*,RETAIL,0,150,0", "*,*,RETAIL,1000,90,0"));
+        int reloaded = spreadRules.reload();
+
+        //THEN
+        assertTrue(duplicate.getMessage().contains(":2"));
+        assertEquals(0.003 * (1 - 0.015), rateAfterFailures, 1e-12);
+        assertEquals(2, reloaded);
+        assertEquals(0.003 * (1 - 0.009), spreadRules.convert(HUF_RATES, "EUR", 1000, "RETAIL")
+                .orElseThrow().getRate(), 1e-12);
+    }
+
+    @Test
+    void withoutLocationTheMidRateApplies() {
+        //GIVEN
+        SpreadRules spreadRules = new SpreadRules(new DefaultResourceLoader(), "");
+
+        //WHEN
+        ConversionQuote quote = spreadRules.convert(HUF_RATES, "INR", 100, "RETAIL").orElseThrow();
+
+        //THEN
+        assertEquals(0, spreadRules.reload());
+        assertEquals(0.25, quote.getRate(), 1e-12);
+        assertEquals(25, quote.getConverted(), 1e-12);
+    }
+}
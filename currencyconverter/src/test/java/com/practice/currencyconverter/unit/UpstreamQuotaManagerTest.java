@@ -0,0 +1,106 @@
+package com.practice.currencyconverter.unit;
+
+import com.practice.currencyconverter.model.QuotaState;
+import com.practice.currencyconverter.quota.QuotaCounters;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamQuotaManagerTest {
+
+    private static final URI LATEST = URI.create("https://api.exchangeratesapi.io/latest?base=HUF");
+    private static final URI CURRENCIES = URI.create("https://openexchangerates.org/api/currencies.json");
+
+    private static UpstreamQuotaManager manager(final String instant) {
+        return new UpstreamQuotaManager(300, 0.8,
+                Clock.fixed(Instant.parse(instant), ZoneOffset.UTC), null);
+    }
+
+    @Test
+    void countsCallsPerProviderUrl() {
+        //GIVEN
+        UpstreamQuotaManager quotaManager = manager("2020-01-16T00:00:00Z");
+
+        //WHEN
+        quotaManager.record(LATEST);
+        quotaManager.record(URI.create("https://api.exchangeratesapi.io/latest?base=INR"));
+        quotaManager.record(CURRENCIES);
+        QuotaState state = quotaManager.getState();
+
+        //THEN
+        assertEquals("2020-01", state.getMonth());
+        assertEquals(3, state.getUsed());
+        assertEquals(297, state.getRemaining());
+        assertEquals(2L, state.getCalls().get("https://api.exchangeratesapi.io/latest"));
+        assertEquals(1L, state.getCalls().get("https://openexchangerates.org/api/currencies.json"));
+    }
+
+    @Test
+    void savingStartsWhenTheProjectionReachesTheBudget() {
+        //GIVEN
+        UpstreamQuotaManager quotaManager = manager("2020-01-16T12:00:00Z");
+
+        //WHEN
+        for (int i = 0; i < 120; i++) {
+            quotaManager.record(LATEST);
+        }
+
+        //THEN
+        assertEquals(240, quotaManager.getProjected());
+        assertTrue(quotaManager.isSaving());
+        assertTrue(quotaManager.getState().isSaving());
+    }
+
+    @Test
+    void earlyCallsDoNotTriggerSaving() {
+        //GIVEN
+        UpstreamQuotaManager quotaManager = manager("2020-01-01T00:10:00Z");
+
+        //WHEN
+        for (int i = 0; i < 5; i++) {
+            quotaManager.record(LATEST);
+        }
+
+        //THEN
+        assertEquals(155, quotaManager.getProjected());
+        assertFalse(quotaManager.isSaving());
+    }
+
+    @Test
+    void callsAreCountedAcrossTheNodesAndRestarts() {
+        //GIVEN
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                new DriverManagerDataSource("jdbc:h2:mem:quota;DB_CLOSE_DELAY=-1"));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS upstream_quota_calls");
+        QuotaCounters counters = new QuotaCounters(jdbcTemplate);
+        Clock clock = Clock.fixed(Instant.parse("2020-01-16T00:00:00Z"), ZoneOffset.UTC);
+        UpstreamQuotaManager first = new UpstreamQuotaManager(300, 0.8, clock, counters);
+        UpstreamQuotaManager second = new UpstreamQuotaManager(300, 0.8, clock, counters);
+        first.sync();
+        counters.add(YearMonth.parse("2019-12"), "https://api.exchangeratesapi.io/latest", 50);
+
+        //WHEN
+        first.record(LATEST);
+        first.record(LATEST);
+        second.record(CURRENCIES);
+        first.close();
+        second.sync();
+        UpstreamQuotaManager restarted = new UpstreamQuotaManager(300, 0.8, clock, counters);
+        restarted.sync();
+
+        //THEN
+        assertEquals(3, second.getUsed());
+        assertEquals(3, restarted.getUsed());
+        assertEquals(2L, restarted.getState().getCalls().get("https://api.exchangeratesapi.io/latest"));
+        assertEquals(1L, restarted.getState().getCalls().get("https://openexchangerates.org/api/currencies.json"));
+    }
+}
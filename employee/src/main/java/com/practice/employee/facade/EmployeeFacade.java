@@ -1,39 +1,58 @@
 package com.practice.employee.facade;
 
+import com.practice.employee.mapper.EmployeeMapper;
 import com.practice.employee.model.Employee;
+import com.practice.employee.model.EmployeePage;
 import com.practice.employee.model.RatesRegister;
 import com.practice.employee.model.dto.EmployeeDto;
 import com.practice.employee.model.dto.RatesRegisterDto;
 import com.practice.employee.repository.EmployeeRepository;
 import com.practice.employee.repository.RatesRegisterRepository;
+import com.practice.employee.search.EmployeeSearchIndex;
+import com.practice.employee.search.UsernameFilter;
 import com.practice.employee.service.OtpService;
 import com.practice.exception.ResourceNotFoundException;
 import com.practice.message.factory.AbstractFactory;
 import com.practice.message.model.Content;
 import com.practice.message.model.OtpDetails;
 import com.practice.message.service.MessagingService;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheConfig;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.validation.ConstraintViolationException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.springframework.data.domain.ExampleMatcher.GenericPropertyMatchers.contains;
 
 @Service
-@CacheConfig(cacheNames = "employeeCache")
 public class EmployeeFacade {
+    /**
+     * Name of the cache of employees by id.
+     */
+    public static final String ID_CACHE_NAME = "employeeByIdCache";
+    /**
+     * Name of the cache of employees by email.
+     */
+    public static final String EMAIL_CACHE_NAME = "employeeByEmailCache";
     /**
      * Logger Object to log the details.
      */
@@ -86,6 +105,15 @@ public class EmployeeFacade {
      * Messaging type sms.
      */
     private static final String USERNAME = "username";
+    /**
+     * Message for an invalid page cursor.
+     */
+    private static final String INVALID_CURSOR = "Not a valid page cursor";
+    /**
+     * Message for a username taken meanwhile, as the validation reports it.
+     */
+    private static final String USERNAME_EXISTS =
+            "username: Username already exists";
     /**
      * EmployeeRepository object.
      */
@@ -95,9 +123,9 @@ public class EmployeeFacade {
      */
     private final RatesRegisterRepository registerRepository;
     /**
-     * Model mapper.
+     * EmployeeMapper object.
      */
-    private final ModelMapper modelMapper;
+    private final EmployeeMapper employeeMapper;
     /**
      * Messaging Service object.
      */
@@ -106,38 +134,60 @@ public class EmployeeFacade {
      * OtpService object.
      */
     private final OtpService otpService;
+    /**
+     * EmployeeSearchIndex object.
+     */
+    private final EmployeeSearchIndex employeeSearchIndex;
+    /**
+     * UsernameFilter object.
+     */
+    private final UsernameFilter usernameFilter;
 
     /**
      * Parameterized Constructor.
      *
-     * @param employeeRepository EmployeeRepository object
-     * @param registerRepository RatesRegisterRepository object
-     * @param modelMapper        ModelMapper object
-     * @param abstractFactory    Abstract Factory of type Messaging Service
-     * @param otpService         Otp Service object
+     * @param employeeRepository  EmployeeRepository object
+     * @param registerRepository  RatesRegisterRepository object
+     * @param employeeMapper      EmployeeMapper object
+     * @param abstractFactory     Abstract Factory of type Messaging Service
+     * @param otpService          Otp Service object
+     * @param employeeSearchIndex EmployeeSearchIndex object
+     * @param usernameFilter      UsernameFilter object
      */
     public EmployeeFacade(final EmployeeRepository employeeRepository,
                           final RatesRegisterRepository registerRepository,
-                          final ModelMapper modelMapper,
+                          final EmployeeMapper employeeMapper,
                           final AbstractFactory<MessagingService>
                                   abstractFactory,
-                          final OtpService otpService) {
+                          final OtpService otpService,
+                          final EmployeeSearchIndex employeeSearchIndex,
+                          final UsernameFilter usernameFilter) {
         this.employeeRepository = employeeRepository;
         this.registerRepository = registerRepository;
-        this.modelMapper = modelMapper;
+        this.employeeMapper = employeeMapper;
         this.abstractFactory = abstractFactory;
         this.otpService = otpService;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.usernameFilter = usernameFilter;
     }
 
     /**
-     * Method to check username already exists.
+     * Method to check username already exists. A username the filter has
+     * never seen is free without asking the database, the others are
+     * checked on the primary, which has the usernames just taken. The
+     * filter only learns the usernames taken on other nodes at its next
+     * rebuild, so a miss is not final: the unique constraint of the
+     * usernames rejects the insert of a taken one.
      *
      * @param userName Employee username
      * @return true or false
      */
+    @Transactional
     public boolean checkUsername(final String userName) {
-        Employee employee = employeeRepository.findByUsername(userName);
-        if (employee != null) {
+        if (!usernameFilter.mightExist(userName)) {
+            return true;
+        }
+        if (employeeRepository.existsByUsername(userName)) {
             LOGGER.debug("Username {} exists", userName);
             return false;
         }
@@ -152,7 +202,7 @@ public class EmployeeFacade {
      */
     public Employee convertEmployeeDtoToEmployee(
             final EmployeeDto employeeDto) {
-        Employee employee = modelMapper.map(employeeDto, Employee.class);
+        Employee employee = employeeMapper.toEmployee(employeeDto);
         LOGGER.debug("Mapped details: {}", employee);
         return employee;
     }
@@ -167,8 +217,8 @@ public class EmployeeFacade {
     public RatesRegister convertRatesRegisterDtoToRatesRegister(
             final RatesRegisterDto ratesRegisterDto)
             throws ResourceNotFoundException {
-        RatesRegister ratesRegister = modelMapper.map(ratesRegisterDto,
-                RatesRegister.class);
+        RatesRegister ratesRegister = employeeMapper
+                .toRatesRegister(ratesRegisterDto);
         Employee employee = employeeRepository
                 .findById(ratesRegisterDto.getId()).orElseThrow(() -> new
                         ResourceNotFoundException("Not a valid Employee ID"));
@@ -177,23 +227,59 @@ public class EmployeeFacade {
         return ratesRegister;
     }
 
+    /**
+     * Whether a failed write was rejected by the unique constraint of the
+     * usernames.
+     *
+     * @param e exception of the write
+     * @return true or false
+     */
+    public boolean isUsernameTaken(final DataAccessException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return e instanceof DataIntegrityViolationException && message != null
+                && message.toUpperCase(Locale.ROOT)
+                .contains(Employee.USERNAME_CONSTRAINT);
+    }
+
     /**
      * To create new employee.
      *
      * @param employeeDto Employee details
      * @return Employee
+     * @throws ConstraintViolationException username taken meanwhile
      */
     public Employee createEmployee(final EmployeeDto employeeDto) {
         Employee employee = convertEmployeeDtoToEmployee(employeeDto);
-        employeeRepository.save(employee);
+        try {
+            employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            if (isUsernameTaken(e)) {
+                LOGGER.debug("Username {} taken meanwhile",
+                        employee.getUsername());
+                throw new ConstraintViolationException(USERNAME_EXISTS,
+                        Set.of());
+            }
+            throw e;
+        }
+        employeeSearchIndex.put(employee);
+        usernameFilter.put(employee.getUsername());
         LOGGER.debug("Created Employee: {}", employee);
-        sendMessage(EMAIL,
-                getContentByType(employee, getWelcomeMailBody(employee),
-                        EMAIL, EMAIL_SUBJECT, MAIL_TEMPLATE));
+        sendMessage(EMAIL, getWelcomeMail(employee));
 
         return employee;
     }
 
+    /**
+     * To build the welcome email of a new employee.
+     *
+     * @param employee Employee details
+     * @return welcome email content
+     */
+    public Content getWelcomeMail(final Employee employee) {
+        return getContentByType(employee, getWelcomeMailBody(employee),
+                EMAIL, EMAIL_SUBJECT, MAIL_TEMPLATE);
+    }
+
     private Map<String, Object> getWelcomeMailBody(
             final Employee employee) {
         Map<String, Object> body = new HashMap<>();
@@ -203,24 +289,60 @@ public class EmployeeFacade {
     }
 
     /**
-     * To get all the employees.
+     * To get a page of employees in id order. The page after a cursor is
+     * read with an id range query on the primary key, so every page costs
+     * the same however deep it is.
      *
-     * @return List of employees.
+     * @param limit maximum number of employees
+     * @param after cursor of the page, null for the first page
+     * @return page of employees with the cursor of the next page
+     * @throws ResourceNotFoundException invalid cursor
      */
-    public List<Employee> getEmployees() {
-        List<Employee> employeeList = employeeRepository.findAll();
-        LOGGER.debug("List of employees : {}", employeeList);
-        return employeeList;
+    @Transactional(readOnly = true)
+    public EmployeePage getEmployees(final int limit, final String after)
+            throws ResourceNotFoundException {
+        long afterId = after == null ? 0 : decodeCursor(after);
+        // One more row than asked tells whether there is a next page.
+        List<Employee> employeeList = employeeRepository
+                .findByIdGreaterThanOrderByIdAsc(afterId,
+                        PageRequest.of(0, limit + 1));
+        String next = null;
+        if (employeeList.size() > limit) {
+            employeeList = employeeList.subList(0, limit);
+            next = encodeCursor(employeeList.get(limit - 1).getId());
+        }
+        LOGGER.debug("Page of {} employees after {}", employeeList.size(),
+                afterId);
+        return new EmployeePage(employeeList, next);
+    }
+
+    private static String encodeCursor(final long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeCursor(final String cursor)
+            throws ResourceNotFoundException {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder()
+                    .decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Invalid page cursor {}", cursor);
+            throw new ResourceNotFoundException(INVALID_CURSOR);
+        }
     }
 
     /**
-     * To get employee details by id.
+     * To get employee details by id. The cache loads the misses itself, so
+     * it can send the reload of an entry it has just evicted to the
+     * primary, which has the write the replica may still miss.
      *
      * @param id Employee Id
      * @return Employee
      * @throws ResourceNotFoundException id not found
      */
-    @Cacheable(cacheNames = "employeeCache")
+    @Cacheable(cacheNames = ID_CACHE_NAME, sync = true)
+    @Transactional(readOnly = true)
     public Employee getEmployeeById(final Long id)
             throws ResourceNotFoundException {
         Employee employee = employeeRepository.findById(id).orElseThrow(
@@ -240,23 +362,26 @@ public class EmployeeFacade {
      * @return String
      * @throws ResourceNotFoundException id not found
      */
-    @CacheEvict(cacheNames = "employeeCache", key = "#id")
+    @CacheEvict(cacheNames = ID_CACHE_NAME, key = "#id")
+    @Transactional
     public String deleteEmployeeById(final Long id)
             throws ResourceNotFoundException {
         Employee employee = getEmployeeById(id);
         employeeRepository.delete(employee);
+        employeeSearchIndex.remove(id);
         LOGGER.debug("Delete success");
         return SUCCESS_MESSAGE;
     }
 
     /**
-     * To get Employee details by email.
+     * To get Employee details by email. Cached like the employees by id.
      *
      * @param email Employee email
      * @return List of Employees
      * @throws ResourceNotFoundException email not found
      */
-    @Cacheable(cacheNames = "employeeCache", key = "#email")
+    @Cacheable(cacheNames = EMAIL_CACHE_NAME, key = "#email", sync = true)
+    @Transactional(readOnly = true)
     public List<Employee> getEmployeeByEmail(final String email)
             throws ResourceNotFoundException {
         return employeeRepository.findByEmail(email).orElseThrow(
@@ -275,6 +400,7 @@ public class EmployeeFacade {
      * @return List of Employees
      * @throws ResourceNotFoundException Username & email not found
      */
+    @Transactional(readOnly = true)
     public List<Employee> getEmployeeByUsernameOrEmail(
             final String username, final String email)
             throws ResourceNotFoundException {
@@ -294,6 +420,58 @@ public class EmployeeFacade {
         return employeeList;
     }
 
+    /**
+     * To search a page of employees whose username contains the username
+     * or whose email contains the email, ignoring case, in id order. The
+     * matches are found in the search index instead of scanning the
+     * table.
+     *
+     * @param username part of the username
+     * @param email    part of the email
+     * @param limit    maximum number of employees
+     * @param after    cursor of the page, null for the first page
+     * @return page of employees with the cursor of the next page
+     * @throws ResourceNotFoundException neither username nor email given,
+     *                                   or invalid cursor
+     */
+    @Transactional(readOnly = true)
+    public EmployeePage searchEmployees(final String username,
+                                        final String email, final int limit,
+                                        final String after)
+            throws ResourceNotFoundException {
+        if (username == null && email == null) {
+            throw new ResourceNotFoundException(
+                    EMPLOYEE_USERNAME_OR_EMAIL_NOT_FOUND);
+        }
+        long afterId = after == null ? 0 : decodeCursor(after);
+        List<Long> ids = employeeSearchIndex.search(username, email, afterId,
+                limit + 1);
+        String next = null;
+        if (ids.size() > limit) {
+            ids = ids.subList(0, limit);
+            next = encodeCursor(ids.get(limit - 1));
+        }
+        // The index can lag behind the writes of other nodes, so the rows
+        // are matched again.
+        List<Employee> employeeList = employeeRepository.findAllById(ids)
+                .stream()
+                .filter(employee -> containsIgnoreCase(
+                        employee.getUsername(), username)
+                        || containsIgnoreCase(employee.getEmail(), email))
+                .sorted(Comparator.comparing(Employee::getId))
+                .collect(Collectors.toList());
+        LOGGER.debug("Found {} employees with Username: {} or Email: {}",
+                employeeList.size(), username, email);
+        return new EmployeePage(employeeList, next);
+    }
+
+    private static boolean containsIgnoreCase(final String value,
+                                              final String part) {
+        return value != null && part != null
+                && value.toLowerCase(Locale.ROOT)
+                .contains(part.toLowerCase(Locale.ROOT));
+    }
+
     /**
      * Get Example.
      *
@@ -323,14 +501,16 @@ public class EmployeeFacade {
      * @throws ResourceNotFoundException id not found
      */
     @Caching(evict = {
-            @CacheEvict(cacheNames = "employeeCache", key = "#id"),
-            @CacheEvict(cacheNames = "employeeCache", key = "#email")
+            @CacheEvict(cacheNames = ID_CACHE_NAME, key = "#id"),
+            @CacheEvict(cacheNames = EMAIL_CACHE_NAME, key = "#email")
     })
     @Transactional
     public String updateEmployeeEmail(final Long id, final String email)
             throws ResourceNotFoundException {
         Employee employee = getEmployeeById(id);
         employeeRepository.updateEmployeeEmail(employee.getId(), email);
+        employeeSearchIndex.put(employee.getId(), employee.getUsername(),
+                email);
         return SUCCESS_MESSAGE;
     }
 
@@ -341,6 +521,7 @@ public class EmployeeFacade {
      * @return registration success message
      * @throws ResourceNotFoundException exception
      */
+    @Transactional
     public String registerForRates(final RatesRegisterDto ratesRegisterDto)
             throws ResourceNotFoundException {
         RatesRegister ratesRegister =
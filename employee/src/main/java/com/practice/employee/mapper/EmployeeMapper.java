@@ -0,0 +1,37 @@
+package com.practice.employee.mapper;
+
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.RatesRegister;
+import com.practice.employee.model.dto.EmployeeDto;
+import com.practice.employee.model.dto.RatesRegisterDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Mapper from the Dto classes of the requests to the Model classes. The
+ * implementation is generated at compile time as plain getter and setter
+ * calls, and a property of the Model left unmapped fails the build.
+ */
+@Mapper(componentModel = "spring",
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface EmployeeMapper {
+    /**
+     * To map EmployeeDto to Employee, the id is generated on save.
+     *
+     * @param employeeDto Employee details
+     * @return Employee
+     */
+    @Mapping(target = "id", ignore = true)
+    Employee toEmployee(EmployeeDto employeeDto);
+
+    /**
+     * To map RatesRegisterDto to RatesRegister, the employee is looked up
+     * by the id of the Dto.
+     *
+     * @param ratesRegisterDto RatesRegister details
+     * @return RatesRegister
+     */
+    @Mapping(target = "employee", ignore = true)
+    RatesRegister toRatesRegister(RatesRegisterDto ratesRegisterDto);
+}
@@ -0,0 +1,8 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains the mappers between the Dto and the Model classes, generated at
+ * compile time.
+ */
+package com.practice.employee.mapper;
@@ -11,14 +11,22 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Size;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = Employee.USERNAME_CONSTRAINT, columnNames = "username"))
 @ApiModel(value = "Employee Model", description = "Details about Employee")
 public class Employee {
+    /**
+     * Name of the unique constraint of the usernames.
+     */
+    public static final String USERNAME_CONSTRAINT = "UK_EMPLOYEE_USERNAME";
     /**
      * Message for failed Email validation.
      */
@@ -0,0 +1,27 @@
+package com.practice.employee.model;
+
+/**
+ * Keys of an employee, read without the rest of the row.
+ */
+public interface EmployeeKey {
+    /**
+     * Getter for Employee id.
+     *
+     * @return id
+     */
+    Long getId();
+
+    /**
+     * Getter for Employee username.
+     *
+     * @return username
+     */
+    String getUsername();
+
+    /**
+     * Getter for Employee email.
+     *
+     * @return email
+     */
+    String getEmail();
+}
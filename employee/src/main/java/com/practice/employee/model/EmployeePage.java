@@ -0,0 +1,43 @@
+package com.practice.employee.model;
+
+import java.util.List;
+
+public final class EmployeePage {
+    /**
+     * Employees of the page, ordered by id.
+     */
+    private final List<Employee> employees;
+    /**
+     * Cursor of the next page, null on the last page.
+     */
+    private final String next;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param employees employees of the page
+     * @param next      cursor of the next page, null on the last page
+     */
+    public EmployeePage(final List<Employee> employees, final String next) {
+        this.employees = employees;
+        this.next = next;
+    }
+
+    /**
+     * Getter for the employees of the page.
+     *
+     * @return employees ordered by id
+     */
+    public List<Employee> getEmployees() {
+        return employees;
+    }
+
+    /**
+     * Getter for the cursor of the next page.
+     *
+     * @return cursor, null on the last page
+     */
+    public String getNext() {
+        return next;
+    }
+}
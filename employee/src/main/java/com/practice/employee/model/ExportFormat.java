@@ -0,0 +1,44 @@
+package com.practice.employee.model;
+
+public enum ExportFormat {
+    /**
+     * One JSON object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /**
+     * Comma separated values with a header line.
+     */
+    CSV("text/csv", "csv");
+
+    /**
+     * Content type of the export.
+     */
+    private final String contentType;
+    /**
+     * File extension of the export.
+     */
+    private final String extension;
+
+    ExportFormat(final String contentType, final String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Getter for the content type.
+     *
+     * @return content type
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Getter for the file extension.
+     *
+     * @return file extension
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
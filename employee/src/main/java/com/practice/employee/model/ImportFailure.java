@@ -0,0 +1,59 @@
+package com.practice.employee.model;
+
+import java.util.List;
+
+public final class ImportFailure {
+    /**
+     * Position of the row in the imported array, from 1.
+     */
+    private final long row;
+    /**
+     * Username of the row, null if it could not be read.
+     */
+    private final String username;
+    /**
+     * Reasons the row was not imported.
+     */
+    private final List<String> errors;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param row      position of the row in the imported array, from 1
+     * @param username username of the row, null if it could not be read
+     * @param errors   reasons the row was not imported
+     */
+    public ImportFailure(final long row, final String username,
+                         final List<String> errors) {
+        this.row = row;
+        this.username = username;
+        this.errors = errors;
+    }
+
+    /**
+     * Getter for the position of the row.
+     *
+     * @return position in the imported array, from 1
+     */
+    public long getRow() {
+        return row;
+    }
+
+    /**
+     * Getter for the username of the row.
+     *
+     * @return username, null if it could not be read
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Getter for the reasons the row was not imported.
+     *
+     * @return reasons
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,75 @@
+package com.practice.employee.model;
+
+import java.util.List;
+
+public final class ImportReport {
+    /**
+     * Number of rows read.
+     */
+    private final long received;
+    /**
+     * Number of employees created.
+     */
+    private final long imported;
+    /**
+     * Number of rows not imported.
+     */
+    private final long failed;
+    /**
+     * Failed rows, the first ones up to a limit.
+     */
+    private final List<ImportFailure> failures;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param received number of rows read
+     * @param imported number of employees created
+     * @param failed   number of rows not imported
+     * @param failures failed rows, the first ones up to a limit
+     */
+    public ImportReport(final long received, final long imported,
+                        final long failed,
+                        final List<ImportFailure> failures) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.failures = failures;
+    }
+
+    /**
+     * Getter for the number of rows read.
+     *
+     * @return number of rows
+     */
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * Getter for the number of employees created.
+     *
+     * @return number of employees
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Getter for the number of rows not imported.
+     *
+     * @return number of rows
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Getter for the failed rows.
+     *
+     * @return failed rows in row order, the first ones up to a limit
+     */
+    public List<ImportFailure> getFailures() {
+        return failures;
+    }
+}
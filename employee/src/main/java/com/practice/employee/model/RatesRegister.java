@@ -1,5 +1,7 @@
 package com.practice.employee.model;
 
+import com.practice.currencyconverter.model.CurrencySet;
+
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.ElementCollection;
@@ -94,6 +96,15 @@ public class RatesRegister {
         this.target = target;
     }
 
+    /**
+     * Getter for target currency codes as a canonical currency set.
+     *
+     * @return target currency set
+     */
+    public CurrencySet getTargetCurrencies() {
+        return CurrencySet.of(target);
+    }
+
     /**
      * Default constructor.
      */
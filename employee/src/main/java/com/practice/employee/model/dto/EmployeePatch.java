@@ -0,0 +1,78 @@
+package com.practice.employee.model.dto;
+
+import io.swagger.annotations.ApiModelProperty;
+
+import javax.validation.constraints.Pattern;
+
+public class EmployeePatch {
+    /**
+     * Well-formed email domain, at least two labels.
+     */
+    public static final String EMAIL_DOMAIN_REGEXP =
+            "[A-Za-z0-9-]+(\\.[A-Za-z0-9-]+)+";
+    /**
+     * Message for an invalid email domain.
+     */
+    public static final String EMAIL_DOMAIN_VALIDATION_MSG
+            = "Not a well-formed email domain";
+    /**
+     * New domain of the employee emails, null to keep the emails.
+     */
+    @Pattern(regexp = EMAIL_DOMAIN_REGEXP,
+            message = EMAIL_DOMAIN_VALIDATION_MSG)
+    @ApiModelProperty(notes = "New domain of the employee emails")
+    private String emailDomain;
+
+    /**
+     * New phone number, null to keep the phone numbers.
+     */
+    @ApiModelProperty(notes = "New phone number of the employees")
+    private String phoneNumber;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param emailDomain new domain of the employee emails
+     * @param phoneNumber new phone number of the employees
+     */
+    public EmployeePatch(final String emailDomain, final String phoneNumber) {
+        this.emailDomain = emailDomain;
+        this.phoneNumber = phoneNumber;
+    }
+
+    /**
+     * Getter for the new email domain.
+     *
+     * @return email domain, null to keep the emails
+     */
+    public String getEmailDomain() {
+        return emailDomain;
+    }
+
+    /**
+     * Setter for the new email domain.
+     *
+     * @param emailDomain email domain
+     */
+    public void setEmailDomain(final String emailDomain) {
+        this.emailDomain = emailDomain;
+    }
+
+    /**
+     * Getter for the new phone number.
+     *
+     * @return phone number, null to keep the phone numbers
+     */
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    /**
+     * Setter for the new phone number.
+     *
+     * @param phoneNumber phone number
+     */
+    public void setPhoneNumber(final String phoneNumber) {
+        this.phoneNumber = phoneNumber;
+    }
+}
@@ -1,14 +1,25 @@
 package com.practice.employee.repository;
 
 import com.practice.employee.model.Employee;
+import com.practice.employee.model.EmployeeKey;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
@@ -28,6 +39,50 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
      */
     Employee findByUsername(String username);
 
+    /**
+     * To check whether a username is taken, without loading the employee.
+     *
+     * @param username Employee username
+     * @return true or false
+     */
+    boolean existsByUsername(String username);
+
+    /**
+     * To retrieve which of the usernames are taken, in one query.
+     *
+     * @param usernames usernames to look for
+     * @return usernames taken
+     */
+    @Query("SELECT e.username FROM Employee e WHERE e.username IN :usernames")
+    Set<String> findUsernamesIn(
+            @Param("usernames") Collection<String> usernames);
+
+    /**
+     * To retrieve the employees after an id, in id order. Served by the
+     * primary key index, so the cost does not depend on the id.
+     *
+     * @param id       last id of the previous page
+     * @param pageable page size, the page number must be 0
+     * @return employees
+     */
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long id,
+                                                   Pageable pageable);
+
+    /**
+     * To stream all the employees in id order through a forward-only
+     * cursor, fetching 500 rows per round trip. Must be consumed inside a
+     * transaction and closed.
+     *
+     * @return stream of employees
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT e FROM Employee e ORDER BY e.id")
+    Stream<Employee> streamAllOrderById();
+
     /**
      * To Update employee email based on id.
      *
@@ -39,4 +94,67 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query("UPDATE Employee e SET e.email = :email where e.id = :id")
     Integer updateEmployeeEmail(@Param("id") Long id,
                                 @Param("email") String email);
+
+    /**
+     * To retrieve the keys of the employees with the ids.
+     *
+     * @param ids Employee ids
+     * @return keys of the employees found
+     */
+    List<EmployeeKey> findKeysByIdIn(Collection<Long> ids);
+
+    /**
+     * To retrieve the keys of the employees whose email ends with the
+     * suffix, ignoring case.
+     *
+     * @param suffix end of the email, e.g. @gmail.com
+     * @return keys of the employees found
+     */
+    List<EmployeeKey> findKeysByEmailEndingWithIgnoreCase(String suffix);
+
+    /**
+     * To retrieve the keys of the employees after an id, in id order.
+     *
+     * @param id       last id of the previous page
+     * @param pageable page size, the page number must be 0
+     * @return keys of the employees
+     */
+    List<EmployeeKey> findKeysByIdGreaterThanOrderByIdAsc(Long id,
+                                                          Pageable pageable);
+
+    /**
+     * To replace the domain of the emails of the employees.
+     *
+     * @param ids    Employee ids
+     * @param domain new email domain
+     * @return number of employees updated
+     */
+    @Modifying
+    @Query("UPDATE Employee e SET e.email = CONCAT(SUBSTRING(e.email, 1, "
+            + "LOCATE('@', e.email)), :domain) WHERE e.id IN :ids")
+    int updateEmailDomain(@Param("ids") Collection<Long> ids,
+                          @Param("domain") String domain);
+
+    /**
+     * To update the phone number of the employees.
+     *
+     * @param ids         Employee ids
+     * @param phoneNumber new phone number
+     * @return number of employees updated
+     */
+    @Modifying
+    @Query("UPDATE Employee e SET e.phoneNumber = :phoneNumber "
+            + "WHERE e.id IN :ids")
+    int updatePhoneNumber(@Param("ids") Collection<Long> ids,
+                          @Param("phoneNumber") String phoneNumber);
+
+    /**
+     * To delete the employees with the ids, in one statement.
+     *
+     * @param ids Employee ids
+     * @return number of employees deleted
+     */
+    @Modifying
+    @Query("DELETE FROM Employee e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
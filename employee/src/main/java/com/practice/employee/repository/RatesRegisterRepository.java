@@ -2,9 +2,38 @@ package com.practice.employee.repository;
 
 import com.practice.employee.model.RatesRegister;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface RatesRegisterRepository extends
         JpaRepository<RatesRegister, Integer> {
+    /**
+     * To delete the target currencies of the registrations of the
+     * employees. Bulk deletes do not cascade to element collections, so
+     * they go first.
+     *
+     * @param ids Employee ids
+     * @return number of target rows deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM rates_register_target "
+            + "WHERE rates_register_registration_id IN ("
+            + "SELECT registration_id FROM rates_register "
+            + "WHERE employee_id IN :ids)", nativeQuery = true)
+    int deleteTargetsByEmployeeIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * To delete the registrations of the employees.
+     *
+     * @param ids Employee ids
+     * @return number of registrations deleted
+     */
+    @Modifying
+    @Query("DELETE FROM RatesRegister r WHERE r.employee.id IN :ids")
+    int deleteByEmployeeIds(@Param("ids") Collection<Long> ids);
 }
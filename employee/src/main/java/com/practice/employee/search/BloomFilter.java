@@ -0,0 +1,124 @@
+package com.practice.employee.search;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set of strings that answers "definitely not present" or "possibly
+ * present". The bits of a value are picked by double hashing one 64 bit
+ * hash of its characters. Values can not be removed. Safe for concurrent
+ * use, a value put by one thread is seen by the lookups started after.
+ */
+final class BloomFilter {
+    /**
+     * Offset basis of the FNV-1a hash.
+     */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    /**
+     * Prime of the FNV-1a hash.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /**
+     * First multiplier of the 64 bit finalizer of MurmurHash3.
+     */
+    private static final long MIX_FIRST = 0xff51afd7ed558ccdL;
+    /**
+     * Second multiplier of the 64 bit finalizer of MurmurHash3.
+     */
+    private static final long MIX_SECOND = 0xc4ceb9fe1a85ec53L;
+    /**
+     * Shift of the 64 bit finalizer of MurmurHash3.
+     */
+    private static final int MIX_SHIFT = 33;
+    /**
+     * Bits per word of the bit array.
+     */
+    private static final int WORD_SHIFT = 6;
+    /**
+     * Maximum number of words, the bits are indexed by a positive int.
+     */
+    private static final int MAX_WORDS = 1 << Integer.SIZE - 1 - WORD_SHIFT;
+    /**
+     * Bits of the filter.
+     */
+    private final AtomicLongArray words;
+    /**
+     * Number of bits.
+     */
+    private final long bits;
+    /**
+     * Bits set per value.
+     */
+    private final int hashes;
+
+    /**
+     * Filter sized for a number of values and a false positive rate.
+     *
+     * @param capacity          expected number of values
+     * @param falsePositiveRate false positive rate at capacity
+     */
+    BloomFilter(final int capacity, final double falsePositiveRate) {
+        double ln2 = Math.log(2);
+        long wanted = (long) Math.ceil(-Math.max(capacity, 1)
+                * Math.log(falsePositiveRate) / (ln2 * ln2));
+        int length = (int) Math.min(MAX_WORDS,
+                (wanted + Long.SIZE - 1) >>> WORD_SHIFT);
+        this.words = new AtomicLongArray(Math.max(length, 1));
+        this.bits = (long) words.length() << WORD_SHIFT;
+        this.hashes = Math.max(1,
+                (int) Math.round((double) bits / Math.max(capacity, 1) * ln2));
+    }
+
+    /**
+     * Add a value.
+     *
+     * @param value value
+     */
+    void put(final String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(hash, i);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> WORD_SHIFT);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (a, b) -> a | b);
+            }
+        }
+    }
+
+    /**
+     * Whether the value may have been added.
+     *
+     * @param value value
+     * @return false if the value was never added
+     */
+    boolean mightContain(final String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            long bit = index(hash, i);
+            if ((words.get((int) (bit >>> WORD_SHIFT)) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Bit i of a value: h1 + i * h2, the halves of its hash.
+    private long index(final long hash, final int i) {
+        int combined = (int) hash + i * (int) (hash >>> Integer.SIZE);
+        return (combined & Integer.MAX_VALUE) % bits;
+    }
+
+    private static long hash(final String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_FIRST;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_SECOND;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash;
+    }
+}
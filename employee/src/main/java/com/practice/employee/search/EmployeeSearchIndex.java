@@ -0,0 +1,240 @@
+package com.practice.employee.search;
+
+import com.practice.employee.model.Employee;
+import com.practice.employee.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Substring search on the username and email of the employees, served
+ * from trigram indexes held in memory. The indexes are loaded from the
+ * table once the application is up, kept in step by the writes of this
+ * node and loaded again every {@code via.employee.search.rebuild-interval}.
+ * Writes of other nodes are only seen after a load, so callers check the
+ * rows they load again. Searches share a read lock, writes take the write
+ * lock.
+ */
+@Component
+public class EmployeeSearchIndex {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(EmployeeSearchIndex.class);
+    /**
+     * Employees read per query while loading.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+    /**
+     * EmployeeRepository object.
+     */
+    private final EmployeeRepository employeeRepository;
+    /**
+     * Lock of the indexes, searches read and writes write.
+     */
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Indexes in use.
+     */
+    private Indexes current = new Indexes();
+    /**
+     * Indexes being loaded, null when not loading.
+     */
+    private Indexes next;
+
+    /**
+     * Parameterized constructor to bind EmployeeRepository object.
+     *
+     * @param employeeRepository EmployeeRepository object
+     */
+    public EmployeeSearchIndex(final EmployeeRepository employeeRepository) {
+        this.employeeRepository = employeeRepository;
+    }
+
+    /**
+     * Index every employee of the table into new indexes, a batch at a
+     * time in id order, then use them. Writes made while loading go to
+     * both the indexes in use and the new ones.
+     *
+     * @return number of employees indexed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized int load() {
+        Indexes loading = new Indexes();
+        install(current, loading);
+        int count = 0;
+        long after = 0;
+        List<Employee> batch;
+        try {
+            do {
+                batch = employeeRepository.findByIdGreaterThanOrderByIdAsc(
+                        after, PageRequest.of(0, LOAD_BATCH_SIZE));
+                List<Employee> read = batch;
+                write(() -> read.forEach(loading::load));
+                count += batch.size();
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            install(current, null);
+            throw e;
+        }
+        install(loading, null);
+        LOGGER.info("Indexed {} employees for search", count);
+        return count;
+    }
+
+    /**
+     * Load the indexes again, dropping deleted employees and picking up
+     * the writes of other nodes.
+     */
+    @Scheduled(initialDelayString =
+            "${via.employee.search.rebuild-interval:PT10M}",
+            fixedDelayString =
+            "${via.employee.search.rebuild-interval:PT10M}")
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Index an employee, replacing what was indexed for its id.
+     *
+     * @param employee employee
+     */
+    public void put(final Employee employee) {
+        put(employee.getId(), employee.getUsername(), employee.getEmail());
+    }
+
+    /**
+     * Index the username and email of an employee, replacing what was
+     * indexed for its id.
+     *
+     * @param id       Employee id
+     * @param username Employee username
+     * @param email    Employee email
+     */
+    public void put(final long id, final String username,
+                    final String email) {
+        write(() -> {
+            current.put(id, username, email);
+            if (next != null) {
+                next.put(id, username, email);
+                next.written.add(id);
+            }
+        });
+    }
+
+    /**
+     * Remove an employee from the index.
+     *
+     * @param id Employee id
+     */
+    public void remove(final long id) {
+        put(id, null, null);
+    }
+
+    /**
+     * Ids of the employees whose username contains the username or whose
+     * email contains the email, ignoring case.
+     *
+     * @param username part of the username, null to not match usernames
+     * @param email    part of the email, null to not match emails
+     * @param after    ids up to this one are skipped
+     * @param limit    maximum number of ids
+     * @return ids in ascending order
+     */
+    public List<Long> search(final String username, final String email,
+                             final long after, final int limit) {
+        NavigableSet<Long> ids = new TreeSet<>();
+        lock.readLock().lock();
+        try {
+            if (username != null) {
+                ids.addAll(current.usernames.find(username, after, limit));
+            }
+            if (email != null) {
+                ids.addAll(current.emails.find(email, after, limit));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ids.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    // Swap the indexes in use and the ones being loaded.
+    private void install(final Indexes inUse, final Indexes loading) {
+        lock.writeLock().lock();
+        try {
+            current = inUse;
+            next = loading;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(final Runnable update) {
+        lock.writeLock().lock();
+        try {
+            update.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Username and email indexes of one load.
+     */
+    private static final class Indexes {
+        /**
+         * Index of the usernames.
+         */
+        private final TrigramIndex usernames = new TrigramIndex();
+        /**
+         * Index of the emails.
+         */
+        private final TrigramIndex emails = new TrigramIndex();
+        /**
+         * Ids written while loading, newer than the rows read.
+         */
+        private final Set<Long> written = new HashSet<>();
+
+        /**
+         * Index the username and email of an employee.
+         *
+         * @param id       Employee id
+         * @param username Employee username, null to remove
+         * @param email    Employee email, null to remove
+         */
+        void put(final long id, final String username, final String email) {
+            usernames.put(id, username);
+            emails.put(id, email);
+        }
+
+        /**
+         * Index a row read from the table, unless this node wrote the
+         * employee since.
+         *
+         * @param employee employee read
+         */
+        void load(final Employee employee) {
+            if (!written.contains(employee.getId())) {
+                put(employee.getId(), employee.getUsername(),
+                        employee.getEmail());
+            }
+        }
+    }
+}
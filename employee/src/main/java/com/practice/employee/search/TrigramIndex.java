@@ -0,0 +1,216 @@
+package com.practice.employee.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Case insensitive substring index of one text per id. Every three
+ * character run of a text posts the id, a query only looks at the ids
+ * posted by its rarest run and checks their texts, the same recheck a
+ * database trigram index does. The ids of a trigram are kept in a sorted
+ * array of primitives, so a search can start after any id with a binary
+ * search. Writes need exclusive access, searches may run concurrently.
+ */
+final class TrigramIndex {
+    /**
+     * Characters of a trigram.
+     */
+    private static final int GRAM = 3;
+    /**
+     * Lower cased text per id.
+     */
+    private final NavigableMap<Long, String> texts = new TreeMap<>();
+    /**
+     * Ids per trigram.
+     */
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    /**
+     * Index the text of an id, replacing its previous text.
+     *
+     * @param id   id
+     * @param text text, null to remove the id
+     */
+    void put(final long id, final String text) {
+        remove(id);
+        if (text == null) {
+            return;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        texts.put(id, lower);
+        for (long trigram : trigrams(lower)) {
+            postings.computeIfAbsent(trigram, key -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Remove an id from the index.
+     *
+     * @param id id
+     */
+    void remove(final long id) {
+        String old = texts.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (long trigram : trigrams(old)) {
+            Postings ids = postings.get(trigram);
+            ids.remove(id);
+            if (ids.size() == 0) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+    /**
+     * Number of ids indexed.
+     *
+     * @return number of ids
+     */
+    int size() {
+        return texts.size();
+    }
+
+    /**
+     * Ids whose text contains the query, ignoring case.
+     *
+     * @param query text to look for
+     * @param after ids up to this one are skipped
+     * @param limit maximum number of ids
+     * @return ids in ascending order
+     */
+    List<Long> find(final String query, final long after, final int limit) {
+        String needle = query.toLowerCase(Locale.ROOT);
+        List<Long> found = new ArrayList<>();
+        if (needle.length() < GRAM) {
+            // Too short to have a trigram, every text is a candidate.
+            for (Map.Entry<Long, String> text
+                    : texts.tailMap(after, false).entrySet()) {
+                if (found.size() == limit) {
+                    break;
+                }
+                if (text.getValue().contains(needle)) {
+                    found.add(text.getKey());
+                }
+            }
+            return found;
+        }
+        Postings rarest = null;
+        for (long trigram : trigrams(needle)) {
+            Postings ids = postings.get(trigram);
+            if (ids == null) {
+                return found;
+            }
+            if (rarest == null || ids.size() < rarest.size()) {
+                rarest = ids;
+            }
+        }
+        for (int i = rarest.indexAfter(after);
+             i < rarest.size() && found.size() < limit; i++) {
+            long id = rarest.get(i);
+            if (texts.get(id).contains(needle)) {
+                found.add(id);
+            }
+        }
+        return found;
+    }
+
+    // Distinct trigrams of a text, three chars packed in a long.
+    private static long[] trigrams(final String text) {
+        long[] trigrams = new long[Math.max(text.length() - GRAM + 1, 0)];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = (long) text.charAt(i) << (2 * Character.SIZE)
+                    | (long) text.charAt(i + 1) << Character.SIZE
+                    | text.charAt(i + 2);
+        }
+        return Arrays.stream(trigrams).sorted().distinct().toArray();
+    }
+
+    /**
+     * Ids posted by a trigram, in ascending order.
+     */
+    private static final class Postings {
+        /**
+         * Capacity of new postings.
+         */
+        private static final int INITIAL_CAPACITY = 4;
+        /**
+         * Ids, sorted up to the size.
+         */
+        private long[] ids = new long[INITIAL_CAPACITY];
+        /**
+         * Number of ids.
+         */
+        private int size;
+
+        /**
+         * Add an id, keeping the order.
+         *
+         * @param id id
+         */
+        void add(final long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertion = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertion, ids, insertion + 1,
+                    size - insertion);
+            ids[insertion] = id;
+            size++;
+        }
+
+        /**
+         * Remove an id.
+         *
+         * @param id id
+         */
+        void remove(final long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        /**
+         * Number of ids.
+         *
+         * @return number of ids
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * Id at a position.
+         *
+         * @param index position
+         * @return id
+         */
+        long get(final int index) {
+            return ids[index];
+        }
+
+        /**
+         * Position of the first id greater than the id.
+         *
+         * @param id id
+         * @return position, the size if there is none
+         */
+        int indexAfter(final long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            return index >= 0 ? index + 1 : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.practice.employee.search;
+
+import com.practice.employee.model.EmployeeKey;
+import com.practice.employee.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Bloom filter of the usernames taken, so checking that a new username is
+ * free does not need the database in the common case. The filter is
+ * loaded from the table once the application is up, takes the usernames
+ * created by this node and is loaded again every
+ * {@code via.employee.username-filter.rebuild-interval}. Usernames of
+ * deleted employees stay possible hits, answered by the database, and
+ * usernames created by other nodes are missed, until the next load.
+ */
+@Component
+public class UsernameFilter {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(UsernameFilter.class);
+    /**
+     * Employees read per query while loading.
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+    /**
+     * Smallest number of usernames the filter is sized for.
+     */
+    private static final int MIN_CAPACITY = 10_000;
+    /**
+     * Room for new usernames until the next load, as a multiple of the
+     * usernames loaded.
+     */
+    private static final int GROWTH = 2;
+    /**
+     * EmployeeRepository object.
+     */
+    private final EmployeeRepository employeeRepository;
+    /**
+     * False positive rate of the filter when full.
+     */
+    private final double falsePositiveRate;
+    /**
+     * Filter in use, null until loaded.
+     */
+    private volatile BloomFilter filter;
+    /**
+     * Filter being loaded, null when not loading.
+     */
+    private volatile BloomFilter next;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param employeeRepository EmployeeRepository object
+     * @param falsePositiveRate  false positive rate of the filter when full
+     */
+    public UsernameFilter(final EmployeeRepository employeeRepository,
+                          @Value("${via.employee.username-filter"
+                                  + ".false-positive-rate:0.01}")
+                          final double falsePositiveRate) {
+        this.employeeRepository = employeeRepository;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Load the usernames of the table into a new filter, a batch at a time
+     * in id order, then use it.
+     *
+     * @return number of usernames loaded
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized int load() {
+        long count = employeeRepository.count();
+        BloomFilter loading = new BloomFilter((int) Math.min(
+                Integer.MAX_VALUE, Math.max(MIN_CAPACITY, count * GROWTH)),
+                falsePositiveRate);
+        next = loading;
+        int loaded = 0;
+        long after = 0;
+        List<EmployeeKey> batch;
+        try {
+            do {
+                batch = employeeRepository.findKeysByIdGreaterThanOrderByIdAsc(
+                        after, PageRequest.of(0, LOAD_BATCH_SIZE));
+                batch.forEach(key -> loading.put(key.getUsername()));
+                loaded += batch.size();
+                if (!batch.isEmpty()) {
+                    after = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+            filter = loading;
+        } finally {
+            next = null;
+        }
+        LOGGER.info("Loaded {} usernames into the username filter", loaded);
+        return loaded;
+    }
+
+    /**
+     * Load the filter again, dropping the usernames of deleted employees
+     * and picking up the ones created by other nodes.
+     */
+    @Scheduled(initialDelayString =
+            "${via.employee.username-filter.rebuild-interval:PT10M}",
+            fixedDelayString =
+            "${via.employee.username-filter.rebuild-interval:PT10M}")
+    public void reload() {
+        load();
+    }
+
+    /**
+     * Add the username of a new employee.
+     *
+     * @param username Employee username
+     */
+    public void put(final String username) {
+        if (username == null) {
+            return;
+        }
+        // The filter being loaded first: once it is null, the filter in
+        // use is the loaded one.
+        BloomFilter loading = next;
+        if (loading != null) {
+            loading.put(username);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.put(username);
+        }
+    }
+
+    /**
+     * Whether the username may be taken. Always true until loaded, null
+     * is never taken.
+     *
+     * @param username Employee username
+     * @return false if the username is certainly free
+     */
+    public boolean mightExist(final String username) {
+        if (username == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        return current == null || current.mightContain(username);
+    }
+}
@@ -0,0 +1,8 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains in memory indexes of the employees, for substring search and
+ * username checks.
+ */
+package com.practice.employee.search;
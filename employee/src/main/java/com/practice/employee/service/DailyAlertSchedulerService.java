@@ -1,7 +1,10 @@
 package com.practice.employee.service;
 
+import com.practice.currencyconverter.chart.Sparklines;
 import com.practice.currencyconverter.facade.CurrencyConverterFacade;
 import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.CurrencySet;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
 import com.practice.employee.model.Employee;
 import com.practice.employee.model.RatesRegister;
 import com.practice.employee.repository.RatesRegisterRepository;
@@ -14,9 +17,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
@@ -48,6 +51,14 @@ public class DailyAlertSchedulerService {
      * CurrencyConverterFacade object.
      */
     private final CurrencyConverterFacade currencyConverterFacade;
+    /**
+     * UpstreamQuotaManager object.
+     */
+    private final UpstreamQuotaManager quotaManager;
+    /**
+     * Sparklines object.
+     */
+    private final Sparklines sparklines;
 
     /**
      * Parameterized constructor to bind the objects.
@@ -55,16 +66,23 @@ public class DailyAlertSchedulerService {
      * @param abstractFactory         Abstract Factory of type Messaging Service
      * @param registerRepository      RatesRegisterRepository object
      * @param currencyConverterFacade CurrencyConverterFacade object
+     * @param quotaManager            UpstreamQuotaManager object
+     * @param sparklines              Sparklines object
      */
     public DailyAlertSchedulerService(final AbstractFactory<MessagingService>
                                               abstractFactory,
                                       final RatesRegisterRepository
                                               registerRepository,
                                       final CurrencyConverterFacade
-                                              currencyConverterFacade) {
+                                              currencyConverterFacade,
+                                      final UpstreamQuotaManager
+                                              quotaManager,
+                                      final Sparklines sparklines) {
         this.abstractFactory = abstractFactory;
         this.registerRepository = registerRepository;
         this.currencyConverterFacade = currencyConverterFacade;
+        this.quotaManager = quotaManager;
+        this.sparklines = sparklines;
     }
 
     /**
@@ -73,7 +91,7 @@ public class DailyAlertSchedulerService {
     @Scheduled(cron = "${via.scheduler.cron.value}")
     public void dailyEmailAlertScheduler() {
 
-        Map<String, Map<Set<String>, List<RatesRegister>>>
+        Map<String, Map<CurrencySet, List<RatesRegister>>>
                 registeredForAlerts = getAlertRegistrationDetails();
 
         registeredForAlerts.forEach((baseCode, targetDetailsMap) ->
@@ -83,15 +101,16 @@ public class DailyAlertSchedulerService {
                 ));
     }
 
-    private Map<String, Map<Set<String>,
+    private Map<String, Map<CurrencySet,
             List<RatesRegister>>> getAlertRegistrationDetails() {
         List<RatesRegister> ratesRegisters = registerRepository.findAll();
         LOGGER.debug("Rates registers: {}", ratesRegisters);
 
-        Map<String, Map<Set<String>, List<RatesRegister>>>
+        Map<String, Map<CurrencySet, List<RatesRegister>>>
                 groupByBaseTargets = ratesRegisters.stream().collect(
                 Collectors.groupingBy(RatesRegister::getBase,
-                        Collectors.groupingBy(RatesRegister::getTarget)
+                        Collectors.groupingBy(
+                                RatesRegister::getTargetCurrencies)
                 ));
         LOGGER.debug("Rates registers Group by: {}", groupByBaseTargets);
 
@@ -100,10 +119,24 @@ public class DailyAlertSchedulerService {
 
     private Map<String, Double> getLatestRates(
             final String baseCode,
-            final Set<String> targetsSet) {
+            final CurrencySet targetsSet) {
+        if (quotaManager.isSaving()) {
+            LOGGER.info("Upstream quota is tight, {} alert served from the "
+                    + "shared base rates", baseCode);
+            Map<String, Double> rates = currencyConverterFacade
+                    .getCurrencyRate(baseCode).getRates();
+            Map<String, Double> targets = new HashMap<>();
+            targetsSet.toSet().forEach(code -> {
+                Double rate = rates.get(code);
+                if (rate != null) {
+                    targets.put(code, rate);
+                }
+            });
+            return targets;
+        }
         CurrencyConverter currencyRate = currencyConverterFacade
                 .getCurrencyRateWithTarget(baseCode,
-                        targetsSet);
+                        targetsSet.toSet());
         return currencyRate.getRates();
     }
 
@@ -121,11 +154,23 @@ public class DailyAlertSchedulerService {
     private void sendMail(final String key,
                           final Map<String, Double> targets,
                           final StringJoiner toAddress) {
+        // Charts come rendered from the per snapshot cache, the mail only
+        // references them.
+        Map<String, String> sparklineIds = new HashMap<>();
+        Map<String, byte[]> images = new HashMap<>();
+        targets.keySet().forEach(target -> sparklines.get(key, target)
+                .ifPresent(png -> {
+                    String id = "sparkline-" + key + "-" + target;
+                    sparklineIds.put(target, id);
+                    images.put(id, png);
+                }));
 
         abstractFactory.create("email").send(Content.builder()
                 .setTo(toAddress.toString())
                 .setSubject(EMAIL_SUBJECT)
-                .setBody(Map.of("base", key, "targets", targets))
+                .setBody(Map.of("base", key, "targets", targets,
+                        "sparklines", sparklineIds))
+                .setImages(images)
                 .setTemplate(MAIL_TEMPLATE)
                 .createMail());
 
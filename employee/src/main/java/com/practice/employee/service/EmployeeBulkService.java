@@ -0,0 +1,236 @@
+package com.practice.employee.service;
+
+import com.practice.employee.facade.EmployeeFacade;
+import com.practice.employee.model.EmployeeKey;
+import com.practice.employee.model.dto.EmployeePatch;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.employee.repository.RatesRegisterRepository;
+import com.practice.employee.search.EmployeeSearchIndex;
+import com.practice.exception.ResourceNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Updates and deletes of many employees at once. The employees are
+ * selected by ids or by email domain with one query for their keys, then
+ * changed with set-based statements, a chunk of ids per statement, in a
+ * single transaction. Once committed, the cache entries of the employees,
+ * by id and by email, are evicted and the search index is brought in
+ * step.
+ */
+@Service
+public class EmployeeBulkService {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(EmployeeBulkService.class);
+    /**
+     * Ids per statement, well below the bind parameter limits.
+     */
+    private static final int CHUNK_SIZE = 1000;
+    /**
+     * Message for a missing selection.
+     */
+    private static final String NO_SELECTION =
+            "Employee ids or email domain required";
+    /**
+     * Email domain a selection may name, so no blank or partial domain
+     * matches every employee.
+     */
+    private static final Pattern EMAIL_DOMAIN =
+            Pattern.compile(EmployeePatch.EMAIL_DOMAIN_REGEXP);
+    /**
+     * Message for a patch without changes.
+     */
+    private static final String NOTHING_TO_UPDATE =
+            "Email domain or phone number required";
+    /**
+     * EmployeeRepository object.
+     */
+    private final EmployeeRepository employeeRepository;
+    /**
+     * RatesRegisterRepository object.
+     */
+    private final RatesRegisterRepository registerRepository;
+    /**
+     * EmployeeSearchIndex object.
+     */
+    private final EmployeeSearchIndex employeeSearchIndex;
+    /**
+     * CacheManager object.
+     */
+    private final CacheManager cacheManager;
+    /**
+     * TransactionTemplate object.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param employeeRepository  EmployeeRepository object
+     * @param registerRepository  RatesRegisterRepository object
+     * @param employeeSearchIndex EmployeeSearchIndex object
+     * @param cacheManager        CacheManager object
+     * @param transactionTemplate TransactionTemplate object
+     */
+    public EmployeeBulkService(
+            final EmployeeRepository employeeRepository,
+            final RatesRegisterRepository registerRepository,
+            final EmployeeSearchIndex employeeSearchIndex,
+            final CacheManager cacheManager,
+            final TransactionTemplate transactionTemplate) {
+        this.employeeRepository = employeeRepository;
+        this.registerRepository = registerRepository;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.cacheManager = cacheManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Update the email domain and/or phone number of the employees with
+     * the ids and/or the email domain.
+     *
+     * @param ids    Employee ids, null for any
+     * @param domain current email domain, null for any
+     * @param patch  new values
+     * @return number of employees updated
+     * @throws ResourceNotFoundException no selection or nothing to update
+     */
+    public int updateEmployees(final List<Long> ids, final String domain,
+                               final EmployeePatch patch)
+            throws ResourceNotFoundException {
+        if (patch.getEmailDomain() == null && patch.getPhoneNumber() == null) {
+            throw new ResourceNotFoundException(NOTHING_TO_UPDATE);
+        }
+        List<EmployeeKey> keys = select(ids, domain);
+        inTransaction(keys, chunk -> {
+            if (patch.getEmailDomain() != null) {
+                employeeRepository.updateEmailDomain(chunk,
+                        patch.getEmailDomain());
+            }
+            if (patch.getPhoneNumber() != null) {
+                employeeRepository.updatePhoneNumber(chunk,
+                        patch.getPhoneNumber());
+            }
+        });
+        List<String> emails = emails(keys);
+        if (patch.getEmailDomain() != null) {
+            for (EmployeeKey key : keys) {
+                String email = withDomain(key.getEmail(),
+                        patch.getEmailDomain());
+                // A list cached under the new email misses this employee.
+                emails.add(email);
+                employeeSearchIndex.put(key.getId(), key.getUsername(),
+                        email);
+            }
+        }
+        evict(keys, emails);
+        LOGGER.debug("Updated {} employees", keys.size());
+        return keys.size();
+    }
+
+    /**
+     * Delete the employees with the ids and/or the email domain, and their
+     * rates registrations.
+     *
+     * @param ids    Employee ids, null for any
+     * @param domain email domain, null for any
+     * @return number of employees deleted
+     * @throws ResourceNotFoundException no selection
+     */
+    public int deleteEmployees(final List<Long> ids, final String domain)
+            throws ResourceNotFoundException {
+        List<EmployeeKey> keys = select(ids, domain);
+        inTransaction(keys, chunk -> {
+            registerRepository.deleteTargetsByEmployeeIds(chunk);
+            registerRepository.deleteByEmployeeIds(chunk);
+            employeeRepository.deleteByIds(chunk);
+        });
+        keys.forEach(key -> employeeSearchIndex.remove(key.getId()));
+        evict(keys, emails(keys));
+        LOGGER.debug("Deleted {} employees", keys.size());
+        return keys.size();
+    }
+
+    private List<EmployeeKey> select(final List<Long> ids, final String domain)
+            throws ResourceNotFoundException {
+        if ((ids == null || ids.isEmpty()) && domain == null) {
+            throw new ResourceNotFoundException(NO_SELECTION);
+        }
+        if (domain != null && !EMAIL_DOMAIN.matcher(domain).matches()) {
+            throw new ResourceNotFoundException(
+                    EmployeePatch.EMAIL_DOMAIN_VALIDATION_MSG);
+        }
+        if (ids == null || ids.isEmpty()) {
+            return employeeRepository
+                    .findKeysByEmailEndingWithIgnoreCase("@" + domain);
+        }
+        String suffix = domain == null ? null
+                : ("@" + domain).toLowerCase(Locale.ROOT);
+        List<EmployeeKey> keys = new ArrayList<>();
+        for (List<Long> chunk : chunks(ids)) {
+            employeeRepository.findKeysByIdIn(chunk).stream()
+                    .filter(key -> suffix == null || key.getEmail()
+                            .toLowerCase(Locale.ROOT).endsWith(suffix))
+                    .forEach(keys::add);
+        }
+        return keys;
+    }
+
+    private void inTransaction(final List<EmployeeKey> keys,
+                               final Consumer<List<Long>> statements) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Long> ids = keys.stream().map(EmployeeKey::getId)
+                .collect(Collectors.toList());
+        transactionTemplate.executeWithoutResult(status ->
+                chunks(ids).forEach(statements));
+    }
+
+    private static List<List<Long>> chunks(final List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            chunks.add(ids.subList(from,
+                    Math.min(from + CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    private static List<String> emails(final List<EmployeeKey> keys) {
+        return keys.stream().map(EmployeeKey::getEmail)
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Entries are cached by id by getEmployeeById and by email by
+    // getEmployeeByEmail.
+    private void evict(final List<EmployeeKey> keys,
+                       final List<String> emails) {
+        Cache byId = cacheManager.getCache(EmployeeFacade.ID_CACHE_NAME);
+        if (byId != null) {
+            keys.forEach(key -> byId.evict(key.getId()));
+        }
+        Cache byEmail = cacheManager
+                .getCache(EmployeeFacade.EMAIL_CACHE_NAME);
+        if (byEmail != null) {
+            emails.forEach(byEmail::evict);
+        }
+    }
+
+    private static String withDomain(final String email, final String domain) {
+        return email.substring(0, email.indexOf('@') + 1) + domain;
+    }
+}
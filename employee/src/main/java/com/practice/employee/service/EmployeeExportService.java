@@ -0,0 +1,168 @@
+package com.practice.employee.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.ExportFormat;
+import com.practice.employee.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+public class EmployeeExportService {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(EmployeeExportService.class);
+    /**
+     * Header line of the CSV export.
+     */
+    private static final String CSV_HEADER =
+            "id,name,username,email,phoneNumber,age";
+    /**
+     * EmployeeRepository object.
+     */
+    private final EmployeeRepository employeeRepository;
+    /**
+     * EntityManager object.
+     */
+    private final EntityManager entityManager;
+    /**
+     * Writer of one employee as JSON.
+     */
+    private final ObjectWriter employeeWriter;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param employeeRepository EmployeeRepository object
+     * @param entityManager      EntityManager object
+     * @param objectMapper       ObjectMapper object
+     */
+    public EmployeeExportService(final EmployeeRepository employeeRepository,
+                                 final EntityManager entityManager,
+                                 final ObjectMapper objectMapper) {
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.employeeWriter = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Export all the employees in id order. Rows are read from a
+     * forward-only cursor and written as they arrive, every written
+     * employee is detached, so memory stays flat whatever the table size.
+     *
+     * @param format export format
+     * @param out    stream to write to, left open
+     * @return number of employees exported
+     * @throws IOException export can not be written
+     */
+    @Transactional(readOnly = true)
+    public long export(final ExportFormat format, final OutputStream out)
+            throws IOException {
+        try (Stream<Employee> employees = employeeRepository
+                .streamAllOrderById()) {
+            long count = write(employees.map(this::detach), format, out);
+            LOGGER.info("Exported {} employees as {}", count, format);
+            return count;
+        }
+    }
+
+    /**
+     * Write the employees in the format.
+     *
+     * @param employees employees to write
+     * @param format    export format
+     * @param out       stream to write to, left open
+     * @return number of employees written
+     * @throws IOException export can not be written
+     */
+    public long write(final Stream<Employee> employees,
+                      final ExportFormat format, final OutputStream out)
+            throws IOException {
+        return format == ExportFormat.CSV
+                ? writeCsv(employees.iterator(), out)
+                : writeNdjson(employees.iterator(), out);
+    }
+
+    private long writeNdjson(final Iterator<Employee> employees,
+                             final OutputStream out) throws IOException {
+        JsonGenerator generator = employeeWriter.getFactory()
+                .createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+        long count = 0;
+        while (employees.hasNext()) {
+            employeeWriter.writeValue(generator, employees.next());
+            generator.writeRaw('\n');
+            count++;
+        }
+        generator.close();
+        return count;
+    }
+
+    private long writeCsv(final Iterator<Employee> employees,
+                          final OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        while (employees.hasNext()) {
+            Employee employee = employees.next();
+            writer.write(String.valueOf(employee.getId()));
+            writer.write(',');
+            writeCsvField(writer, employee.getName());
+            writer.write(',');
+            writeCsvField(writer, employee.getUsername());
+            writer.write(',');
+            writeCsvField(writer, employee.getEmail());
+            writer.write(',');
+            writeCsvField(writer, employee.getPhoneNumber());
+            writer.write(',');
+            writer.write(employee.getAge() == null ? ""
+                    : String.valueOf(employee.getAge()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // RFC 4180 quoting, only where the value needs it.
+    private static void writeCsvField(final Writer writer, final String value)
+            throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private Employee detach(final Employee employee) {
+        entityManager.detach(employee);
+        return employee;
+    }
+}
@@ -0,0 +1,402 @@
+package com.practice.employee.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.practice.employee.facade.EmployeeFacade;
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.ImportFailure;
+import com.practice.employee.model.ImportReport;
+import com.practice.employee.model.dto.EmployeeDto;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.employee.search.EmployeeSearchIndex;
+import com.practice.employee.search.UsernameFilter;
+import com.practice.employee.validator.Username;
+import com.practice.employee.validator.UsernameValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.validation.Configuration;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorFactory;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk creation of employees from a JSON array, read as it arrives so the
+ * size of the array does not matter. Rows are handled a batch at a time:
+ * each row is validated on its own, the usernames of the batch are
+ * checked with one query when the username filter can not rule them out,
+ * and the valid rows are inserted together, which Hibernate sends as JDBC
+ * batches. Welcome emails are queued instead of sent inline. A row that
+ * fails is reported and does not stop the import.
+ */
+@Service
+public class EmployeeImportService {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(EmployeeImportService.class);
+    /**
+     * Rows validated, checked and inserted together.
+     */
+    private static final int BATCH_SIZE = 500;
+    /**
+     * Maximum number of failed rows listed in the report.
+     */
+    private static final int MAX_REPORTED_FAILURES = 1000;
+    /**
+     * Message for a username that is taken.
+     */
+    private static final String USERNAME_EXISTS = "Username already exists";
+    /**
+     * Message for a username given twice in the import.
+     */
+    private static final String USERNAME_REPEATED =
+            "Username repeated in the import";
+    /**
+     * Message for a body that is not an array.
+     */
+    private static final String NOT_AN_ARRAY =
+            "Expected a JSON array of employees";
+    /**
+     * Validator that passes every username, usernames are checked a batch
+     * at a time instead of a query per row.
+     */
+    private static final ConstraintValidator<Username, String>
+            DEFERRED_USERNAME = (username, context) -> true;
+    /**
+     * EmployeeRepository object.
+     */
+    private final EmployeeRepository employeeRepository;
+    /**
+     * EmployeeFacade object.
+     */
+    private final EmployeeFacade employeeFacade;
+    /**
+     * EmployeeSearchIndex object.
+     */
+    private final EmployeeSearchIndex employeeSearchIndex;
+    /**
+     * UsernameFilter object.
+     */
+    private final UsernameFilter usernameFilter;
+    /**
+     * MailQueue object.
+     */
+    private final MailQueue mailQueue;
+    /**
+     * EntityManager object.
+     */
+    private final EntityManager entityManager;
+    /**
+     * ObjectMapper object.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Factory of the row validator.
+     */
+    private final ValidatorFactory validatorFactory;
+    /**
+     * Row validator.
+     */
+    private final Validator validator;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param employeeRepository  EmployeeRepository object
+     * @param employeeFacade      EmployeeFacade object
+     * @param employeeSearchIndex EmployeeSearchIndex object
+     * @param usernameFilter      UsernameFilter object
+     * @param mailQueue           MailQueue object
+     * @param entityManager       EntityManager object
+     * @param objectMapper        ObjectMapper object
+     */
+    public EmployeeImportService(
+            final EmployeeRepository employeeRepository,
+            final EmployeeFacade employeeFacade,
+            final EmployeeSearchIndex employeeSearchIndex,
+            final UsernameFilter usernameFilter,
+            final MailQueue mailQueue, final EntityManager entityManager,
+            final ObjectMapper objectMapper) {
+        this.employeeRepository = employeeRepository;
+        this.employeeFacade = employeeFacade;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.usernameFilter = usernameFilter;
+        this.mailQueue = mailQueue;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        Configuration<?> configuration = Validation.byDefaultProvider()
+                .configure();
+        this.validatorFactory = configuration.constraintValidatorFactory(
+                new DeferredUsernameFactory(
+                        configuration.getDefaultConstraintValidatorFactory()))
+                .buildValidatorFactory();
+        this.validator = validatorFactory.getValidator();
+    }
+
+    /**
+     * Import the employees of a JSON array. Rows read before malformed
+     * JSON are still imported, the rest of the array is reported as not
+     * read.
+     *
+     * @param in JSON array of employee details
+     * @return counts and failed rows
+     * @throws IOException input can not be read or is not an array
+     */
+    public ImportReport importEmployees(final InputStream in)
+            throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        try (JsonParser parser = objectMapper.getFactory()
+                .createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw MismatchedInputException.from(parser,
+                        EmployeeDto[].class, NOT_AN_ARRAY);
+            }
+            List<Row> batch = new ArrayList<>(BATCH_SIZE);
+            try {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    batch.add(read(parser, progress.received + 1));
+                    progress.received++;
+                    if (batch.size() == BATCH_SIZE) {
+                        importBatch(batch, progress);
+                        batch.clear();
+                    }
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new JsonParseException(parser,
+                            "Expected an employee object");
+                }
+            } catch (JsonParseException e) {
+                importBatch(batch, progress);
+                batch.clear();
+                progress.received++;
+                progress.fail(List.of(new ImportFailure(
+                        progress.received, null,
+                        List.of("Malformed JSON, the rest of the array was "
+                                + "not read: " + e.getOriginalMessage()))));
+            }
+            importBatch(batch, progress);
+        }
+        LOGGER.info("Imported {} of {} employees in {} ms",
+                progress.imported, progress.received,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return new ImportReport(progress.received, progress.imported,
+                progress.failed, progress.failures);
+    }
+
+    /**
+     * Close the row validator.
+     */
+    @PreDestroy
+    public void close() {
+        validatorFactory.close();
+    }
+
+    // One row as a tree first, so a row that does not bind to the DTO
+    // leaves the parser at the next row.
+    private Row read(final JsonParser parser, final long number)
+            throws IOException {
+        JsonNode node = objectMapper.readTree(parser);
+        try {
+            return new Row(number, node.path("username").asText(null),
+                    objectMapper.treeToValue(node, EmployeeDto.class), null);
+        } catch (JsonProcessingException e) {
+            return new Row(number, node.path("username").asText(null), null,
+                    e.getOriginalMessage());
+        }
+    }
+
+    private void importBatch(final List<Row> batch, final Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<ImportFailure> failures = new ArrayList<>();
+        Map<String, Row> candidates = new LinkedHashMap<>();
+        for (Row row : batch) {
+            List<String> errors = row.error != null ? List.of(row.error)
+                    : validator.validate(row.dto).stream()
+                    .map(violation -> violation.getPropertyPath() + ": "
+                            + violation.getMessage())
+                    .sorted().collect(Collectors.toList());
+            if (!errors.isEmpty()) {
+                failures.add(new ImportFailure(row.number, row.username,
+                        errors));
+            } else if (!progress.usernames.add(row.username)) {
+                failures.add(new ImportFailure(row.number, row.username,
+                        List.of(USERNAME_REPEATED)));
+            } else {
+                candidates.put(row.username, row);
+            }
+        }
+        Set<String> unsure = candidates.keySet().stream()
+                .filter(usernameFilter::mightExist)
+                .collect(Collectors.toSet());
+        Set<String> taken = unsure.isEmpty() ? Set.of()
+                : employeeRepository.findUsernamesIn(unsure);
+        List<Row> rows = new ArrayList<>();
+        for (Row row : candidates.values()) {
+            if (taken.contains(row.username)) {
+                failures.add(new ImportFailure(row.number, row.username,
+                        List.of(USERNAME_EXISTS)));
+            } else {
+                rows.add(row);
+            }
+        }
+        insert(rows, failures, progress);
+        failures.sort(Comparator.comparingLong(ImportFailure::getRow));
+        progress.fail(failures);
+    }
+
+    private void insert(final List<Row> rows,
+                        final List<ImportFailure> failures,
+                        final Progress progress) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Employee> employees = rows.stream()
+                .map(row -> employeeFacade
+                        .convertEmployeeDtoToEmployee(row.dto))
+                .collect(Collectors.toList());
+        try {
+            employeeRepository.saveAll(employees).forEach(this::created);
+            progress.imported += employees.size();
+        } catch (DataAccessException e) {
+            LOGGER.warn("Batch insert failed, inserting {} rows one by one",
+                    rows.size(), e);
+            entityManager.clear();
+            for (int i = 0; i < rows.size(); i++) {
+                try {
+                    created(employeeRepository.save(employees.get(i)));
+                    progress.imported++;
+                } catch (DataAccessException rowError) {
+                    failures.add(new ImportFailure(rows.get(i).number,
+                            rows.get(i).username, List.of(
+                            employeeFacade.isUsernameTaken(rowError)
+                                    ? USERNAME_EXISTS : rowError
+                                    .getMostSpecificCause().getMessage())));
+                }
+            }
+        } finally {
+            // Inserted employees are not needed any more, do not let them
+            // pile up in the persistence context of the request.
+            entityManager.clear();
+        }
+    }
+
+    private void created(final Employee employee) {
+        employeeSearchIndex.put(employee);
+        usernameFilter.put(employee.getUsername());
+        mailQueue.enqueue(employeeFacade.getWelcomeMail(employee));
+    }
+
+    private static final class Row {
+        /**
+         * Position in the array, from 1.
+         */
+        private final long number;
+        /**
+         * Username, null if missing.
+         */
+        private final String username;
+        /**
+         * Employee details, null if the row does not bind.
+         */
+        private final EmployeeDto dto;
+        /**
+         * Binding error, null if the row binds.
+         */
+        private final String error;
+
+        private Row(final long number, final String username,
+                    final EmployeeDto dto, final String error) {
+            this.number = number;
+            this.username = username;
+            this.dto = dto;
+            this.error = error;
+        }
+    }
+
+    private static final class Progress {
+        /**
+         * Number of rows read.
+         */
+        private long received;
+        /**
+         * Number of employees created.
+         */
+        private long imported;
+        /**
+         * Number of rows not imported.
+         */
+        private long failed;
+        /**
+         * Failed rows reported.
+         */
+        private final List<ImportFailure> failures = new ArrayList<>();
+        /**
+         * Usernames of the import so far.
+         */
+        private final Set<String> usernames = new HashSet<>();
+
+        private void fail(final List<ImportFailure> batchFailures) {
+            failed += batchFailures.size();
+            for (ImportFailure failure : batchFailures) {
+                if (failures.size() < MAX_REPORTED_FAILURES) {
+                    failures.add(failure);
+                }
+            }
+        }
+    }
+
+    private static final class DeferredUsernameFactory
+            implements ConstraintValidatorFactory {
+        /**
+         * Factory of the other validators.
+         */
+        private final ConstraintValidatorFactory defaults;
+
+        private DeferredUsernameFactory(
+                final ConstraintValidatorFactory defaults) {
+            this.defaults = defaults;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends ConstraintValidator<?, ?>> T getInstance(
+                final Class<T> key) {
+            return key == UsernameValidator.class ? (T) DEFERRED_USERNAME
+                    : defaults.getInstance(key);
+        }
+
+        @Override
+        public void releaseInstance(final ConstraintValidator<?, ?> instance) {
+            if (instance != DEFERRED_USERNAME) {
+                defaults.releaseInstance(instance);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.practice.employee.service;
+
+import com.practice.message.factory.AbstractFactory;
+import com.practice.message.model.Content;
+import com.practice.message.service.MessagingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emails sent in the background, one at a time, so a caller creating many
+ * employees does not wait for the mail server. When the queue is full the
+ * caller sends the mail itself, which slows it down to the pace of the
+ * mail server instead of dropping mails.
+ */
+@Service
+public class MailQueue {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(MailQueue.class);
+    /**
+     * Type email.
+     */
+    private static final String EMAIL = "email";
+    /**
+     * Maximum number of mails waiting.
+     */
+    private static final int CAPACITY = 10_000;
+    /**
+     * Seconds to wait for the queued mails on shutdown.
+     */
+    private static final long SHUTDOWN_WAIT_SECONDS = 10;
+    /**
+     * Messaging Service object.
+     */
+    private final AbstractFactory<MessagingService> abstractFactory;
+    /**
+     * Sender thread and its queue.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Parameterized constructor to bind Messaging Service factory.
+     *
+     * @param abstractFactory Abstract Factory of type Messaging Service
+     */
+    public MailQueue(final AbstractFactory<MessagingService> abstractFactory) {
+        this.abstractFactory = abstractFactory;
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(CAPACITY), task -> {
+            Thread thread = new Thread(task, "mail-queue");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Queue an email.
+     *
+     * @param content email content
+     */
+    public void enqueue(final Content content) {
+        executor.execute(() -> send(content));
+    }
+
+    /**
+     * Number of emails waiting to be sent.
+     *
+     * @return number of emails
+     */
+    public int size() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Stop taking emails and give the queued ones some time to be sent.
+     *
+     * @throws InterruptedException interrupted while waiting
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(SHUTDOWN_WAIT_SECONDS,
+                TimeUnit.SECONDS)) {
+            LOGGER.warn("{} queued emails not sent", size());
+        }
+    }
+
+    private void send(final Content content) {
+        try {
+            abstractFactory.create(EMAIL).send(content);
+        } catch (RuntimeException e) {
+            LOGGER.error("Email to {} failed", content.getTo(), e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.practice.employee.validator;
 
 import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.model.CurrencySet;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
@@ -13,6 +14,10 @@ public class TargetCodeValidator
      * EmployeeService object.
      */
     private final CurrencyConverterFacade currencyConverterFacade;
+    /**
+     * Valid codes mask with the currency list it was built from.
+     */
+    private volatile ValidCodes validCodes;
 
     /**
      * Parameterized constructor.
@@ -34,9 +39,38 @@ public class TargetCodeValidator
     @Override
     public boolean isValid(final Set<String> target,
                            final ConstraintValidatorContext context) {
+        CurrencySet mask = getValidCodes();
+        return CurrencySet.ofKnown(target)
+                .map(mask::containsAll)
+                .orElse(false);
+    }
+
+    private CurrencySet getValidCodes() {
         Map<String, String> codes = currencyConverterFacade
                 .getCountriesAndCurrencies();
-        return target.stream().allMatch(codes::containsKey);
+        ValidCodes current = validCodes;
+        if (current == null || current.source != codes) {
+            current = new ValidCodes(codes,
+                    CurrencySet.of(codes.keySet()));
+            validCodes = current;
+        }
+        return current.mask;
     }
 
+    private static final class ValidCodes {
+        /**
+         * Currency list the mask was built from.
+         */
+        private final Map<String, String> source;
+        /**
+         * Valid codes mask.
+         */
+        private final CurrencySet mask;
+
+        private ValidCodes(final Map<String, String> source,
+                           final CurrencySet mask) {
+            this.source = source;
+            this.mask = mask;
+        }
+    }
 }
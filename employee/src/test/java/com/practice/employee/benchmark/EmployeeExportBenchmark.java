@@ -0,0 +1,58 @@
+package com.practice.employee.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.ExportFormat;
+import com.practice.employee.service.EmployeeExportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Rows per second of the employee export, from entity to bytes on the wire.
+ * Rows are generated on the fly like a forward-only cursor hands them out,
+ * so the numbers leave the database out and show what the writers cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EmployeeExportBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"NDJSON", "CSV"})
+    private ExportFormat format;
+
+    private EmployeeExportService employeeExportService;
+
+    @Setup
+    public void setup() {
+        employeeExportService = new EmployeeExportService(null, null, new ObjectMapper());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long export() throws IOException {
+        return employeeExportService.write(employees(), format, OutputStream.nullOutputStream());
+    }
+
+    private static Stream<Employee> employees() {
+        return LongStream.rangeClosed(1, ROWS).mapToObj(id -> new Employee(id, "Employee " + id,
+                "emp" + id, "employee" + id + "@gmail.com", "+111111111", 20 + (int) (id % 40)));
+    }
+}
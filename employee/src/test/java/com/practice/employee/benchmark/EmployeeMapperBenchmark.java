@@ -0,0 +1,72 @@
+package com.practice.employee.benchmark;
+
+import com.practice.employee.mapper.EmployeeMapper;
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.RatesRegister;
+import com.practice.employee.model.dto.EmployeeDto;
+import com.practice.employee.model.dto.RatesRegisterDto;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to map the Dto of a create or registration request to its Model,
+ * with the reflective ModelMapper the facade used to call and with the
+ * generated mapper. Run with -prof gc to compare the allocations too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class EmployeeMapperBenchmark {
+
+    private ModelMapper modelMapper;
+
+    private EmployeeMapper employeeMapper;
+
+    private EmployeeDto employeeDto;
+
+    private RatesRegisterDto ratesRegisterDto;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        employeeMapper = Mappers.getMapper(EmployeeMapper.class);
+        employeeDto = new EmployeeDto("Employee 1", "employee1", "emp1@gmail.com", "+111111111", 25);
+        ratesRegisterDto = new RatesRegisterDto(40000L, "HUF", Set.of("INR", "EUR", "USD"), 10000);
+    }
+
+    @Benchmark
+    public Employee employeeWithModelMapper() {
+        return modelMapper.map(employeeDto, Employee.class);
+    }
+
+    @Benchmark
+    public Employee employeeWithGeneratedMapper() {
+        return employeeMapper.toEmployee(employeeDto);
+    }
+
+    @Benchmark
+    public RatesRegister ratesRegisterWithModelMapper() {
+        return modelMapper.map(ratesRegisterDto, RatesRegister.class);
+    }
+
+    @Benchmark
+    public RatesRegister ratesRegisterWithGeneratedMapper() {
+        return employeeMapper.toRatesRegister(ratesRegisterDto);
+    }
+}
@@ -1,7 +1,9 @@
 package com.practice.employee.unit;
 
+import com.practice.currencyconverter.chart.Sparklines;
 import com.practice.currencyconverter.facade.CurrencyConverterFacade;
 import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
 import com.practice.employee.service.DailyAlertSchedulerService;
 import com.practice.employee.model.Employee;
 import com.practice.employee.model.RatesRegister;
@@ -44,6 +46,12 @@ class DailyAlertSchedulerServiceTest {
     @Mock
     EmailService emailService;
 
+    @Mock
+    UpstreamQuotaManager quotaManager;
+
+    @Mock
+    Sparklines sparklines;
+
     private List<RatesRegister> ratesRegisters;
     private CurrencyConverter converterHuf;
     private CurrencyConverter converterInr;
@@ -63,21 +71,13 @@ class DailyAlertSchedulerServiceTest {
         ratesHuf.put("EUR", 0.0029798266);
         ratesHuf.put("INR", 0.2352772729);
 
-        converterHuf = new CurrencyConverter();
-        String baseHuf = "HUF";
-        converterHuf.setBase(baseHuf);
-        converterHuf.setDate(LocalDate.now());
-        converterHuf.setRates(ratesHuf);
+        converterHuf = new CurrencyConverter(ratesHuf, "HUF", LocalDate.now());
 
         Map<String, Double> ratesInr = new HashMap<>();
         ratesInr.put("HUF", 4.2503042807);
         ratesInr.put("USD", 0.0140684704);
 
-        converterInr = new CurrencyConverter();
-        String baseInr = "INR";
-        converterInr.setBase(baseInr);
-        converterInr.setDate(LocalDate.now());
-        converterInr.setRates(ratesInr);
+        converterInr = new CurrencyConverter(ratesInr, "INR", LocalDate.now());
     }
 
     @Test
@@ -109,4 +109,52 @@ class DailyAlertSchedulerServiceTest {
                 .matches(mail -> mail.getBody().get("base").toString().contentEquals(ratesRegisters.get(1).getBase()))
                 .matches(mail -> mail.getBody().get("targets").toString().contentEquals(converterInr.getRates().toString()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getScheduledCurrencyRateWhileSavingQuota() {
+        //GIVEN
+        setup();
+        ArgumentCaptor<Content> captor = ArgumentCaptor.forClass(Content.class);
+        converterHuf = new CurrencyConverter(Map.of("EUR", 0.0029798266, "INR", 0.2352772729, "USD", 0.0033),
+                "HUF", LocalDate.now());
+        when(quotaManager.isSaving()).thenReturn(true);
+        when(registerRepository.findAll()).thenReturn(List.of(ratesRegisters.get(0)));
+        when(currencyConverterFacade.getCurrencyRate("HUF")).thenReturn(converterHuf);
+        when(abstractFactory.create("email")).thenReturn(emailService);
+
+        //WHEN
+        dailyAlertSchedulerService.dailyEmailAlertScheduler();
+
+        //THEN
+        verify(currencyConverterFacade, never()).getCurrencyRateWithTarget(anyString(), anySet());
+        verify(emailService).send(captor.capture());
+        Assertions.assertThat(captor.getValue())
+                .matches(mail -> mail.getBody().get("targets")
+                        .equals(Map.of("EUR", 0.0029798266, "INR", 0.2352772729)));
+    }
+
+    @Test
+    void getScheduledCurrencyRateWithSparklines() {
+        //GIVEN
+        setup();
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G'};
+        ArgumentCaptor<Content> captor = ArgumentCaptor.forClass(Content.class);
+        when(registerRepository.findAll()).thenReturn(List.of(ratesRegisters.get(0)));
+        when(currencyConverterFacade.getCurrencyRateWithTarget("HUF", Set.of("INR", "EUR")))
+                .thenReturn(converterHuf);
+        when(sparklines.get("HUF", "INR")).thenReturn(Optional.of(png));
+        when(sparklines.get("HUF", "EUR")).thenReturn(Optional.empty());
+        when(abstractFactory.create("email")).thenReturn(emailService);
+
+        //WHEN
+        dailyAlertSchedulerService.dailyEmailAlertScheduler();
+
+        //THEN
+        verify(emailService).send(captor.capture());
+        Assertions.assertThat(captor.getValue().getBody().get("sparklines"))
+                .isEqualTo(Map.of("INR", "sparkline-HUF-INR"));
+        Assertions.assertThat(captor.getValue().getImages())
+                .containsOnlyKeys("sparkline-HUF-INR")
+                .containsValue(png);
+    }
+}
@@ -0,0 +1,183 @@
+package com.practice.employee.unit;
+
+import com.practice.employee.facade.EmployeeFacade;
+import com.practice.employee.model.EmployeeKey;
+import com.practice.employee.model.dto.EmployeePatch;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.employee.repository.RatesRegisterRepository;
+import com.practice.employee.search.EmployeeSearchIndex;
+import com.practice.employee.service.EmployeeBulkService;
+import com.practice.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeBulkServiceTest {
+
+    @Mock
+    EmployeeRepository employeeRepository;
+
+    @Mock
+    RatesRegisterRepository registerRepository;
+
+    @Mock
+    EmployeeSearchIndex employeeSearchIndex;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    private EmployeeBulkService bulkService;
+
+    private Cache byId;
+
+    private Cache byEmail;
+
+    @BeforeEach
+    void setUp() {
+        bulkService = new EmployeeBulkService(employeeRepository, registerRepository, employeeSearchIndex,
+                cacheManager, new TransactionTemplate(transactionManager));
+        byId = cacheManager.getCache(EmployeeFacade.ID_CACHE_NAME);
+        byEmail = cacheManager.getCache(EmployeeFacade.EMAIL_CACHE_NAME);
+    }
+
+    private static EmployeeKey key(final long id, final String username, final String email) {
+        return new EmployeeKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+
+    @Test
+    void deleteEmployeesWithTheIdsAtTheDomain() throws ResourceNotFoundException {
+        //GIVEN
+        when(employeeRepository.findKeysByIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                key(1, "first", "first@gmail.com"),
+                key(2, "second", "second@yahoo.com"),
+                key(3, "third", "third@GMAIL.com")));
+        byId.put(1L, "first");
+        byEmail.put("first@gmail.com", List.of("first"));
+        byId.put(2L, "second");
+
+        //WHEN
+        int deleted = bulkService.deleteEmployees(List.of(1L, 2L, 3L), "Gmail.com");
+
+        //THEN
+        assertEquals(2, deleted);
+        verify(registerRepository).deleteTargetsByEmployeeIds(List.of(1L, 3L));
+        verify(registerRepository).deleteByEmployeeIds(List.of(1L, 3L));
+        verify(employeeRepository).deleteByIds(List.of(1L, 3L));
+        verify(transactionManager).commit(any());
+        verify(employeeSearchIndex).remove(1L);
+        verify(employeeSearchIndex).remove(3L);
+        assertNull(byId.get(1L));
+        assertNull(byEmail.get("first@gmail.com"));
+        assertNotNull(byId.get(2L));
+    }
+
+    @Test
+    void updateEmailDomainOfTheEmployeesAtTheDomain() throws ResourceNotFoundException {
+        //GIVEN
+        when(employeeRepository.findKeysByEmailEndingWithIgnoreCase("@old.com"))
+                .thenReturn(List.of(key(1, "first", "first@old.com")));
+        byEmail.put("first@old.com", List.of("first"));
+        byEmail.put("first@new.com", List.of());
+
+        //WHEN
+        int updated = bulkService.updateEmployees(null, "old.com", new EmployeePatch("new.com", null));
+
+        //THEN
+        assertEquals(1, updated);
+        verify(employeeRepository).updateEmailDomain(List.of(1L), "new.com");
+        verify(employeeRepository, never()).updatePhoneNumber(anyCollection(), anyString());
+        verify(employeeSearchIndex).put(1L, "first", "first@new.com");
+        assertNull(byEmail.get("first@old.com"));
+        assertNull(byEmail.get("first@new.com"));
+    }
+
+    @Test
+    void updatePhoneNumberChunkByChunk() throws ResourceNotFoundException {
+        //GIVEN
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+        when(employeeRepository.findKeysByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> chunk = invocation.getArgument(0);
+            return chunk.stream().map(id -> key(id, "user" + id, "user" + id + "@gmail.com"))
+                    .collect(Collectors.toList());
+        });
+
+        //WHEN
+        int updated = bulkService.updateEmployees(ids, null, new EmployeePatch(null, "+222222222"));
+
+        //THEN
+        assertEquals(2500, updated);
+        verify(employeeRepository, times(3)).findKeysByIdIn(anyCollection());
+        verify(employeeRepository, times(3)).updatePhoneNumber(anyCollection(), any());
+        verify(employeeRepository).updatePhoneNumber(ids.subList(2000, 2500), "+222222222");
+        verify(transactionManager).commit(any());
+        verify(employeeSearchIndex, never()).put(any(Long.class), any(), any());
+    }
+
+    @Test
+    void selectionAndChangesAreRequired() throws ResourceNotFoundException {
+        //GIVEN
+        when(employeeRepository.findKeysByEmailEndingWithIgnoreCase("@nowhere.com")).thenReturn(List.of());
+
+        //WHEN
+        int deleted = bulkService.deleteEmployees(List.of(), "nowhere.com");
+
+        //THEN
+        assertEquals(0, deleted);
+        verify(transactionManager, never()).getTransaction(any());
+        assertThrows(ResourceNotFoundException.class, () -> bulkService.deleteEmployees(null, null));
+        assertThrows(ResourceNotFoundException.class,
+                () -> bulkService.updateEmployees(List.of(1L), null, new EmployeePatch(null, null)));
+    }
+
+    @Test
+    void blankOrPartialDomainsSelectNobody() {
+        //GIVEN
+        EmployeePatch patch = new EmployeePatch(null, "+222222222");
+
+        //WHEN
+        //THEN
+        assertThrows(ResourceNotFoundException.class, () -> bulkService.deleteEmployees(null, ""));
+        assertThrows(ResourceNotFoundException.class, () -> bulkService.deleteEmployees(List.of(1L), " "));
+        assertThrows(ResourceNotFoundException.class, () -> bulkService.updateEmployees(null, "com", patch));
+        verifyNoInteractions(employeeRepository, transactionManager);
+    }
+}
@@ -0,0 +1,84 @@
+package com.practice.employee.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.ExportFormat;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.employee.service.EmployeeExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeExportServiceTest {
+
+    @Mock
+    EmployeeRepository employeeRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Employee employee = new Employee(40000L, "Employee",
+            "employee", "employee@gmail.com", "+111111111", 25);
+
+    private final Employee quoted = new Employee(40001L, "Doe, \"JD\" John",
+            "employee1", "employee1@gmail.com", null, 30);
+
+    private EmployeeExportService exportService() {
+        return new EmployeeExportService(employeeRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    void exportAsNdjson() throws IOException {
+        //GIVEN
+        AtomicBoolean closed = new AtomicBoolean();
+        when(employeeRepository.streamAllOrderById())
+                .thenReturn(Stream.of(employee, quoted).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //WHEN
+        long count = exportService().export(ExportFormat.NDJSON, out);
+
+        //THEN
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertEquals("employee", objectMapper.readTree(lines[0]).get("username").asText());
+        assertEquals("Doe, \"JD\" John", objectMapper.readTree(lines[1]).get("name").asText());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+        assertTrue(closed.get());
+        verify(entityManager).detach(employee);
+        verify(entityManager).detach(quoted);
+    }
+
+    @Test
+    void exportAsCsv() throws IOException {
+        //GIVEN
+        when(employeeRepository.streamAllOrderById()).thenReturn(Stream.of(employee, quoted));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //WHEN
+        long count = exportService().export(ExportFormat.CSV, out);
+
+        //THEN
+        assertEquals(2, count);
+        assertEquals("id,name,username,email,phoneNumber,age\n"
+                        + "40000,Employee,employee,employee@gmail.com,+111111111,25\n"
+                        + "40001,\"Doe, \"\"JD\"\" John\",employee1,employee1@gmail.com,,30\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -1,12 +1,16 @@
 package com.practice.employee.unit;
 
 import com.practice.employee.facade.EmployeeFacade;
+import com.practice.employee.mapper.EmployeeMapper;
 import com.practice.employee.model.Employee;
+import com.practice.employee.model.EmployeePage;
 import com.practice.employee.model.RatesRegister;
 import com.practice.employee.model.dto.EmployeeDto;
 import com.practice.employee.model.dto.RatesRegisterDto;
 import com.practice.employee.repository.EmployeeRepository;
 import com.practice.employee.repository.RatesRegisterRepository;
+import com.practice.employee.search.EmployeeSearchIndex;
+import com.practice.employee.search.UsernameFilter;
 import com.practice.employee.service.OtpService;
 import com.practice.exception.ResourceNotFoundException;
 import com.practice.message.factory.AbstractFactory;
@@ -20,9 +24,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
 
+import javax.validation.ConstraintViolationException;
+import java.sql.SQLException;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +43,7 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,7 +62,7 @@ class EmployeeFacadeTest {
     AbstractFactory<MessagingService> abstractFactory;
 
     @Mock
-    ModelMapper modelMapper;
+    EmployeeMapper employeeMapper;
 
     @Mock
     OtpService otpService;
@@ -61,6 +70,12 @@ class EmployeeFacadeTest {
     @Mock
     EmailService emailService;
 
+    @Mock
+    EmployeeSearchIndex employeeSearchIndex;
+
+    @Mock
+    UsernameFilter usernameFilter;
+
     private Employee employee;
 
     EmployeeFacadeTest() {
@@ -71,16 +86,22 @@ class EmployeeFacadeTest {
     @Test
     void testCheckUserName() {
         //GIVEN
-        when(employeeRepository.findByUsername(anyString())).thenReturn(null);
-        when(employeeRepository.findByUsername(employee.getUsername()))
-                .thenReturn(employee);
+        when(usernameFilter.mightExist("validUsername")).thenReturn(false);
+        when(usernameFilter.mightExist("falseHit")).thenReturn(true);
+        when(usernameFilter.mightExist(employee.getUsername())).thenReturn(true);
+        when(employeeRepository.existsByUsername("falseHit")).thenReturn(false);
+        when(employeeRepository.existsByUsername(employee.getUsername())).thenReturn(true);
         //WHEN
         boolean isValidUsername = employeeFacade.checkUsername("validUsername");
+        boolean isFalseHitValid = employeeFacade.checkUsername("falseHit");
         boolean isInvalidUsername = employeeFacade.checkUsername(employee.getUsername());
 
         //THEN
         assertTrue(isValidUsername);
+        assertTrue(isFalseHitValid);
         assertFalse(isInvalidUsername);
+        verify(employeeRepository, Mockito.never()).existsByUsername("validUsername");
+        verify(employeeRepository, Mockito.never()).findByUsername(anyString());
     }
 
     @Test
@@ -88,7 +109,7 @@ class EmployeeFacadeTest {
         //GIVEN
         EmployeeDto employeeDto = new EmployeeDto("Employee 1",
                 "employee1", "emp1@gmail.com", "+111111111", 25);
-        when(modelMapper.map(employeeDto, Employee.class)).thenReturn(employee);
+        when(employeeMapper.toEmployee(employeeDto)).thenReturn(employee);
         //WHEN
         Employee convertedEmployee = employeeFacade.convertEmployeeDtoToEmployee(employeeDto);
 
@@ -104,7 +125,7 @@ class EmployeeFacadeTest {
         //GIVEN
         RatesRegisterDto ratesRegisterDto = new RatesRegisterDto(40000L,
                 "HUF", Set.of("INR", "EUR"), 10000);
-        when(modelMapper.map(ratesRegisterDto, RatesRegister.class)).thenReturn(
+        when(employeeMapper.toRatesRegister(ratesRegisterDto)).thenReturn(
                 new RatesRegister(1, employee, "HUF", Set.of("INR", "EUR")));
         when(employeeRepository.findById(ratesRegisterDto.getId()))
                 .thenReturn(Optional.ofNullable(employee));
@@ -137,8 +158,8 @@ class EmployeeFacadeTest {
         ArgumentCaptor<Content> captor = ArgumentCaptor.forClass(Content.class);
 
         //when(spyEmployeeFacade.convertEmployeeDtoToEmployee(employeeDto)).thenReturn(employee);
-        when(modelMapper.map(employeeDto, Employee.class)).thenReturn(employee);
-        when(employeeRepository.save(employee)).thenReturn(employee);
+        when(employeeMapper.toEmployee(employeeDto)).thenReturn(employee);
+        when(employeeRepository.saveAndFlush(employee)).thenReturn(employee);
         when(abstractFactory.create("email"))
                 .thenReturn(emailService);
 
@@ -153,17 +174,78 @@ class EmployeeFacadeTest {
         assertEquals(employee.getEmail(), createdEmployee.getEmail());
         assertEquals(employee.getAge(), createdEmployee.getAge());
         assertEquals(employee.getId(), createdEmployee.getId());
+        verify(employeeSearchIndex).put(createdEmployee);
+        verify(usernameFilter).put(createdEmployee.getUsername());
+    }
+
+    @Test
+    void createEmployeeWithAUsernameTakenOnAnotherNode() {
+        //GIVEN
+        EmployeeDto employeeDto = new EmployeeDto("Employee 1",
+                "employee1", "emp1@gmail.com", "+111111111", 25);
+        when(employeeMapper.toEmployee(employeeDto)).thenReturn(employee);
+        when(employeeRepository.saveAndFlush(employee)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_EMPLOYEE_USERNAME_INDEX_7 ON PUBLIC.EMPLOYEE(USERNAME)\"")));
+
+        //WHEN
+        ConstraintViolationException e = assertThrows(ConstraintViolationException.class,
+                () -> employeeFacade.createEmployee(employeeDto));
+
+        //THEN
+        assertEquals("username: Username already exists", e.getMessage());
+        verifyNoInteractions(employeeSearchIndex, usernameFilter, abstractFactory);
+    }
+
+    @Test
+    void createEmployeeRethrowsOtherIntegrityViolations() {
+        //GIVEN
+        EmployeeDto employeeDto = new EmployeeDto("Employee 1",
+                "employee1", "emp1@gmail.com", "+111111111", 25);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("NULL not allowed for column \"NAME\""));
+        when(employeeMapper.toEmployee(employeeDto)).thenReturn(employee);
+        when(employeeRepository.saveAndFlush(employee)).thenThrow(violation);
+
+        //WHEN
+        //THEN
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> employeeFacade.createEmployee(employeeDto)));
+        assertFalse(employeeFacade.isUsernameTaken(new QueryTimeoutException("UK_EMPLOYEE_USERNAME")));
     }
 
     @Test
-    void testFindAllEmployees() {
+    void testFindAllEmployees() throws ResourceNotFoundException {
         //GIVEN
-        when(employeeRepository.findAll()).thenReturn(Stream.of(employee).collect(Collectors.toList()));
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 101)))
+                .thenReturn(Stream.of(employee).collect(Collectors.toList()));
         //WHEN
-        List<Employee> employees = employeeFacade.getEmployees();
+        EmployeePage page = employeeFacade.getEmployees(100, null);
         //THEN
-        assertThat(employees, hasSize(1));
-        assertEquals(employee.getName(), employees.get(0).getName());
+        assertThat(page.getEmployees(), hasSize(1));
+        assertEquals(employee.getName(), page.getEmployees().get(0).getName());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void testFindEmployeesPageByPage() throws ResourceNotFoundException {
+        //GIVEN
+        Employee second = new Employee(40001L, "Employee1",
+                "employee1", "employee1@gmail.com", "+111111111", 25);
+        Employee third = new Employee(40002L, "Employee2",
+                "employee2", "employee2@gmail.com", "+111111111", 25);
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 3)))
+                .thenReturn(List.of(employee, second, third));
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(second.getId(), PageRequest.of(0, 3)))
+                .thenReturn(List.of(third));
+        //WHEN
+        EmployeePage firstPage = employeeFacade.getEmployees(2, null);
+        EmployeePage lastPage = employeeFacade.getEmployees(2, firstPage.getNext());
+        //THEN
+        assertEquals(List.of(employee, second), firstPage.getEmployees());
+        assertNotNull(firstPage.getNext());
+        assertEquals(List.of(third), lastPage.getEmployees());
+        assertNull(lastPage.getNext());
+        assertThrows(ResourceNotFoundException.class, () -> employeeFacade.getEmployees(2, "not a cursor"));
     }
 
     @Test
@@ -187,6 +269,7 @@ class EmployeeFacadeTest {
         String message = employeeFacade.deleteEmployeeById(employee.getId());
         //THEN
         assertEquals("Success", message);
+        verify(employeeSearchIndex).remove(employee.getId());
     }
 
     @Test
@@ -213,6 +296,29 @@ class EmployeeFacadeTest {
         String message = employeeFacade.updateEmployeeEmail(employee.getId(), employee.getEmail());
         //THEN
         assertEquals("Success", message);
+        verify(employeeSearchIndex).put(employee.getId(), employee.getUsername(), employee.getEmail());
+    }
+
+    @Test
+    void testSearchEmployees() throws ResourceNotFoundException {
+        //GIVEN
+        Employee second = new Employee(40001L, "Employee 2", "employee2", "emp2@gmail.com", "+111111111", 26);
+        Employee renamed = new Employee(40002L, "Employee 3", "renamed", "renamed@gmail.com", "+111111111", 27);
+        when(employeeSearchIndex.search("EMPLOYEE", null, 0, 3)).thenReturn(List.of(40000L, 40001L, 40002L));
+        when(employeeSearchIndex.search("EMPLOYEE", null, 40001, 3)).thenReturn(List.of(40002L));
+        when(employeeRepository.findAllById(List.of(40000L, 40001L))).thenReturn(List.of(second, employee));
+        when(employeeRepository.findAllById(List.of(40002L))).thenReturn(List.of(renamed));
+
+        //WHEN
+        EmployeePage firstPage = employeeFacade.searchEmployees("EMPLOYEE", null, 2, null);
+        EmployeePage lastPage = employeeFacade.searchEmployees("EMPLOYEE", null, 2, firstPage.getNext());
+
+        //THEN
+        assertEquals(List.of(employee, second), firstPage.getEmployees());
+        assertNotNull(firstPage.getNext());
+        assertThat(lastPage.getEmployees(), hasSize(0));
+        assertNull(lastPage.getNext());
+        assertThrows(ResourceNotFoundException.class, () -> employeeFacade.searchEmployees(null, null, 2, null));
     }
 
     @Test
@@ -249,7 +355,7 @@ class EmployeeFacadeTest {
         //GIVEN
         RatesRegisterDto ratesRegisterDto = new RatesRegisterDto(40000L,
                 "HUF", Set.of("INR", "EUR"), 10000);
-        when(modelMapper.map(ratesRegisterDto, RatesRegister.class)).thenReturn(
+        when(employeeMapper.toRatesRegister(ratesRegisterDto)).thenReturn(
                 new RatesRegister(1, employee, "HUF", Set.of("INR", "EUR")));
         when(employeeRepository.findById(ratesRegisterDto.getId()))
                 .thenReturn(Optional.ofNullable(employee));
@@ -271,7 +377,7 @@ class EmployeeFacadeTest {
         target.add("USD");
 
         RatesRegister register = new RatesRegister(1, employee, "HUF", target);
-        when(modelMapper.map(ratesRegisterDto, RatesRegister.class)).thenReturn(
+        when(employeeMapper.toRatesRegister(ratesRegisterDto)).thenReturn(
                 new RatesRegister(1, employee, "HUF", Set.of("INR", "EUR")));
         when(employeeRepository.findById(ratesRegisterDto.getId()))
                 .thenReturn(Optional.ofNullable(employee));
@@ -0,0 +1,214 @@
+package com.practice.employee.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.practice.employee.facade.EmployeeFacade;
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.ImportFailure;
+import com.practice.employee.model.ImportReport;
+import com.practice.employee.model.dto.EmployeeDto;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.employee.search.EmployeeSearchIndex;
+import com.practice.employee.search.UsernameFilter;
+import com.practice.employee.service.EmployeeImportService;
+import com.practice.employee.service.MailQueue;
+import com.practice.message.model.Content;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeImportServiceTest {
+
+    @Mock
+    EmployeeRepository employeeRepository;
+
+    @Mock
+    EmployeeFacade employeeFacade;
+
+    @Mock
+    EmployeeSearchIndex employeeSearchIndex;
+
+    @Mock
+    UsernameFilter usernameFilter;
+
+    @Mock
+    MailQueue mailQueue;
+
+    @Mock
+    EntityManager entityManager;
+
+    // Built like Spring Boot's JacksonAutoConfiguration, which binds the DTOs
+    // through their constructor parameter names.
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new ParameterNamesModule()).build();
+
+    private EmployeeImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new EmployeeImportService(employeeRepository, employeeFacade, employeeSearchIndex,
+                usernameFilter, mailQueue, entityManager, objectMapper);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.close();
+    }
+
+    private static InputStream json(final String json) {
+        return new ByteArrayInputStream(json.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String row(final String username, final String email, final Object age) {
+        return "{'name':'Employee','username':'" + username + "','email':'" + email
+                + "','phoneNumber':'+111111111','age':" + age + "}";
+    }
+
+    private void mapDtos() {
+        when(employeeFacade.convertEmployeeDtoToEmployee(any(EmployeeDto.class))).thenAnswer(invocation -> {
+            EmployeeDto dto = invocation.getArgument(0);
+            return new Employee(null, dto.getName(), dto.getUsername(), dto.getEmail(),
+                    dto.getPhoneNumber(), dto.getAge());
+        });
+    }
+
+    @Test
+    void validRowsAreImportedAndInvalidRowsReported() throws IOException {
+        //GIVEN
+        mapDtos();
+        when(usernameFilter.mightExist(anyString())).thenReturn(true);
+        when(usernameFilter.mightExist("second")).thenReturn(false);
+        when(employeeRepository.findUsernamesIn(anyCollection())).thenReturn(Set.of("taken"));
+        when(employeeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(employeeFacade.getWelcomeMail(any(Employee.class))).thenReturn(Content.builder().createMail());
+        String body = "[" + String.join(",",
+                row("newuser", "newuser@gmail.com", 25),
+                row("bademail", "bademail", 25),
+                row("newuser", "other@gmail.com", 30),
+                row("taken", "taken@gmail.com", 40),
+                row("badage", "badage@gmail.com", "'old'"),
+                row("second", "second@gmail.com", 22)) + "]";
+
+        //WHEN
+        ImportReport report = importService.importEmployees(json(body));
+
+        //THEN
+        assertEquals(6, report.getReceived());
+        assertEquals(2, report.getImported());
+        assertEquals(4, report.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L), report.getFailures().stream()
+                .map(ImportFailure::getRow).collect(Collectors.toList()));
+        assertEquals(List.of("email: Not a well-formed email address"), report.getFailures().get(0).getErrors());
+        assertEquals(List.of("Username repeated in the import"), report.getFailures().get(1).getErrors());
+        assertEquals(List.of("Username already exists"), report.getFailures().get(2).getErrors());
+        assertEquals("badage", report.getFailures().get(3).getUsername());
+        verify(employeeRepository).findUsernamesIn(Set.of("newuser", "taken"));
+        verify(employeeRepository, never()).findByUsername(any());
+        verify(employeeSearchIndex, times(2)).put(any(Employee.class));
+        verify(usernameFilter).put("newuser");
+        verify(usernameFilter).put("second");
+        verify(mailQueue, times(2)).enqueue(any(Content.class));
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void failedBatchIsInsertedRowByRow() throws IOException {
+        //GIVEN
+        mapDtos();
+        when(usernameFilter.mightExist(anyString())).thenReturn(true);
+        when(employeeRepository.findUsernamesIn(anyCollection())).thenReturn(Set.of());
+        when(employeeRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate"));
+        when(employeeRepository.save(any(Employee.class))).thenAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            if (employee.getUsername().equals("clash")) {
+                throw new DataIntegrityViolationException("duplicate email");
+            }
+            return employee;
+        });
+        String body = "[" + row("first", "first@gmail.com", 25) + "," + row("clash", "clash@gmail.com", 25) + "]";
+
+        //WHEN
+        ImportReport report = importService.importEmployees(json(body));
+
+        //THEN
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2L, report.getFailures().get(0).getRow());
+        assertEquals(List.of("duplicate email"), report.getFailures().get(0).getErrors());
+        verify(mailQueue).enqueue(any());
+    }
+
+    @Test
+    void usernameTakenOnAnotherNodeIsReportedAsExisting() throws IOException {
+        //GIVEN
+        mapDtos();
+        DataIntegrityViolationException taken = new DataIntegrityViolationException("UK_EMPLOYEE_USERNAME");
+        when(usernameFilter.mightExist(anyString())).thenReturn(false);
+        when(employeeRepository.saveAll(anyList())).thenThrow(taken);
+        when(employeeRepository.save(any(Employee.class))).thenThrow(taken);
+        when(employeeFacade.isUsernameTaken(taken)).thenReturn(true);
+
+        //WHEN
+        ImportReport report = importService.importEmployees(json("[" + row("first", "first@gmail.com", 25) + "]"));
+
+        //THEN
+        assertEquals(0, report.getImported());
+        assertEquals(List.of("Username already exists"), report.getFailures().get(0).getErrors());
+        verify(employeeRepository, never()).findUsernamesIn(anyCollection());
+    }
+
+    @Test
+    void rowsBeforeMalformedJsonAreImported() throws IOException {
+        //GIVEN
+        mapDtos();
+        when(usernameFilter.mightExist(anyString())).thenReturn(true);
+        when(employeeRepository.findUsernamesIn(anyCollection())).thenReturn(Set.of());
+        when(employeeRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        String body = "[" + row("first", "first@gmail.com", 25) + ",{'name':'Employee',";
+
+        //WHEN
+        ImportReport report = importService.importEmployees(json(body));
+
+        //THEN
+        assertEquals(2, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2L, report.getFailures().get(0).getRow());
+        assertTrue(report.getFailures().get(0).getErrors().get(0).startsWith("Malformed JSON"));
+    }
+
+    @Test
+    void bodyMustBeAnArray() {
+        //WHEN
+        //THEN
+        assertThrows(MismatchedInputException.class,
+                () -> importService.importEmployees(json(row("first", "first@gmail.com", 25))));
+        verify(employeeRepository, never()).saveAll(anyList());
+    }
+}
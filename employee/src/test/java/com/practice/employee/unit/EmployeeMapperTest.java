@@ -0,0 +1,56 @@
+package com.practice.employee.unit;
+
+import com.practice.employee.mapper.EmployeeMapper;
+import com.practice.employee.model.Employee;
+import com.practice.employee.model.RatesRegister;
+import com.practice.employee.model.dto.EmployeeDto;
+import com.practice.employee.model.dto.RatesRegisterDto;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeMapperTest {
+
+    private final EmployeeMapper employeeMapper = Mappers.getMapper(EmployeeMapper.class);
+
+    @Test
+    void testToEmployee() {
+        //GIVEN
+        EmployeeDto employeeDto = new EmployeeDto("Employee 1",
+                "employee1", "emp1@gmail.com", "+111111111", 25);
+
+        //WHEN
+        Employee employee = employeeMapper.toEmployee(employeeDto);
+
+        //THEN
+        assertNull(employee.getId());
+        assertEquals("Employee 1", employee.getName());
+        assertEquals("employee1", employee.getUsername());
+        assertEquals("emp1@gmail.com", employee.getEmail());
+        assertEquals("+111111111", employee.getPhoneNumber());
+        assertEquals(25, employee.getAge());
+        assertNull(employeeMapper.toEmployee(null));
+    }
+
+    @Test
+    void testToRatesRegister() {
+        //GIVEN
+        RatesRegisterDto ratesRegisterDto = new RatesRegisterDto(40000L,
+                "HUF", Set.of("INR", "EUR"), 10000);
+
+        //WHEN
+        RatesRegister ratesRegister = employeeMapper.toRatesRegister(ratesRegisterDto);
+        ratesRegister.getTarget().add("USD");
+
+        //THEN
+        assertNull(ratesRegister.getEmployee());
+        assertEquals("HUF", ratesRegister.getBase());
+        assertEquals(Set.of("INR", "EUR", "USD"), ratesRegister.getTarget());
+        assertEquals(Set.of("INR", "EUR"), ratesRegisterDto.getTarget());
+        assertNull(employeeMapper.toRatesRegister(new RatesRegisterDto(40000L, "HUF", null, 10000)).getTarget());
+        assertNull(employeeMapper.toRatesRegister(null));
+    }
+}
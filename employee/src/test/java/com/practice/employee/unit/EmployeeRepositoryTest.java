@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.List;
@@ -52,4 +53,16 @@ class EmployeeRepositoryTest {
         assertFalse(employeeList.isPresent());
     }
 
+    @Test
+    void testFindByIdGreaterThan() {
+        //GIVEN
+        //WHEN
+        List<Employee> firstPage = employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2));
+        List<Employee> secondPage = employeeRepository.findByIdGreaterThanOrderByIdAsc(
+                firstPage.get(1).getId(), PageRequest.of(0, 2));
+        //THEN
+        assertEquals(List.of(1L, 2L), List.of(firstPage.get(0).getId(), firstPage.get(1).getId()));
+        assertEquals(1, secondPage.size());
+        assertEquals(3L, secondPage.get(0).getId());
+    }
 }
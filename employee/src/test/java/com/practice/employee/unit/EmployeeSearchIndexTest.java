@@ -0,0 +1,146 @@
+package com.practice.employee.unit;
+
+import com.practice.employee.model.Employee;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.employee.search.EmployeeSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchIndexTest {
+
+    @Mock
+    EmployeeRepository employeeRepository;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        employeeSearchIndex = new EmployeeSearchIndex(employeeRepository);
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000))).thenReturn(List.of(
+                new Employee(1L, "Employee", "employee", "employee@gmail.com", "+111111111", 25),
+                new Employee(2L, "Employee1", "employee1", "employee1@yahoo.com", "+111111111", 27),
+                new Employee(3L, "Sakthi", "sgsakthi", "sgsakthi1992@gmail.com", "+111111111", 27)));
+        assertEquals(3, employeeSearchIndex.load());
+    }
+
+    @Test
+    void substringsOfUsernameOrEmailMatchIgnoringCase() {
+        //WHEN
+        List<Long> byUsername = employeeSearchIndex.search("PLOYEE", null, 0, 10);
+        List<Long> byEmail = employeeSearchIndex.search(null, "@Gmail.", 0, 10);
+        List<Long> byEither = employeeSearchIndex.search("sakthi", "yahoo", 0, 10);
+        List<Long> shortQuery = employeeSearchIndex.search("1", null, 0, 10);
+        List<Long> noMatch = employeeSearchIndex.search("employer", "hotmail", 0, 10);
+
+        //THEN
+        assertEquals(List.of(1L, 2L), byUsername);
+        assertEquals(List.of(1L, 3L), byEmail);
+        assertEquals(List.of(2L, 3L), byEither);
+        assertEquals(List.of(2L), shortQuery);
+        assertEquals(List.of(), noMatch);
+    }
+
+    @Test
+    void searchStartsAfterTheIdAndStopsAtTheLimit() {
+        //WHEN
+        List<Long> firstPage = employeeSearchIndex.search("a", "a", 0, 2);
+        List<Long> nextPage = employeeSearchIndex.search("a", "a", 2, 2);
+
+        //THEN
+        assertEquals(List.of(1L, 2L), firstPage);
+        assertEquals(List.of(3L), nextPage);
+    }
+
+    @Test
+    void writesReplaceWhatWasIndexed() {
+        //WHEN
+        employeeSearchIndex.put(2L, "employee1", "employee1@outlook.com");
+        employeeSearchIndex.remove(1L);
+        employeeSearchIndex.put(new Employee(4L, "Employee4", "employee4", "employee4@gmail.com", "+111111111", 22));
+
+        //THEN
+        assertEquals(List.of(), employeeSearchIndex.search(null, "yahoo", 0, 10));
+        assertEquals(List.of(2L), employeeSearchIndex.search(null, "outlook", 0, 10));
+        assertEquals(List.of(2L, 4L), employeeSearchIndex.search("employee", null, 0, 10));
+    }
+
+    @Test
+    void postingsStayOrderedWhateverTheWriteOrder() {
+        //GIVEN
+        long[] ids = {10, 5, 7, 12, 6, 11, 9, 8};
+
+        //WHEN
+        for (long id : ids) {
+            employeeSearchIndex.put(id, "common" + id, null);
+        }
+        employeeSearchIndex.remove(7L);
+        employeeSearchIndex.put(8L, "other", null);
+
+        //THEN
+        assertEquals(List.of(5L, 6L, 9L, 10L, 11L, 12L), employeeSearchIndex.search("common", null, 0, 10));
+        assertEquals(List.of(9L, 10L), employeeSearchIndex.search("Common", null, 6, 2));
+        assertEquals(List.of(), employeeSearchIndex.search("common", null, 12, 10));
+    }
+
+    @Test
+    void reloadPicksUpTheWritesOfOtherNodes() {
+        //GIVEN
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000))).thenReturn(List.of(
+                new Employee(1L, "Employee", "employee", "employee@gmail.com", "+111111111", 25),
+                new Employee(5L, "Employee5", "employee5", "employee5@outlook.com", "+111111111", 30)));
+
+        //WHEN
+        employeeSearchIndex.reload();
+
+        //THEN
+        assertEquals(List.of(1L, 5L), employeeSearchIndex.search("employee", null, 0, 10));
+        assertEquals(List.of(), employeeSearchIndex.search("sgsakthi", null, 0, 10));
+    }
+
+    @Test
+    void writesMadeWhileLoadingWinOverTheRowsRead() {
+        //GIVEN
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000))).thenAnswer(
+                invocation -> {
+                    employeeSearchIndex.put(2L, "renamed", "renamed@outlook.com");
+                    employeeSearchIndex.remove(3L);
+                    return List.of(
+                            new Employee(1L, "Employee", "employee", "employee@gmail.com", "+111111111", 25),
+                            new Employee(2L, "Employee1", "employee1", "employee1@yahoo.com", "+111111111", 27),
+                            new Employee(3L, "Sakthi", "sgsakthi", "sgsakthi1992@gmail.com", "+111111111", 27));
+                });
+
+        //WHEN
+        int loaded = employeeSearchIndex.load();
+
+        //THEN
+        assertEquals(3, loaded);
+        assertEquals(List.of(2L), employeeSearchIndex.search("renamed", null, 0, 10));
+        assertEquals(List.of(), employeeSearchIndex.search("employee1", "yahoo", 0, 10));
+        assertEquals(List.of(), employeeSearchIndex.search("sgsakthi", null, 0, 10));
+        assertEquals(List.of(1L), employeeSearchIndex.search("employee", null, 0, 10));
+    }
+
+    @Test
+    void aFailedLoadKeepsTheIndexesInUse() {
+        //GIVEN
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000)))
+                .thenThrow(new IllegalStateException("Connection refused"));
+
+        //WHEN
+        //THEN
+        assertThrows(IllegalStateException.class, () -> employeeSearchIndex.load());
+        employeeSearchIndex.put(4L, "employee4", null);
+        assertEquals(List.of(1L, 2L, 4L), employeeSearchIndex.search("employee", null, 0, 10));
+    }
+}
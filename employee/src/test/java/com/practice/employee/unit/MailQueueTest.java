@@ -0,0 +1,45 @@
+package com.practice.employee.unit;
+
+import com.practice.employee.service.MailQueue;
+import com.practice.message.factory.AbstractFactory;
+import com.practice.message.model.Content;
+import com.practice.message.service.MessagingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MailQueueTest {
+
+    @Mock
+    AbstractFactory<MessagingService> abstractFactory;
+
+    @Mock
+    MessagingService emailService;
+
+    @Test
+    void queuedMailsAreSentInTheBackground() throws InterruptedException {
+        //GIVEN
+        MailQueue mailQueue = new MailQueue(abstractFactory);
+        when(abstractFactory.create("email")).thenReturn(emailService);
+        Content failing = Content.builder().setTo("failing@gmail.com").createMail();
+        Content welcome = Content.builder().setTo("employee@gmail.com").createMail();
+        doThrow(new IllegalStateException("mail server down")).when(emailService).send(failing);
+
+        //WHEN
+        mailQueue.enqueue(failing);
+        mailQueue.enqueue(welcome);
+
+        //THEN
+        verify(emailService, timeout(1000)).send(welcome);
+        mailQueue.close();
+        assertEquals(0, mailQueue.size());
+    }
+}
@@ -0,0 +1,111 @@
+package com.practice.employee.unit;
+
+import com.practice.employee.model.EmployeeKey;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.employee.search.UsernameFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameFilterTest {
+
+    @Mock
+    EmployeeRepository employeeRepository;
+
+    private UsernameFilter usernameFilter;
+
+    @BeforeEach
+    void setUp() {
+        usernameFilter = new UsernameFilter(employeeRepository, 0.01);
+    }
+
+    private static EmployeeKey key(final long id) {
+        return new EmployeeKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return "user" + id;
+            }
+
+            @Override
+            public String getEmail() {
+                return "user" + id + "@gmail.com";
+            }
+        };
+    }
+
+    private static List<EmployeeKey> keys(final long from, final long to) {
+        return LongStream.rangeClosed(from, to).mapToObj(UsernameFilterTest::key).collect(Collectors.toList());
+    }
+
+    @Test
+    void loadedUsernamesMightExistAndOthersMostlyDoNot() {
+        //GIVEN
+        when(employeeRepository.count()).thenReturn(2500L);
+        when(employeeRepository.findKeysByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000)))
+                .thenReturn(keys(1, 1000));
+        when(employeeRepository.findKeysByIdGreaterThanOrderByIdAsc(1000L, PageRequest.of(0, 1000)))
+                .thenReturn(keys(1001, 2000));
+        when(employeeRepository.findKeysByIdGreaterThanOrderByIdAsc(2000L, PageRequest.of(0, 1000)))
+                .thenReturn(keys(2001, 2500));
+
+        //WHEN
+        int loaded = usernameFilter.load();
+
+        //THEN
+        assertEquals(2500, loaded);
+        assertTrue(IntStream.rangeClosed(1, 2500).allMatch(id -> usernameFilter.mightExist("user" + id)));
+        long falseHits = IntStream.rangeClosed(1, 10_000)
+                .filter(id -> usernameFilter.mightExist("other" + id)).count();
+        assertTrue(falseHits < 100, falseHits + " false hits");
+        assertFalse(usernameFilter.mightExist(null));
+    }
+
+    @Test
+    void newUsernamesMightExistAndReloadDropsDeletedOnes() {
+        //GIVEN
+        when(employeeRepository.count()).thenReturn(1L);
+        when(employeeRepository.findKeysByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000)))
+                .thenReturn(keys(1, 1));
+        usernameFilter.load();
+
+        //WHEN
+        usernameFilter.put("newuser");
+        usernameFilter.put(null);
+        boolean newUserBeforeReload = usernameFilter.mightExist("newuser");
+        when(employeeRepository.findKeysByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 1000)))
+                .thenReturn(List.of());
+        usernameFilter.reload();
+
+        //THEN
+        assertTrue(newUserBeforeReload);
+        assertFalse(usernameFilter.mightExist("newuser"));
+        assertFalse(usernameFilter.mightExist("user1"));
+    }
+
+    @Test
+    void everyUsernameMightExistUntilLoaded() {
+        //WHEN
+        usernameFilter.put("newuser");
+
+        //THEN
+        assertTrue(usernameFilter.mightExist("newuser"));
+        assertTrue(usernameFilter.mightExist("anyone"));
+    }
+}
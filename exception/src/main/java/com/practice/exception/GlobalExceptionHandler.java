@@ -1,5 +1,6 @@
 package com.practice.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
@@ -76,6 +77,23 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorDetails);
     }
 
+    /**
+     * To handle JsonProcessingException of request bodies read as a stream.
+     *
+     * @param e          Exception
+     * @param webRequest WebRequest
+     * @return ResponseEntity with the error details in body
+     */
+    @ExceptionHandler(JsonProcessingException.class)
+    public final ResponseEntity<ErrorDetails> jsonProcessingException(
+            final JsonProcessingException e, final WebRequest webRequest) {
+        LOGGER.error("JsonProcessingException : ", e);
+        ErrorDetails errorDetails = new ErrorDetails(
+                new Date(), e.getOriginalMessage(),
+                webRequest.getDescription(false));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorDetails);
+    }
+
     /**
      * To handle HttpClientErrorException.
      *
@@ -19,6 +19,10 @@ public final class Content {
      * Mail template.
      */
     private final String template;
+    /**
+     * Inline PNG images by content id.
+     */
+    private final Map<String, byte[]> images;
 
     /**
      * Mail parameterized constructor.
@@ -30,6 +34,7 @@ public final class Content {
         this.subject = builder.subject;
         this.body = builder.body;
         this.template = builder.template;
+        this.images = builder.images;
     }
 
     /**
@@ -68,6 +73,15 @@ public final class Content {
         return template;
     }
 
+    /**
+     * Getter for inline images.
+     *
+     * @return PNG images by content id
+     */
+    public Map<String, byte[]> getImages() {
+        return images;
+    }
+
     /**
      * MailBuilder object.
      *
@@ -94,6 +108,10 @@ public final class Content {
          * Mail template.
          */
         private String template;
+        /**
+         * Inline PNG images by content id.
+         */
+        private Map<String, byte[]> images = Map.of();
 
         /**
          * Set to address.
@@ -139,6 +157,17 @@ public final class Content {
             return this;
         }
 
+        /**
+         * Set inline images, referenced from the template as cid:id.
+         *
+         * @param images PNG images by content id
+         * @return inline images
+         */
+        public MailBuilder setImages(final Map<String, byte[]> images) {
+            this.images = images;
+            return this;
+        }
+
         /**
          * Build mail.
          *
@@ -4,6 +4,7 @@ import com.practice.message.model.Content;
 import com.practice.message.service.MessagingService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.thymeleaf.ITemplateEngine;
@@ -16,6 +17,10 @@ import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
 public class EmailService implements MessagingService {
+    /**
+     * Content type of the inline images.
+     */
+    private static final String IMAGE_PNG = "image/png";
     /**
      * JavaMailSender object.
      */
@@ -58,6 +63,11 @@ public class EmailService implements MessagingService {
             mimeMessageHelper.setTo(InternetAddress.parse(content.getTo()));
             mimeMessageHelper.setSubject(content.getSubject());
             mimeMessageHelper.setText(body, true);
+            for (Map.Entry<String, byte[]> image
+                    : content.getImages().entrySet()) {
+                mimeMessageHelper.addInline(image.getKey(),
+                        new ByteArrayResource(image.getValue()), IMAGE_PNG);
+            }
             javaMailSender.send(mimeMessage);
         } catch (MessagingException e) {
             LOGGER.error("Messaging exception in sendmail", e);
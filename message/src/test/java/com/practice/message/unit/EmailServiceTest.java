@@ -15,6 +15,8 @@ import org.thymeleaf.context.Context;
 
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Map;
 
@@ -59,4 +61,29 @@ class EmailServiceTest {
                 .allMatch(to -> "employee@gmail.com,employee1@gmail.com".contains(to.toString())));
     }
 
+    @Test
+    void sendWithInlineImages() throws MessagingException, IOException {
+        //GIVEN
+        ArgumentCaptor<MimeMessage> captor = ArgumentCaptor.forClass(MimeMessage.class);
+        Content content = Content.builder()
+                .setTo("employee@gmail.com")
+                .setSubject("EMAIL_SUBJECT")
+                .setBody(Map.of("name", "employee"))
+                .setImages(Map.of("sparkline-HUF-INR", new byte[]{(byte) 0x89, 'P', 'N', 'G'}))
+                .setTemplate("MAIL_TEMPLATE").createMail();
+
+        when(templateEngine.process(eq("MAIL_TEMPLATE"), any(Context.class)))
+                .thenReturn("<img src=\"cid:sparkline-HUF-INR\"/>");
+        when(javaMailSender.createMimeMessage()).thenReturn(new JavaMailSenderImpl().createMimeMessage());
+
+        //WHEN
+        messagingFactory.create("email").send(content);
+
+        //THEN
+        verify(javaMailSender).send(captor.capture());
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        captor.getValue().writeTo(raw);
+        assertTrue(raw.toString().contains("Content-ID: <sparkline-HUF-INR>"));
+        assertTrue(raw.toString().contains("image/png"));
+    }
 }
@@ -0,0 +1,192 @@
+package com.practice.web.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.practice.web.datasource.PrimaryReads;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Caffeine cache whose evictions are sent to the same cache of the other
+ * nodes through the {@link CacheInvalidationBus}. Puts stay local, every
+ * node loads its own entries. An eviction within a transaction is sent
+ * once it commits, so the other nodes do not reload the row it replaces.
+ *
+ * <p>A replica can still lag behind the commit, so the entries evicted
+ * within the replica lag are loaded through {@link PrimaryReads} when the
+ * cache is read with a loader ({@code @Cacheable(sync = true)}).
+ */
+public class BroadcastingCache extends CaffeineCache {
+    /**
+     * CacheInvalidationBus object.
+     */
+    private final CacheInvalidationBus bus;
+    /**
+     * Replication lag of the replica.
+     */
+    private final Duration replicaLag;
+    /**
+     * Keys evicted within the replica lag.
+     */
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Boolean>
+            evicted;
+    /**
+     * End of the replica lag after the last clear, in System.nanoTime.
+     */
+    private volatile long clearedUntil = System.nanoTime();
+
+    /**
+     * Parameterized constructor, for the caches of a single database.
+     *
+     * @param name  cache name
+     * @param cache Caffeine cache
+     * @param bus   CacheInvalidationBus object
+     */
+    public BroadcastingCache(
+            final String name,
+            final com.github.benmanes.caffeine.cache.Cache<Object, Object>
+                    cache,
+            final CacheInvalidationBus bus) {
+        this(name, cache, bus, Duration.ZERO);
+    }
+
+    /**
+     * Parameterized constructor, registers the cache with the bus.
+     *
+     * @param name       cache name
+     * @param cache      Caffeine cache
+     * @param bus        CacheInvalidationBus object
+     * @param replicaLag replication lag of the replica, zero without one
+     */
+    public BroadcastingCache(
+            final String name,
+            final com.github.benmanes.caffeine.cache.Cache<Object, Object>
+                    cache,
+            final CacheInvalidationBus bus,
+            final Duration replicaLag) {
+        super(name, cache);
+        this.bus = bus;
+        this.replicaLag = replicaLag;
+        this.evicted = Caffeine.newBuilder()
+                .expireAfterWrite(replicaLag).build();
+        bus.register(this);
+    }
+
+    /**
+     * Value of the key, loaded from the primary if the key was evicted
+     * within the replica lag.
+     *
+     * @param key         cache key
+     * @param valueLoader loader of a missing value
+     * @param <T>         value type
+     * @return value
+     */
+    @Override
+    public <T> T get(final Object key, final Callable<T> valueLoader) {
+        if (!evictedLately(key)) {
+            return super.get(key, valueLoader);
+        }
+        return super.get(key, () -> PrimaryReads.call(valueLoader));
+    }
+
+    /**
+     * Evict the key here and on the other nodes.
+     *
+     * @param key cache key
+     */
+    @Override
+    public void evict(final Object key) {
+        evictLocally(key);
+        broadcast(key);
+    }
+
+    /**
+     * Evict the key here and on the other nodes, which may hold it even
+     * when this node does not.
+     *
+     * @param key cache key
+     * @return whether the key was present here
+     */
+    @Override
+    public boolean evictIfPresent(final Object key) {
+        boolean present = super.evictIfPresent(key);
+        evictedNow(key);
+        broadcast(key);
+        return present;
+    }
+
+    /**
+     * Clear the cache here and on the other nodes.
+     */
+    @Override
+    public void clear() {
+        clearLocally();
+        broadcast(null);
+    }
+
+    /**
+     * Clear the cache here and on the other nodes.
+     *
+     * @return whether the cache had entries here
+     */
+    @Override
+    public boolean invalidate() {
+        boolean hadEntries = super.invalidate();
+        clearedNow();
+        broadcast(null);
+        return hadEntries;
+    }
+
+    /**
+     * Evict a key received from another node.
+     *
+     * @param key cache key
+     */
+    void evictLocally(final Object key) {
+        super.evict(key);
+        evictedNow(key);
+    }
+
+    /**
+     * Clear the cache on request of another node.
+     */
+    void clearLocally() {
+        super.clear();
+        clearedNow();
+    }
+
+    private void evictedNow(final Object key) {
+        if (!replicaLag.isZero()) {
+            evicted.put(key, Boolean.TRUE);
+        }
+    }
+
+    private void clearedNow() {
+        if (!replicaLag.isZero()) {
+            clearedUntil = System.nanoTime() + replicaLag.toNanos();
+        }
+    }
+
+    private boolean evictedLately(final Object key) {
+        return evicted.getIfPresent(key) != null
+                || System.nanoTime() - clearedUntil < 0;
+    }
+
+    // Send the eviction, after the commit of the current transaction.
+    private void broadcast(final Object key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bus.publish(getName(), key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        bus.publish(getName(), key);
+                    }
+                });
+    }
+}
@@ -0,0 +1,417 @@
+package com.practice.web.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Evictions of the {@link BroadcastingCache}s sent between the nodes of a
+ * cluster, so an entry evicted on one node is not served by the others
+ * until it expires. With {@code via.cache.invalidation.enabled}, the
+ * evicted keys are batched per cache into UDP datagrams sent to the
+ * configured peers, and the evictions received from them are applied to
+ * the local cache of the same name. The channel is bound to
+ * {@code via.cache.invalidation.address} only, loopback by default, and
+ * datagrams from any other source than a peer are dropped.
+ *
+ * <p>The datagrams of a node are numbered in sequence, and a heartbeat
+ * repeats its last number every {@code
+ * via.cache.invalidation.heartbeat-interval}. A node missing a number of
+ * a peer, lost or not arrived yet, clears all its caches, since it can
+ * not tell which entries the datagram evicted. A lost eviction thus
+ * leaves an entry stale for at most the heartbeat interval, not until
+ * it expires, unless the heartbeats are lost as well.
+ *
+ * <p>To try it on one host, start several instances with the same
+ * {@code via.cache.invalidation.peers} listing host:port for each of
+ * them, and {@code via.cache.invalidation.port} set to their own port.
+ * Across hosts, each node binds its address on the network of the peers.
+ */
+@Component
+public class CacheInvalidationBus {
+    /**
+     * Logger Object to log the details.
+     */
+    private static final Logger LOGGER = LoggerFactory
+            .getLogger(CacheInvalidationBus.class);
+    /**
+     * Bytes of keys per datagram, so a datagram fits the usual MTU.
+     */
+    private static final int MAX_PAYLOAD = 1200;
+    /**
+     * Bytes around a key in a datagram, its quotes and comma.
+     */
+    private static final int KEY_OVERHEAD = 3;
+    /**
+     * Largest datagram received.
+     */
+    private static final int MAX_DATAGRAM = 65_507;
+    /**
+     * Seconds to wait for the pending evictions on shutdown.
+     */
+    private static final long SHUTDOWN_WAIT_SECONDS = 2;
+    /**
+     * Whether the evictions are sent and received.
+     */
+    private final boolean enabled;
+    /**
+     * Address the channel is bound to.
+     */
+    private final String address;
+    /**
+     * UDP port the evictions are received on, 0 for any.
+     */
+    private final int port;
+    /**
+     * Addresses of the nodes the evictions are sent to.
+     */
+    private final List<InetSocketAddress> peers;
+    /**
+     * ObjectMapper object.
+     */
+    private final ObjectMapper objectMapper;
+    /**
+     * Id of this node in the datagrams, its own datagrams are ignored.
+     */
+    private final String origin = UUID.randomUUID().toString();
+    /**
+     * Number of the last datagram sent.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+    /**
+     * Number of the last datagram received per origin, read and written
+     * by the receiver thread only.
+     */
+    private final Map<String, Long> received = new HashMap<>();
+    /**
+     * Local caches per name.
+     */
+    private final Map<String, BroadcastingCache> caches =
+            new ConcurrentHashMap<>();
+    /**
+     * Evictions not sent yet.
+     */
+    private final Queue<Eviction> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * Whether a send of the pending evictions is queued.
+     */
+    private final AtomicBoolean sendQueued = new AtomicBoolean();
+    /**
+     * Sender thread, so evicting callers do not wait for the network.
+     */
+    private final ExecutorService sender;
+    /**
+     * Channel the evictions are sent and received on, null until started.
+     */
+    private volatile DatagramChannel channel;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param enabled      invalidation enabled or not
+     * @param address      address of this node the channel is bound to
+     * @param port         UDP port of this node, 0 for any
+     * @param peers        comma separated host:port of the nodes
+     * @param objectMapper ObjectMapper object
+     */
+    @Autowired
+    public CacheInvalidationBus(
+            @Value("${via.cache.invalidation.enabled:false}")
+            final boolean enabled,
+            @Value("${via.cache.invalidation.address:127.0.0.1}")
+            final String address,
+            @Value("${via.cache.invalidation.port:0}") final int port,
+            @Value("${via.cache.invalidation.peers:}") final String peers,
+            final ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.address = address;
+        this.port = port;
+        this.peers = Arrays.stream(peers.split(","))
+                .map(String::trim)
+                .filter(peer -> !peer.isEmpty())
+                .map(peer -> new InetSocketAddress(
+                        peer.substring(0, peer.lastIndexOf(':')),
+                        Integer.parseInt(peer.substring(
+                                peer.lastIndexOf(':') + 1))))
+                .collect(Collectors.toUnmodifiableList());
+        this.objectMapper = objectMapper;
+        this.sender = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "cache-invalidation-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open the channel and receive the evictions of the other nodes.
+     *
+     * @throws IOException port can not be bound
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!enabled || channel != null) {
+            return;
+        }
+        channel = DatagramChannel.open()
+                .bind(new InetSocketAddress(address, port));
+        Thread receiver = new Thread(this::receive, "cache-invalidation");
+        receiver.setDaemon(true);
+        receiver.start();
+        LOGGER.info("Cache invalidations received on {}:{}, sent to {}",
+                address, getPort(), peers);
+    }
+
+    /**
+     * UDP port the evictions are received on.
+     *
+     * @return port, -1 if not started
+     */
+    public int getPort() {
+        DatagramChannel current = channel;
+        return current == null ? -1 : current.socket().getLocalPort();
+    }
+
+    /**
+     * Send the pending evictions and close the channel.
+     *
+     * @throws IOException channel can not be closed
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        sender.shutdown();
+        try {
+            sender.awaitTermination(SHUTDOWN_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Send the number of the last datagram to the other nodes, so they
+     * find a lost datagram without waiting for the next one.
+     */
+    @Scheduled(fixedDelayString =
+            "${via.cache.invalidation.heartbeat-interval:PT5S}")
+    public void heartbeat() {
+        if (!enabled || peers.isEmpty() || sender.isShutdown()) {
+            return;
+        }
+        sender.execute(() -> {
+            ObjectNode message = objectMapper.createObjectNode();
+            message.put("origin", origin);
+            message.put("seq", sequence.get());
+            message.put("heartbeat", true);
+            send(message, false);
+        });
+    }
+
+    /**
+     * Receive the evictions of the other nodes for the cache.
+     *
+     * @param cache local cache
+     */
+    void register(final BroadcastingCache cache) {
+        caches.put(cache.getName(), cache);
+    }
+
+    /**
+     * Send an eviction to the other nodes.
+     *
+     * @param cacheName cache name
+     * @param key       evicted key, null for all keys
+     */
+    void publish(final String cacheName, final Object key) {
+        if (!enabled || peers.isEmpty() || sender.isShutdown()) {
+            return;
+        }
+        pending.add(new Eviction(cacheName, key));
+        if (sendQueued.compareAndSet(false, true)) {
+            sender.execute(this::send);
+        }
+    }
+
+    // Evictions published while sending queue the next send.
+    private void send() {
+        sendQueued.set(false);
+        Map<String, Set<Object>> keys = new LinkedHashMap<>();
+        Set<String> cleared = new LinkedHashSet<>();
+        Eviction eviction;
+        while ((eviction = pending.poll()) != null) {
+            if (eviction.key instanceof Long
+                    || eviction.key instanceof String) {
+                keys.computeIfAbsent(eviction.cacheName,
+                        name -> new LinkedHashSet<>()).add(eviction.key);
+            } else {
+                // Only ids and emails go over the wire, other keys clear
+                // the cache.
+                cleared.add(eviction.cacheName);
+            }
+        }
+        cleared.forEach(cacheName -> {
+            keys.remove(cacheName);
+            send(message(cacheName, true), true);
+        });
+        keys.forEach((cacheName, cacheKeys) -> {
+            ObjectNode message = message(cacheName, false);
+            int size = 0;
+            for (Object key : cacheKeys) {
+                int keySize = key.toString().length() + KEY_OVERHEAD;
+                if (size > 0 && size + keySize > MAX_PAYLOAD) {
+                    send(message, true);
+                    message = message(cacheName, false);
+                    size = 0;
+                }
+                ArrayNode array = (ArrayNode) message.get("keys");
+                if (key instanceof Long) {
+                    array.add((Long) key);
+                } else {
+                    array.add((String) key);
+                }
+                size += keySize;
+            }
+            send(message, true);
+        });
+    }
+
+    private ObjectNode message(final String cacheName, final boolean clear) {
+        ObjectNode message = objectMapper.createObjectNode();
+        message.put("origin", origin);
+        message.put("cache", cacheName);
+        message.put("clear", clear);
+        message.putArray("keys");
+        return message;
+    }
+
+    // A datagram not sent to every peer keeps its number, so the peers
+    // missing it clear their caches.
+    private void send(final ObjectNode message, final boolean numbered) {
+        DatagramChannel current = channel;
+        if (current == null) {
+            return;
+        }
+        if (numbered) {
+            message.put("seq", sequence.incrementAndGet());
+        }
+        try {
+            ByteBuffer datagram = ByteBuffer.wrap(
+                    objectMapper.writeValueAsBytes(message));
+            for (InetSocketAddress peer : peers) {
+                current.send(datagram.duplicate(), peer);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Cache invalidation not sent", e);
+        }
+    }
+
+    private void receive() {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM);
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress source = channel.receive(buffer);
+                if (!peers.contains(source)) {
+                    LOGGER.debug("Cache invalidation of {} dropped", source);
+                    continue;
+                }
+                apply(objectMapper.readTree(Arrays.copyOf(buffer.array(),
+                        buffer.position())));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                LOGGER.warn("Cache invalidation not applied", e);
+            }
+        }
+    }
+
+    private void apply(final JsonNode message) {
+        String from = message.path("origin").asText();
+        if (origin.equals(from)) {
+            return;
+        }
+        boolean heartbeat = message.path("heartbeat").asBoolean();
+        if (!inSequence(from, message.path("seq").asLong(), heartbeat)) {
+            LOGGER.warn("Cache invalidation of {} lost, caches cleared",
+                    from);
+            caches.values().forEach(BroadcastingCache::clearLocally);
+        }
+        if (heartbeat) {
+            return;
+        }
+        BroadcastingCache cache = caches.get(message.path("cache").asText());
+        if (cache == null) {
+            return;
+        }
+        if (message.path("clear").asBoolean()) {
+            cache.clearLocally();
+            return;
+        }
+        for (JsonNode key : message.path("keys")) {
+            cache.evictLocally(key.isIntegralNumber() ? key.asLong()
+                    : key.asText());
+        }
+    }
+
+    // A heartbeat repeats the number of the last datagram, sequences
+    // start at 1 for a new origin, so a node restarted is a new origin.
+    private boolean inSequence(final String from, final long seq,
+                               final boolean heartbeat) {
+        long last = received.getOrDefault(from, 0L);
+        if (seq > last) {
+            received.put(from, seq);
+        }
+        return seq <= (heartbeat ? last : last + 1);
+    }
+
+    private static final class Eviction {
+        /**
+         * Cache name.
+         */
+        private final String cacheName;
+        /**
+         * Evicted key, null for all keys.
+         */
+        private final Object key;
+
+        private Eviction(final String cacheName, final Object key) {
+            this.cacheName = cacheName;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains the classes keeping the caches of the nodes of a cluster in
+ * step.
+ */
+package com.practice.web.cache;
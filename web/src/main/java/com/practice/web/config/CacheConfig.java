@@ -1,10 +1,24 @@
 package com.practice.web.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.practice.currencyconverter.cache.PublicationAwareCache;
+import com.practice.currencyconverter.cache.PublicationCalendar;
+import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import com.practice.web.cache.BroadcastingCache;
+import com.practice.web.cache.CacheInvalidationBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cache.interceptor.KeyGenerator;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Clock;
+import java.time.Duration;
+
 @Configuration
 @EnableCaching
 public class CacheConfig {
@@ -17,4 +31,57 @@ public class CacheConfig {
     public KeyGenerator keyGenerator() {
         return new CustomKeyGenerator();
     }
+
+    /**
+     * Cache manager bean. Caches with a spec under {@code via.cache.specs}
+     * are bounded Caffeine caches that record their statistics, send
+     * their evictions to the other nodes and reload the entries evicted
+     * within the replica lag from the primary, currency rates expire at the
+     * provider's next publication, or after the first backoff interval for
+     * the fallback rates, all the other caches are plain concurrent map
+     * caches.
+     *
+     * @param publicationCalendar rates publication calendar
+     * @param quotaManager        upstream quota manager
+     * @param cacheSpecs          specs of the bounded caches
+     * @param invalidationBus     bus of the evictions between the nodes
+     * @param replicaEnabled      whether reads go to a replica
+     * @param replicaLag          replication lag allowed to the replica
+     * @return cache manager
+     */
+    @Bean
+    public CacheManager cacheManager(
+            final PublicationCalendar publicationCalendar,
+            final UpstreamQuotaManager quotaManager,
+            final CacheSpecs cacheSpecs,
+            final CacheInvalidationBus invalidationBus,
+            @Value("${via.datasource.replica.enabled:false}")
+            final boolean replicaEnabled,
+            @Value("${via.datasource.replica.read-your-writes-window:PT5S}")
+            final Duration replicaLag) {
+        ConcurrentMapCacheManager cacheManager =
+                new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(final String name) {
+                String spec = cacheSpecs.getSpecs().get(name);
+                if (spec != null) {
+                    return new BroadcastingCache(name,
+                            Caffeine.from(spec).recordStats().build(),
+                            invalidationBus,
+                            replicaEnabled ? replicaLag : Duration.ZERO);
+                }
+                Cache cache = super.createConcurrentMapCache(name);
+                if (CurrencyConverterFacade.CACHE_NAME.equals(name)) {
+                    return new PublicationAwareCache(cache,
+                            publicationCalendar, Clock.systemUTC(),
+                            quotaManager::isSaving,
+                            CurrencyConverterFacade::isFallback);
+                }
+                return cache;
+            }
+        };
+        // Bounded caches are listed with their statistics from the start.
+        cacheSpecs.getSpecs().keySet().forEach(cacheManager::getCache);
+        return cacheManager;
+    }
 }
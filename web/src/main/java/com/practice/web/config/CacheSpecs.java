@@ -0,0 +1,42 @@
+package com.practice.web.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bounded caches configured under {@code via.cache.specs}, a Caffeine
+ * spec per cache name, e.g.
+ * <pre>
+ * via.cache.specs[employeeByIdCache]: maximumSize=10000,expireAfterWrite=10m
+ * </pre>
+ * The brackets keep the case of the cache name.
+ */
+@Component
+@ConfigurationProperties(prefix = "via.cache")
+public class CacheSpecs {
+    /**
+     * Caffeine spec per cache name.
+     */
+    private Map<String, String> specs = new HashMap<>();
+
+    /**
+     * Getter for the specs.
+     *
+     * @return Caffeine spec per cache name
+     */
+    public Map<String, String> getSpecs() {
+        return specs;
+    }
+
+    /**
+     * Setter for the specs.
+     *
+     * @param specs Caffeine spec per cache name
+     */
+    public void setSpecs(final Map<String, String> specs) {
+        this.specs = specs;
+    }
+}
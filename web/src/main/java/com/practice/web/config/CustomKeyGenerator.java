@@ -1,9 +1,13 @@
 package com.practice.web.config;
 
+import com.practice.currencyconverter.model.CurrencySet;
 import org.springframework.cache.interceptor.KeyGenerator;
-import org.springframework.util.StringUtils;
+import org.springframework.cache.interceptor.SimpleKey;
 
 import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 public class CustomKeyGenerator implements KeyGenerator {
 
@@ -18,7 +22,32 @@ public class CustomKeyGenerator implements KeyGenerator {
     @Override
     public Object generate(final Object target, final Method method,
                            final Object... params) {
-        return target.getClass().getSimpleName() + "_" + method.getName() + "_"
-                + StringUtils.arrayToDelimitedString(params, "_");
+        Object[] elements = new Object[params.length + 2];
+        elements[0] = target.getClass().getSimpleName();
+        elements[1] = method.getName();
+        for (int i = 0; i < params.length; i++) {
+            elements[i + 2] = normalize(params[i]);
+        }
+        return new SimpleKey(elements);
+    }
+
+    /**
+     * Sets of currency codes are keyed by their canonical bitset, so the
+     * key neither depends on iteration order nor rehashes the strings.
+     *
+     * @param param method parameter
+     * @return key element
+     */
+    private Object normalize(final Object param) {
+        if (param instanceof Set) {
+            Set<?> set = (Set<?>) param;
+            if (set.stream().allMatch(String.class::isInstance)) {
+                List<String> codes = set.stream().map(String.class::cast)
+                        .collect(Collectors.toList());
+                return CurrencySet.ofKnown(codes)
+                        .map(Object.class::cast).orElse(param);
+            }
+        }
+        return param;
     }
 }
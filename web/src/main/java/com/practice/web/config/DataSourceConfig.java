@@ -0,0 +1,77 @@
+package com.practice.web.config;
+
+import com.practice.web.datasource.ReadYourWrites;
+import com.practice.web.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "via.datasource.replica", name = "enabled",
+        havingValue = "true")
+public class DataSourceConfig {
+    /**
+     * Connection details of the primary.
+     *
+     * @return spring.datasource properties
+     */
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Connection details of the replica.
+     *
+     * @return via.datasource.replica properties
+     */
+    @Bean
+    @ConfigurationProperties("via.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    /**
+     * Sessions reading from the primary after their writes, also the
+     * filter handing the window to the clients.
+     *
+     * @param window time the reads stay on the primary after a write
+     * @return ReadYourWrites object
+     */
+    @Bean
+    public ReadYourWrites readYourWrites(
+            @Value("${via.datasource.replica.read-your-writes-window:PT5S}")
+            final Duration window) {
+        return new ReadYourWrites(window, Clock.systemUTC());
+    }
+
+    /**
+     * Data source of the application, read only transactions go to the
+     * replica pool and everything else to the primary pool.
+     *
+     * @param readYourWrites sessions reading from the primary
+     * @return routing data source taking the connection on first use
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReadYourWrites readYourWrites) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(
+                        dataSourceProperties()
+                                .initializeDataSourceBuilder().build(),
+                        replicaDataSourceProperties()
+                                .initializeDataSourceBuilder().build(),
+                        readYourWrites));
+    }
+}
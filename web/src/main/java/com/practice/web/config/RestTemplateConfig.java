@@ -1,19 +1,50 @@
 package com.practice.web.config;
 
+import com.practice.currencyconverter.consensus.ConsensusRates;
+import com.practice.currencyconverter.quota.QuotaCountingInterceptor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 @Configuration
 public class RestTemplateConfig {
     /**
      * Rest Template bean configuration.
      * @param builder RestTemplateBuilder
+     * @param quotaCountingInterceptor counts every upstream call
      * @return ret template bean
      */
     @Bean
-    public RestTemplate restTemplate(final RestTemplateBuilder builder) {
-        return builder.build();
+    @Primary
+    public RestTemplate restTemplate(final RestTemplateBuilder builder,
+                                     final QuotaCountingInterceptor
+                                             quotaCountingInterceptor) {
+        return builder.additionalInterceptors(quotaCountingInterceptor)
+                .build();
+    }
+
+    /**
+     * Rest Template of the consensus providers, it gives a call up at the
+     * consensus deadline instead of holding a provider thread.
+     * @param builder RestTemplateBuilder
+     * @param quotaCountingInterceptor counts every upstream call
+     * @param deadline time given to all the providers
+     * @return rest template bean
+     */
+    @Bean(ConsensusRates.REST_TEMPLATE)
+    public RestTemplate consensusRestTemplate(
+            final RestTemplateBuilder builder,
+            final QuotaCountingInterceptor quotaCountingInterceptor,
+            @Value("${via.rates.consensus.deadline:PT0.8S}")
+            final Duration deadline) {
+        return builder.additionalInterceptors(quotaCountingInterceptor)
+                .setConnectTimeout(deadline)
+                .setReadTimeout(deadline)
+                .build();
     }
 }
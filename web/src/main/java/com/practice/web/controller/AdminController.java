@@ -0,0 +1,219 @@
+package com.practice.web.controller;
+
+import com.practice.currencyconverter.cluster.RatesCluster;
+import com.practice.currencyconverter.consensus.ConsensusRates;
+import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.model.ClusterState;
+import com.practice.currencyconverter.model.ConsensusReport;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.QuotaState;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import com.practice.currencyconverter.spread.SpreadRules;
+import com.practice.exception.ResourceNotFoundException;
+import com.practice.web.service.CacheService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@Api("Administration")
+public class AdminController {
+    /**
+     * HTTP Status OK value.
+     */
+    private static final int HTTP_STATUS_OK = 200;
+    /**
+     * HTTP Status NOT FOUND value.
+     */
+    private static final int HTTP_STATUS_NOT_FOUND = 404;
+    /**
+     * HTTP Status FORBIDDEN value.
+     */
+    private static final int HTTP_STATUS_FORBIDDEN = 403;
+    /**
+     * UpstreamQuotaManager object.
+     */
+    private final UpstreamQuotaManager quotaManager;
+    /**
+     * RatesCluster object.
+     */
+    private final RatesCluster ratesCluster;
+    /**
+     * CurrencyConverterFacade object.
+     */
+    private final CurrencyConverterFacade currencyConverterFacade;
+    /**
+     * ConsensusRates object.
+     */
+    private final ConsensusRates consensusRates;
+    /**
+     * SpreadRules object.
+     */
+    private final SpreadRules spreadRules;
+    /**
+     * CacheService object.
+     */
+    private final CacheService cacheService;
+
+    /**
+     * Parameterized constructor to bind the administered objects.
+     *
+     * @param quotaManager            UpstreamQuotaManager object
+     * @param ratesCluster            RatesCluster object
+     * @param currencyConverterFacade CurrencyConverterFacade object
+     * @param consensusRates          ConsensusRates object
+     * @param spreadRules             SpreadRules object
+     * @param cacheService            CacheService object
+     */
+    public AdminController(final UpstreamQuotaManager quotaManager,
+                           final RatesCluster ratesCluster,
+                           final CurrencyConverterFacade
+                                   currencyConverterFacade,
+                           final ConsensusRates consensusRates,
+                           final SpreadRules spreadRules,
+                           final CacheService cacheService) {
+        this.quotaManager = quotaManager;
+        this.ratesCluster = ratesCluster;
+        this.currencyConverterFacade = currencyConverterFacade;
+        this.consensusRates = consensusRates;
+        this.spreadRules = spreadRules;
+        this.cacheService = cacheService;
+    }
+
+    /**
+     * API to get the upstream quota state.
+     *
+     * @return ResponseEntity with quota state
+     */
+    @ApiOperation("Retrieve the upstream request quota state")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully")
+    })
+    @GetMapping("/quota")
+    public ResponseEntity<QuotaState> getQuotaState() {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(quotaManager.getState());
+    }
+
+    /**
+     * API to get the cluster state seen by this node.
+     *
+     * @return ResponseEntity with cluster state
+     */
+    @ApiOperation("Retrieve the rates fetcher cluster state")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully")
+    })
+    @GetMapping("/cluster")
+    public ResponseEntity<ClusterState> getClusterState() {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(ratesCluster.getState());
+    }
+
+    /**
+     * API the fetcher node pushes its published snapshots to. The body is
+     * read raw, its signature covers the exact bytes sent.
+     *
+     * @param sender    node that pushed the snapshot
+     * @param signature signature of the body with the cluster secret
+     * @param body      snapshot published by the fetcher
+     * @return ResponseEntity with the latest snapshot of the base
+     */
+    @ApiOperation("Install a rates snapshot pushed by the fetcher node")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Installed Successfully"),
+            @ApiResponse(code = HTTP_STATUS_FORBIDDEN,
+                    message = "Not signed by the current fetcher node")
+    })
+    @PutMapping("/cluster/snapshots")
+    public ResponseEntity<CurrencyConverter> putSnapshot(
+            @RequestHeader(value = RatesCluster.NODE_HEADER, required = false)
+            final String sender,
+            @RequestHeader(value = RatesCluster.SIGNATURE_HEADER,
+                    required = false) final String signature,
+            @RequestBody final byte[] body) {
+        Optional<RatesSnapshot> snapshot = ratesCluster.receive(sender,
+                signature, body);
+        if (snapshot.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(currencyConverterFacade.replicate(snapshot.get()));
+    }
+
+    /**
+     * API to get the report of the last multi-provider consensus.
+     *
+     * @param base base currency
+     * @return ResponseEntity with the consensus report
+     * @throws ResourceNotFoundException no consensus computed for the base
+     */
+    @ApiOperation("Retrieve the last rates consensus of the providers")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "No consensus computed for the base")
+    })
+    @GetMapping("/consensus")
+    public ResponseEntity<ConsensusReport> getConsensusReport(
+            @RequestParam(value = "base") final String base)
+            throws ResourceNotFoundException {
+        ConsensusReport report = consensusRates.getReport(base)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No consensus computed for " + base));
+        return ResponseEntity.status(HttpStatus.OK).body(report);
+    }
+
+    /**
+     * API to compile the spread rules again and put them in effect.
+     *
+     * @return ResponseEntity with the number of rules in effect
+     */
+    @ApiOperation("Reload the conversion spread rules")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Reloaded Successfully")
+    })
+    @PostMapping("/spreads/reload")
+    public ResponseEntity<Map<String, Integer>> reloadSpreads() {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(Map.of("rules", spreadRules.reload()));
+    }
+
+    /**
+     * API to get the statistics of the bounded caches.
+     *
+     * @return ResponseEntity with the statistics per cache name
+     */
+    @ApiOperation("Retrieve the size, hit rate and evictions of the caches")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully")
+    })
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Map<String, Number>>>
+            getCacheStatistics() {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(cacheService.getStatistics());
+    }
+}
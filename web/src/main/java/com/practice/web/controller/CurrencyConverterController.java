@@ -1,24 +1,49 @@
 package com.practice.web.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.practice.exception.ResourceNotFoundException;
+import com.practice.currencyconverter.basket.BasketEngine;
 import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.history.CandleInterval;
+import com.practice.currencyconverter.history.CandleStore;
+import com.practice.currencyconverter.model.BasketQuote;
+import com.practice.currencyconverter.model.Candle;
+import com.practice.currencyconverter.model.ConversionQuote;
+import com.practice.currencyconverter.model.CrossRateMatrix;
 import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.snapshot.RatesSnapshotStore;
+import com.practice.currencyconverter.spread.SpreadRules;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.Size;
+import java.time.Instant;
+import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.OptionalDouble;
 
 @RestController
 @Validated
@@ -33,6 +58,10 @@ public class CurrencyConverterController {
      * HTTP Status OK value.
      */
     private static final int HTTP_STATUS_OK = 200;
+    /**
+     * HTTP Status Found value.
+     */
+    private static final int HTTP_STATUS_FOUND = 302;
     /**
      * HTTP Status Bad Request value.
      */
@@ -41,19 +70,65 @@ public class CurrencyConverterController {
      * HTTP Status Not Found value.
      */
     private static final int HTTP_STATUS_NOT_FOUND = 404;
+    /**
+     * HTTP Status Service Unavailable value.
+     */
+    private static final int HTTP_STATUS_SERVICE_UNAVAILABLE = 503;
+    /**
+     * Cache-Control of content-addressed snapshots, they never change.
+     */
+    private static final String IMMUTABLE =
+            "public, max-age=31536000, immutable";
+    /**
+     * Maximum number of currencies in a cross rate matrix.
+     */
+    private static final int MAX_MATRIX_CODES = 64;
+    /**
+     * Factory of the generators streaming cross rate matrices.
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     /**
      * TodoFacade object.
      */
     private final CurrencyConverterFacade currencyConverterFacade;
+    /**
+     * CandleStore object.
+     */
+    private final CandleStore candleStore;
+    /**
+     * RatesSnapshotStore object.
+     */
+    private final RatesSnapshotStore snapshotStore;
+    /**
+     * BasketEngine object.
+     */
+    private final BasketEngine basketEngine;
+    /**
+     * SpreadRules object.
+     */
+    private final SpreadRules spreadRules;
 
     /**
      * Parameterized constructor to bind TodoFacade object.
      *
      * @param currencyConverterFacade TodoFacade object
+     * @param candleStore             CandleStore object
+     * @param snapshotStore           RatesSnapshotStore object
+     * @param basketEngine            BasketEngine object
+     * @param spreadRules             SpreadRules object
      */
     public CurrencyConverterController(
-            final CurrencyConverterFacade currencyConverterFacade) {
+            final CurrencyConverterFacade currencyConverterFacade,
+            final CandleStore candleStore,
+            final RatesSnapshotStore snapshotStore,
+            final BasketEngine basketEngine,
+            final SpreadRules spreadRules) {
         this.currencyConverterFacade = currencyConverterFacade;
+        this.candleStore = candleStore;
+        this.snapshotStore = snapshotStore;
+        this.basketEngine = basketEngine;
+        this.spreadRules = spreadRules;
     }
 
     /**
@@ -145,4 +220,342 @@ public class CurrencyConverterController {
                 .body(currencyConverterFacade
                         .getHighestAndLowestCurrencyRate(base));
     }
+
+    /**
+     * API to get open/high/low/close candles of a currency pair. Rates are
+     * placed at their publication date, and the candles cover the
+     * publications fetched since the node started.
+     *
+     * @param base     base currency
+     * @param target   target currency
+     * @param interval candle interval, DAY or WEEK
+     * @return candles, oldest first
+     * @throws ResourceNotFoundException no history for the pair
+     */
+    @ApiOperation("Get rate candles for a currency pair")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Currency code must be of 3 letters"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "No rate history for the currency pair")
+    })
+    @GetMapping("/rates/candles")
+    public ResponseEntity<List<Candle>> getCandles(
+            @ApiParam(value = "Base currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "base") final String base,
+            @ApiParam(value = "Target currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "target") final String target,
+            @ApiParam(value = "Candle interval, DAY or WEEK")
+            @RequestParam(value = "interval", defaultValue = "DAY")
+            final CandleInterval interval)
+            throws ResourceNotFoundException {
+        List<Candle> candles = candleStore
+                .getCandles(base, target, interval)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No rate history for " + base + "/" + target));
+        return ResponseEntity.status(HttpStatus.OK).body(candles);
+    }
+
+    /**
+     * API to get the currency rates in effect at an instant, the latest
+     * table published on or before its date. The history covers the
+     * publications fetched since the node started.
+     *
+     * @param base base currency
+     * @param at   ISO-8601 instant, e.g. 2020-01-06T12:00:00Z
+     * @return currency rates
+     * @throws ResourceNotFoundException no rates fetched before the instant
+     */
+    @ApiOperation("Get currency rates in effect at an instant")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Currency code must be of 3 letters"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "No rates published before the instant"
+                            + " fetched since the node started")
+    })
+    @GetMapping("/rates/asOf")
+    public ResponseEntity<CurrencyConverter> getCurrencyRateAsOf(
+            @ApiParam(value = "Currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "base") final String base,
+            @ApiParam(value = "ISO-8601 instant", required = true)
+            @RequestParam(value = "at") final Instant at)
+            throws ResourceNotFoundException {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(currencyConverterFacade.getCurrencyRateAsOf(base, at));
+    }
+
+    /**
+     * API to get the currency rates in effect at each of the instants. The
+     * history covers the publications fetched since the node started.
+     *
+     * @param base base currency
+     * @param at   ISO-8601 instants
+     * @return currency rates in the order of the instants, null where no
+     * rates were fetched before the instant
+     */
+    @ApiOperation("Get currency rates in effect at each of the instants")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Currency code must be of 3 letters")
+    })
+    @PostMapping("/rates/asOf")
+    public ResponseEntity<List<CurrencyConverter>> getCurrencyRatesAsOf(
+            @ApiParam(value = "Currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "base") final String base,
+            @RequestBody final List<Instant> at) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(currencyConverterFacade.getCurrencyRatesAsOf(base, at));
+    }
+
+    /**
+     * API to name the current snapshot of the base and redirect to it.
+     *
+     * @param base base currency
+     * @return redirect to the snapshot, with its id and version
+     */
+    @ApiOperation("Redirect to the current rates snapshot")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_FOUND,
+                    message = "Redirect to the current snapshot"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Currency code must be of 3 letters")
+    })
+    @GetMapping("/rates/latest")
+    public ResponseEntity<Map<String, Object>> getLatestSnapshot(
+            @ApiParam(value = "Currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "base") final String base) {
+        CurrencyConverter rates = currencyConverterFacade
+                .getCurrencyRate(base);
+        if (!isQuoteOf(rates, base)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        RatesSnapshot snapshot = snapshotStore.retain(rates);
+        Map<String, Object> current = new LinkedHashMap<>();
+        current.put("id", snapshot.getId());
+        current.put("version", snapshot.getVersion());
+        return ResponseEntity.status(HttpStatus.FOUND)
+                .location(UriComponentsBuilder
+                        .fromPath("/api/v1/rates/snapshots/{id}")
+                        .queryParam("base", base)
+                        .buildAndExpand(snapshot.getId()).toUri())
+                .cacheControl(CacheControl.noCache())
+                .body(current);
+    }
+
+    /**
+     * API to get a rates snapshot by its content-addressed id. The content
+     * behind an id never changes, so it may be cached forever.
+     *
+     * @param id   snapshot id
+     * @param base base currency
+     * @return snapshot
+     * @throws ResourceNotFoundException unknown snapshot
+     */
+    @ApiOperation("Get a rates snapshot by id")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "Unknown snapshot")
+    })
+    @GetMapping("/rates/snapshots/{id}")
+    public ResponseEntity<CurrencyConverter> getSnapshot(
+            @ApiParam(value = "Snapshot id", required = true)
+            @PathVariable(value = "id") final String id,
+            @ApiParam(value = "Currency code", required = true)
+            @RequestParam(value = "base") final String base)
+            throws ResourceNotFoundException {
+        RatesSnapshot snapshot = snapshotStore.byId(id)
+                .filter(found -> found.getBase().equals(base))
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Unknown snapshot " + id + " for " + base));
+        return ResponseEntity.status(HttpStatus.OK)
+                .header(HttpHeaders.CACHE_CONTROL, IMMUTABLE)
+                .eTag('"' + snapshot.getId() + '"')
+                .body(snapshot);
+    }
+
+    /**
+     * API to get the value of a currency basket in the base currency.
+     *
+     * @param name basket name
+     * @param base base currency
+     * @return basket quote
+     * @throws ResourceNotFoundException unknown basket or no rates yet
+     */
+    @ApiOperation("Get the value of a currency basket")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Currency code must be of 3 letters"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "Unknown basket or no rates for the base")
+    })
+    @GetMapping("/baskets/{name}")
+    public ResponseEntity<BasketQuote> getBasket(
+            @ApiParam(value = "Basket name", required = true)
+            @PathVariable(value = "name") final String name,
+            @ApiParam(value = "Currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "base") final String base)
+            throws ResourceNotFoundException {
+        BasketQuote quote = basketEngine.quote(name, base)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "No " + name + " basket value in " + base));
+        return ResponseEntity.status(HttpStatus.OK).body(quote);
+    }
+
+    /**
+     * API to convert an amount, applying the spread and fee of the
+     * customer class. A process reading the snapshots shared on its host
+     * takes the mid rate straight from the shared file. While the provider
+     * is unavailable no quote is made from the fallback rates.
+     *
+     * @param from          source currency
+     * @param to            target currency
+     * @param amount        amount in the source currency
+     * @param customerClass customer class
+     * @return conversion quote
+     * @throws ResourceNotFoundException the target currency is not quoted
+     */
+    @ApiOperation("Convert an amount with the spread of the customer class")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Converted Successfully"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Invalid currency code or amount"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "Target currency not quoted"),
+            @ApiResponse(code = HTTP_STATUS_SERVICE_UNAVAILABLE,
+                    message = "Rates of the source currency unavailable")
+    })
+    @GetMapping("/convert")
+    public ResponseEntity<ConversionQuote> convert(
+            @ApiParam(value = "Source currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "from") final String from,
+            @ApiParam(value = "Target currency code", required = true)
+            @Size(min = CURRENCY_CODE_LENGTH, max = CURRENCY_CODE_LENGTH,
+                    message = "Currency code must be of 3 letters")
+            @RequestParam(value = "to") final String to,
+            @ApiParam(value = "Amount in the source currency",
+                    required = true)
+            @Positive(message = "Amount must be positive")
+            @RequestParam(value = "amount") final double amount,
+            @ApiParam(value = "Customer class, unknown ones are charged"
+                    + " like " + SpreadRules.DEFAULT_CUSTOMER_CLASS)
+            @RequestParam(value = "customerClass",
+                    defaultValue = SpreadRules.DEFAULT_CUSTOMER_CLASS)
+            final String customerClass)
+            throws ResourceNotFoundException {
+        OptionalDouble shared = currencyConverterFacade
+                .getSharedRate(from, to);
+        if (shared.isPresent()) {
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(spreadRules.convert(from, to, shared.getAsDouble(),
+                            amount, customerClass));
+        }
+        CurrencyConverter rates = currencyConverterFacade
+                .getCurrencyRate(from);
+        if (!isQuoteOf(rates, from)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        ConversionQuote quote = spreadRules.convert(rates, to, amount,
+                customerClass)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        to + " is not quoted in " + from));
+        return ResponseEntity.status(HttpStatus.OK).body(quote);
+    }
+
+    /**
+     * API to get the cross rates between every pair of the currencies, as
+     * an array of rows where row i, column j is the rate from the i-th to
+     * the j-th currency. The whole grid comes from one cached rate table,
+     * never from the fallback rates.
+     *
+     * @param codes currency codes of the rows and columns
+     * @return streamed cross rate matrix
+     * @throws ResourceNotFoundException a currency is not quoted
+     */
+    @ApiOperation("Get the cross rate matrix of the currencies")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Retrieved Successfully"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "No currency, too many or invalid currencies"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "A currency is not quoted"),
+            @ApiResponse(code = HTTP_STATUS_SERVICE_UNAVAILABLE,
+                    message = "Rates of the first currency unavailable")
+    })
+    @GetMapping(value = "/rates/matrix",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getCrossRateMatrix(
+            @ApiParam(value = "Comma separated currency codes",
+                    required = true)
+            @Size(min = 1, max = MAX_MATRIX_CODES,
+                    message = "1 to 64 currency codes are allowed")
+            @RequestParam(value = "codes") final List<
+                    @Pattern(regexp = "[A-Z]{3}", message = "Currency code"
+                            + " must be of 3 upper case letters")
+                    String> codes)
+            throws ResourceNotFoundException {
+        CurrencyConverter table = currencyConverterFacade
+                .getCurrencyRate(codes.get(0));
+        if (!isQuoteOf(table, codes.get(0))) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        CrossRateMatrix matrix = CrossRateMatrix.of(table, codes)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Not every currency of " + codes + " is quoted"));
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = JSON_FACTORY.createGenerator(out);
+            generator.writeStartArray();
+            for (int row = 0; row < matrix.size(); row++) {
+                generator.writeStartArray();
+                for (int column = 0; column < matrix.size(); column++) {
+                    generator.writeNumber(matrix.get(row, column));
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+            generator.close();
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Rates of the base fetched from the provider, not the fallback table.
+    private boolean isQuoteOf(final CurrencyConverter rates,
+                              final String base) {
+        return rates != null && rates.getRates() != null
+                && !currencyConverterFacade.isDefaultCurrencyRate(rates)
+                && base.equalsIgnoreCase(rates.getBase());
+    }
 }
@@ -2,19 +2,30 @@ package com.practice.web.controller;
 
 import com.practice.employee.facade.EmployeeFacade;
 import com.practice.employee.model.Employee;
+import com.practice.employee.model.EmployeePage;
+import com.practice.employee.model.ExportFormat;
+import com.practice.employee.model.ImportReport;
 import com.practice.employee.model.dto.EmployeeDto;
+import com.practice.employee.model.dto.EmployeePatch;
 import com.practice.employee.model.dto.RatesRegisterDto;
+import com.practice.employee.service.EmployeeBulkService;
+import com.practice.employee.service.EmployeeExportService;
+import com.practice.employee.service.EmployeeImportService;
 import com.practice.exception.ResourceNotFoundException;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -22,11 +33,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.mail.MessagingException;
 import javax.validation.Valid;
 import javax.validation.constraints.Email;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @RestController
 @Validated
@@ -46,6 +65,14 @@ public class EmployeeController {
      * HTTP Status Not Found value.
      */
     private static final int HTTP_STATUS_NOT_FOUND = 404;
+    /**
+     * Default number of employees in a page.
+     */
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    /**
+     * Maximum number of employees in a page.
+     */
+    private static final int MAX_PAGE_SIZE = 1000;
     /**
      * Message for Employee email update success.
      */
@@ -94,30 +121,104 @@ public class EmployeeController {
      * EmployeeFacade object.
      */
     private final EmployeeFacade employeeFacade;
+    /**
+     * EmployeeExportService object.
+     */
+    private final EmployeeExportService employeeExportService;
+    /**
+     * EmployeeImportService object.
+     */
+    private final EmployeeImportService employeeImportService;
+    /**
+     * EmployeeBulkService object.
+     */
+    private final EmployeeBulkService employeeBulkService;
 
     /**
      * Constructor to bind EmployeeFacade object.
      *
-     * @param employeeFacade EmployeeFacade object
+     * @param employeeFacade        EmployeeFacade object
+     * @param employeeExportService EmployeeExportService object
+     * @param employeeImportService EmployeeImportService object
+     * @param employeeBulkService   EmployeeBulkService object
      */
-    public EmployeeController(final EmployeeFacade employeeFacade) {
+    public EmployeeController(final EmployeeFacade employeeFacade,
+                              final EmployeeExportService
+                                      employeeExportService,
+                              final EmployeeImportService
+                                      employeeImportService,
+                              final EmployeeBulkService employeeBulkService) {
         this.employeeFacade = employeeFacade;
+        this.employeeExportService = employeeExportService;
+        this.employeeImportService = employeeImportService;
+        this.employeeBulkService = employeeBulkService;
     }
 
     /**
-     * API to retrieve all the employees.
+     * API to retrieve the employees a page at a time, in id order.
      *
-     * @return Response Entity with List of Employees in body
+     * @param limit maximum number of employees in the page
+     * @param after cursor returned with the previous page
+     * @return Response Entity with a page of Employees in body
+     * @throws ResourceNotFoundException invalid cursor
      */
-    @ApiOperation("Retrieve all the employees")
+    @ApiOperation("Retrieve the employees a page at a time")
     @ApiResponses({
             @ApiResponse(code = HTTP_STATUS_OK,
-                    message = EMPLOYEE_RETRIEVE_SUCCESS)
+                    message = EMPLOYEE_RETRIEVE_SUCCESS),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Page size out of range"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "Not a valid page cursor")
     })
     @GetMapping("/employees")
-    public ResponseEntity<List> getEmployees() {
+    public ResponseEntity<EmployeePage> getEmployees(
+            @ApiParam(value = "Maximum number of employees in the page")
+            @Min(value = 1, message = "Page size must be at least 1")
+            @Max(value = MAX_PAGE_SIZE,
+                    message = "Page size must be at most 1000")
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE)
+            final int limit,
+            @ApiParam(value = "Cursor returned with the previous page")
+            @RequestParam(value = "after", required = false)
+            final String after)
+            throws ResourceNotFoundException {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(employeeFacade.getEmployees(limit, after));
+    }
+
+    /**
+     * API to export all the employees, streamed as they are read.
+     *
+     * @param format ndjson or csv
+     * @return Response Entity with the streamed export in body
+     */
+    @ApiOperation("Export all the employees")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = EMPLOYEE_RETRIEVE_SUCCESS),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Format must be ndjson or csv")
+    })
+    @GetMapping("/employees/export")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @ApiParam(value = "Export format, ndjson or csv")
+            @Pattern(regexp = "(?i)ndjson|csv",
+                    message = "Format must be ndjson or csv")
+            @RequestParam(value = "format", defaultValue = "ndjson")
+            final String format) {
+        ExportFormat exportFormat = ExportFormat.valueOf(
+                format.toUpperCase(Locale.ROOT));
+        StreamingResponseBody body = out ->
+                employeeExportService.export(exportFormat, out);
         return ResponseEntity.status(HttpStatus.OK)
-                .body(employeeFacade.getEmployees());
+                .contentType(MediaType.parseMediaType(
+                        exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition
+                        .builder("attachment")
+                        .filename("employees." + exportFormat.getExtension())
+                        .build().toString())
+                .body(body);
     }
 
     /**
@@ -143,6 +244,31 @@ public class EmployeeController {
                 .body(employeeFacade.createEmployee(employeeDto));
     }
 
+    /**
+     * API to create employees in bulk from a JSON array, read as it is
+     * received. Welcome emails are sent in the background.
+     *
+     * @param body JSON array of Employee details
+     * @return ResponseEntity with the import report in body
+     * @throws IOException body can not be read or is not an array
+     */
+    @ApiOperation("Create Employees in bulk")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Employees imported, failed rows reported"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Expected a JSON array of employees")
+    })
+    @PostMapping(value = "/employees/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportReport> importEmployees(
+            @ApiParam(value = "JSON array of Employee details",
+                    required = true)
+            final InputStream body) throws IOException {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(employeeImportService.importEmployees(body));
+    }
+
     /**
      * API to get employee details by id.
      *
@@ -190,6 +316,75 @@ public class EmployeeController {
                 .body(employeeFacade.deleteEmployeeById(id));
     }
 
+    /**
+     * API to update the employees with the ids and/or the email domain.
+     *
+     * @param ids    Employee ids
+     * @param domain email domain of the employees
+     * @param patch  new email domain and/or phone number
+     * @return ResponseEntity with the number of employees updated in body
+     * @throws ResourceNotFoundException no selection or nothing to update
+     */
+    @ApiOperation("Update Employees in bulk")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = "Successfully updated employees"),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Not a well-formed email domain"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "Employee ids or email domain required")
+    })
+    @PatchMapping("/employees")
+    public ResponseEntity<Map<String, Integer>> updateEmployees(
+            @ApiParam(value = "Ids of the employees to update")
+            @RequestParam(value = "ids", required = false)
+            final List<Long> ids,
+            @ApiParam(value = "Email domain of the employees to update")
+            @Pattern(regexp = EmployeePatch.EMAIL_DOMAIN_REGEXP,
+                    message = EmployeePatch.EMAIL_DOMAIN_VALIDATION_MSG)
+            @RequestParam(value = "domain", required = false)
+            final String domain,
+            @ApiParam(value = "New email domain and/or phone number",
+                    required = true)
+            @Valid @RequestBody final EmployeePatch patch)
+            throws ResourceNotFoundException {
+        return ResponseEntity.status(HttpStatus.OK).body(Map.of("updated",
+                employeeBulkService.updateEmployees(ids, domain, patch)));
+    }
+
+    /**
+     * API to delete the employees with the ids and/or the email domain,
+     * with their rates registrations.
+     *
+     * @param ids    Employee ids
+     * @param domain email domain of the employees
+     * @return ResponseEntity with the number of employees deleted in body
+     * @throws ResourceNotFoundException no selection
+     */
+    @ApiOperation("Delete Employees in bulk")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = EMPLOYEE_DELETE_SUCCESS),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Not a well-formed email domain"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = "Employee ids or email domain required")
+    })
+    @DeleteMapping("/employees")
+    public ResponseEntity<Map<String, Integer>> deleteEmployees(
+            @ApiParam(value = "Ids of the employees to delete")
+            @RequestParam(value = "ids", required = false)
+            final List<Long> ids,
+            @ApiParam(value = "Email domain of the employees to delete")
+            @Pattern(regexp = EmployeePatch.EMAIL_DOMAIN_REGEXP,
+                    message = EmployeePatch.EMAIL_DOMAIN_VALIDATION_MSG)
+            @RequestParam(value = "domain", required = false)
+            final String domain)
+            throws ResourceNotFoundException {
+        return ResponseEntity.status(HttpStatus.OK).body(Map.of("deleted",
+                employeeBulkService.deleteEmployees(ids, domain)));
+    }
+
     /**
      * API to get employee details by Email.
      *
@@ -246,6 +441,47 @@ public class EmployeeController {
                 .getEmployeeByUsernameOrEmail(username, email));
     }
 
+    /**
+     * API to search the employees by part of the username or email, a page
+     * at a time, in id order.
+     *
+     * @param username part of the username
+     * @param email    part of the email
+     * @param limit    maximum number of employees in the page
+     * @param after    cursor returned with the previous page
+     * @return Response Entity with a page of Employees in body
+     * @throws ResourceNotFoundException neither username nor email given,
+     *                                   or invalid cursor
+     */
+    @ApiOperation("Search employees by part of the username or email")
+    @ApiResponses({
+            @ApiResponse(code = HTTP_STATUS_OK,
+                    message = EMPLOYEE_RETRIEVE_SUCCESS),
+            @ApiResponse(code = HTTP_STATUS_BAD_REQUEST,
+                    message = "Page size out of range"),
+            @ApiResponse(code = HTTP_STATUS_NOT_FOUND,
+                    message = EMPLOYEE_USERNAME_OR_EMAIL_NOT_FOUND)
+    })
+    @GetMapping("/employees/search")
+    public ResponseEntity<EmployeePage> searchEmployees(
+            @ApiParam(value = "Part of the username")
+            @RequestParam(required = false) final String username,
+            @ApiParam(value = "Part of the email")
+            @RequestParam(required = false) final String email,
+            @ApiParam(value = "Maximum number of employees in the page")
+            @Min(value = 1, message = "Page size must be at least 1")
+            @Max(value = MAX_PAGE_SIZE,
+                    message = "Page size must be at most 1000")
+            @RequestParam(value = "limit", defaultValue = DEFAULT_PAGE_SIZE)
+            final int limit,
+            @ApiParam(value = "Cursor returned with the previous page")
+            @RequestParam(value = "after", required = false)
+            final String after)
+            throws ResourceNotFoundException {
+        return ResponseEntity.status(HttpStatus.OK).body(employeeFacade
+                .searchEmployees(username, email, limit, after));
+    }
+
     /**
      * API to update Employee email.
      *
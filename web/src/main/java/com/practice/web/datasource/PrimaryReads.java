@@ -0,0 +1,48 @@
+package com.practice.web.datasource;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Read only work that must see the primary although its session has not
+ * written, like reloading a cache entry just evicted for a write the
+ * replica may not have yet. Unlike a write, it does not keep the later
+ * reads of the session on the primary.
+ */
+public final class PrimaryReads {
+    /**
+     * Whether the work on the current thread reads from the primary.
+     */
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Run the work with its reads on the primary.
+     *
+     * @param work work
+     * @param <T>  result type
+     * @return result of the work
+     * @throws Exception exception of the work
+     */
+    public static <T> T call(final Callable<T> work) throws Exception {
+        if (isActive()) {
+            return work.call();
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return work.call();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    /**
+     * Whether the work on the current thread reads from the primary.
+     *
+     * @return true within {@link #call(Callable)}
+     */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.practice.web.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Sessions whose reads go to the primary, as they have written within the
+ * window, the replication lag the replica is allowed. The API keeps no
+ * server side session, so the end of the window is handed to the client
+ * in a cookie on the response of the write and read back from the
+ * requests that follow, on whichever node they land.
+ *
+ * <p>Clients not sending the cookie back, and work outside of a request
+ * like the schedulers, read from the replica whenever their transaction
+ * is read only.
+ */
+public class ReadYourWrites extends OncePerRequestFilter {
+    /**
+     * Cookie holding the end of the window, in epoch milliseconds.
+     */
+    static final String COOKIE_NAME = "VIA_PRIMARY_UNTIL";
+    /**
+     * Window of the request on the current thread.
+     */
+    private final ThreadLocal<Window> current = new ThreadLocal<>();
+    /**
+     * Time the reads stay on the primary after a write.
+     */
+    private final Duration window;
+    /**
+     * Clock object.
+     */
+    private final Clock clock;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param window time the reads stay on the primary after a write
+     * @param clock  Clock object
+     */
+    public ReadYourWrites(final Duration window, final Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    /**
+     * Keep the window of the session for the request.
+     *
+     * @param request     http request
+     * @param response    http response
+     * @param filterChain filter chain
+     * @throws ServletException servlet exception
+     * @throws IOException      io exception
+     */
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request,
+                                    final HttpServletResponse response,
+                                    final FilterChain filterChain)
+            throws ServletException, IOException {
+        current.set(new Window(response, primaryUntil(request)));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            current.remove();
+        }
+    }
+
+    /**
+     * Whether the reads of the current session go to the primary.
+     *
+     * @return true within the window of a write
+     */
+    public boolean readsFromPrimary() {
+        Window session = current.get();
+        return session != null && session.until > clock.millis();
+    }
+
+    /**
+     * Start the window of the current session, the first write of a
+     * request hands it to the client.
+     */
+    public void written() {
+        Window session = current.get();
+        if (session == null) {
+            return;
+        }
+        boolean handedOut = session.handedOut;
+        session.until = clock.millis() + window.toMillis();
+        session.handedOut = true;
+        if (!handedOut && !session.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE_NAME,
+                    String.valueOf(session.until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            session.response.addCookie(cookie);
+        }
+    }
+
+    // A cookie that is not a number does not keep the reads on the primary.
+    private static long primaryUntil(final HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        return Arrays.stream(cookies)
+                .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+                .mapToLong(cookie -> {
+                    try {
+                        return Long.parseLong(cookie.getValue());
+                    } catch (NumberFormatException e) {
+                        return 0;
+                    }
+                })
+                .max().orElse(0);
+    }
+
+    private static final class Window {
+        /**
+         * Response of the request.
+         */
+        private final HttpServletResponse response;
+        /**
+         * End of the window, in epoch milliseconds.
+         */
+        private long until;
+        /**
+         * Whether the window was handed to the client.
+         */
+        private boolean handedOut;
+
+        private Window(final HttpServletResponse response, final long until) {
+            this.response = response;
+            this.until = until;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.practice.web.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Data source sending the read only transactions to the replica and
+ * everything else to the primary. The transaction is only known once it
+ * has begun, so the routing data source sits behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that takes the connection on the first statement.
+ *
+ * <p>A read write transaction counts as a write of the session, and the
+ * reads of the session stay on the primary for the window of the
+ * {@link ReadYourWrites}, so a client reads what it has just written
+ * however far behind the replica is. Read only work run through
+ * {@link PrimaryReads} goes to the primary as well, without starting a
+ * window.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    /**
+     * Lookup key of the primary.
+     */
+    static final String PRIMARY = "primary";
+    /**
+     * Lookup key of the replica.
+     */
+    static final String REPLICA = "replica";
+    /**
+     * ReadYourWrites object.
+     */
+    private final ReadYourWrites readYourWrites;
+
+    /**
+     * Parameterized constructor.
+     *
+     * @param primary        data source of the primary
+     * @param replica        data source of the replica
+     * @param readYourWrites sessions reading from the primary
+     */
+    public ReplicaRoutingDataSource(final DataSource primary,
+                                    final DataSource replica,
+                                    final ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Replica for the read only transactions of the sessions that have
+     * not written lately, outside of the primary reads, primary otherwise.
+     *
+     * @return lookup key of the data source
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager
+                .isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager
+                    .isActualTransactionActive()) {
+                readYourWrites.written();
+            }
+            return PRIMARY;
+        }
+        return readYourWrites.readsFromPrimary() || PrimaryReads.isActive()
+                ? PRIMARY : REPLICA;
+    }
+}
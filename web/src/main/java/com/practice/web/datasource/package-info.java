@@ -0,0 +1,7 @@
+/*
+ * Copyright (c) 2020.
+ */
+/**
+ * Contains the classes routing the reads to a replica of the database.
+ */
+package com.practice.web.datasource;
@@ -1,12 +1,19 @@
 package com.practice.web.service;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.practice.currencyconverter.cache.PublicationAwareCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 @Service
 public class CacheService {
@@ -31,14 +38,46 @@ public class CacheService {
     }
 
     /**
-     * To clear all the caches at regular intervals.
+     * To clear the caches at regular intervals. Caches that expire their
+     * entries on the rates publication schedule, and bounded caches that
+     * expire their own entries, are left alone.
      */
     @Scheduled(fixedRateString = "${via.scheduler.cache.evict.value}")
     public void evictAllCachesAtIntervals() {
         LOGGER.debug("Caches are: {}", cacheManager.getCacheNames());
-        cacheManager.getCacheNames()
-                .forEach(cacheName -> Objects.requireNonNull(
-                        cacheManager.getCache(cacheName)).clear());
+        cacheManager.getCacheNames().forEach(cacheName -> {
+            Cache cache = Objects.requireNonNull(
+                    cacheManager.getCache(cacheName));
+            if (!(cache instanceof PublicationAwareCache)
+                    && !(cache instanceof CaffeineCache)) {
+                cache.clear();
+            }
+        });
         LOGGER.debug("Caches cleared!");
     }
+
+    /**
+     * To get the statistics of the bounded caches.
+     *
+     * @return size, hits, misses, hit rate and evictions per cache name
+     */
+    public Map<String, Map<String, Number>> getStatistics() {
+        Map<String, Map<String, Number>> statistics = new TreeMap<>();
+        cacheManager.getCacheNames().forEach(cacheName -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache instanceof CaffeineCache) {
+                com.github.benmanes.caffeine.cache.Cache<Object, Object>
+                        nativeCache = ((CaffeineCache) cache).getNativeCache();
+                CacheStats stats = nativeCache.stats();
+                Map<String, Number> values = new LinkedHashMap<>();
+                values.put("size", nativeCache.estimatedSize());
+                values.put("hits", stats.hitCount());
+                values.put("misses", stats.missCount());
+                values.put("hitRate", stats.hitRate());
+                values.put("evictions", stats.evictionCount());
+                statistics.put(cacheName, values);
+            }
+        });
+        return statistics;
+    }
 }
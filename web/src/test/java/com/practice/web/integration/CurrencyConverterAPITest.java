@@ -126,6 +126,17 @@ class CurrencyConverterAPITest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testGetCrossRateMatrixWithInvalidCode() throws Exception {
+        //GIVEN
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/v1/rates/matrix?codes=HUF,../x"));
+
+        //THEN
+        resultActions
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getHighestAndLowestCurrencyRates() throws Exception {
         //GIVEN
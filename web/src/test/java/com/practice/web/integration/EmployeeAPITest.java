@@ -6,7 +6,9 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.icegreen.greenmail.util.GreenMail;
 import com.icegreen.greenmail.util.ServerSetup;
+import com.jayway.jsonpath.JsonPath;
 import com.practice.VIAApplication;
+import com.practice.employee.model.Employee;
 import com.practice.employee.model.dto.EmployeeDto;
 import com.practice.employee.model.dto.RatesRegisterDto;
 import com.practice.employee.repository.EmployeeRepository;
@@ -22,6 +24,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -34,7 +37,9 @@ import java.util.Set;
 import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
@@ -75,7 +80,65 @@ class EmployeeAPITest {
         ResultActions resultActions = mockMvc.perform(get("/api/v1/employees"));
         //THEN
         validateOkResponse(resultActions)
-                .andExpect(jsonPath("$", hasSize(3)));
+                .andExpect(jsonPath("$.employees", hasSize(3)))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void testGetEmployeesPageByPage() throws Exception {
+        //GIVEN
+        String next = JsonPath.read(mockMvc.perform(get("/api/v1/employees").param("limit", "1"))
+                .andReturn().getResponse().getContentAsString(), "$.next");
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/v1/employees")
+                .param("limit", "1").param("after", next));
+        //THEN
+        validateOkResponse(resultActions)
+                .andExpect(jsonPath("$.employees", hasSize(1)))
+                .andExpect(jsonPath("$.employees[0].username", Matchers.is("employee1")));
+    }
+
+    @Test
+    void testSearchEmployees() throws Exception {
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/v1/employees/search")
+                .param("email", "EMPLOYEE@gmail"));
+        //THEN
+        validateOkResponse(resultActions)
+                .andExpect(jsonPath("$.employees", hasSize(1)))
+                .andExpect(jsonPath("$.employees[0].username", Matchers.is("employee")))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void testSearchEmployeesWithoutUsernameOrEmail() throws Exception {
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/v1/employees/search"));
+        //THEN
+        validateNotFoundResponse(resultActions);
+    }
+
+    @Test
+    void testExportEmployeesAsCsv() throws Exception {
+        //GIVEN
+        MvcResult mvcResult = mockMvc.perform(get("/api/v1/employees/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(asyncDispatch(mvcResult));
+        //THEN
+        resultActions.andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(Matchers.startsWith("id,name,username,email,phoneNumber,age\n"
+                        + "1,Employee,employee,employee@gmail.com,+111111111,25\n")));
+    }
+
+    @Test
+    void testExportEmployeesWithUnknownFormat() throws Exception {
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(get("/api/v1/employees/export").param("format", "xml"));
+        //THEN
+        validateBadRequestResponse(resultActions);
     }
 
     @Test
@@ -99,6 +162,67 @@ class EmployeeAPITest {
         tearDownSMTP();
     }
 
+    @Test
+    void testImportEmployees() throws Exception {
+        //GIVEN
+        String requestJson = "[" + convertDtoToJson(new EmployeeDto("Bulk 1", "bulk1", "bulk1@gmail.com", "+111111111", 30))
+                + "," + convertDtoToJson(new EmployeeDto("Bulk 2", "employee", "bulk2@gmail.com", "+111111111", 30))
+                + "]";
+
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(post("/api/v1/employees/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(requestJson));
+
+        //THEN
+        validateOkResponse(resultActions)
+                .andExpect(jsonPath("$.received", Matchers.is(2)))
+                .andExpect(jsonPath("$.imported", Matchers.is(1)))
+                .andExpect(jsonPath("$.failures[0].row", Matchers.is(2)))
+                .andExpect(jsonPath("$.failures[0].errors[0]", Matchers.is("Username already exists")));
+        assertNotNull(employeeRepository.findByUsername("bulk1"));
+        employeeRepository.delete(employeeRepository.findByUsername("bulk1"));
+    }
+
+    @Test
+    void testImportEmployeesWithoutArray() throws Exception {
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(post("/api/v1/employees/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"));
+        //THEN
+        validateBadRequestResponse(resultActions);
+    }
+
+    @Test
+    void testUpdateAndDeleteEmployeesByDomain() throws Exception {
+        //GIVEN
+        employeeRepository.save(new Employee(null, "Bulk 3", "bulk3", "bulk3@bulk.test", "+111111111", 30));
+        employeeRepository.save(new Employee(null, "Bulk 4", "bulk4", "bulk4@BULK.test", "+111111111", 30));
+
+        //WHEN
+        ResultActions updateActions = mockMvc.perform(patch("/api/v1/employees")
+                .param("domain", "bulk.test")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"emailDomain\":\"moved.test\",\"phoneNumber\":\"+222222222\"}"));
+        ResultActions deleteActions = mockMvc.perform(delete("/api/v1/employees")
+                .param("domain", "moved.test"));
+
+        //THEN
+        validateOkResponse(updateActions).andExpect(jsonPath("$.updated", Matchers.is(2)));
+        validateOkResponse(deleteActions).andExpect(jsonPath("$.deleted", Matchers.is(2)));
+        assertNull(employeeRepository.findByUsername("bulk3"));
+        assertNull(employeeRepository.findByUsername("bulk4"));
+    }
+
+    @Test
+    void testDeleteEmployeesWithoutIdsOrDomain() throws Exception {
+        //WHEN
+        ResultActions resultActions = mockMvc.perform(delete("/api/v1/employees"));
+        //THEN
+        validateNotFoundResponse(resultActions);
+    }
+
     @Test
     void testCreateWithExistingUserName() throws Exception {
         //GIVEN
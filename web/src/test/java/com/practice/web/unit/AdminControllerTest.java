@@ -0,0 +1,160 @@
+package com.practice.web.unit;
+
+import com.practice.currencyconverter.cluster.RatesCluster;
+import com.practice.currencyconverter.consensus.ConsensusRates;
+import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.model.ClusterState;
+import com.practice.currencyconverter.model.ConsensusReport;
+import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.QuotaState;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.quota.UpstreamQuotaManager;
+import com.practice.currencyconverter.spread.SpreadRules;
+import com.practice.exception.ResourceNotFoundException;
+import com.practice.web.controller.AdminController;
+import com.practice.web.service.CacheService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+
+    @Mock
+    UpstreamQuotaManager quotaManager;
+
+    @Mock
+    RatesCluster ratesCluster;
+
+    @Mock
+    CurrencyConverterFacade currencyConverterFacade;
+
+    @Mock
+    ConsensusRates consensusRates;
+
+    @Mock
+    SpreadRules spreadRules;
+
+    @Mock
+    CacheService cacheService;
+
+    @InjectMocks
+    AdminController adminController;
+
+    @Test
+    void getQuotaState() {
+        //GIVEN
+        QuotaState state = new QuotaState("2020-01", 1000, 250, 500, false,
+                Map.of("https://api.exchangeratesapi.io/latest", 250L));
+        when(quotaManager.getState()).thenReturn(state);
+
+        //WHEN
+        ResponseEntity<QuotaState> responseEntity = adminController.getQuotaState();
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(750, Objects.requireNonNull(responseEntity.getBody()).getRemaining());
+    }
+
+    @Test
+    void getClusterState() {
+        //GIVEN
+        ClusterState state = new ClusterState("http://localhost:8081", "http://localhost:8080", false,
+                List.of("http://localhost:8080"));
+        when(ratesCluster.getState()).thenReturn(state);
+
+        //WHEN
+        ResponseEntity<ClusterState> responseEntity = adminController.getClusterState();
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals("http://localhost:8080", Objects.requireNonNull(responseEntity.getBody()).getLeader());
+    }
+
+    @Test
+    void putSnapshot() {
+        //GIVEN
+        RatesSnapshot snapshot = new RatesSnapshot("HUF", LocalDate.parse("2020-01-06"),
+                Map.of("INR", 0.23), 4, Instant.parse("2020-01-06T16:00:00Z"));
+        byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+        when(ratesCluster.receive("http://localhost:8080", "signed", body)).thenReturn(Optional.of(snapshot));
+        when(ratesCluster.receive("http://localhost:8081", "forged", body)).thenReturn(Optional.empty());
+        when(currencyConverterFacade.replicate(snapshot)).thenReturn(snapshot);
+
+        //WHEN
+        ResponseEntity<CurrencyConverter> responseEntity = adminController
+                .putSnapshot("http://localhost:8080", "signed", body);
+        ResponseEntity<CurrencyConverter> rejected = adminController
+                .putSnapshot("http://localhost:8081", "forged", body);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertSame(snapshot, responseEntity.getBody());
+        assertEquals(403, rejected.getStatusCodeValue());
+        assertNull(rejected.getBody());
+        verify(currencyConverterFacade, times(1)).replicate(any());
+    }
+
+    @Test
+    void getConsensusReport() throws ResourceNotFoundException {
+        //GIVEN
+        ConsensusReport report = new ConsensusReport("HUF", Instant.parse("2020-01-06T16:00:00Z"),
+                List.of("a.test/latest", "b.test/latest"), List.of("c.test/latest"),
+                Map.of("INR", List.of("b.test/latest")));
+        when(consensusRates.getReport("HUF")).thenReturn(Optional.of(report));
+        when(consensusRates.getReport("INR")).thenReturn(Optional.empty());
+
+        //WHEN
+        ResponseEntity<ConsensusReport> responseEntity = adminController.getConsensusReport("HUF");
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertSame(report, responseEntity.getBody());
+        assertThrows(ResourceNotFoundException.class, () -> adminController.getConsensusReport("INR"));
+    }
+
+    @Test
+    void reloadSpreads() {
+        //GIVEN
+        when(spreadRules.reload()).thenReturn(8);
+
+        //WHEN
+        ResponseEntity<Map<String, Integer>> responseEntity = adminController.reloadSpreads();
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(Map.of("rules", 8), responseEntity.getBody());
+    }
+
+    @Test
+    void getCacheStatistics() {
+        //GIVEN
+        Map<String, Map<String, Number>> statistics = Map.of("employeeByIdCache",
+                Map.of("size", 1L, "hits", 3L, "misses", 1L, "hitRate", 0.75, "evictions", 0L));
+        when(cacheService.getStatistics()).thenReturn(statistics);
+
+        //WHEN
+        ResponseEntity<Map<String, Map<String, Number>>> responseEntity = adminController.getCacheStatistics();
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(0.75, Objects.requireNonNull(responseEntity.getBody()).get("employeeByIdCache").get("hitRate"));
+    }
+}
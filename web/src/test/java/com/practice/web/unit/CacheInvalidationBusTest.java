@@ -0,0 +1,239 @@
+package com.practice.web.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.practice.web.cache.BroadcastingCache;
+import com.practice.web.cache.CacheInvalidationBus;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheInvalidationBusTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<CacheInvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (CacheInvalidationBus bus : buses) {
+            bus.close();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (DatagramSocket socket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private CacheInvalidationBus bus(final boolean enabled, final int port, final String peers) throws IOException {
+        CacheInvalidationBus bus = new CacheInvalidationBus(enabled, "127.0.0.1", port, peers, objectMapper);
+        bus.start();
+        buses.add(bus);
+        return bus;
+    }
+
+    private static BroadcastingCache cache(final String name, final CacheInvalidationBus bus) {
+        return new BroadcastingCache(name, Caffeine.newBuilder().build(), bus);
+    }
+
+    @Test
+    void evictionsReachTheSameCacheOfThePeers() throws IOException {
+        //GIVEN
+        int firstPort = freePort();
+        int secondPort = freePort();
+        CacheInvalidationBus first = bus(true, firstPort, "127.0.0.1:" + secondPort);
+        CacheInvalidationBus second = bus(true, secondPort, "127.0.0.1:" + firstPort);
+        BroadcastingCache firstById = cache("byId", first);
+        BroadcastingCache firstByEmail = cache("byEmail", first);
+        BroadcastingCache secondById = cache("byId", second);
+        BroadcastingCache secondByEmail = cache("byEmail", second);
+        LongStream.rangeClosed(1, 500).forEach(id -> firstById.put(id, "employee" + id));
+        firstById.put(501L, "employee501");
+        firstByEmail.put("one@gmail.com", List.of("one"));
+        firstByEmail.put("two@gmail.com", List.of("two"));
+
+        //WHEN
+        LongStream.rangeClosed(1, 500).forEach(secondById::evict);
+        secondByEmail.evictIfPresent("one@gmail.com");
+
+        //THEN
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() ->
+                firstByEmail.get("one@gmail.com") == null
+                        && LongStream.rangeClosed(1, 500).allMatch(id -> firstById.get(id) == null));
+        assertNotNull(firstById.get(501L));
+        assertNotNull(firstByEmail.get("two@gmail.com"));
+    }
+
+    @Test
+    void clearReachesThePeers() throws IOException {
+        //GIVEN
+        int firstPort = freePort();
+        int secondPort = freePort();
+        CacheInvalidationBus first = bus(true, firstPort, "127.0.0.1:" + secondPort);
+        CacheInvalidationBus second = bus(true, secondPort, "127.0.0.1:" + firstPort);
+        BroadcastingCache firstCache = cache("byId", first);
+        BroadcastingCache secondCache = cache("byId", second);
+        firstCache.put(1L, "employee1");
+
+        //WHEN
+        secondCache.clear();
+
+        //THEN
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> firstCache.get(1L) == null);
+    }
+
+    @Test
+    void datagramsOfOtherSourcesThanThePeersAreDropped() throws IOException {
+        //GIVEN
+        int firstPort = freePort();
+        int peerPort = freePort();
+        CacheInvalidationBus first = bus(true, firstPort, "127.0.0.1:" + peerPort);
+        CacheInvalidationBus peer = bus(true, peerPort, "127.0.0.1:" + firstPort);
+        CacheInvalidationBus stranger = bus(true, freePort(), "127.0.0.1:" + firstPort);
+        BroadcastingCache firstCache = cache("byId", first);
+        BroadcastingCache peerCache = cache("byId", peer);
+        BroadcastingCache strangerCache = cache("byId", stranger);
+        firstCache.put(1L, "employee1");
+        firstCache.put(2L, "employee2");
+
+        //WHEN
+        strangerCache.evict(1L);
+        strangerCache.clear();
+        peerCache.evict(2L);
+
+        //THEN
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> firstCache.get(2L) == null);
+        assertNotNull(firstCache.get(1L));
+    }
+
+    @Test
+    void evictionsWithinATransactionAreSentOnCommit() throws IOException {
+        //GIVEN
+        int firstPort = freePort();
+        int secondPort = freePort();
+        CacheInvalidationBus first = bus(true, firstPort, "127.0.0.1:" + secondPort);
+        CacheInvalidationBus second = bus(true, secondPort, "127.0.0.1:" + firstPort);
+        BroadcastingCache firstCache = cache("byId", first);
+        BroadcastingCache secondCache = cache("byId", second);
+        firstCache.put(1L, "employee1");
+        secondCache.put(1L, "employee1");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            //WHEN
+            secondCache.evict(1L);
+
+            //THEN
+            assertNull(secondCache.get(1L));
+            Awaitility.await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(1))
+                    .until(() -> firstCache.get(1L) != null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> firstCache.get(1L) == null);
+    }
+
+    private static void send(final DatagramSocket socket, final int port, final String message) throws IOException {
+        byte[] datagram = message.getBytes(StandardCharsets.UTF_8);
+        socket.send(new DatagramPacket(datagram, datagram.length, InetAddress.getLoopbackAddress(), port));
+    }
+
+    @Test
+    void missingDatagramClearsTheCaches() throws IOException {
+        //GIVEN
+        int firstPort = freePort();
+        int peerPort = freePort();
+        CacheInvalidationBus first = bus(true, firstPort, "127.0.0.1:" + peerPort);
+        BroadcastingCache firstById = cache("byId", first);
+        BroadcastingCache firstByEmail = cache("byEmail", first);
+        firstById.put(1L, "employee1");
+        firstById.put(2L, "employee2");
+        firstByEmail.put("one@gmail.com", List.of("one"));
+        try (DatagramSocket peer = new DatagramSocket(peerPort, InetAddress.getLoopbackAddress())) {
+            send(peer, firstPort, "{\"origin\":\"peer\",\"seq\":1,\"cache\":\"byId\",\"clear\":false,\"keys\":[1]}");
+            Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> firstById.get(1L) == null);
+            assertNotNull(firstById.get(2L));
+
+            //WHEN
+            send(peer, firstPort, "{\"origin\":\"peer\",\"seq\":3,\"cache\":\"byId\",\"clear\":false,\"keys\":[1]}");
+        }
+
+        //THEN
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() ->
+                firstById.get(2L) == null && firstByEmail.get("one@gmail.com") == null);
+    }
+
+    @Test
+    void heartbeatFindsTheLastDatagramLost() throws IOException {
+        //GIVEN
+        int firstPort = freePort();
+        int peerPort = freePort();
+        CacheInvalidationBus first = bus(true, firstPort, "127.0.0.1:" + peerPort);
+        BroadcastingCache firstCache = cache("byId", first);
+        firstCache.put(1L, "employee1");
+        try (DatagramSocket peer = new DatagramSocket(peerPort, InetAddress.getLoopbackAddress())) {
+            send(peer, firstPort, "{\"origin\":\"peer\",\"seq\":0,\"heartbeat\":true}");
+            Awaitility.await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(1))
+                    .until(() -> firstCache.get(1L) != null);
+
+            //WHEN
+            send(peer, firstPort, "{\"origin\":\"peer\",\"seq\":1,\"heartbeat\":true}");
+        }
+
+        //THEN
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> firstCache.get(1L) == null);
+    }
+
+    @Test
+    void heartbeatAfterTheDatagramsKeepsTheCaches() throws IOException {
+        //GIVEN
+        int firstPort = freePort();
+        int secondPort = freePort();
+        CacheInvalidationBus first = bus(true, firstPort, "127.0.0.1:" + secondPort);
+        CacheInvalidationBus second = bus(true, secondPort, "127.0.0.1:" + firstPort);
+        BroadcastingCache firstCache = cache("byId", first);
+        BroadcastingCache secondCache = cache("byId", second);
+        firstCache.put(1L, "employee1");
+        firstCache.put(2L, "employee2");
+        secondCache.evict(1L);
+        Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> firstCache.get(1L) == null);
+
+        //WHEN
+        second.heartbeat();
+
+        //THEN
+        Awaitility.await().during(Duration.ofMillis(300)).atMost(Duration.ofSeconds(1))
+                .until(() -> firstCache.get(2L) != null);
+    }
+
+    @Test
+    void disabledBusOnlyEvictsLocally() throws IOException {
+        //GIVEN
+        CacheInvalidationBus bus = bus(false, 0, "127.0.0.1:9");
+        BroadcastingCache cache = cache("byId", bus);
+        cache.put(1L, "employee1");
+
+        //WHEN
+        cache.evict(1L);
+
+        //THEN
+        assertNull(cache.get(1L));
+        assertEquals(-1, bus.getPort());
+    }
+}
@@ -1,15 +1,23 @@
 package com.practice.web.unit;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.practice.web.service.CacheService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,4 +38,31 @@ class CacheServiceTest {
         //THEN
         verify(cacheManager, times(2)).getCacheNames();
     }
-}
\ No newline at end of file
+
+    @Test
+    void boundedCachesAreLeftAloneAndReportStatistics() {
+        //GIVEN
+        CaffeineCache bounded = new CaffeineCache("bounded",
+                Caffeine.newBuilder().maximumSize(10).recordStats().build());
+        Cache plain = new ConcurrentMapCache("plain");
+        bounded.put(1L, "one");
+        plain.put(1L, "one");
+        bounded.get(1L);
+        bounded.get(2L);
+        when(cacheManager.getCacheNames()).thenReturn(List.of("bounded", "plain"));
+        when(cacheManager.getCache("bounded")).thenReturn(bounded);
+        when(cacheManager.getCache("plain")).thenReturn(plain);
+
+        //WHEN
+        cacheService.evictAllCachesAtIntervals();
+        Map<String, Map<String, Number>> statistics = cacheService.getStatistics();
+
+        //THEN
+        assertEquals(Set.of("bounded"), statistics.keySet());
+        assertEquals(1L, statistics.get("bounded").get("size"));
+        assertEquals(1L, statistics.get("bounded").get("hits"));
+        assertEquals(1L, statistics.get("bounded").get("misses"));
+        assertEquals(0.5, statistics.get("bounded").get("hitRate"));
+        assertNull(plain.get(1L));
+    }
+}
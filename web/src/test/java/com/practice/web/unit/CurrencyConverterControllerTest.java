@@ -1,22 +1,43 @@
 package com.practice.web.unit;
 
+import com.practice.currencyconverter.basket.BasketEngine;
 import com.practice.currencyconverter.facade.CurrencyConverterFacade;
+import com.practice.currencyconverter.history.CandleInterval;
+import com.practice.currencyconverter.history.CandleStore;
+import com.practice.currencyconverter.model.BasketQuote;
+import com.practice.currencyconverter.model.Candle;
+import com.practice.currencyconverter.model.ConversionQuote;
 import com.practice.currencyconverter.model.CurrencyConverter;
+import com.practice.currencyconverter.model.RatesSnapshot;
+import com.practice.currencyconverter.snapshot.RatesSnapshotStore;
+import com.practice.currencyconverter.spread.SpreadRules;
 import com.practice.exception.ResourceNotFoundException;
 import com.practice.web.controller.CurrencyConverterController;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +46,18 @@ class CurrencyConverterControllerTest {
     @Mock
     CurrencyConverterFacade currencyConverterFacade;
 
+    @Mock
+    CandleStore candleStore;
+
+    @Spy
+    RatesSnapshotStore snapshotStore = new RatesSnapshotStore();
+
+    @Mock
+    BasketEngine basketEngine;
+
+    @Mock
+    SpreadRules spreadRules;
+
     @InjectMocks
     CurrencyConverterController currencyConverterController;
     private String base = "HUF";
@@ -43,10 +76,7 @@ class CurrencyConverterControllerTest {
         rates.put("INR", 0.2357907805);
         rates.put("HUF", 1.0);
 
-        converter = new CurrencyConverter();
-        converter.setBase(base);
-        converter.setDate(LocalDate.now());
-        converter.setRates(rates);
+        converter = new CurrencyConverter(rates, base, LocalDate.now());
     }
 
     @Test
@@ -123,4 +153,226 @@ class CurrencyConverterControllerTest {
         assertTrue(responseEntity.hasBody());
         assertNotNull(Objects.requireNonNull(responseEntity.getBody()).get("IDR"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCandles() throws ResourceNotFoundException {
+        //GIVEN
+        List<Candle> candles = List.of(Candle.of(Instant.parse("2020-01-06T00:00:00Z"), 0.23));
+        when(candleStore.getCandles(base, "INR", CandleInterval.DAY)).thenReturn(Optional.of(candles));
+
+        //WHEN
+        ResponseEntity<List<Candle>> responseEntity = currencyConverterController
+                .getCandles(base, "INR", CandleInterval.DAY);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(candles, responseEntity.getBody());
+    }
+
+    @Test
+    void getCandlesWithoutHistory() {
+        //GIVEN
+        when(candleStore.getCandles(base, "INR", CandleInterval.WEEK)).thenReturn(Optional.empty());
+
+        //WHEN
+        //THEN
+        assertThrows(ResourceNotFoundException.class,
+                () -> currencyConverterController.getCandles(base, "INR", CandleInterval.WEEK));
+    }
+
+    @Test
+    void getCurrencyRateAsOf() throws ResourceNotFoundException {
+        //GIVEN
+        Instant at = Instant.parse("2020-01-06T12:00:00Z");
+        when(currencyConverterFacade.getCurrencyRateAsOf(base, at)).thenReturn(converter);
+        when(currencyConverterFacade.getCurrencyRatesAsOf(base, List.of(at))).thenReturn(List.of(converter));
+
+        //WHEN
+        ResponseEntity<CurrencyConverter> responseEntity = currencyConverterController
+                .getCurrencyRateAsOf(base, at);
+        ResponseEntity<List<CurrencyConverter>> batchResponseEntity = currencyConverterController
+                .getCurrencyRatesAsOf(base, List.of(at));
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertSame(converter, responseEntity.getBody());
+        assertEquals(200, batchResponseEntity.getStatusCodeValue());
+        assertEquals(List.of(converter), batchResponseEntity.getBody());
+    }
+
+    @Test
+    void getLatestSnapshotRedirectsToTheImmutableSnapshot() throws ResourceNotFoundException {
+        //GIVEN
+        RatesSnapshot snapshot = snapshotStore.publish(converter, Instant.parse("2020-01-06T16:00:00Z"));
+        when(currencyConverterFacade.getCurrencyRate(base)).thenReturn(snapshot);
+
+        //WHEN
+        ResponseEntity<Map<String, Object>> latest = currencyConverterController.getLatestSnapshot(base);
+        ResponseEntity<CurrencyConverter> pinned = currencyConverterController
+                .getSnapshot(snapshot.getId(), base);
+
+        //THEN
+        assertEquals(302, latest.getStatusCodeValue());
+        assertEquals("/api/v1/rates/snapshots/" + snapshot.getId() + "?base=HUF",
+                Objects.requireNonNull(latest.getHeaders().getLocation()).toString());
+        assertEquals(snapshot.getId(), Objects.requireNonNull(latest.getBody()).get("id"));
+        assertEquals(200, pinned.getStatusCodeValue());
+        assertSame(snapshot, pinned.getBody());
+        assertEquals("public, max-age=31536000, immutable", pinned.getHeaders().getCacheControl());
+        assertEquals('"' + snapshot.getId() + '"', pinned.getHeaders().getETag());
+    }
+
+    @Test
+    void getLatestSnapshotWithoutRatesOfTheBase() {
+        //GIVEN
+        RatesSnapshot fallback = new RatesSnapshot("HUF", LocalDate.now(), Map.of("INR", 0.23), 0, Instant.EPOCH);
+        when(currencyConverterFacade.getCurrencyRate(base)).thenReturn(null);
+        when(currencyConverterFacade.getCurrencyRate("INR")).thenReturn(fallback);
+        when(currencyConverterFacade.isDefaultCurrencyRate(fallback)).thenReturn(true);
+
+        //WHEN
+        ResponseEntity<Map<String, Object>> missing = currencyConverterController.getLatestSnapshot(base);
+        ResponseEntity<Map<String, Object>> defaulted = currencyConverterController.getLatestSnapshot("INR");
+
+        //THEN
+        assertEquals(503, missing.getStatusCodeValue());
+        assertEquals(503, defaulted.getStatusCodeValue());
+        assertEquals("no-store", defaulted.getHeaders().getCacheControl());
+        assertFalse(snapshotStore.byId(fallback.getId()).isPresent());
+    }
+
+    @Test
+    void getSnapshotWithUnknownIdOrOtherBase() {
+        //GIVEN
+        RatesSnapshot snapshot = snapshotStore.publish(converter, Instant.parse("2020-01-06T16:00:00Z"));
+
+        //WHEN
+        //THEN
+        assertThrows(ResourceNotFoundException.class,
+                () -> currencyConverterController.getSnapshot("unknown", base));
+        assertThrows(ResourceNotFoundException.class,
+                () -> currencyConverterController.getSnapshot(snapshot.getId(), "INR"));
+    }
+
+    @Test
+    void getBasket() throws ResourceNotFoundException {
+        //GIVEN
+        BasketQuote quote = new BasketQuote("SDR", base, 401.2, LocalDate.parse("2020-01-06"));
+        when(basketEngine.quote("SDR", base)).thenReturn(Optional.of(quote));
+        when(basketEngine.quote("SDR", "XXX")).thenReturn(Optional.empty());
+
+        //WHEN
+        ResponseEntity<BasketQuote> responseEntity = currencyConverterController.getBasket("SDR", base);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertSame(quote, responseEntity.getBody());
+        assertThrows(ResourceNotFoundException.class, () -> currencyConverterController.getBasket("SDR", "XXX"));
+    }
+
+    @Test
+    void getCrossRateMatrix() throws ResourceNotFoundException, IOException {
+        //GIVEN
+        Map<String, Double> rates = new HashMap<>();
+        rates.put("INR", 0.25);
+        rates.put("GBP", 0.0025);
+        RatesSnapshot snapshot = new RatesSnapshot(base, LocalDate.parse("2020-01-06"), rates, 1,
+                Instant.parse("2020-01-06T16:00:00Z"));
+        when(currencyConverterFacade.getCurrencyRate(base)).thenReturn(snapshot);
+
+        //WHEN
+        ResponseEntity<StreamingResponseBody> responseEntity = currencyConverterController
+                .getCrossRateMatrix(List.of(base, "INR", "GBP"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Objects.requireNonNull(responseEntity.getBody()).writeTo(out);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals("[[1.0,0.25,0.0025],[4.0,1.0,0.01],[400.0,100.0,1.0]]",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void getCrossRateMatrixWithoutRatesOfTheFirstCurrency() throws ResourceNotFoundException {
+        //GIVEN
+        RatesSnapshot fallback = new RatesSnapshot("HUF", LocalDate.now(), Map.of("INR", 0.23), 0, Instant.EPOCH);
+        when(currencyConverterFacade.getCurrencyRate("USD")).thenReturn(fallback);
+        when(currencyConverterFacade.isDefaultCurrencyRate(fallback)).thenReturn(true);
+
+        //WHEN
+        ResponseEntity<StreamingResponseBody> responseEntity = currencyConverterController
+                .getCrossRateMatrix(List.of("USD", "INR"));
+
+        //THEN
+        assertEquals(503, responseEntity.getStatusCodeValue());
+        assertEquals("no-store", responseEntity.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void getCrossRateMatrixWithUnquotedCurrency() {
+        //GIVEN
+        when(currencyConverterFacade.getCurrencyRate(base)).thenReturn(converter);
+
+        //WHEN
+        //THEN
+        assertThrows(ResourceNotFoundException.class,
+                () -> currencyConverterController.getCrossRateMatrix(List.of(base, "XXX")));
+    }
+
+    @Test
+    void convert() throws ResourceNotFoundException {
+        //GIVEN
+        ConversionQuote quote = new ConversionQuote(base, "INR", 1000, 0.25, 0.24625, 0, 246.25);
+        when(currencyConverterFacade.getCurrencyRate(base)).thenReturn(converter);
+        when(spreadRules.convert(converter, "INR", 1000, "RETAIL")).thenReturn(Optional.of(quote));
+        when(spreadRules.convert(converter, "XXX", 1000, "RETAIL")).thenReturn(Optional.empty());
+
+        //WHEN
+        ResponseEntity<ConversionQuote> responseEntity = currencyConverterController
+                .convert(base, "INR", 1000, "RETAIL");
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertSame(quote, responseEntity.getBody());
+        assertThrows(ResourceNotFoundException.class,
+                () -> currencyConverterController.convert(base, "XXX", 1000, "RETAIL"));
+    }
+
+    @Test
+    void convertWithoutRatesOfTheSource() throws ResourceNotFoundException {
+        //GIVEN
+        RatesSnapshot fallback = new RatesSnapshot("HUF", LocalDate.now(), Map.of("USD", 0.0033), 0, Instant.EPOCH);
+        when(currencyConverterFacade.getCurrencyRate("USD")).thenReturn(fallback);
+        when(currencyConverterFacade.isDefaultCurrencyRate(fallback)).thenReturn(true);
+        when(currencyConverterFacade.getCurrencyRate("EUR")).thenReturn(converter);
+
+        //WHEN
+        ResponseEntity<ConversionQuote> defaulted = currencyConverterController
+                .convert("USD", "INR", 1000, "RETAIL");
+        ResponseEntity<ConversionQuote> otherBase = currencyConverterController
+                .convert("EUR", "INR", 1000, "RETAIL");
+
+        //THEN
+        assertEquals(503, defaulted.getStatusCodeValue());
+        assertEquals("no-store", defaulted.getHeaders().getCacheControl());
+        assertEquals(503, otherBase.getStatusCodeValue());
+        verifyNoInteractions(spreadRules);
+    }
+
+    @Test
+    void convertWithTheSharedRate() throws ResourceNotFoundException {
+        //GIVEN
+        ConversionQuote quote = new ConversionQuote(base, "INR", 1000, 0.25, 0.24625, 0, 246.25);
+        when(currencyConverterFacade.getSharedRate(base, "INR")).thenReturn(OptionalDouble.of(0.25));
+        when(spreadRules.convert(base, "INR", 0.25, 1000, "RETAIL")).thenReturn(quote);
+
+        //WHEN
+        ResponseEntity<ConversionQuote> responseEntity = currencyConverterController
+                .convert(base, "INR", 1000, "RETAIL");
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertSame(quote, responseEntity.getBody());
+        verify(currencyConverterFacade, never()).getCurrencyRate(base);
+    }
+}
@@ -2,8 +2,15 @@ package com.practice.web.unit;
 
 import com.practice.employee.facade.EmployeeFacade;
 import com.practice.employee.model.Employee;
+import com.practice.employee.model.EmployeePage;
+import com.practice.employee.model.ExportFormat;
+import com.practice.employee.model.ImportReport;
 import com.practice.employee.model.dto.EmployeeDto;
+import com.practice.employee.model.dto.EmployeePatch;
 import com.practice.employee.model.dto.RatesRegisterDto;
+import com.practice.employee.service.EmployeeBulkService;
+import com.practice.employee.service.EmployeeExportService;
+import com.practice.employee.service.EmployeeImportService;
 import com.practice.exception.ResourceNotFoundException;
 import com.practice.web.controller.EmployeeController;
 import org.junit.jupiter.api.DisplayName;
@@ -13,15 +20,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +52,15 @@ class EmployeeControllerTest {
     @Mock
     EmployeeFacade employeeFacade;
 
+    @Mock
+    EmployeeExportService employeeExportService;
+
+    @Mock
+    EmployeeImportService employeeImportService;
+
+    @Mock
+    EmployeeBulkService employeeBulkService;
+
     private Employee employee;
 
     EmployeeControllerTest() {
@@ -50,17 +74,51 @@ class EmployeeControllerTest {
 
     @Test
     @DisplayName("Fetch Employee")
-    void testGetEmployee() {
+    void testGetEmployee() throws ResourceNotFoundException {
         //GIVEN
-        when(employeeFacade.getEmployees()).thenReturn(
-                Stream.of(employee).collect(Collectors.toList()));
+        when(employeeFacade.getEmployees(100, null)).thenReturn(new EmployeePage(
+                Stream.of(employee).collect(Collectors.toList()), "NDAwMDA"));
 
         //WHEN
-        ResponseEntity<List> responseEntity = employeeController.getEmployees();
+        ResponseEntity<EmployeePage> responseEntity = employeeController.getEmployees(100, null);
         //THEN
         assertEquals(200, responseEntity.getStatusCodeValue());
         assertTrue(responseEntity.hasBody());
-        assertEquals(employee.toString(), Objects.requireNonNull(responseEntity.getBody()).get(0).toString());
+        assertEquals(employee.toString(),
+                Objects.requireNonNull(responseEntity.getBody()).getEmployees().get(0).toString());
+        assertEquals("NDAwMDA", responseEntity.getBody().getNext());
+    }
+
+    @Test
+    @DisplayName("Export Employees")
+    void testExportEmployees() throws IOException {
+        //GIVEN
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //WHEN
+        ResponseEntity<StreamingResponseBody> responseEntity = employeeController.exportEmployees("CSV");
+        Objects.requireNonNull(responseEntity.getBody()).writeTo(out);
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(MediaType.parseMediaType("text/csv"), responseEntity.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"employees.csv\"",
+                responseEntity.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        verify(employeeExportService).export(ExportFormat.CSV, out);
+    }
+
+    @Test
+    @DisplayName("Import Employees in bulk")
+    void testImportEmployees() throws IOException {
+        //GIVEN
+        ByteArrayInputStream body = new ByteArrayInputStream("[]".getBytes());
+        when(employeeImportService.importEmployees(body)).thenReturn(new ImportReport(0, 0, 0, List.of()));
+
+        //WHEN
+        ResponseEntity<ImportReport> responseEntity = employeeController.importEmployees(body);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(0, Objects.requireNonNull(responseEntity.getBody()).getReceived());
     }
 
     @Test
@@ -236,6 +294,53 @@ class EmployeeControllerTest {
         assertTrue(exception.getMessage().contains(EMPLOYEE_USERNAME_OR_EMAIL_NOT_FOUND));
     }
 
+    @Test
+    @DisplayName("Search Employees by part of the Username or Email")
+    void testSearchEmployees() throws ResourceNotFoundException {
+        //GIVEN
+        when(employeeFacade.searchEmployees("sakthi", null, 100, null)).thenReturn(new EmployeePage(
+                Stream.of(employee).collect(Collectors.toList()), null));
+
+        //WHEN
+        ResponseEntity<EmployeePage> responseEntity = employeeController.searchEmployees("sakthi", null, 100, null);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(employee.toString(),
+                Objects.requireNonNull(responseEntity.getBody()).getEmployees().get(0).toString());
+        assertNull(responseEntity.getBody().getNext());
+    }
+
+    @Test
+    @DisplayName("Update Employees in bulk")
+    void testUpdateEmployees() throws ResourceNotFoundException {
+        //GIVEN
+        EmployeePatch patch = new EmployeePatch("yahoo.com", null);
+        when(employeeBulkService.updateEmployees(null, "gmail.com", patch)).thenReturn(2);
+
+        //WHEN
+        ResponseEntity<Map<String, Integer>> responseEntity =
+                employeeController.updateEmployees(null, "gmail.com", patch);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(Map.of("updated", 2), responseEntity.getBody());
+    }
+
+    @Test
+    @DisplayName("Delete Employees in bulk")
+    void testDeleteEmployees() throws ResourceNotFoundException {
+        //GIVEN
+        when(employeeBulkService.deleteEmployees(List.of(1L, 2L), null)).thenReturn(1);
+
+        //WHEN
+        ResponseEntity<Map<String, Integer>> responseEntity = employeeController.deleteEmployees(List.of(1L, 2L), null);
+
+        //THEN
+        assertEquals(200, responseEntity.getStatusCodeValue());
+        assertEquals(Map.of("deleted", 1), responseEntity.getBody());
+    }
+
     @Test
     void registerForRates() throws ResourceNotFoundException {
         //GIVEN
@@ -0,0 +1,201 @@
+package com.practice.web.unit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.practice.employee.facade.EmployeeFacade;
+import com.practice.employee.model.Employee;
+import com.practice.employee.repository.EmployeeRepository;
+import com.practice.exception.ResourceNotFoundException;
+import com.practice.web.cache.BroadcastingCache;
+import com.practice.web.cache.CacheInvalidationBus;
+import com.practice.web.datasource.ReadYourWrites;
+import com.practice.web.datasource.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final Instant NOW = Instant.parse("2020-06-01T10:00:00Z");
+
+    private ReadYourWrites readYourWrites;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private DataSourceTransactionManager transactionManager;
+
+    private TransactionTemplate readWrite;
+
+    private TransactionTemplate readOnly;
+
+    private static JdbcDataSource database(final String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(10))");
+        template.execute("DELETE FROM node");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWrites(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(database("primary"), database("replica"), readYourWrites));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        //WHEN
+        String readOnlyNode = readOnly.execute(status -> node());
+        String readWriteNode = readWrite.execute(status -> node());
+        String withoutTransactionNode = node();
+
+        //THEN
+        assertEquals("replica", readOnlyNode);
+        assertEquals("primary", readWriteNode);
+        assertEquals("primary", withoutTransactionNode);
+    }
+
+    @Test
+    void readsOfTheSessionStayOnThePrimaryAfterItsWrites() throws Exception {
+        //GIVEN
+        List<String> nodes = new ArrayList<>();
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        FilterChain write = new MockFilterChain() {
+            @Override
+            public void doFilter(final ServletRequest request,
+                                 final ServletResponse response) {
+                nodes.add(readOnly.execute(status -> node()));
+                readWrite.executeWithoutResult(status ->
+                        jdbcTemplate.update("UPDATE node SET name = name"));
+                nodes.add(readOnly.execute(status -> node()));
+            }
+        };
+
+        //WHEN
+        readYourWrites.doFilter(new MockHttpServletRequest(), writeResponse, write);
+        Cookie window = writeResponse.getCookie("VIA_PRIMARY_UNTIL");
+        MockHttpServletRequest withinWindow = new MockHttpServletRequest();
+        withinWindow.setCookies(window);
+        MockHttpServletRequest afterWindow = new MockHttpServletRequest();
+        afterWindow.setCookies(new Cookie("VIA_PRIMARY_UNTIL", String.valueOf(NOW.toEpochMilli())));
+        MockHttpServletRequest invalidWindow = new MockHttpServletRequest();
+        invalidWindow.setCookies(new Cookie("VIA_PRIMARY_UNTIL", "later"));
+        for (MockHttpServletRequest next : List.of(withinWindow, afterWindow, invalidWindow)) {
+            readYourWrites.doFilter(next, new MockHttpServletResponse(), new MockFilterChain() {
+                @Override
+                public void doFilter(final ServletRequest request,
+                                     final ServletResponse response) {
+                    nodes.add(readOnly.execute(status -> node()));
+                }
+            });
+        }
+
+        //THEN
+        assertEquals(List.of("replica", "primary", "primary", "replica", "replica"), nodes);
+        assertNotNull(window);
+        assertEquals(String.valueOf(NOW.plusSeconds(5).toEpochMilli()), window.getValue());
+        assertEquals(5, window.getMaxAge());
+        assertFalse(readYourWrites.readsFromPrimary());
+    }
+
+    @Test
+    void lookupsEvictedWithinTheReplicaLagReloadFromThePrimary() throws Exception {
+        //GIVEN
+        EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+        when(employeeRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(
+                new Employee(invocation.getArgument(0), node(), "employee", "employee@gmail.com", "+111111111", 25)));
+        when(employeeRepository.findByEmail("employee@gmail.com")).thenAnswer(invocation -> Optional.of(List.of(
+                new Employee(1L, node(), "employee", "employee@gmail.com", "+111111111", 25))));
+        CacheInvalidationBus bus = new CacheInvalidationBus(false, "127.0.0.1", 0, "", new ObjectMapper());
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                new BroadcastingCache(EmployeeFacade.ID_CACHE_NAME, Caffeine.newBuilder().build(), bus,
+                        Duration.ofSeconds(5)),
+                new BroadcastingCache(EmployeeFacade.EMAIL_CACHE_NAME, Caffeine.newBuilder().build(), bus,
+                        Duration.ofSeconds(5))));
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.register(CachedLookups.class);
+        context.registerBean(PlatformTransactionManager.class, () -> transactionManager);
+        context.registerBean(CacheManager.class, () -> cacheManager);
+        context.registerBean(EmployeeFacade.class,
+                () -> new EmployeeFacade(employeeRepository, null, null, null, null, null, null));
+        context.refresh();
+        EmployeeFacade employeeFacade = context.getBean(EmployeeFacade.class);
+        List<String> nodes = new ArrayList<>();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        readYourWrites.doFilter(new MockHttpServletRequest(), response, new MockFilterChain() {
+            @Override
+            public void doFilter(final ServletRequest request,
+                                 final ServletResponse response) {
+                try {
+                    nodes.add(employeeFacade.getEmployeeById(1L).getName());
+                    nodes.add(employeeFacade.getEmployeeByEmail("employee@gmail.com").get(0).getName());
+                    // Evictions of a write, received while the replica lags behind it.
+                    cacheManager.getCache(EmployeeFacade.ID_CACHE_NAME).evict(1L);
+                    cacheManager.getCache(EmployeeFacade.EMAIL_CACHE_NAME).evict("employee@gmail.com");
+                    nodes.add(employeeFacade.getEmployeeById(1L).getName());
+                    nodes.add(employeeFacade.getEmployeeByEmail("employee@gmail.com").get(0).getName());
+                    nodes.add(employeeFacade.getEmployeeById(2L).getName());
+                    nodes.add(employeeFacade.getEmployeeById(1L).getName());
+                } catch (ResourceNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        context.close();
+
+        //THEN
+        assertEquals(List.of("replica", "replica", "primary", "primary", "replica", "primary"), nodes);
+        assertNull(response.getCookie("VIA_PRIMARY_UNTIL"));
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    @Configuration
+    @EnableCaching
+    @EnableTransactionManagement
+    static class CachedLookups {
+    }
+}